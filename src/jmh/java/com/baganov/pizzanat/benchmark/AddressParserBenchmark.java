@@ -0,0 +1,96 @@
+/**
+ * @file: AddressParserBenchmark.java
+ * @description: Сравнение разбора адреса RussianAddressParser с прежней нормализацией на регулярных выражениях
+ * @dependencies: JMH, RussianAddressParser
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.benchmark;
+
+import com.baganov.pizzanat.util.ParsedAddress;
+import com.baganov.pizzanat.util.RussianAddressParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Обработка одного адреса из набора типичных записей:
+ * <ul>
+ * <li>legacyNormalize - прежние ключ кэша тарифов (trim + replaceAll + toLowerCase), удаление префиксов
+ * улиц из DeliveryZoneStreet.matchesAddress и номер дома из DeliveryZoneStreet.extractHouseNumber,
+ * который компилировал пять регулярных выражений на вызов;</li>
+ * <li>parse - RussianAddressParser.parse: улица, дом, корпус и литера за один проход;</li>
+ * <li>parseAndKey - разбор и ключ ParsedAddress.key(), как при поиске тарифа в кэше.</li>
+ * </ul>
+ * Выделение памяти на вызов: {@code -prof gc}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AddressParserBenchmark {
+
+    private static final String[] ADDRESSES = { "Республика Марий Эл, Волжск, улица Ленина, 5",
+            "г. Волжск, ул. Шестакова, д. 15, кв. 40", "Ленина 5А", "пр-т Мира, дом 101 корп. 2",
+            "улица 107-й Бригады, 3", "Волжск, Садовая 7/2, подъезд 1", "СНДТ Строитель, участок 12",
+            "пер. Чехова 4" };
+    private static final String[] LEGACY_PREFIXES = { "улица ", "ул. ", "ул ", "проспект ", "пр-т ", "пр ",
+            "переулок ", "пер. ", "пер " };
+
+    private int next;
+
+    @Benchmark
+    public Object legacyNormalize() {
+        String address = nextAddress();
+        String cacheKey = address.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        String withoutPrefixes = cacheKey;
+        for (String prefix : LEGACY_PREFIXES) {
+            withoutPrefixes = withoutPrefixes.replace(prefix, " ");
+        }
+        withoutPrefixes = withoutPrefixes.trim().replaceAll("\\s+", " ");
+        Integer house = legacyHouseNumber(cacheKey);
+        return house != null ? withoutPrefixes + house : withoutPrefixes;
+    }
+
+    @Benchmark
+    public ParsedAddress parse() {
+        return RussianAddressParser.parse(nextAddress());
+    }
+
+    @Benchmark
+    public String parseAndKey() {
+        return RussianAddressParser.parse(nextAddress()).key();
+    }
+
+    private String nextAddress() {
+        next = (next + 1) % ADDRESSES.length;
+        return ADDRESSES[next];
+    }
+
+    /**
+     * Прежний DeliveryZoneStreet.extractHouseNumber
+     */
+    private static Integer legacyHouseNumber(String address) {
+        try {
+            for (String pattern : new String[] { "д\\.", "дом", "д", "house" }) {
+                Matcher matcher = Pattern.compile(pattern + "\\s*(\\d+)").matcher(address);
+                if (matcher.find()) {
+                    return Integer.parseInt(matcher.group(1));
+                }
+            }
+            Matcher matcher = Pattern.compile("(\\d+)(?!.*\\d)").matcher(address);
+            if (matcher.find()) {
+                return Integer.parseInt(matcher.group(1));
+            }
+        } catch (NumberFormatException e) {
+            // Как и раньше: номер дома не определен
+        }
+        return null;
+    }
+}
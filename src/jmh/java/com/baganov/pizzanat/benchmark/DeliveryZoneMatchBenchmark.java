@@ -0,0 +1,229 @@
+/**
+ * @file: DeliveryZoneMatchBenchmark.java
+ * @description: Сравнение поиска зоны доставки скомпилированным матчером с прежним перебором правил
+ * @dependencies: JMH, H2, DeliveryZoneMatcher
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.benchmark;
+
+import com.baganov.pizzanat.entity.DeliveryZone;
+import com.baganov.pizzanat.entity.DeliveryZoneKeyword;
+import com.baganov.pizzanat.entity.DeliveryZoneStreet;
+import com.baganov.pizzanat.service.delivery.DeliveryZoneMatcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Поиск зоны для набора адресов ({@code zones} зон по {@code streetsPerZone} улиц и 3 ключевых слова):
+ * <ul>
+ * <li>legacyWithQueries - прежний DeliveryZoneService: два запроса (зоны с улицами, ключевые слова;
+ * H2 в памяти, без сетевой задержки) и перебор DeliveryZoneStreet/DeliveryZoneKeyword.matchesAddress;</li>
+ * <li>legacyInMemory - только перебор правил по уже загруженным сущностям;</li>
+ * <li>compiled - DeliveryZoneMatcher.match.</li>
+ * </ul>
+ * Отладочный вывод в System.out, который раньше печатался на каждую улицу, из сущности удален,
+ * поэтому legacy-варианты здесь быстрее, чем были в продакшене.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DeliveryZoneMatchBenchmark {
+
+    private static final String[] STREET_ROOTS = { "Ленина", "Шестакова", "Дружбы", "Мира", "Молодежная",
+            "Советская", "Гагарина", "Кирова", "Пушкина", "Садовая", "Лесная", "Новая", "Заводская", "Чехова" };
+    private static final String[] ADDRESSES = { "г. Волжск, ул. Ленина, д. 15", "Волжск, Шестакова 3, кв. 12",
+            "улица Садовая 7-2", "пр-т Мира, дом 101", "Москва, Тверская 1", "СНДТ Строитель, участок 12",
+            "г. Волжск, ул. Кирова 12, подъезд 2", "пер. Чехова 4" };
+
+    @Param({ "5", "20" })
+    private int zones;
+
+    @Param({ "20", "200" })
+    private int streetsPerZone;
+
+    private List<DeliveryZone> loadedZones;
+    private Map<Integer, List<DeliveryZoneKeyword>> loadedKeywords;
+    private DeliveryZoneMatcher matcher;
+    private Connection connection;
+    private PreparedStatement streetsQuery;
+    private PreparedStatement keywordsQuery;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:zone_benchmark;DB_CLOSE_DELAY=-1");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS delivery_zone_keywords");
+            statement.execute("DROP TABLE IF EXISTS delivery_zone_streets");
+            statement.execute("DROP TABLE IF EXISTS delivery_zones");
+            statement.execute("CREATE TABLE delivery_zones (id INT PRIMARY KEY, name VARCHAR(100), "
+                    + "base_cost DECIMAL(10,2), priority INT, is_active BOOLEAN)");
+            statement.execute("CREATE TABLE delivery_zone_streets (id INT PRIMARY KEY, zone_id INT, "
+                    + "street_name VARCHAR(255), house_number_from INT, house_number_to INT, "
+                    + "is_even_only BOOLEAN, is_odd_only BOOLEAN)");
+            statement.execute("CREATE TABLE delivery_zone_keywords (id INT PRIMARY KEY, zone_id INT, "
+                    + "keyword VARCHAR(255), match_type VARCHAR(20))");
+        }
+        try (PreparedStatement zoneInsert = connection.prepareStatement(
+                "INSERT INTO delivery_zones VALUES (?, ?, ?, ?, TRUE)");
+                PreparedStatement streetInsert = connection.prepareStatement(
+                        "INSERT INTO delivery_zone_streets VALUES (?, ?, ?, ?, ?, ?, ?)");
+                PreparedStatement keywordInsert = connection.prepareStatement(
+                        "INSERT INTO delivery_zone_keywords VALUES (?, ?, ?, ?)")) {
+            int streetId = 1;
+            int keywordId = 1;
+            for (int zone = 1; zone <= zones; zone++) {
+                zoneInsert.setInt(1, zone);
+                zoneInsert.setString(2, "Зона " + zone);
+                zoneInsert.setBigDecimal(3, BigDecimal.valueOf(100 + zone * 10));
+                zoneInsert.setInt(4, zones - zone);
+                zoneInsert.executeUpdate();
+                for (int s = 0; s < streetsPerZone; s++) {
+                    // Каждая улица встречается в нескольких зонах с разными диапазонами домов
+                    int number = (zone - 1) * streetsPerZone + s;
+                    streetInsert.setInt(1, streetId++);
+                    streetInsert.setInt(2, zone);
+                    streetInsert.setString(3, STREET_ROOTS[number % STREET_ROOTS.length]
+                            + (number < STREET_ROOTS.length ? "" : " " + (number / STREET_ROOTS.length)));
+                    streetInsert.setInt(4, 1 + (zone - 1) * 10);
+                    streetInsert.setInt(5, zone * 10);
+                    streetInsert.setBoolean(6, false);
+                    streetInsert.setBoolean(7, zone % 2 == 0);
+                    streetInsert.addBatch();
+                }
+                for (String keyword : new String[] { "поселок " + zone, "снт " + zone, "сндт" }) {
+                    keywordInsert.setInt(1, keywordId++);
+                    keywordInsert.setInt(2, zone);
+                    keywordInsert.setString(3, keyword);
+                    keywordInsert.setString(4, keyword.equals("сндт") ? "starts_with" : "contains");
+                    keywordInsert.addBatch();
+                }
+            }
+            streetInsert.executeBatch();
+            keywordInsert.executeBatch();
+        }
+        streetsQuery = connection.prepareStatement("SELECT z.id, z.name, z.base_cost, z.priority, s.street_name, "
+                + "s.house_number_from, s.house_number_to, s.is_even_only, s.is_odd_only FROM delivery_zones z "
+                + "LEFT JOIN delivery_zone_streets s ON s.zone_id = z.id WHERE z.is_active = TRUE "
+                + "ORDER BY z.priority DESC");
+        keywordsQuery = connection.prepareStatement("SELECT z.id, k.keyword, k.match_type FROM delivery_zones z "
+                + "LEFT JOIN delivery_zone_keywords k ON k.zone_id = z.id WHERE z.is_active = TRUE");
+
+        loadedZones = loadZones();
+        loadedKeywords = loadKeywords();
+        matcher = DeliveryZoneMatcher.compile(loadedZones, loadedKeywords);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        streetsQuery.close();
+        keywordsQuery.close();
+        connection.close();
+    }
+
+    @Benchmark
+    public Optional<DeliveryZone> legacyWithQueries() throws SQLException {
+        return legacyMatch(loadZones(), loadKeywords(), nextAddress());
+    }
+
+    @Benchmark
+    public Optional<DeliveryZone> legacyInMemory() {
+        return legacyMatch(loadedZones, loadedKeywords, nextAddress());
+    }
+
+    @Benchmark
+    public Optional<DeliveryZone> compiled() {
+        return matcher.match(nextAddress());
+    }
+
+    private String nextAddress() {
+        next = (next + 1) % ADDRESSES.length;
+        return ADDRESSES[next];
+    }
+
+    private static Optional<DeliveryZone> legacyMatch(List<DeliveryZone> zones,
+            Map<Integer, List<DeliveryZoneKeyword>> keywords, String address) {
+        for (DeliveryZone zone : zones) {
+            for (DeliveryZoneStreet street : zone.getStreets()) {
+                if (street.matchesAddress(address)) {
+                    return Optional.of(zone);
+                }
+            }
+            for (DeliveryZoneKeyword keyword : keywords.getOrDefault(zone.getId(), List.of())) {
+                if (keyword.matchesAddress(address)) {
+                    return Optional.of(zone);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private List<DeliveryZone> loadZones() throws SQLException {
+        Map<Integer, DeliveryZone> zonesById = new LinkedHashMap<>();
+        try (ResultSet resultSet = streetsQuery.executeQuery()) {
+            while (resultSet.next()) {
+                int zoneId = resultSet.getInt(1);
+                DeliveryZone zone = zonesById.get(zoneId);
+                if (zone == null) {
+                    zone = DeliveryZone.builder()
+                            .id(zoneId)
+                            .name(resultSet.getString(2))
+                            .baseCost(resultSet.getBigDecimal(3))
+                            .priority(resultSet.getInt(4))
+                            .streets(new ArrayList<>())
+                            .build();
+                    zonesById.put(zoneId, zone);
+                }
+                if (resultSet.getString(5) != null) {
+                    zone.getStreets().add(DeliveryZoneStreet.builder()
+                            .streetName(resultSet.getString(5))
+                            .houseNumberFrom(resultSet.getInt(6))
+                            .houseNumberTo(resultSet.getInt(7))
+                            .isEvenOnly(resultSet.getBoolean(8))
+                            .isOddOnly(resultSet.getBoolean(9))
+                            .build());
+                }
+            }
+        }
+        return new ArrayList<>(zonesById.values());
+    }
+
+    private Map<Integer, List<DeliveryZoneKeyword>> loadKeywords() throws SQLException {
+        Map<Integer, List<DeliveryZoneKeyword>> keywords = new HashMap<>();
+        try (ResultSet resultSet = keywordsQuery.executeQuery()) {
+            while (resultSet.next()) {
+                if (resultSet.getString(2) != null) {
+                    keywords.computeIfAbsent(resultSet.getInt(1), id -> new ArrayList<>())
+                            .add(DeliveryZoneKeyword.builder()
+                                    .keyword(resultSet.getString(2))
+                                    .matchType(resultSet.getString(3))
+                                    .build());
+                }
+            }
+        }
+        return keywords;
+    }
+}
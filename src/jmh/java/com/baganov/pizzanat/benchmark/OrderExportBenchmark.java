@@ -0,0 +1,168 @@
+/**
+ * @file: OrderExportBenchmark.java
+ * @description: Пропускная способность выгрузки заказов курсором в CSV и NDJSON
+ * @dependencies: JMH, H2, ExportFormat
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.benchmark;
+
+import com.baganov.pizzanat.service.export.ExportDataset;
+import com.baganov.pizzanat.service.export.ExportFormat;
+import com.baganov.pizzanat.service.export.ExportWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Выгрузка {@code rows} заказов (колонки ExportDataset.ORDERS) в поток-заглушку:
+ * <ul>
+ * <li>csvCursor / ndjsonCursor - строки читаются курсором с fetch size 500 и сразу пишутся,
+ * как в AccountingExportService;</li>
+ * <li>csvMaterialized - прежний подход: сначала весь период в список, затем запись.</li>
+ * </ul>
+ * Результат - миллисекунды на выгрузку; строк в секунду = rows / время. H2 в памяти убирает сетевую
+ * задержку, поэтому замер показывает стоимость преобразования и записи строк, а не PostgreSQL.
+ * Для сравнения памяти запускайте с профилировщиком: ./gradlew jmh -PjmhInclude=OrderExportBenchmark
+ * и jmh { profilers = ['gc'] } - у *Cursor выделение на строку не зависит от rows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class OrderExportBenchmark {
+
+    private static final int FETCH_SIZE = 500;
+    private static final String[] STATUSES = { "CREATED", "CONFIRMED", "DELIVERED", "CANCELLED" };
+    private static final String[] ADDRESSES = { "г. Волжск, ул. Ленина, д. 12, кв. 5",
+            "Волжск, Шестакова 3", "г. Волжск, ул. Молодежная, д. 7, \"подъезд 2\"" };
+
+    @Param({ "10000", "100000" })
+    private int rows;
+
+    private Connection connection;
+    private PreparedStatement query;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:export_benchmark;DB_CLOSE_DELAY=-1");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS orders");
+            statement.execute("CREATE TABLE orders (id INT PRIMARY KEY, created_at TIMESTAMP, status VARCHAR(50), "
+                    + "delivery_type VARCHAR(50), delivery_address VARCHAR(500), contact_name VARCHAR(100), "
+                    + "contact_phone VARCHAR(20), payment_method VARCHAR(20), payment_status VARCHAR(20), "
+                    + "delivery_cost DECIMAL(10,2), total_amount DECIMAL(10,2))");
+        }
+        LocalDateTime start = LocalDateTime.of(2026, 10, 1, 10, 0);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO orders VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < rows; i++) {
+                insert.setInt(1, i + 1);
+                insert.setTimestamp(2, Timestamp.valueOf(start.plusSeconds(i * 20L)));
+                insert.setString(3, STATUSES[i % STATUSES.length]);
+                insert.setString(4, i % 3 == 0 ? "Самовывоз" : "Доставка курьером");
+                insert.setString(5, ADDRESSES[i % ADDRESSES.length]);
+                insert.setString(6, "Клиент " + i);
+                insert.setString(7, "+7900" + String.format("%07d", i));
+                insert.setString(8, i % 2 == 0 ? "SBP" : "CASH");
+                insert.setString(9, i % 2 == 0 ? "PAID" : "UNPAID");
+                insert.setBigDecimal(10, BigDecimal.valueOf(i % 3 == 0 ? 0 : 200));
+                insert.setBigDecimal(11, BigDecimal.valueOf(500 + i % 1500, 0));
+                insert.addBatch();
+                if (i % 1000 == 999) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        query = connection.prepareStatement("SELECT id, created_at, status, delivery_type, delivery_address, "
+                + "contact_name, contact_phone, payment_method, payment_status, delivery_cost, total_amount "
+                + "FROM orders ORDER BY created_at, id");
+        query.setFetchSize(FETCH_SIZE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        query.close();
+        connection.close();
+    }
+
+    @Benchmark
+    public long csvCursor() throws SQLException, IOException {
+        return exportCursor(ExportFormat.CSV);
+    }
+
+    @Benchmark
+    public long ndjsonCursor() throws SQLException, IOException {
+        return exportCursor(ExportFormat.NDJSON);
+    }
+
+    @Benchmark
+    public long csvMaterialized() throws SQLException, IOException {
+        List<Object[]> all = new ArrayList<>();
+        try (ResultSet resultSet = query.executeQuery()) {
+            while (resultSet.next()) {
+                all.add(readRow(resultSet));
+            }
+        }
+        try (ExportWriter writer = ExportFormat.CSV.open(OutputStream.nullOutputStream(),
+                ExportDataset.ORDERS.getColumns())) {
+            for (Object[] row : all) {
+                writer.write(row);
+            }
+        }
+        return all.size();
+    }
+
+    private long exportCursor(ExportFormat format) throws SQLException, IOException {
+        long count = 0;
+        try (ResultSet resultSet = query.executeQuery();
+                ExportWriter writer = format.open(OutputStream.nullOutputStream(),
+                        ExportDataset.ORDERS.getColumns())) {
+            while (resultSet.next()) {
+                writer.write(readRow(resultSet));
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Те же типы значений, что возвращает JPQL-запрос выгрузки: LocalDateTime, BigDecimal, строки
+     */
+    private static Object[] readRow(ResultSet resultSet) throws SQLException {
+        return new Object[] {
+                resultSet.getInt(1),
+                resultSet.getTimestamp(2).toLocalDateTime(),
+                resultSet.getString(3),
+                resultSet.getString(4),
+                resultSet.getString(5),
+                resultSet.getString(6),
+                resultSet.getString(7),
+                resultSet.getString(8),
+                resultSet.getString(9),
+                resultSet.getBigDecimal(10),
+                resultSet.getBigDecimal(11)
+        };
+    }
+}
@@ -0,0 +1,134 @@
+/**
+ * @file: ProductSearchBenchmark.java
+ * @description: Сравнение поиска по индексу в памяти с поиском через LIKE в БД
+ * @dependencies: JMH, H2, ProductSearchIndex
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.benchmark;
+
+import com.baganov.pizzanat.dto.ProductDto;
+import com.baganov.pizzanat.service.catalog.ProductSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Поиск "пепперони" по каталогу из {@code catalogSize} продуктов:
+ * <ul>
+ * <li>likeQuery - запрос, который генерирует findByNameContainingIgnoreCase (H2 в памяти,
+ * без сетевой задержки, поэтому оценка снизу для PostgreSQL);</li>
+ * <li>indexExact / indexTypo / indexPrefix - ProductSearchIndex с точным запросом, опечаткой и префиксом.</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProductSearchBenchmark {
+
+    private static final String[] NAMES = { "Пепперони", "Маргарита", "Четыре сыра", "Гавайская", "Мясная",
+            "Барбекю", "Диабло", "Карбонара", "Цезарь", "Грибная" };
+    private static final String[] KINDS = { "Пицца", "Калцоне", "Ролл", "Салат", "Бургер" };
+    private static final String[] DESCRIPTIONS = { "Острая колбаса, сыр моцарелла, томатный соус",
+            "Куриное филе, грибы, сливочный соус", "Ветчина, ананасы, сыр", "Говядина, бекон, соус барбекю" };
+
+    @Param({ "100", "1000" })
+    private int catalogSize;
+
+    private ProductSearchIndex index;
+    private Connection connection;
+    private PreparedStatement likeStatement;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        List<ProductDto> products = new ArrayList<>(catalogSize);
+        for (int i = 0; i < catalogSize; i++) {
+            products.add(ProductDto.builder()
+                    .id(i + 1)
+                    .name(KINDS[i % KINDS.length] + " " + NAMES[(i / KINDS.length) % NAMES.length] + " " + i)
+                    .description(DESCRIPTIONS[i % DESCRIPTIONS.length])
+                    .price(BigDecimal.valueOf(500))
+                    .categoryId(i % KINDS.length + 1)
+                    .categoryName(KINDS[i % KINDS.length])
+                    .isAvailable(true)
+                    .build());
+        }
+
+        index = new ProductSearchIndex();
+        index.rebuild(products);
+
+        connection = DriverManager.getConnection("jdbc:h2:mem:search_benchmark;DB_CLOSE_DELAY=-1");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS products");
+            statement.execute("CREATE TABLE products (id INT PRIMARY KEY, name VARCHAR(100), "
+                    + "description TEXT, price DECIMAL(10,2), category_id INT, is_available BOOLEAN)");
+        }
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO products (id, name, description, price, category_id, is_available) "
+                        + "VALUES (?, ?, ?, ?, ?, ?)")) {
+            for (ProductDto product : products) {
+                insert.setInt(1, product.getId());
+                insert.setString(2, product.getName());
+                insert.setString(3, product.getDescription());
+                insert.setBigDecimal(4, product.getPrice());
+                insert.setInt(5, product.getCategoryId());
+                insert.setBoolean(6, true);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+        likeStatement = connection.prepareStatement(
+                "SELECT id, name, description, price, category_id, is_available FROM products "
+                        + "WHERE UPPER(name) LIKE UPPER(?) LIMIT 20");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        likeStatement.close();
+        connection.close();
+    }
+
+    @Benchmark
+    public void likeQuery(Blackhole blackhole) throws SQLException {
+        likeStatement.setString(1, "%пепперони%");
+        try (ResultSet resultSet = likeStatement.executeQuery()) {
+            while (resultSet.next()) {
+                blackhole.consume(resultSet.getInt(1));
+                blackhole.consume(resultSet.getString(2));
+            }
+        }
+    }
+
+    @Benchmark
+    public List<Integer> indexExact() {
+        return index.search("пепперони", null);
+    }
+
+    @Benchmark
+    public List<Integer> indexTypo() {
+        return index.search("пеперони", null);
+    }
+
+    @Benchmark
+    public List<Integer> indexPrefix() {
+        return index.search("пепп", null);
+    }
+}
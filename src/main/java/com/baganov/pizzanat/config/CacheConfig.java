@@ -1,27 +1,28 @@
 package com.baganov.pizzanat.config;
 
+import com.baganov.pizzanat.config.cache.TwoTierCacheManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
-import org.springframework.context.annotation.Profile;
-
-import java.util.Arrays;
+import org.springframework.data.redis.cache.RedisCacheManager;
 
 @Configuration
 @EnableCaching
 public class CacheConfig {
 
+    /**
+     * Двухуровневый кэш: ограниченный L1 на узле + Redis L2 из RedisConfig (если включен)
+     */
     @Bean
     @Primary
-    @Profile("prod")
-    public CacheManager simpleCacheManager() {
-        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
-        cacheManager.setCacheNames(
-                Arrays.asList("products", "categories", "users", "orderDetails", "userOrders", "allOrders"));
-        cacheManager.setAllowNullValues(false);
-        return cacheManager;
+    public CacheManager cacheManager(TwoTierCacheProperties properties,
+            ObjectProvider<RedisCacheManager> redisCacheManager,
+            MeterRegistry meterRegistry) {
+        RedisCacheManager remote = properties.isL2Enabled() ? redisCacheManager.getIfAvailable() : null;
+        return new TwoTierCacheManager(properties, remote, meterRegistry);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,75 @@
+/**
+ * @file: CartStoreProperties.java
+ * @description: Настройки хранилища корзин анонимных сессий
+ * @dependencies: Spring Boot Configuration Properties
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.cart")
+public class CartStoreProperties {
+
+    /**
+     * Хранилище корзин анонимных сессий: memory (Caffeine на узле) или redis
+     */
+    private String store = "memory";
+
+    /**
+     * Время жизни корзины сессии с момента последнего обращения
+     */
+    private Duration sessionTtl = Duration.ofDays(3);
+
+    /**
+     * Максимальное число корзин сессий в памяти узла (только для memory)
+     */
+    private long maxSessions = 100_000;
+
+    /**
+     * Время жизни тарифа доставки, определенного по адресу корзины
+     */
+    private Duration deliveryQuoteTtl = Duration.ofMinutes(30);
+
+    /**
+     * Максимальное число адресов в кэше тарифов доставки
+     */
+    private long maxDeliveryQuotes = 10_000;
+
+    private Retention retention = new Retention();
+
+    /**
+     * Удаление брошенных корзин сессий, сохраненных в БД
+     */
+    @Data
+    public static class Retention {
+
+        private boolean enabled = true;
+
+        /**
+         * Корзина удаляется, если ни она, ни ее позиции не менялись дольше этого времени
+         */
+        private Duration ttl = Duration.ofDays(30);
+
+        /**
+         * Число корзин, удаляемых одной транзакцией
+         */
+        private int batchSize = 500;
+
+        /**
+         * Пауза между пакетами, чтобы не занимать БД непрерывной нагрузкой
+         */
+        private Duration pause = Duration.ofMillis(200);
+
+        /**
+         * Ограничение числа пакетов за один запуск; остаток удаляется при следующем запуске
+         */
+        private int maxBatchesPerRun = 200;
+    }
+}
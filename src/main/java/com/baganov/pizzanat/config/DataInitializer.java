@@ -3,6 +3,7 @@ package com.baganov.pizzanat.config;
 import com.baganov.pizzanat.entity.OrderStatus;
 import com.baganov.pizzanat.entity.Role;
 import com.baganov.pizzanat.entity.User;
+import com.baganov.pizzanat.event.ReferenceDataChangedEvent;
 import com.baganov.pizzanat.repository.OrderStatusRepository;
 import com.baganov.pizzanat.repository.RoleRepository;
 import com.baganov.pizzanat.repository.UserRepository;
@@ -10,6 +11,7 @@ import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
@@ -29,6 +31,7 @@ public class DataInitializer implements CommandLineRunner {
     private final RoleRepository roleRepository;
     private final OrderStatusRepository orderStatusRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -38,6 +41,7 @@ public class DataInitializer implements CommandLineRunner {
             initializeRoles();
             initializeOrderStatuses();
             createTestUsers();
+            eventPublisher.publishEvent(new ReferenceDataChangedEvent(this, "init"));
             log.info("✅ DataInitializer завершен успешно!");
         } catch (Exception e) {
             log.error("❌ Ошибка в DataInitializer: {}", e.getMessage(), e);
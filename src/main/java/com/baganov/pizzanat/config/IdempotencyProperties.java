@@ -0,0 +1,54 @@
+/**
+ * @file: IdempotencyProperties.java
+ * @description: Настройки ключей идемпотентности (заголовок Idempotency-Key)
+ * @dependencies: Spring Boot Configuration Properties
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.idempotency")
+public class IdempotencyProperties {
+
+    /**
+     * Хранилище ключей: memory (Caffeine на узле) или redis
+     */
+    private String store = "memory";
+
+    /**
+     * Сколько хранится результат выполненного запроса
+     */
+    private Duration ttl = Duration.ofHours(24);
+
+    /**
+     * Время жизни отметки "выполняется": если узел упал посреди запроса, ключ освободится сам
+     */
+    private Duration inFlightLease = Duration.ofMinutes(1);
+
+    /**
+     * Сколько повторный запрос ждет результата выполняющегося оригинала
+     */
+    private Duration waitTimeout = Duration.ofSeconds(15);
+
+    /**
+     * Интервал опроса хранилища, когда оригинал выполняется на другом узле
+     */
+    private Duration pollInterval = Duration.ofMillis(100);
+
+    /**
+     * Максимальное число ключей в памяти узла (только для memory)
+     */
+    private long maxKeys = 100_000;
+
+    /**
+     * Максимальная длина ключа от клиента
+     */
+    private int maxKeyLength = 128;
+}
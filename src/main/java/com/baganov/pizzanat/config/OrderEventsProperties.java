@@ -0,0 +1,49 @@
+/**
+ * @file: OrderEventsProperties.java
+ * @description: Настройки потока событий заказа (Server-Sent Events)
+ * @dependencies: Spring Boot Configuration Properties
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.order-events")
+public class OrderEventsProperties {
+
+    /**
+     * Время жизни одного SSE-соединения; после него клиент переподключается с Last-Event-ID
+     */
+    private Duration streamTimeout = Duration.ofMinutes(30);
+
+    /**
+     * Пауза перед переподключением, которую сервер сообщает клиенту (поле retry)
+     */
+    private Duration reconnectDelay = Duration.ofSeconds(3);
+
+    /**
+     * Интервал комментариев-heartbeat, чтобы прокси не закрывали молчащие соединения
+     */
+    private long heartbeatIntervalMs = 15_000;
+
+    /**
+     * Сколько последних событий заказа хранится для досылки после переподключения
+     */
+    private int replayEvents = 16;
+
+    /**
+     * Сколько хранятся события заказа без новых изменений
+     */
+    private Duration replayTtl = Duration.ofHours(2);
+
+    /**
+     * Максимальное число заказов с сохраненными событиями на узле
+     */
+    private long maxReplayOrders = 50_000;
+}
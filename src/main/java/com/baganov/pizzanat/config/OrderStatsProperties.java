@@ -0,0 +1,24 @@
+/**
+ * @file: OrderStatsProperties.java
+ * @description: Настройки сводки заказов за день для админских ботов и админ-панели
+ * @dependencies: Spring Boot Configuration Properties
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.order-stats")
+public class OrderStatsProperties {
+
+    /**
+     * Сколько сводка за день отдается из кеша без повторного запроса к БД
+     */
+    private Duration cacheTtl = Duration.ofSeconds(5);
+}
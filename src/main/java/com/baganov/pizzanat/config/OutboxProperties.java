@@ -0,0 +1,61 @@
+/**
+ * @file: OutboxProperties.java
+ * @description: Настройки доставки сообщений транзакционного outbox
+ * @dependencies: Spring Boot Configuration Properties
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.config;
+
+import com.baganov.pizzanat.entity.OutboxMessage;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.outbox")
+public class OutboxProperties {
+
+    /**
+     * Число одновременных доставок для направления, если не задано в concurrency
+     */
+    private int defaultConcurrency = 2;
+
+    /**
+     * Число одновременных доставок по направлениям
+     */
+    private Map<OutboxMessage.Destination, Integer> concurrency = new EnumMap<>(Map.of(
+            OutboxMessage.Destination.CUSTOMER, 4,
+            OutboxMessage.Destination.GOOGLE_SHEETS, 1));
+
+    /**
+     * После этого числа неудачных попыток сообщение помечается FAILED
+     */
+    private int maxAttempts = 8;
+
+    /**
+     * Задержка перед первой повторной попыткой; каждая следующая удваивается
+     */
+    private Duration initialBackoff = Duration.ofSeconds(5);
+
+    private Duration maxBackoff = Duration.ofMinutes(10);
+
+    /**
+     * Время, на которое сообщение закрепляется за узлом. Если узел не завершил доставку
+     * (например, остановился), сообщение снова становится доступным.
+     */
+    private Duration lease = Duration.ofMinutes(2);
+
+    /**
+     * Срок хранения доставленных сообщений
+     */
+    private Duration sentRetention = Duration.ofDays(7);
+
+    public int concurrencyFor(OutboxMessage.Destination destination) {
+        return Math.max(1, concurrency.getOrDefault(destination, defaultConcurrency));
+    }
+}
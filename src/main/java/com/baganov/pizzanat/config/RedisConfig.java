@@ -1,9 +1,8 @@
 package com.baganov.pizzanat.config;
 
-import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.context.annotation.Profile;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
@@ -15,13 +14,16 @@ import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
+/**
+ * Redis L2 для двухуровневого кэша (см. CacheConfig).
+ * Включается через app.cache.l2-enabled=true; в prod Redis autoconfiguration отключена.
+ */
 @Configuration
-@EnableCaching
-@Profile({ "dev" }) // Только для prod профиля (Redis недоступен в dev)
+@ConditionalOnProperty(name = "app.cache.l2-enabled", havingValue = "true")
 public class RedisConfig {
 
         @Bean
-        public RedisCacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+        public RedisCacheManager redisCacheManager(RedisConnectionFactory connectionFactory) {
                 RedisCacheConfiguration defaultConfig = RedisCacheConfiguration.defaultCacheConfig()
                                 .entryTtl(Duration.ofMinutes(10))
                                 .serializeKeysWith(RedisSerializationContext.SerializationPair
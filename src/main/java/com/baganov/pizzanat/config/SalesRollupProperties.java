@@ -0,0 +1,22 @@
+/**
+ * @file: SalesRollupProperties.java
+ * @description: Настройки агрегатов продаж для статистики админ-панели
+ * @dependencies: Spring Boot Configuration Properties
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.sales-rollup")
+public class SalesRollupProperties {
+
+    /**
+     * Сколько завершенных дней до текущего пересчитывается ночной сверкой
+     */
+    private int reconcileDays = 3;
+}
@@ -55,10 +55,10 @@ public class SecurityConfig {
     @Value("${app.cors.allowed-methods:GET,POST,PUT,DELETE,OPTIONS,PATCH}")
     private String[] corsAllowedMethods;
 
-    @Value("${app.cors.allowed-headers:Authorization,Content-Type,X-Requested-With,Accept,Origin,X-Auth-Token,Cache-Control,X-Client-Type,X-Client-Version,X-Session-Id}")
+    @Value("${app.cors.allowed-headers:Authorization,Content-Type,X-Requested-With,Accept,Origin,X-Auth-Token,Cache-Control,X-Client-Type,X-Client-Version,X-Session-Id,If-None-Match}")
     private String[] corsAllowedHeaders;
 
-    @Value("${app.cors.exposed-headers:Authorization,Content-Type,X-Total-Count,X-Pagination-Page,X-Pagination-Size}")
+    @Value("${app.cors.exposed-headers:Authorization,Content-Type,X-Total-Count,X-Pagination-Page,X-Pagination-Size,ETag}")
     private String[] corsExposedHeaders;
 
     @Value("${app.cors.allow-credentials:true}")
@@ -126,6 +126,8 @@ public class SecurityConfig {
             "/api/v1/products/category/*",
             "/api/v1/products/special-offers",
             "/api/v1/products/search",
+            // Стартовые данные мини-приложения (только GET)
+            "/api/v1/bootstrap",
             // Delivery API (новые эндпоинты для мобильного приложения)
             "/api/delivery/**",
             "/api/v1/delivery/**",
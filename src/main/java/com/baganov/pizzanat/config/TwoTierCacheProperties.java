@@ -0,0 +1,72 @@
+package com.baganov.pizzanat.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Настройки двухуровневого кэша: локальный L1 на каждом узле и Redis L2
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.cache")
+public class TwoTierCacheProperties {
+
+    /**
+     * Использовать Redis как L2 (требует активного RedisConfig)
+     */
+    private boolean l2Enabled = false;
+
+    /**
+     * Максимальное количество записей L1 для кэшей без явных настроек
+     */
+    private long defaultMaximumSize = 1000;
+
+    /**
+     * Время жизни записи L1 для кэшей без явных настроек
+     */
+    private Duration defaultTtl = Duration.ofMinutes(10);
+
+    /**
+     * Максимальное количество счетчиков поколений в памяти узла (без L2)
+     */
+    private long generationMaxScopes = 100_000;
+
+    /**
+     * Время жизни счетчика поколения в Redis; должно превышать TTL кэшей L2
+     */
+    private Duration generationTtl = Duration.ofDays(1);
+
+    /**
+     * Настройки L1 по имени кэша
+     */
+    private Map<String, CacheSpec> caches = new LinkedHashMap<>();
+
+    public long maximumSizeFor(String cacheName) {
+        CacheSpec spec = caches.get(cacheName);
+        return spec != null && spec.getMaximumSize() != null ? spec.getMaximumSize() : defaultMaximumSize;
+    }
+
+    public Duration ttlFor(String cacheName) {
+        CacheSpec spec = caches.get(cacheName);
+        return spec != null && spec.getTtl() != null ? spec.getTtl() : defaultTtl;
+    }
+
+    @Data
+    public static class CacheSpec {
+
+        /**
+         * Максимальное количество записей (вытеснение W-TinyLFU)
+         */
+        private Long maximumSize;
+
+        /**
+         * Время жизни записи после записи
+         */
+        private Duration ttl;
+    }
+}
@@ -24,8 +24,8 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowedOrigins(allowedOrigins)
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH")
                 .allowedHeaders("Authorization", "Content-Type", "X-Requested-With", "Accept", "Origin", "X-Auth-Token",
-                        "X-Client-Type", "X-Client-Version", "X-Session-Id")
-                .exposedHeaders("Authorization", "Content-Type", "X-Total-Count")
+                        "X-Client-Type", "X-Client-Version", "X-Session-Id", "If-None-Match")
+                .exposedHeaders("Authorization", "Content-Type", "X-Total-Count", "ETag")
                 .allowCredentials(true)
                 .maxAge(3600);
     }
@@ -0,0 +1,22 @@
+/**
+ * @file: CacheGenerationStore.java
+ * @description: Счетчики поколений для инвалидации групп записей кэша через ключ
+ * @dependencies: -
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.config.cache;
+
+/**
+ * Поколение входит в ключ записей группы (например, страниц истории заказов одного пользователя);
+ * смена поколения делает все записи группы недостижимыми. Значение, однажды выданное для группы,
+ * не должно повториться для нее, пока в кэше могут оставаться записи с ним.
+ */
+public interface CacheGenerationStore {
+
+    long current(String scope);
+
+    /**
+     * Переводит группу на новое поколение
+     */
+    void advance(String scope);
+}
@@ -0,0 +1,62 @@
+/**
+ * @file: LocalCacheGenerationStore.java
+ * @description: Поколения кэша в памяти узла (ограниченный Caffeine) для конфигурации без Redis L2
+ * @dependencies: Caffeine, Micrometer, TwoTierCacheProperties
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.config.cache;
+
+import com.baganov.pizzanat.config.TwoTierCacheProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Подходит, когда кэш только локальный (L1): поколения и записи живут на одном узле.
+ * Все значения берутся из одной возрастающей последовательности. Группа без счетчика
+ * получает нижнюю границу, которая сдвигается при вытеснении любого счетчика по размеру,
+ * поэтому вытесненная группа не вернется к поколению, под которым остались ее записи.
+ * Слушатель вытеснения выполняется до того, как запись исчезает для читателей.
+ */
+@Component
+@ConditionalOnProperty(name = "app.cache.l2-enabled", havingValue = "false", matchIfMissing = true)
+public class LocalCacheGenerationStore implements CacheGenerationStore {
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong floor = new AtomicLong();
+    private final Cache<String, Long> generations;
+
+    public LocalCacheGenerationStore(TwoTierCacheProperties properties, MeterRegistry meterRegistry) {
+        this.generations = Caffeine.newBuilder()
+                .maximumSize(properties.getGenerationMaxScopes())
+                .evictionListener((String scope, Long generation, RemovalCause cause) -> floor
+                        .set(sequence.incrementAndGet()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, generations, "cacheGenerations");
+    }
+
+    @Override
+    public long current(String scope) {
+        Long generation = generations.getIfPresent(scope);
+        return generation != null ? generation : floor.get();
+    }
+
+    @Override
+    public void advance(String scope) {
+        generations.put(scope, sequence.incrementAndGet());
+    }
+
+    /**
+     * Выполняет отложенное обслуживание Caffeine (для тестов)
+     */
+    void cleanUp() {
+        generations.cleanUp();
+    }
+}
@@ -0,0 +1,59 @@
+/**
+ * @file: RedisCacheGenerationStore.java
+ * @description: Поколения кэша в Redis, общие для всех узлов при включенном Redis L2
+ * @dependencies: Spring Data Redis, TwoTierCacheProperties
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.config.cache;
+
+import com.baganov.pizzanat.config.TwoTierCacheProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Записи L2 общие и переживают перезапуск узла, поэтому поколения хранятся рядом с ними:
+ * смена поколения - INCR, чтение - GET. Срок жизни счетчика продлевается при каждой смене
+ * и должен превышать TTL кэшей, чтобы сброс счетчика не вернул старые записи.
+ * При ошибке Redis ключ получает одноразовое поколение: запрос идет мимо кэша.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.cache.l2-enabled", havingValue = "true")
+public class RedisCacheGenerationStore implements CacheGenerationStore {
+
+    private static final String KEY_PREFIX = "cache-generation:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final TwoTierCacheProperties properties;
+
+    private final AtomicLong bypassGeneration = new AtomicLong();
+
+    @Override
+    public long current(String scope) {
+        try {
+            String value = redisTemplate.opsForValue().get(KEY_PREFIX + scope);
+            return value != null ? Long.parseLong(value) : 0;
+        } catch (Exception e) {
+            log.warn("Не удалось прочитать поколение кэша {} из Redis: {}", scope, e.getMessage());
+            return bypassGeneration.decrementAndGet();
+        }
+    }
+
+    @Override
+    public void advance(String scope) {
+        String key = KEY_PREFIX + scope;
+        try {
+            redisTemplate.opsForValue().increment(key);
+            redisTemplate.expire(key, properties.getGenerationTtl());
+        } catch (Exception e) {
+            // Записи группы останутся доступными до истечения TTL кэша
+            log.error("Не удалось сменить поколение кэша {} в Redis: {}", scope, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,178 @@
+/**
+ * @file: TwoTierCache.java
+ * @description: Кэш из двух уровней: ограниченный Caffeine L1 и опциональный Redis L2
+ * @dependencies: Caffeine, Spring Cache, Micrometer
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.config.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Чтение идет сначала в L1, при промахе в L2 с прогревом L1.
+ * Запись и инвалидация выполняются на обоих уровнях.
+ * Ошибки Redis не пробрасываются: L2 считается промахом, и кэш продолжает работать на L1.
+ */
+@Slf4j
+public class TwoTierCache implements Cache {
+
+    private final CaffeineCache local;
+    private final Cache remote;
+
+    private final Counter remoteHits;
+    private final Counter remoteMisses;
+    private final Counter remoteErrors;
+
+    public TwoTierCache(CaffeineCache local, Cache remote, MeterRegistry meterRegistry) {
+        this.local = local;
+        this.remote = remote;
+        this.remoteHits = l2Counter(meterRegistry, local.getName(), "hit");
+        this.remoteMisses = l2Counter(meterRegistry, local.getName(), "miss");
+        this.remoteErrors = l2Counter(meterRegistry, local.getName(), "error");
+    }
+
+    private static Counter l2Counter(MeterRegistry meterRegistry, String cacheName, String result) {
+        return Counter.builder("cache.l2.gets")
+                .description("Обращения к Redis L2 после промаха L1")
+                .tag("cache", cacheName)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String getName() {
+        return local.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return local.getNativeCache();
+    }
+
+    public boolean hasRemote() {
+        return remote != null;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper value = local.get(key);
+        if (value != null || remote == null) {
+            return value;
+        }
+        ValueWrapper remoteValue = remoteGet(key);
+        if (remoteValue != null && remoteValue.get() != null) {
+            local.put(key, remoteValue.get());
+        }
+        return remoteValue;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException(
+                    "Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        return local.get(key, () -> {
+            ValueWrapper remoteValue = remote != null ? remoteGet(key) : null;
+            if (remoteValue != null && remoteValue.get() != null) {
+                return (T) remoteValue.get();
+            }
+            T loaded = valueLoader.call();
+            if (loaded != null) {
+                remotePut(key, loaded);
+            }
+            return loaded;
+        });
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        local.put(key, value);
+        remotePut(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = get(key);
+        if (existing == null) {
+            put(key, value);
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        local.evict(key);
+        if (remote != null) {
+            try {
+                remote.evict(key);
+            } catch (Exception e) {
+                remoteErrors.increment();
+                log.warn("Ошибка инвалидации ключа {} в L2 кэше {}: {}", key, getName(), e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean present = local.evictIfPresent(key);
+        evict(key);
+        return present;
+    }
+
+    @Override
+    public void clear() {
+        local.clear();
+        if (remote != null) {
+            try {
+                remote.clear();
+            } catch (Exception e) {
+                remoteErrors.increment();
+                log.warn("Ошибка очистки L2 кэша {}: {}", getName(), e.getMessage());
+            }
+        }
+    }
+
+    private ValueWrapper remoteGet(Object key) {
+        try {
+            ValueWrapper value = remote.get(key);
+            if (value != null) {
+                remoteHits.increment();
+                return new SimpleValueWrapper(value.get());
+            }
+            remoteMisses.increment();
+        } catch (Exception e) {
+            remoteErrors.increment();
+            log.warn("Ошибка чтения ключа {} из L2 кэша {}: {}", key, getName(), e.getMessage());
+        }
+        return null;
+    }
+
+    private void remotePut(Object key, Object value) {
+        if (remote == null || value == null) {
+            return;
+        }
+        try {
+            remote.put(key, value);
+        } catch (Exception e) {
+            remoteErrors.increment();
+            log.warn("Ошибка записи ключа {} в L2 кэш {}: {}", key, getName(), e.getMessage());
+        }
+    }
+}
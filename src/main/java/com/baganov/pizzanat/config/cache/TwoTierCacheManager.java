@@ -0,0 +1,72 @@
+/**
+ * @file: TwoTierCacheManager.java
+ * @description: Менеджер двухуровневых кэшей с ограничением размера и TTL на каждом узле
+ * @dependencies: Caffeine, Spring Cache, Micrometer
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.config.cache;
+
+import com.baganov.pizzanat.config.TwoTierCacheProperties;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * L1 - Caffeine (W-TinyLFU) с лимитом записей и TTL из {@link TwoTierCacheProperties}.
+ * L2 - кэши Redis из переданного менеджера, если он сконфигурирован.
+ * Hit/miss/eviction каждого L1 кэша публикуются в Micrometer под тегом cache=имя.
+ */
+@Slf4j
+public class TwoTierCacheManager implements CacheManager {
+
+    private final TwoTierCacheProperties properties;
+    private final CacheManager remoteCacheManager;
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentMap<String, Cache> caches = new ConcurrentHashMap<>();
+
+    public TwoTierCacheManager(TwoTierCacheProperties properties, CacheManager remoteCacheManager,
+            MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.remoteCacheManager = remoteCacheManager;
+        this.meterRegistry = meterRegistry;
+
+        // Заранее создаем сконфигурированные кэши, чтобы их метрики были видны сразу
+        properties.getCaches().keySet().forEach(this::getCache);
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, this::createCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    private Cache createCache(String name) {
+        long maximumSize = properties.maximumSizeFor(name);
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(properties.ttlFor(name))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, nativeCache, name, "tier", "l1");
+
+        Cache remote = remoteCacheManager != null ? remoteCacheManager.getCache(name) : null;
+        log.info("Кэш '{}' создан: L1 maximumSize={}, ttl={}, L2={}",
+                name, maximumSize, properties.ttlFor(name), remote != null ? "redis" : "нет");
+
+        return new TwoTierCache(new CaffeineCache(name, nativeCache, false), remote, meterRegistry);
+    }
+}
@@ -1,19 +1,26 @@
 package com.baganov.pizzanat.controller;
 
 import com.baganov.pizzanat.model.dto.AdminStatsResponse;
+import com.baganov.pizzanat.model.dto.DailyOrderStats;
 import com.baganov.pizzanat.service.AdminStatsService;
+import com.baganov.pizzanat.service.DeliveryZoneService;
 import com.baganov.pizzanat.service.StorageService;
+import com.baganov.pizzanat.service.reference.ReferenceDataService;
+import com.baganov.pizzanat.service.stats.OrderStatsService;
+import com.baganov.pizzanat.util.TimeZoneUtils;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -27,6 +34,9 @@ public class AdminController {
 
     private final StorageService storageService;
     private final AdminStatsService adminStatsService;
+    private final ReferenceDataService referenceDataService;
+    private final OrderStatsService orderStatsService;
+    private final DeliveryZoneService deliveryZoneService;
 
     @GetMapping("/stats")
     @PreAuthorize("hasRole('ADMIN')")
@@ -37,6 +47,16 @@ public class AdminController {
         return ResponseEntity.ok(stats);
     }
 
+    @GetMapping("/stats/orders")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Сводка заказов за день", description = "Число и сумма заказов за день по статусам - те же данные, что /stats в админских ботах")
+    public ResponseEntity<DailyOrderStats> getDailyOrderStats(
+            @Parameter(description = "День (yyyy-MM-dd), по умолчанию сегодня") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        LocalDate day = date != null ? date : TimeZoneUtils.nowInMoscow().toLocalDate();
+        log.info("Запрос сводки заказов за {}", day);
+        return ResponseEntity.ok(orderStatsService.getDailyStats(day));
+    }
+
     @PostMapping("/upload")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Загрузка изображения")
@@ -55,5 +75,20 @@ public class AdminController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/reference-data/refresh")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Перечитать справочники", description = "Перезагружает статусы заказов, роли, пункты выдачи и зоны доставки после правок напрямую в БД")
+    public ResponseEntity<Map<String, Integer>> refreshReferenceData() {
+        log.info("Принудительное обновление справочников");
+        ReferenceDataService.ReferenceData data = referenceDataService.refresh();
+
+        Map<String, Integer> response = new HashMap<>();
+        response.put("statuses", data.statusesById().size());
+        response.put("roles", data.rolesByName().size());
+        response.put("deliveryLocations", data.locationsById().size());
+        response.put("deliveryZones", deliveryZoneService.refreshMatcher().getZoneCount());
+
+        return ResponseEntity.ok(response);
+    }
 
 }
@@ -0,0 +1,65 @@
+/**
+ * @file: AdminExportController.java
+ * @description: Потоковая выгрузка заказов, позиций и платежей за период для бухгалтерии
+ * @dependencies: AccountingExportService, Spring Web
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.controller;
+
+import com.baganov.pizzanat.service.export.AccountingExportService;
+import com.baganov.pizzanat.service.export.ExportDataset;
+import com.baganov.pizzanat.service.export.ExportFormat;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.ValidationException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/admin/export")
+@RequiredArgsConstructor
+@Tag(name = "Admin Export", description = "Выгрузка данных для бухгалтерии")
+@SecurityRequirement(name = "bearerAuth")
+public class AdminExportController {
+
+    private final AccountingExportService exportService;
+
+    @GetMapping("/{dataset}")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Выгрузка за период", description = "Набор данных: orders, order-items или payments. "
+            + "Строки читаются курсором и пишутся в ответ по мере чтения, поэтому период не ограничен. "
+            + "Границы from и to включительно, по дате создания (московское время)")
+    public ResponseEntity<StreamingResponseBody> export(
+            @Parameter(description = "orders, order-items или payments") @PathVariable String dataset,
+            @Parameter(description = "Первый день (yyyy-MM-dd)", required = true) @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Последний день (yyyy-MM-dd)", required = true) @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "csv или ndjson") @RequestParam(defaultValue = "csv") String format) {
+        ExportDataset exportDataset = ExportDataset.fromPath(dataset);
+        ExportFormat exportFormat = ExportFormat.fromParam(format);
+        if (to.isBefore(from)) {
+            throw new ValidationException("Дата окончания выгрузки раньше даты начала");
+        }
+        log.info("Выгрузка {} за {} - {} в {}", exportDataset.getPath(), from, to, exportFormat.getExtension());
+
+        String filename = String.format("%s_%s_%s.%s", exportDataset.getPath(), from, to, exportFormat.getExtension());
+        StreamingResponseBody body = out -> exportService.export(exportDataset, exportFormat, from, to.plusDays(1), out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+}
@@ -6,10 +6,13 @@
  */
 package com.baganov.pizzanat.controller;
 
-import com.baganov.pizzanat.entity.Order;
+import com.baganov.pizzanat.model.dto.order.BulkUpdateOrderStatusRequest;
+import com.baganov.pizzanat.model.dto.order.BulkUpdateOrderStatusResponse;
+import com.baganov.pizzanat.model.dto.order.OrderCursorPage;
 import com.baganov.pizzanat.model.dto.order.OrderDTO;
 import com.baganov.pizzanat.model.dto.order.UpdateOrderStatusRequest;
 import com.baganov.pizzanat.service.OrderService;
+import com.baganov.pizzanat.service.order.ActiveOrdersProjection;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -25,7 +28,6 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Slf4j
 @RestController
@@ -35,6 +37,7 @@ import java.util.stream.Collectors;
 public class AdminOrderController {
 
     private final OrderService orderService;
+    private final ActiveOrdersProjection activeOrdersProjection;
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
@@ -46,23 +49,26 @@ public class AdminOrderController {
         return ResponseEntity.ok(orders);
     }
 
+    @GetMapping("/cursor")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Получение заказов по курсору", description = "Страницы без OFFSET, новые заказы первыми. "
+            + "Для следующей страницы передайте nextCursor из предыдущего ответа. "
+            + "Общее число заказов считается только при includeTotal=true", security = @SecurityRequirement(name = "bearerAuth"))
+    public ResponseEntity<OrderCursorPage> getOrdersByCursor(
+            @Parameter(description = "Фильтр по статусу (например, CONFIRMED)") @RequestParam(required = false) String status,
+            @Parameter(description = "Курсор из предыдущего ответа") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Размер страницы (1-100)") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Вернуть общее число заказов") @RequestParam(defaultValue = "false") boolean includeTotal) {
+        log.info("Администратор запрашивает заказы по курсору (статус: {})", status);
+        return ResponseEntity.ok(orderService.getOrdersByCursor(status, cursor, size, includeTotal));
+    }
+
     @GetMapping("/active")
     @PreAuthorize("hasRole('ADMIN')")
-    @Operation(summary = "Получение активных заказов", security = @SecurityRequirement(name = "bearerAuth"))
+    @Operation(summary = "Получение активных заказов", description = "Отдается из списка активных заказов в памяти, без запросов к БД", security = @SecurityRequirement(name = "bearerAuth"))
     public ResponseEntity<List<OrderDTO>> getActiveOrders() {
         log.info("Администратор запрашивает список активных заказов");
-        List<Order> activeOrders = orderService.findActiveOrdersIncludingNew();
-        List<OrderDTO> orderDTOs = activeOrders.stream()
-                .map(order -> {
-                    try {
-                        return orderService.getOrderById(order.getId(), null);
-                    } catch (Exception e) {
-                        log.error("Ошибка конвертации заказа #{} в DTO: {}", order.getId(), e.getMessage());
-                        return null;
-                    }
-                })
-                .filter(dto -> dto != null)
-                .collect(Collectors.toList());
+        List<OrderDTO> orderDTOs = activeOrdersProjection.getActiveOrderDetails();
         return ResponseEntity.ok(orderDTOs);
     }
 
@@ -86,4 +92,14 @@ public class AdminOrderController {
         OrderDTO order = orderService.updateOrderStatus(orderId, request.getStatusName());
         return ResponseEntity.ok(order);
     }
-}
\ No newline at end of file
+
+    @PostMapping("/status")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Массовая смена статуса заказов", description = "Переводит заказы в один статус одним запросом к БД. Заказы, которые не найдены или не могут перейти в статус, пропускаются и перечисляются в ответе", security = @SecurityRequirement(name = "bearerAuth"))
+    public ResponseEntity<BulkUpdateOrderStatusResponse> updateOrderStatuses(
+            @Valid @RequestBody BulkUpdateOrderStatusRequest request) {
+        log.info("Администратор массово изменяет статус {} заказов на '{}'", request.getOrderIds().size(),
+                request.getStatusName());
+        return ResponseEntity.ok(orderService.updateOrderStatuses(request.getOrderIds(), request.getStatusName()));
+    }
+}
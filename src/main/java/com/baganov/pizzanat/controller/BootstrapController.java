@@ -0,0 +1,75 @@
+/**
+ * @file: BootstrapController.java
+ * @description: Стартовые данные мини-приложения одним запросом
+ * @dependencies: BootstrapService
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.controller;
+
+import com.baganov.pizzanat.entity.User;
+import com.baganov.pizzanat.model.dto.bootstrap.BootstrapResponse;
+import com.baganov.pizzanat.service.BootstrapService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.UUID;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/bootstrap")
+@RequiredArgsConstructor
+@Tag(name = "Bootstrap", description = "Стартовые данные мини-приложения")
+public class BootstrapController {
+
+    private static final String SESSION_ID_COOKIE = "CART_SESSION_ID";
+
+    private final BootstrapService bootstrapService;
+
+    @GetMapping
+    @Operation(summary = "Категории, продукты по категориям, спецпредложения, корзина и профиль одним ответом")
+    public ResponseEntity<BootstrapResponse> getBootstrap(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            Authentication authentication) {
+
+        User user = authentication != null && authentication.isAuthenticated()
+                && authentication.getPrincipal() instanceof User principal ? principal : null;
+        String sessionId = getOrCreateSessionId(request);
+
+        log.debug("getBootstrap: userId={}, sessionId={}", user != null ? user.getId() : null, sessionId);
+
+        BootstrapResponse bootstrap = bootstrapService.getBootstrap(sessionId, user);
+
+        // sessionId корзины для MAX mini app, как в CartController
+        response.setHeader("X-Session-Id", sessionId);
+
+        return ResponseEntity.ok(bootstrap);
+    }
+
+    private String getOrCreateSessionId(HttpServletRequest request) {
+        String headerSessionId = request.getHeader("X-Session-Id");
+        if (headerSessionId != null && !headerSessionId.isEmpty()) {
+            return headerSessionId;
+        }
+
+        Cookie[] cookies = request.getCookies();
+        if (cookies != null) {
+            for (Cookie cookie : cookies) {
+                if (SESSION_ID_COOKIE.equals(cookie.getName())) {
+                    return cookie.getValue();
+                }
+            }
+        }
+        return UUID.randomUUID().toString();
+    }
+}
@@ -2,6 +2,8 @@ package com.baganov.pizzanat.controller;
 
 import com.baganov.pizzanat.model.dto.cart.AddToCartRequest;
 import com.baganov.pizzanat.model.dto.cart.CartDTO;
+import com.baganov.pizzanat.model.dto.cart.CartDeliveryAddressRequest;
+import com.baganov.pizzanat.model.dto.cart.CartPatchRequest;
 import com.baganov.pizzanat.model.dto.cart.UpdateCartItemRequest;
 import com.baganov.pizzanat.service.CartService;
 import com.baganov.pizzanat.service.UserService;
@@ -108,6 +110,44 @@ public class CartController {
         return ResponseEntity.ok(cart);
     }
 
+    @PatchMapping
+    @Operation(summary = "Пакетное изменение корзины", description = "Применяет список операций ADD/SET/REMOVE атомарно и возвращает итоговую корзину")
+    public ResponseEntity<CartDTO> patchCart(
+            @Valid @RequestBody CartPatchRequest patchRequest,
+            HttpServletRequest request,
+            HttpServletResponse response,
+            Authentication authentication) {
+
+        Integer userId = getUserId(authentication);
+        String sessionId = getOrCreateSessionId(request);
+
+        CartDTO cart = cartService.applyOperations(sessionId, userId, patchRequest.getOperations());
+
+        // Добавляем sessionId в заголовок для MAX mini app
+        response.setHeader("X-Session-Id", sessionId);
+
+        return ResponseEntity.ok(cart);
+    }
+
+    @PutMapping("/delivery-address")
+    @Operation(summary = "Адрес доставки корзины", description = "Запоминает адрес доставки: в ответах корзины появляется стоимость доставки")
+    public ResponseEntity<CartDTO> setDeliveryAddress(
+            @Valid @RequestBody CartDeliveryAddressRequest addressRequest,
+            HttpServletRequest request,
+            HttpServletResponse response,
+            Authentication authentication) {
+
+        Integer userId = getUserId(authentication);
+        String sessionId = getOrCreateSessionId(request);
+
+        CartDTO cart = cartService.setDeliveryAddress(sessionId, userId, addressRequest.getAddress().trim());
+
+        // Добавляем sessionId в заголовок для MAX mini app
+        response.setHeader("X-Session-Id", sessionId);
+
+        return ResponseEntity.ok(cart);
+    }
+
     @DeleteMapping
     @Operation(summary = "Очистка корзины")
     public ResponseEntity<Void> clearCart(
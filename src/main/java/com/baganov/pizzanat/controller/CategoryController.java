@@ -2,19 +2,20 @@ package com.baganov.pizzanat.controller;
 
 import com.baganov.pizzanat.model.dto.product.CategoryDTO;
 import com.baganov.pizzanat.service.CategoryService;
+import com.baganov.pizzanat.service.catalog.CatalogResponseCache;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.List;
-
 @Slf4j
 @RestController
 @RequestMapping("/api/v1/categories")
@@ -23,13 +24,17 @@ import java.util.List;
 public class CategoryController {
 
     private final CategoryService categoryService;
+    private final CatalogResponseCache catalogResponseCache;
 
     @GetMapping
-    @Operation(summary = "Получение списка активных категорий")
-    public ResponseEntity<List<CategoryDTO>> getAllCategories() {
-        log.info("Getting all active categories");
-        List<CategoryDTO> categories = categoryService.getAllActiveCategories();
-        return ResponseEntity.ok(categories);
+    @Operation(summary = "Получение списка активных категорий", description = "Готовый JSON со строгим ETag, 304 при совпадении If-None-Match")
+    public ResponseEntity<byte[]> getAllCategories(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        log.debug("Getting all active categories");
+        return catalogResponseCache
+                .get("categories", categoryService::getAllActiveCategories)
+                .toResponseEntity(ifNoneMatch, acceptEncoding);
     }
 
     @GetMapping("/{id}")
@@ -11,6 +11,7 @@ import com.baganov.pizzanat.service.AddressSuggestionService;
 import com.baganov.pizzanat.service.DeliveryLocationService;
 import com.baganov.pizzanat.service.DeliveryZoneService;
 import com.baganov.pizzanat.model.dto.delivery.DeliveryLocationDTO;
+import com.baganov.pizzanat.service.cart.CartPricingService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -39,7 +40,7 @@ public class DeliveryController {
 
     private final AddressSuggestionService addressSuggestionService;
     private final DeliveryLocationService deliveryLocationService;
-    private final DeliveryZoneService deliveryZoneService;
+    private final CartPricingService cartPricingService;
 
     /**
      * Получить автоподсказки адресов для города Волжск
@@ -121,7 +122,8 @@ public class DeliveryController {
      * Расчет стоимости доставки с поддержкой зональной системы
      *
      * @param address     адрес доставки
-     * @param orderAmount сумма заказа (необязательно)
+     * @param orderAmount сумма заказа (необязательно). Запрос ничего не меняет: адрес доставки корзины
+     *                    задается через PUT /api/v1/cart/delivery-address.
      * @return информация о стоимости и времени доставки
      */
     @GetMapping("/estimate")
@@ -146,7 +148,7 @@ public class DeliveryController {
             DeliveryZoneService.DeliveryCalculationResult result;
             try {
                 log.info("📍 Вызываем зональную систему...");
-                result = deliveryZoneService.calculateDelivery(cleanAddress,
+                result = cartPricingService.calculateDelivery(cleanAddress,
                         orderAmount != null ? orderAmount : BigDecimal.ZERO);
                 log.info("✅ Зональная система успешно обработала адрес: {} -> зона: {}, стоимость: {}",
                         cleanAddress, result.getZoneName(), result.getDeliveryCost());
@@ -9,7 +9,9 @@ package com.baganov.pizzanat.controller;
 import com.baganov.pizzanat.model.dto.payment.CreatePaymentRequest;
 import com.baganov.pizzanat.model.dto.payment.PaymentResponse;
 import com.baganov.pizzanat.model.dto.payment.SbpBankInfo;
+import com.baganov.pizzanat.exception.IdempotencyConflictException;
 import com.baganov.pizzanat.service.YooKassaPaymentService;
+import com.baganov.pizzanat.service.idempotency.IdempotencyService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -18,6 +20,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -39,6 +42,7 @@ import java.util.Map;
 public class MobilePaymentController {
 
     private final YooKassaPaymentService paymentService;
+    private final IdempotencyService idempotencyService;
 
     /**
      * Создание платежа для мобильного приложения
@@ -51,16 +55,21 @@ public class MobilePaymentController {
             @ApiResponse(responseCode = "200", description = "Платеж успешно создан"),
             @ApiResponse(responseCode = "400", description = "Некорректные данные запроса"),
             @ApiResponse(responseCode = "401", description = "Требуется аутентификация"),
+            @ApiResponse(responseCode = "409", description = "Ключ идемпотентности использован для другого запроса или оригинал еще выполняется"),
             @ApiResponse(responseCode = "500", description = "Внутренняя ошибка сервера")
     })
     public ResponseEntity<Map<String, Object>> createMobilePayment(
-            @Valid @RequestBody CreatePaymentRequest request) {
+            @Valid @RequestBody CreatePaymentRequest request,
+            @Parameter(description = "Ключ идемпотентности, одинаковый для всех повторов одного платежа")
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
 
         log.info("Создание платежа для мобильного приложения. Заказ: {}, Сумма: {}",
                 request.getOrderId(), request.getAmount());
 
         try {
-            PaymentResponse payment = paymentService.createPayment(request);
+            PaymentResponse payment = idempotencyService.execute("payment:order:" + request.getOrderId(),
+                    idempotencyKey, request, PaymentResponse.class,
+                    () -> paymentService.createPayment(request));
 
             // Упрощенный ответ для мобильного приложения
             Map<String, Object> response = Map.of(
@@ -77,6 +86,13 @@ public class MobilePaymentController {
             log.info("Платеж для мобильного приложения создан успешно. ID: {}", payment.getId());
             return ResponseEntity.ok(response);
 
+        } catch (IdempotencyConflictException e) {
+            log.warn("Конфликт ключа идемпотентности платежа: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
+                    "success", false,
+                    "error", "Не удалось создать платеж",
+                    "message", e.getMessage()));
+
         } catch (Exception e) {
             log.error("Ошибка создания платежа для мобильного приложения: {}", e.getMessage(), e);
 
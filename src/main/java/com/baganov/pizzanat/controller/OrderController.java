@@ -1,10 +1,13 @@
 package com.baganov.pizzanat.controller;
 
 import com.baganov.pizzanat.model.dto.order.CreateOrderRequest;
+import com.baganov.pizzanat.model.dto.order.OrderCursorPage;
 import com.baganov.pizzanat.model.dto.order.OrderDTO;
 import com.baganov.pizzanat.model.dto.payment.PaymentUrlResponse;
 import com.baganov.pizzanat.service.OrderService;
 import com.baganov.pizzanat.service.UserService;
+import com.baganov.pizzanat.service.idempotency.IdempotencyService;
+import com.baganov.pizzanat.service.order.OrderEventHub;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -16,9 +19,11 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @Slf4j
 @RestController
@@ -29,11 +34,15 @@ public class OrderController {
 
     private final OrderService orderService;
     private final UserService userService;
+    private final IdempotencyService idempotencyService;
+    private final OrderEventHub orderEventHub;
 
     @PostMapping
-    @Operation(summary = "Создание заказа", security = @SecurityRequirement(name = "bearerAuth"))
+    @Operation(summary = "Создание заказа", description = "Повтор с тем же заголовком Idempotency-Key возвращает уже созданный заказ", security = @SecurityRequirement(name = "bearerAuth"))
     public ResponseEntity<OrderDTO> createOrder(
             @Valid @RequestBody CreateOrderRequest request,
+            @Parameter(description = "Ключ идемпотентности, одинаковый для всех повторов одного оформления")
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
             HttpServletRequest httpRequest,
             Authentication authentication) {
 
@@ -59,7 +68,11 @@ public class OrderController {
             }
         }
 
-        OrderDTO order = orderService.createOrder(userId, sessionId, request);
+        Integer orderUserId = userId;
+        String orderSessionId = sessionId;
+        String scope = userId != null ? "order:user:" + userId : "order:session:" + sessionId;
+        OrderDTO order = idempotencyService.execute(scope, idempotencyKey, request, OrderDTO.class,
+                () -> orderService.createOrder(orderUserId, orderSessionId, request));
         return ResponseEntity.ok(order);
     }
 
@@ -75,6 +88,21 @@ public class OrderController {
         return ResponseEntity.ok(order);
     }
 
+    @GetMapping(value = "/{orderId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Поток изменений статуса заказа и платежа (Server-Sent Events)", description = "События order-status и payment-status; при переподключении с Last-Event-ID пропущенные события досылаются, иначе приходит snapshot с текущим заказом", security = @SecurityRequirement(name = "bearerAuth"))
+    public SseEmitter streamOrderEvents(
+            @Parameter(description = "ID заказа", required = true) @PathVariable Integer orderId,
+            @Parameter(description = "ID последнего полученного события")
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            Authentication authentication) {
+
+        Integer userId = getUserId(authentication);
+
+        // Проверка доступа до открытия потока: чужой или несуществующий заказ - обычная ошибка
+        orderService.getOrderById(orderId, userId);
+        return orderEventHub.subscribe(orderId, lastEventId, () -> orderService.getOrderById(orderId, userId));
+    }
+
     @GetMapping("/{orderId}/payment-url")
     @Operation(summary = "Получение URL для оплаты заказа", description = "Создает и возвращает URL для перенаправления на страницу оплаты", security = @SecurityRequirement(name = "bearerAuth"))
     public ResponseEntity<PaymentUrlResponse> getPaymentUrl(
@@ -106,6 +134,24 @@ public class OrderController {
         return ResponseEntity.ok(orders);
     }
 
+    @GetMapping("/cursor")
+    @Operation(summary = "История заказов пользователя по курсору", description = "Страницы без OFFSET: "
+            + "для следующей страницы передайте nextCursor из предыдущего ответа. "
+            + "Общее число заказов считается только при includeTotal=true", security = @SecurityRequirement(name = "bearerAuth"))
+    public ResponseEntity<OrderCursorPage> getUserOrdersByCursor(
+            @Parameter(description = "Курсор из предыдущего ответа") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Размер страницы (1-100)") @RequestParam(defaultValue = "10") int size,
+            @Parameter(description = "Вернуть общее число заказов") @RequestParam(defaultValue = "false") boolean includeTotal,
+            Authentication authentication) {
+
+        if (authentication == null) {
+            return ResponseEntity.status(401).build();
+        }
+
+        Integer userId = getUserId(authentication);
+        return ResponseEntity.ok(orderService.getUserOrdersByCursor(userId, cursor, size, includeTotal));
+    }
+
     private Integer getUserId(Authentication authentication) {
         log.debug("getUserId: authentication={}", authentication);
         if (authentication != null) {
@@ -2,18 +2,19 @@ package com.baganov.pizzanat.controller;
 
 import com.baganov.pizzanat.dto.ProductDto;
 import com.baganov.pizzanat.service.ProductService;
+import com.baganov.pizzanat.service.catalog.CatalogResponseCache;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/api/v1/products")
 @RequiredArgsConstructor
@@ -21,6 +22,7 @@ import java.util.List;
 public class ProductController {
 
     private final ProductService productService;
+    private final CatalogResponseCache catalogResponseCache;
 
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @Operation(summary = "Создать новый продукт")
@@ -30,9 +32,14 @@ public class ProductController {
     }
 
     @GetMapping
-    @Operation(summary = "Получить все продукты")
-    public Page<ProductDto> getAllProducts(@PageableDefault Pageable pageable) {
-        return productService.getAllProducts(pageable);
+    @Operation(summary = "Получить все продукты", description = "Готовый JSON (gzip при поддержке клиентом) со строгим ETag, 304 при совпадении If-None-Match")
+    public ResponseEntity<byte[]> getAllProducts(@PageableDefault Pageable pageable,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return catalogResponseCache
+                .get("products:" + pageable.getPageNumber() + ":" + pageable.getPageSize(),
+                        () -> productService.getAllProducts(pageable))
+                .toResponseEntity(ifNoneMatch, acceptEncoding);
     }
 
     @GetMapping("/{id}")
@@ -42,16 +49,25 @@ public class ProductController {
     }
 
     @GetMapping("/category/{categoryId}")
-    @Operation(summary = "Получить продукты по категории")
-    public Page<ProductDto> getProductsByCategory(@PathVariable Integer categoryId,
-            @PageableDefault Pageable pageable) {
-        return productService.getProductsByCategory(categoryId, pageable);
+    @Operation(summary = "Получить продукты по категории", description = "Готовый JSON со строгим ETag, 304 при совпадении If-None-Match")
+    public ResponseEntity<byte[]> getProductsByCategory(@PathVariable Integer categoryId,
+            @PageableDefault Pageable pageable,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return catalogResponseCache
+                .get("category:" + categoryId + ":" + pageable.getPageNumber() + ":" + pageable.getPageSize(),
+                        () -> productService.getProductsByCategory(categoryId, pageable))
+                .toResponseEntity(ifNoneMatch, acceptEncoding);
     }
 
     @GetMapping("/special-offers")
-    @Operation(summary = "Получить специальные предложения")
-    public List<ProductDto> getSpecialOffers() {
-        return productService.getSpecialOffers();
+    @Operation(summary = "Получить специальные предложения", description = "Готовый JSON со строгим ETag, 304 при совпадении If-None-Match")
+    public ResponseEntity<byte[]> getSpecialOffers(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return catalogResponseCache
+                .get("special-offers", productService::getSpecialOffers)
+                .toResponseEntity(ifNoneMatch, acceptEncoding);
     }
 
     @GetMapping("/search")
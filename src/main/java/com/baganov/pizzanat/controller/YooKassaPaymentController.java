@@ -9,16 +9,20 @@ package com.baganov.pizzanat.controller;
 import com.baganov.pizzanat.model.dto.payment.CreatePaymentRequest;
 import com.baganov.pizzanat.model.dto.payment.PaymentResponse;
 import com.baganov.pizzanat.model.dto.payment.SbpBankInfo;
+import com.baganov.pizzanat.exception.IdempotencyConflictException;
 import com.baganov.pizzanat.service.YooKassaPaymentService;
+import com.baganov.pizzanat.service.idempotency.IdempotencyService;
 import com.fasterxml.jackson.databind.JsonNode;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.ValidationException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
@@ -38,28 +42,37 @@ import java.util.Map;
 public class YooKassaPaymentController {
 
     private final YooKassaPaymentService yooKassaPaymentService;
+    private final IdempotencyService idempotencyService;
 
     /**
      * Создание нового платежа
      */
     @PostMapping("/create")
-    @Operation(summary = "Создание платежа", description = "Создает новый платеж через ЮKassa API с поддержкой СБП", security = @SecurityRequirement(name = "bearerAuth"))
+    @Operation(summary = "Создание платежа", description = "Создает новый платеж через ЮKassa API с поддержкой СБП. Повтор с тем же заголовком Idempotency-Key возвращает уже созданный платеж", security = @SecurityRequirement(name = "bearerAuth"))
     public ResponseEntity<PaymentResponse> createPayment(
             @Valid @RequestBody CreatePaymentRequest request,
+            @Parameter(description = "Ключ идемпотентности, одинаковый для всех повторов одного платежа")
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
             Authentication authentication) {
 
         log.info("🔄 Создание платежа ЮKassa: заказ={}, метод={}, банк={}",
                 request.getOrderId(), request.getMethod(), request.getBankId());
 
         try {
-            PaymentResponse payment = yooKassaPaymentService.createPayment(request);
+            PaymentResponse payment = idempotencyService.execute("payment:order:" + request.getOrderId(),
+                    idempotencyKey, request, PaymentResponse.class,
+                    () -> yooKassaPaymentService.createPayment(request));
 
             log.info("✅ Платеж создан успешно: ID={}, URL={}",
                     payment.getId(), payment.getConfirmationUrl());
 
             return ResponseEntity.ok(payment);
 
-        } catch (IllegalArgumentException e) {
+        } catch (IdempotencyConflictException e) {
+            log.warn("⚠️ Конфликт ключа идемпотентности платежа: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+
+        } catch (IllegalArgumentException | ValidationException e) {
             log.warn("⚠️ Некорректный запрос создания платежа: {}", e.getMessage());
             return ResponseEntity.badRequest().build();
 
@@ -4,12 +4,16 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Data
 @Builder
@@ -20,7 +24,8 @@ import java.util.List;
 public class Cart {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "carts_seq")
+    @SequenceGenerator(name = "carts_seq", sequenceName = "carts_seq", allocationSize = 50)
     private Integer id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -40,19 +45,66 @@ public class Cart {
     @Builder.Default
     private List<CartItem> items = new ArrayList<>();
 
+    /**
+     * Индекс позиций по ID продукта. Строится лениво и сбрасывается каждым методом,
+     * меняющим состав позиций; список items меняется только через них (addItem, removeItem,
+     * clearItems, setItems).
+     */
+    @Transient
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Map<Integer, CartItem> itemIndex;
+
+    public void setItems(List<CartItem> items) {
+        this.items = items;
+        itemIndex = null;
+    }
+
     public void addItem(CartItem item) {
         if (items == null) {
             items = new ArrayList<>();
         }
         items.add(item);
         item.setCart(this);
+        if (itemIndex != null) {
+            itemIndex.put(item.getProduct().getId(), item);
+        }
     }
 
     public void removeItem(CartItem item) {
-        if (items != null) {
-            items.remove(item);
+        if (items != null && items.remove(item)) {
             item.setCart(null);
+            if (itemIndex != null) {
+                itemIndex.remove(item.getProduct().getId());
+            }
+        }
+    }
+
+    /**
+     * Удаляет все позиции (orphanRemoval удалит их из БД)
+     */
+    public void clearItems() {
+        if (items != null) {
+            items.clear();
+        }
+        itemIndex = null;
+    }
+
+    /**
+     * Позиция корзины по ID продукта за O(1)
+     */
+    public CartItem findItem(Integer productId) {
+        return items != null ? itemIndex().get(productId) : null;
+    }
+
+    private Map<Integer, CartItem> itemIndex() {
+        if (itemIndex == null) {
+            itemIndex = new HashMap<>();
+            for (CartItem item : items) {
+                itemIndex.put(item.getProduct().getId(), item);
+            }
         }
+        return itemIndex;
     }
 
     public BigDecimal getTotalAmount() {
@@ -29,6 +29,12 @@ public class DeliveryLocation {
     @Column(nullable = false)
     private String address;
 
+    /**
+     * Нормализованный ключ адреса (ParsedAddress.key()) для пунктов, созданных из адресов доставки
+     */
+    @Column(name = "address_key", length = 512)
+    private String addressKey;
+
     @Column(precision = 10, scale = 8)
     private BigDecimal latitude;
 
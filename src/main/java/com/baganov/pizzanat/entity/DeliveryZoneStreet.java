@@ -6,6 +6,7 @@
  */
 package com.baganov.pizzanat.entity;
 
+import com.baganov.pizzanat.util.RussianAddressParser;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -56,7 +57,8 @@ public class DeliveryZoneStreet {
     }
 
     /**
-     * Проверяет, подходит ли адрес под эту улицу
+     * Проверяет, подходит ли адрес под эту улицу.
+     * Поиск зоны по адресу (DeliveryZoneMatcher) применяет эти правила к разобранному адресу (RussianAddressParser).
      */
     public boolean matchesAddress(String address) {
         if (address == null || address.trim().isEmpty()) {
@@ -66,10 +68,6 @@ public class DeliveryZoneStreet {
         String normalizedAddress = address.toLowerCase().trim();
         String normalizedStreet = streetName.toLowerCase().trim();
 
-        // Логирование для отладки
-        System.out
-                .println("DEBUG: Проверка адреса '" + normalizedAddress + "' против улицы '" + normalizedStreet + "'");
-
         // Улучшенная проверка названия улицы
         boolean streetMatches = false;
 
@@ -98,24 +96,19 @@ public class DeliveryZoneStreet {
             streetMatches = true;
         }
 
-        System.out.println("DEBUG: Улица совпадает: " + streetMatches);
-
         if (!streetMatches) {
             return false;
         }
 
         // Если диапазон домов не указан - вся улица подходит
         if (houseNumberFrom == null && houseNumberTo == null) {
-            System.out.println("DEBUG: Диапазон домов не указан, улица подходит полностью");
             return true;
         }
 
-        // Извлечение номера дома из адреса (простая реализация)
+        // Извлечение номера дома из адреса
         Integer houseNumber = extractHouseNumber(normalizedAddress);
-        System.out.println("DEBUG: Извлеченный номер дома: " + houseNumber);
 
         if (houseNumber == null) {
-            System.out.println("DEBUG: Номер дома не определен, считаем что подходит");
             return true; // Если не можем определить номер дома, считаем что подходит
         }
 
@@ -123,56 +116,28 @@ public class DeliveryZoneStreet {
         boolean inRange = true;
         if (houseNumberFrom != null) {
             inRange = houseNumber >= houseNumberFrom;
-            System.out.println("DEBUG: Проверка минимального номера " + houseNumberFrom + ": " + inRange);
         }
         if (houseNumberTo != null && inRange) {
             inRange = houseNumber <= houseNumberTo;
-            System.out.println("DEBUG: Проверка максимального номера " + houseNumberTo + ": " + inRange);
         }
 
         // Проверка четности/нечетности
         if (inRange && (isEvenOnly || isOddOnly)) {
             if (isEvenOnly && houseNumber % 2 != 0) {
-                System.out.println("DEBUG: Требуются четные дома, но номер нечетный");
                 return false;
             }
             if (isOddOnly && houseNumber % 2 == 0) {
-                System.out.println("DEBUG: Требуются нечетные дома, но номер четный");
                 return false;
             }
         }
 
-        System.out.println("DEBUG: Итоговый результат: " + inRange);
         return inRange;
     }
 
     /**
-     * Извлекает номер дома из адреса (простая реализация)
+     * Номер дома по общим правилам разбора адреса
      */
     private Integer extractHouseNumber(String address) {
-        try {
-            // Ищем паттерн "д. 123", "дом 123", "123"
-            String[] patterns = { "д\\.", "дом", "д", "house" };
-
-            for (String pattern : patterns) {
-                String regex = pattern + "\\s*(\\d+)";
-                java.util.regex.Pattern p = java.util.regex.Pattern.compile(regex);
-                java.util.regex.Matcher m = p.matcher(address);
-                if (m.find()) {
-                    return Integer.parseInt(m.group(1));
-                }
-            }
-
-            // Если не нашли по паттернам, ищем любое число в конце
-            java.util.regex.Pattern p = java.util.regex.Pattern.compile("(\\d+)(?!.*\\d)");
-            java.util.regex.Matcher m = p.matcher(address);
-            if (m.find()) {
-                return Integer.parseInt(m.group(1));
-            }
-        } catch (NumberFormatException e) {
-            // Игнорируем ошибки парсинга
-        }
-
-        return null;
+        return RussianAddressParser.parse(address).house();
     }
-}
\ No newline at end of file
+}
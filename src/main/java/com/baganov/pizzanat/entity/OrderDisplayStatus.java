@@ -87,12 +87,19 @@ public enum OrderDisplayStatus {
      * Возвращает индикатор прогресса polling'а для платежей в ожидании
      */
     public static String getPollingIndicator(Payment payment) {
-        if (payment == null || payment.getCreatedAt() == null) {
+        return getPollingIndicator(payment != null ? payment.getCreatedAt() : null);
+    }
+
+    /**
+     * Индикатор прогресса polling'а по времени создания платежа
+     */
+    public static String getPollingIndicator(LocalDateTime paymentCreatedAt) {
+        if (paymentCreatedAt == null) {
             return "";
         }
 
         long minutesElapsed = ChronoUnit.MINUTES.between(
-            payment.getCreatedAt(), LocalDateTime.now()
+            paymentCreatedAt, LocalDateTime.now()
         );
 
         if (minutesElapsed >= 10) {
@@ -113,10 +120,17 @@ public enum OrderDisplayStatus {
      * Возвращает статус с дополнительной информацией для polling'а
      */
     public String getFormattedStatusWithInfo(Payment payment) {
+        return getFormattedStatusWithInfo(payment != null ? payment.getCreatedAt() : null);
+    }
+
+    /**
+     * Статус с информацией для polling'а по времени создания последнего платежа
+     */
+    public String getFormattedStatusWithInfo(LocalDateTime paymentCreatedAt) {
         String baseStatus = getFormattedStatus();
         
-        if (this == PAYMENT_POLLING && payment != null) {
-            return baseStatus + " " + getPollingIndicator(payment);
+        if (this == PAYMENT_POLLING && paymentCreatedAt != null) {
+            return baseStatus + " " + getPollingIndicator(paymentCreatedAt);
         }
         
         return baseStatus;
@@ -0,0 +1,53 @@
+/**
+ * @file: OrderStatusHistory.java
+ * @description: Запись журнала смен статуса заказа (только добавление)
+ * @dependencies: JPA, Lombok
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "order_status_history")
+public class OrderStatusHistory {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_status_history_seq")
+    @SequenceGenerator(name = "order_status_history_seq", sequenceName = "order_status_history_seq", allocationSize = 50)
+    private Long id;
+
+    /**
+     * ID заказа без связи: журнал пишется и читается без загрузки заказа
+     */
+    @Column(name = "order_id", nullable = false, updatable = false)
+    private Integer orderId;
+
+    /**
+     * Предыдущий статус (null для записи о создании заказа)
+     */
+    @Column(name = "from_status", length = 50, updatable = false)
+    private String fromStatus;
+
+    @Column(name = "to_status", nullable = false, length = 50, updatable = false)
+    private String toStatus;
+
+    @Column(name = "changed_at", nullable = false, updatable = false)
+    private LocalDateTime changedAt;
+
+    /**
+     * Сколько заказ провел в статусе fromStatus, мс (null, если начало этапа неизвестно)
+     */
+    @Column(name = "duration_ms", updatable = false)
+    private Long durationMs;
+}
@@ -0,0 +1,120 @@
+/**
+ * @file: OutboxMessage.java
+ * @description: Сообщение транзакционного outbox: побочный эффект заказа для одного направления доставки
+ * @dependencies: JPA, Lombok
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "outbox_messages")
+public class OutboxMessage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * ID заказа: сообщения одного заказа доставляются в направление в порядке записи
+     */
+    @Column(name = "aggregate_id", nullable = false)
+    private Integer aggregateId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 50)
+    private EventType eventType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "destination", nullable = false, length = 30)
+    private Destination destination;
+
+    /**
+     * Дополнительные данные события в JSON (например, старый и новый статус)
+     */
+    @Column(name = "payload", columnDefinition = "TEXT")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    @Builder.Default
+    private Status status = Status.PENDING;
+
+    @Column(name = "attempts", nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    /**
+     * Срок аренды сообщения обработчиком; после него сообщение может забрать другой узел
+     */
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
+    /**
+     * Ключи получателей, которым сообщение уже доставлено, по одному в строке (см. OutboxDelivery)
+     */
+    @Column(name = "delivered_recipients", columnDefinition = "TEXT")
+    private String deliveredRecipients;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+        if (nextAttemptAt == null) {
+            nextAttemptAt = createdAt;
+        }
+    }
+
+    /**
+     * События заказа, порождающие внешние уведомления
+     */
+    public enum EventType {
+        ORDER_CREATED,
+        ORDER_PAID,
+        ORDER_STATUS_CHANGED
+    }
+
+    /**
+     * Направления доставки; у каждого своя очередь, ограничение параллелизма и повторы
+     */
+    public enum Destination {
+        ADMIN_TELEGRAM,
+        ADMIN_MAX,
+        CUSTOMER,
+        GOOGLE_SHEETS
+    }
+
+    public enum Status {
+        PENDING,
+        PROCESSING,
+        SENT,
+        /**
+         * Исчерпаны попытки доставки
+         */
+        FAILED
+    }
+}
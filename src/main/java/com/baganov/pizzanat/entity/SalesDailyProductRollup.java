@@ -0,0 +1,54 @@
+/**
+ * @file: SalesDailyProductRollup.java
+ * @description: Агрегат продаж товара за день: продано штук и выручка
+ * @dependencies: JPA, Lombok
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "sales_rollup_daily_product")
+@IdClass(SalesDailyProductRollup.Key.class)
+public class SalesDailyProductRollup {
+
+    @Id
+    @Column(name = "bucket_date")
+    private LocalDate bucketDate;
+
+    /**
+     * ID товара без связи: агрегат не загружает товар
+     */
+    @Id
+    @Column(name = "product_id")
+    private Integer productId;
+
+    @Column(name = "units", nullable = false)
+    private long units;
+
+    @Column(name = "revenue", nullable = false, precision = 14, scale = 2)
+    private BigDecimal revenue;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private LocalDate bucketDate;
+        private Integer productId;
+    }
+}
@@ -0,0 +1,36 @@
+/**
+ * @file: SalesDailyRollup.java
+ * @description: Агрегат продаж за день: число заказов и выручка
+ * @dependencies: JPA, Lombok
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "sales_rollup_daily")
+public class SalesDailyRollup {
+
+    @Id
+    @Column(name = "bucket_date")
+    private LocalDate bucketDate;
+
+    @Column(name = "orders_count", nullable = false)
+    private long ordersCount;
+
+    @Column(name = "revenue", nullable = false, precision = 14, scale = 2)
+    private BigDecimal revenue;
+}
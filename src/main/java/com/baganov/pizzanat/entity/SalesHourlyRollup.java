@@ -0,0 +1,39 @@
+/**
+ * @file: SalesHourlyRollup.java
+ * @description: Агрегат продаж за час: число заказов и выручка
+ * @dependencies: JPA, Lombok
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "sales_rollup_hourly")
+public class SalesHourlyRollup {
+
+    /**
+     * Начало часа (время created_at заказов, усеченное до часа)
+     */
+    @Id
+    @Column(name = "bucket_start")
+    private LocalDateTime bucketStart;
+
+    @Column(name = "orders_count", nullable = false)
+    private long ordersCount;
+
+    @Column(name = "revenue", nullable = false, precision = 14, scale = 2)
+    private BigDecimal revenue;
+}
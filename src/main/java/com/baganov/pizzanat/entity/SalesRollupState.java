@@ -0,0 +1,48 @@
+/**
+ * @file: SalesRollupState.java
+ * @description: Состояние агрегатов продаж: последняя сверка с заказами; строка служит блокировкой записи
+ * @dependencies: JPA, Lombok
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "sales_rollup_state")
+public class SalesRollupState {
+
+    public static final short ID = 1;
+
+    @Id
+    @Column(name = "id")
+    private Short id;
+
+    /**
+     * Начало последней сверки; приращения, собранные раньше, ею уже учтены
+     */
+    @Column(name = "reconciled_at")
+    private LocalDateTime reconciledAt;
+
+    @Column(name = "reconciled_from")
+    private LocalDate reconciledFrom;
+
+    @Column(name = "reconciled_to")
+    private LocalDate reconciledTo;
+
+    public static SalesRollupState initial() {
+        return new SalesRollupState(ID, null, null, null);
+    }
+}
@@ -0,0 +1,30 @@
+/**
+ * @file: SalesStatusRollup.java
+ * @description: Число заказов, которые сейчас находятся в статусе
+ * @dependencies: JPA, Lombok
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "sales_rollup_status")
+public class SalesStatusRollup {
+
+    @Id
+    @Column(name = "status_name", length = 50)
+    private String statusName;
+
+    @Column(name = "orders_count", nullable = false)
+    private long ordersCount;
+}
@@ -23,7 +23,8 @@ import java.time.LocalDateTime;
 public class ScheduledNotification {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "scheduled_notifications_seq")
+    @SequenceGenerator(name = "scheduled_notifications_seq", sequenceName = "scheduled_notifications_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,26 @@
+/**
+ * @file: CatalogChangedEvent.java
+ * @description: Событие изменения каталога (продукты или категории)
+ * @dependencies: Spring Events
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.event;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+@Getter
+public class CatalogChangedEvent extends ApplicationEvent {
+
+    /**
+     * ID измененного продукта (null, если изменение затрагивает весь каталог)
+     */
+    private final Integer productId;
+    private final String reason;
+
+    public CatalogChangedEvent(Object source, Integer productId, String reason) {
+        super(source);
+        this.productId = productId;
+        this.reason = reason;
+    }
+}
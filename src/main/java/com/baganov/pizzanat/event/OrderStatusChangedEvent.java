@@ -6,6 +6,8 @@
  */
 package com.baganov.pizzanat.event;
 
+import com.baganov.pizzanat.entity.Order;
+import lombok.AccessLevel;
 import lombok.Getter;
 import org.springframework.context.ApplicationEvent;
 
@@ -16,10 +18,33 @@ public class OrderStatusChangedEvent extends ApplicationEvent {
     private final String oldStatus;
     private final String newStatus;
 
+    @Getter(AccessLevel.NONE)
+    private final Order order;
+
+    /**
+     * Смена статуса без сущности заказа (например, массовый UPDATE): версия заказа неизвестна
+     */
     public OrderStatusChangedEvent(Object source, Integer orderId, String oldStatus, String newStatus) {
+        this(source, orderId, null, oldStatus, newStatus);
+    }
+
+    public OrderStatusChangedEvent(Object source, Order order, String oldStatus, String newStatus) {
+        this(source, order.getId(), order, oldStatus, newStatus);
+    }
+
+    private OrderStatusChangedEvent(Object source, Integer orderId, Order order, String oldStatus, String newStatus) {
         super(source);
         this.orderId = orderId;
+        this.order = order;
         this.oldStatus = oldStatus;
         this.newStatus = newStatus;
     }
+
+    /**
+     * Версия заказа (Order.version) со сменой статуса; null, если неизвестна.
+     * Читается у сущности при обработке: после фиксации транзакции это записанная ею версия.
+     */
+    public Long getOrderVersion() {
+        return order != null ? order.getVersion() : null;
+    }
 }
\ No newline at end of file
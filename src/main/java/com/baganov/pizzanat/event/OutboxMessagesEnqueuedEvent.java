@@ -0,0 +1,24 @@
+/**
+ * @file: OutboxMessagesEnqueuedEvent.java
+ * @description: Событие записи сообщений в outbox; после фиксации транзакции запускает доставку
+ * @dependencies: Spring Events, OutboxMessage
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.event;
+
+import com.baganov.pizzanat.entity.OutboxMessage;
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.util.Set;
+
+@Getter
+public class OutboxMessagesEnqueuedEvent extends ApplicationEvent {
+
+    private final Set<OutboxMessage.Destination> destinations;
+
+    public OutboxMessagesEnqueuedEvent(Object source, Set<OutboxMessage.Destination> destinations) {
+        super(source);
+        this.destinations = destinations;
+    }
+}
@@ -0,0 +1,21 @@
+/**
+ * @file: ReferenceDataChangedEvent.java
+ * @description: Событие изменения справочников (статусы заказов, роли, пункты выдачи, зоны доставки)
+ * @dependencies: Spring Events
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.event;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+@Getter
+public class ReferenceDataChangedEvent extends ApplicationEvent {
+
+    private final String reason;
+
+    public ReferenceDataChangedEvent(Object source, String reason) {
+        super(source);
+        this.reason = reason;
+    }
+}
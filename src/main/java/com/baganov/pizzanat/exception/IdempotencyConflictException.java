@@ -0,0 +1,14 @@
+/**
+ * @file: IdempotencyConflictException.java
+ * @description: Конфликт ключа идемпотентности (другое тело запроса, оригинал выполняется или его результат не читается)
+ * @dependencies: -
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.exception;
+
+public class IdempotencyConflictException extends RuntimeException {
+
+    public IdempotencyConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,24 @@
+/**
+ * @file: InvalidOrderStatusTransitionException.java
+ * @description: Переход статуса заказа не разрешен таблицей переходов
+ * @dependencies: -
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.exception;
+
+import lombok.Getter;
+
+@Getter
+public class InvalidOrderStatusTransitionException extends RuntimeException {
+
+    private final Integer orderId;
+    private final String fromStatus;
+    private final String toStatus;
+
+    public InvalidOrderStatusTransitionException(Integer orderId, String fromStatus, String toStatus) {
+        super(String.format("Заказ #%d нельзя перевести из статуса '%s' в '%s'", orderId, fromStatus, toStatus));
+        this.orderId = orderId;
+        this.fromStatus = fromStatus;
+        this.toStatus = toStatus;
+    }
+}
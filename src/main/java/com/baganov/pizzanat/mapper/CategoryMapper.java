@@ -0,0 +1,42 @@
+package com.baganov.pizzanat.mapper;
+
+import com.baganov.pizzanat.entity.Category;
+import com.baganov.pizzanat.model.dto.product.CategoryDTO;
+import com.baganov.pizzanat.service.StorageService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CategoryMapper {
+
+    private final StorageService storageService;
+
+    public CategoryDTO toDto(Category category) {
+        String imageUrlWithPresignedUrl = null;
+        if (category.getImageUrl() != null && !category.getImageUrl().isEmpty()) {
+            try {
+                // Для изображений категорий используем простые публичные URL
+                if (category.getImageUrl().startsWith("categories/")) {
+                    imageUrlWithPresignedUrl = storageService.getPublicUrl(category.getImageUrl());
+                } else {
+                    // Если URL уже полный, используем как есть
+                    imageUrlWithPresignedUrl = category.getImageUrl();
+                }
+            } catch (Exception e) {
+                log.error("Failed to generate public URL for category image: {}", category.getImageUrl(), e);
+                imageUrlWithPresignedUrl = category.getImageUrl();
+            }
+        }
+
+        return CategoryDTO.builder()
+                .id(category.getId())
+                .name(category.getName())
+                .description(category.getDescription())
+                .imageUrl(imageUrlWithPresignedUrl)
+                .displayOrder(category.getDisplayOrder())
+                .build();
+    }
+}
@@ -61,6 +61,16 @@ public class AdminStatsResponse {
      */
     private Map<String, Long> orderStatusStats;
 
+    /**
+     * Заказы и выручка по часам за последние 24 часа (только часы с заказами)
+     */
+    private List<HourlySales> hourlySales;
+
+    /**
+     * Время нахождения заказов в статусах по завершенным этапам (статус -> перцентили)
+     */
+    private Map<String, StageLatency> stageLatencies;
+
     @Data
     @Builder
     @NoArgsConstructor
@@ -86,4 +96,56 @@ public class AdminStatsResponse {
          */
         private BigDecimal totalRevenue;
     }
-}
\ No newline at end of file
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class HourlySales {
+        /**
+         * Начало часа
+         */
+        private String hourStart;
+
+        private Long ordersCount;
+
+        private BigDecimal revenue;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class StageLatency {
+        /**
+         * За последние 15 минут
+         */
+        private LatencyWindow last15Minutes;
+
+        /**
+         * За последний час
+         */
+        private LatencyWindow lastHour;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class LatencyWindow {
+        /**
+         * Количество завершенных этапов в окне
+         */
+        private Long count;
+
+        /**
+         * Медиана, мс (null, если этапов не было)
+         */
+        private Long p50Ms;
+
+        /**
+         * 95-й перцентиль, мс (null, если этапов не было)
+         */
+        private Long p95Ms;
+    }
+}
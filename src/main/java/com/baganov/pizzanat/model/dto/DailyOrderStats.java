@@ -0,0 +1,63 @@
+/**
+ * @file: DailyOrderStats.java
+ * @description: DTO сводки заказов за день: число и сумма заказов по статусам
+ * @dependencies: Lombok
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyOrderStats {
+
+    /**
+     * День в формате yyyy-MM-dd (московское время)
+     */
+    private String date;
+
+    /**
+     * Количество заказов, созданных за день
+     */
+    private Long totalOrders;
+
+    /**
+     * Сумма заказов, созданных за день
+     */
+    private BigDecimal totalRevenue;
+
+    /**
+     * Число и сумма заказов по текущему статусу, по убыванию числа заказов
+     */
+    private Map<String, StatusTotals> statuses;
+
+    /**
+     * Суммарное число заказов в перечисленных статусах
+     */
+    public long countOf(String... statusNames) {
+        long count = 0;
+        for (String statusName : statusNames) {
+            StatusTotals totals = statuses != null ? statuses.get(statusName) : null;
+            count += totals != null ? totals.getOrdersCount() : 0;
+        }
+        return count;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class StatusTotals {
+        private Long ordersCount;
+        private BigDecimal revenue;
+    }
+}
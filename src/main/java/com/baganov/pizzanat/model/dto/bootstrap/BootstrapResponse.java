@@ -0,0 +1,58 @@
+/**
+ * @file: BootstrapResponse.java
+ * @description: Данные для первого экрана мини-приложения в одном ответе
+ * @dependencies: CategoryDTO, ProductDto, CartDTO
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.model.dto.bootstrap;
+
+import com.baganov.pizzanat.dto.ProductDto;
+import com.baganov.pizzanat.model.dto.cart.CartDTO;
+import com.baganov.pizzanat.model.dto.product.CategoryDTO;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BootstrapResponse {
+
+    /**
+     * Версия снимка каталога, из которого собран ответ
+     */
+    private long catalogVersion;
+
+    private List<CategoryDTO> categories;
+
+    /**
+     * Продукты по ID категории в порядке отображения категорий
+     */
+    private Map<Integer, List<ProductDto>> productsByCategory;
+
+    private List<ProductDto> specialOffers;
+
+    private CartDTO cart;
+
+    /**
+     * null для анонимного пользователя
+     */
+    private ProfileSummary profile;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ProfileSummary {
+        private Integer id;
+        private String displayName;
+        private String firstName;
+        private String phone;
+        private boolean hasVerifiedAuthentication;
+    }
+}
@@ -16,7 +16,24 @@ import java.util.List;
 public class CartDTO {
     private Integer id;
     private String sessionId;
+    /**
+     * Сумма товаров со скидками (без доставки)
+     */
     private BigDecimal totalAmount;
+    /**
+     * Сумма товаров без скидок
+     */
+    private BigDecimal baseAmount;
+    private BigDecimal discountAmount;
+    private Integer itemsCount;
+    /**
+     * Доставка для последнего известного адреса; null, если адрес не указан
+     */
+    private CartDeliveryDTO delivery;
+    /**
+     * Сумма товаров и доставки; без адреса совпадает с totalAmount
+     */
+    private BigDecimal totalWithDelivery;
     @Builder.Default
     private List<CartItemDTO> items = new ArrayList<>();
-}
\ No newline at end of file
+}
@@ -0,0 +1,24 @@
+/**
+ * @file: CartDeliveryAddressRequest.java
+ * @description: DTO для установки адреса доставки корзины
+ * @dependencies: Jakarta Validation
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.model.dto.cart;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartDeliveryAddressRequest {
+    @NotBlank(message = "Адрес доставки не может быть пустым")
+    @Size(max = 500, message = "Адрес доставки не должен превышать 500 символов")
+    private String address;
+}
@@ -0,0 +1,38 @@
+/**
+ * @file: CartDeliveryDTO.java
+ * @description: Стоимость доставки корзины для последнего известного адреса
+ * @dependencies: Lombok
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.model.dto.cart;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartDeliveryDTO {
+    private String address;
+    /**
+     * false, если тариф для адреса не удалось определить; стоимость тогда не указана
+     */
+    private boolean available;
+    private String zoneName;
+    private BigDecimal deliveryCost;
+    private BigDecimal baseCost;
+    private BigDecimal freeDeliveryThreshold;
+    /**
+     * Сколько не хватает до бесплатной доставки
+     */
+    private BigDecimal amountToFreeDelivery;
+    @JsonProperty("isDeliveryFree")
+    private boolean deliveryFree;
+    private String estimatedTime;
+}
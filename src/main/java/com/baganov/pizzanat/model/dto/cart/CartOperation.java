@@ -0,0 +1,47 @@
+/**
+ * @file: CartOperation.java
+ * @description: Одна операция пакетного изменения корзины
+ * @dependencies: Jakarta Validation
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.model.dto.cart;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartOperation {
+
+    public enum Type {
+        /**
+         * Увеличить количество на quantity (добавить позицию, если ее нет)
+         */
+        ADD,
+        /**
+         * Установить количество quantity (добавить позицию, если ее нет; 0 - удалить)
+         */
+        SET,
+        /**
+         * Удалить позицию (если ее нет - ничего не делать)
+         */
+        REMOVE
+    }
+
+    @NotNull(message = "Тип операции обязателен")
+    private Type op;
+
+    @NotNull(message = "ID продукта обязателен")
+    @Positive(message = "ID продукта должен быть положительным")
+    private Integer productId;
+
+    @Min(value = 0, message = "Количество не может быть отрицательным")
+    private Integer quantity;
+}
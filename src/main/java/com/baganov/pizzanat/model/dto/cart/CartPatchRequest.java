@@ -0,0 +1,31 @@
+/**
+ * @file: CartPatchRequest.java
+ * @description: DTO пакетного изменения корзины (PATCH /api/v1/cart)
+ * @dependencies: Jakarta Validation
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.model.dto.cart;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartPatchRequest {
+
+    /**
+     * Операции применяются по порядку; если хотя бы одна некорректна, корзина не меняется
+     */
+    @NotEmpty(message = "Список операций не может быть пустым")
+    @Size(max = 100, message = "Не более 100 операций за запрос")
+    private List<@Valid CartOperation> operations;
+}
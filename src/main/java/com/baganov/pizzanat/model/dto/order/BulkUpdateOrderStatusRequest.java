@@ -0,0 +1,36 @@
+/**
+ * @file: BulkUpdateOrderStatusRequest.java
+ * @description: DTO для массовой смены статуса заказов
+ * @dependencies: Jakarta Validation
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.model.dto.order;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkUpdateOrderStatusRequest {
+
+    public static final int MAX_ORDERS = 500;
+
+    @NotEmpty(message = "Список заказов не может быть пустым")
+    @Size(max = MAX_ORDERS, message = "За один запрос можно изменить не более " + MAX_ORDERS + " заказов")
+    private List<@NotNull(message = "ID заказа не может быть null") Integer> orderIds;
+
+    @NotBlank(message = "Статус заказа обязателен")
+    @Pattern(regexp = "^(PENDING|CONFIRMED|PREPARING|READY|DELIVERING|DELIVERED|CANCELLED|CREATED|PAID)$", message = "Недопустимый статус заказа")
+    private String statusName;
+}
@@ -0,0 +1,57 @@
+/**
+ * @file: BulkUpdateOrderStatusResponse.java
+ * @description: Результат массовой смены статуса заказов
+ * @dependencies: -
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.model.dto.order;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkUpdateOrderStatusResponse {
+
+    private String statusName;
+
+    /**
+     * Заказы, статус которых изменен
+     */
+    @Builder.Default
+    private List<Integer> updatedOrderIds = new ArrayList<>();
+
+    /**
+     * Заказы, которые уже были в этом статусе
+     */
+    @Builder.Default
+    private List<Integer> unchangedOrderIds = new ArrayList<>();
+
+    /**
+     * Заказы, которые не найдены или не могут перейти в этот статус
+     */
+    @Builder.Default
+    private List<Rejected> rejected = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Rejected {
+
+        private Integer orderId;
+
+        /**
+         * Текущий статус заказа (null, если заказ не найден)
+         */
+        private String currentStatus;
+
+        private String reason;
+    }
+}
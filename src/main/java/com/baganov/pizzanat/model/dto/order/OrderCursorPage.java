@@ -0,0 +1,39 @@
+/**
+ * @file: OrderCursorPage.java
+ * @description: Страница заказов при выборке по курсору
+ * @dependencies: OrderDTO
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.model.dto.order;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderCursorPage {
+
+    @Builder.Default
+    private List<OrderDTO> items = new ArrayList<>();
+
+    /**
+     * Курсор следующей страницы (null, если страница последняя)
+     */
+    private String nextCursor;
+
+    private boolean hasNext;
+
+    /**
+     * Общее число заказов - только при includeTotal=true
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long totalElements;
+}
@@ -10,7 +10,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class OrderDTO {
@@ -27,6 +27,9 @@ public class OrderDTO {
     private String comment;
     private String contactName;
     private String contactPhone;
+    private String paymentMethod;
+    private String paymentStatus;
+    private String latestPaymentStatus; // Статус последнего платежа (только для списков и деталей заказа)
 
     private String createdAt;
     private String updatedAt;
@@ -0,0 +1,28 @@
+/**
+ * @file: OrderStreamEvent.java
+ * @description: Событие потока заказа: смена статуса заказа или платежа
+ * @dependencies: Lombok
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.model.dto.order;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class OrderStreamEvent {
+
+    private Integer orderId;
+    private String oldStatus;
+    private String newStatus;
+    private LocalDateTime occurredAt;
+}
@@ -1,9 +1,20 @@
 package com.baganov.pizzanat.repository;
 
 import com.baganov.pizzanat.entity.Cart;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -14,4 +25,23 @@ public interface CartRepository extends JpaRepository<Cart, Integer> {
     Optional<Cart> findBySessionId(String sessionId);
 
     boolean existsByUserId(Integer userId);
-}
\ No newline at end of file
+
+    /**
+     * ID корзин сессий, которые не менялись (вместе с позициями) с указанного момента, старые первыми.
+     * Строки блокируются, занятые другой транзакцией пропускаются (SKIP LOCKED).
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT c.id FROM Cart c WHERE c.user IS NULL AND c.sessionId IS NOT NULL AND c.updatedAt < :cutoff "
+            + "AND NOT EXISTS (SELECT ci.id FROM CartItem ci WHERE ci.cart = c AND ci.updatedAt >= :cutoff) "
+            + "ORDER BY c.updatedAt")
+    List<Integer> findExpiredSessionCartIds(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM CartItem ci WHERE ci.cart.id IN :cartIds")
+    int deleteItemsByCartIdIn(@Param("cartIds") Collection<Integer> cartIds);
+
+    @Modifying
+    @Query("DELETE FROM Cart c WHERE c.id IN :cartIds")
+    int deleteByIdIn(@Param("cartIds") Collection<Integer> cartIds);
+}
@@ -2,6 +2,8 @@ package com.baganov.pizzanat.repository;
 
 import com.baganov.pizzanat.entity.DeliveryLocation;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -14,5 +16,13 @@ public interface DeliveryLocationRepository extends JpaRepository<DeliveryLocati
 
     Optional<DeliveryLocation> findByAddress(String address);
 
+    Optional<DeliveryLocation> findFirstByAddressKeyOrderByIdAsc(String addressKey);
+
     boolean existsByName(String name);
+
+    /**
+     * Активные пункты выдачи без пунктов, созданных из адресов доставки
+     */
+    @Query("SELECT l FROM DeliveryLocation l WHERE l.isActive = true AND l.name NOT LIKE :addressPrefix")
+    List<DeliveryLocation> findActivePickupLocations(@Param("addressPrefix") String addressPrefix);
 }
\ No newline at end of file
@@ -1,16 +1,25 @@
 package com.baganov.pizzanat.repository;
 
 import com.baganov.pizzanat.entity.Order;
+import com.baganov.pizzanat.entity.OrderStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Integer> {
@@ -21,6 +30,86 @@ public interface OrderRepository extends JpaRepository<Order, Integer> {
 
     Optional<Order> findByIdAndUserId(Integer id, Integer userId);
 
+    /**
+     * Страница ID заказов пользователя; сами заказы загружаются findWithDetailsByIdIn
+     */
+    @Query(value = "SELECT o.id FROM Order o WHERE o.user.id = :userId ORDER BY o.createdAt DESC",
+            countQuery = "SELECT COUNT(o) FROM Order o WHERE o.user.id = :userId")
+    Page<Integer> findIdsByUserId(@Param("userId") Integer userId, Pageable pageable);
+
+    /**
+     * Страница ID всех заказов; сами заказы загружаются findWithDetailsByIdIn
+     */
+    @Query(value = "SELECT o.id FROM Order o", countQuery = "SELECT COUNT(o) FROM Order o")
+    Page<Integer> findAllIds(Pageable pageable);
+
+    /**
+     * Выборка по курсору (created_at, id): первая страница и страницы после курсора.
+     * Возвращаются только ID, размер страницы задается Pageable без подсчета строк.
+     */
+    @Query("SELECT o.id FROM Order o WHERE o.user.id = :userId ORDER BY o.createdAt DESC, o.id DESC")
+    List<Integer> findFirstIdsByUserId(@Param("userId") Integer userId, Pageable pageable);
+
+    @Query("SELECT o.id FROM Order o WHERE o.user.id = :userId AND o.createdAt <= :createdAt "
+            + "AND (o.createdAt < :createdAt OR o.id < :id) ORDER BY o.createdAt DESC, o.id DESC")
+    List<Integer> findIdsByUserIdBefore(@Param("userId") Integer userId,
+            @Param("createdAt") LocalDateTime createdAt, @Param("id") Integer id, Pageable pageable);
+
+    @Query("SELECT o.id FROM Order o WHERE o.status.id = :statusId ORDER BY o.createdAt DESC, o.id DESC")
+    List<Integer> findFirstIdsByStatusId(@Param("statusId") Integer statusId, Pageable pageable);
+
+    @Query("SELECT o.id FROM Order o WHERE o.status.id = :statusId AND o.createdAt <= :createdAt "
+            + "AND (o.createdAt < :createdAt OR o.id < :id) ORDER BY o.createdAt DESC, o.id DESC")
+    List<Integer> findIdsByStatusIdBefore(@Param("statusId") Integer statusId,
+            @Param("createdAt") LocalDateTime createdAt, @Param("id") Integer id, Pageable pageable);
+
+    @Query("SELECT o.id FROM Order o ORDER BY o.createdAt DESC, o.id DESC")
+    List<Integer> findFirstIds(Pageable pageable);
+
+    @Query("SELECT o.id FROM Order o WHERE o.createdAt <= :createdAt "
+            + "AND (o.createdAt < :createdAt OR o.id < :id) ORDER BY o.createdAt DESC, o.id DESC")
+    List<Integer> findIdsBefore(@Param("createdAt") LocalDateTime createdAt, @Param("id") Integer id,
+            Pageable pageable);
+
+    long countByUserId(Integer userId);
+
+    long countByStatusId(Integer statusId);
+
+    /**
+     * Заказы с пользователем, статусом, пунктом доставки и позициями с продуктами одним запросом.
+     * Постраничная выборка делается по ID, так как fetch join коллекции нельзя ограничить в SQL.
+     */
+    @EntityGraph(attributePaths = { "user", "status", "deliveryLocation", "items", "items.product" })
+    @Query("SELECT o FROM Order o WHERE o.id IN :ids")
+    List<Order> findWithDetailsByIdIn(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Заказы для массовой смены статуса с блокировкой строк до конца транзакции.
+     * Связи не подгружаются: FOR UPDATE нельзя применить к внешнему соединению.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.id IN :ids")
+    List<Order> findAllByIdInForUpdate(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Смена статуса нескольких заказов одним UPDATE. Версия увеличивается так же, как при сохранении
+     * сущности, чтобы параллельное изменение одного заказа через сущность получило конфликт.
+     * Перед запросом сохраняются отложенные изменения, после него контекст очищается.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :status, o.updatedAt = :updatedAt, o.version = o.version + 1 "
+            + "WHERE o.id IN :ids")
+    int updateStatusByIdIn(@Param("ids") Collection<Integer> ids, @Param("status") OrderStatus status,
+            @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * Заказ со связями, которые нужны для уведомлений, одним запросом
+     */
+    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.user LEFT JOIN FETCH o.status "
+            + "LEFT JOIN FETCH o.deliveryLocation LEFT JOIN FETCH o.items i LEFT JOIN FETCH i.product "
+            + "WHERE o.id = :id")
+    Optional<Order> findByIdForNotification(@Param("id") Integer id);
+
     /**
      * Поиск заказов по диапазону дат
      */
@@ -29,12 +118,14 @@ public interface OrderRepository extends JpaRepository<Order, Integer> {
     /**
      * Поиск активных заказов (не завершенных и не отмененных)
      */
+    @EntityGraph(attributePaths = { "user", "status", "deliveryLocation", "items", "items.product" })
     @Query("SELECT o FROM Order o WHERE o.status.name IN ('CONFIRMED', 'PREPARING', 'READY', 'DELIVERING') ORDER BY o.createdAt DESC")
     List<Order> findActiveOrders();
 
     /**
      * Поиск активных заказов включая новые (для админского бота)
      */
+    @EntityGraph(attributePaths = { "user", "status", "deliveryLocation", "items", "items.product" })
     @Query("SELECT o FROM Order o WHERE o.status.name IN ('CREATED', 'PENDING', 'CONFIRMED', 'PREPARING', 'COOKING', 'READY', 'DELIVERING') ORDER BY o.createdAt DESC")
     List<Order> findActiveOrdersIncludingNew();
 
@@ -49,4 +140,55 @@ public interface OrderRepository extends JpaRepository<Order, Integer> {
      */
     @Query("SELECT COUNT(o) FROM Order o WHERE o.status.name = :statusName")
     Long countByStatusName(@Param("statusName") String statusName);
-}
\ No newline at end of file
+
+    /**
+     * Время создания и сумма заказов за период (пересчет агрегатов продаж): [createdAt, totalAmount]
+     */
+    @Query("SELECT o.createdAt, o.totalAmount FROM Order o WHERE o.createdAt >= :from AND o.createdAt < :to")
+    List<Object[]> findSalesCreatedBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    /**
+     * Позиции заказов за период (пересчет агрегатов продаж): [createdAt, productId, quantity, price]
+     */
+    @Query("SELECT o.createdAt, i.product.id, i.quantity, i.price FROM Order o JOIN o.items i "
+            + "WHERE o.createdAt >= :from AND o.createdAt < :to")
+    List<Object[]> findSoldItemsCreatedBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    /**
+     * Число заказов по ID статуса: [statusId, count]
+     */
+    @Query("SELECT o.status.id, COUNT(o) FROM Order o GROUP BY o.status.id")
+    List<Object[]> countGroupByStatusId();
+
+    /**
+     * Число и сумма заказов за период по статусам одним запросом: [statusName, count, totalAmount]
+     */
+    @Query("SELECT s.name, COUNT(o), COALESCE(SUM(o.totalAmount), 0) FROM Order o JOIN o.status s "
+            + "WHERE o.createdAt >= :from AND o.createdAt < :to GROUP BY s.name")
+    List<Object[]> sumByStatusCreatedBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    /**
+     * Заказы за период для выгрузки, потоком по курсору (только внутри транзакции, поток нужно закрыть):
+     * [id, createdAt, status, deliveryType, deliveryAddress, contactName, contactPhone, paymentMethod,
+     * paymentStatus, deliveryCost, totalAmount]
+     */
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "500"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true") })
+    @Query("SELECT o.id, o.createdAt, s.name, o.deliveryType, o.deliveryAddress, o.contactName, o.contactPhone, "
+            + "o.paymentMethod, o.paymentStatus, o.deliveryCost, o.totalAmount FROM Order o JOIN o.status s "
+            + "WHERE o.createdAt >= :from AND o.createdAt < :to ORDER BY o.createdAt, o.id")
+    Stream<Object[]> streamForExport(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    /**
+     * Позиции заказов за период для выгрузки, потоком по курсору:
+     * [orderId, createdAt, productId, productName, quantity, price]
+     */
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "500"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true") })
+    @Query("SELECT o.id, o.createdAt, p.id, p.name, i.quantity, i.price FROM OrderItem i JOIN i.order o "
+            + "LEFT JOIN i.product p WHERE o.createdAt >= :from AND o.createdAt < :to "
+            + "ORDER BY o.createdAt, o.id, i.id")
+    Stream<Object[]> streamItemsForExport(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
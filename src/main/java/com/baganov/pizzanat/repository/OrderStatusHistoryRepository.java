@@ -0,0 +1,28 @@
+package com.baganov.pizzanat.repository;
+
+import com.baganov.pizzanat.entity.OrderStatusHistory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OrderStatusHistoryRepository extends JpaRepository<OrderStatusHistory, Long> {
+
+    /**
+     * Последние переходы нескольких заказов одним запросом; при совпадении времени у заказа
+     * возвращается несколько записей
+     */
+    @Query("SELECT h FROM OrderStatusHistory h WHERE h.orderId IN :orderIds AND h.changedAt = "
+            + "(SELECT MAX(l.changedAt) FROM OrderStatusHistory l WHERE l.orderId = h.orderId)")
+    List<OrderStatusHistory> findLatestByOrderIdIn(@Param("orderIds") Collection<Integer> orderIds);
+
+    /**
+     * Завершенные этапы после указанного момента (для восстановления окон задержек при старте)
+     */
+    List<OrderStatusHistory> findByChangedAtAfterAndDurationMsIsNotNullOrderByChangedAtAsc(LocalDateTime since);
+}
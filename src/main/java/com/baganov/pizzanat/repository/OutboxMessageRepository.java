@@ -0,0 +1,51 @@
+package com.baganov.pizzanat.repository;
+
+import com.baganov.pizzanat.entity.OutboxMessage;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxMessageRepository extends JpaRepository<OutboxMessage, Long> {
+
+    /**
+     * Сообщения направления, готовые к доставке: ожидающие с наступившим временем попытки
+     * или с истекшей арендой. Берется только самое раннее незавершенное сообщение каждого заказа,
+     * строки, заблокированные другим узлом, пропускаются (SKIP LOCKED).
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT m FROM OutboxMessage m WHERE m.destination = :destination "
+            + "AND ((m.status = :pending AND m.nextAttemptAt <= :now) "
+            + "OR (m.status = :processing AND m.lockedUntil < :now)) "
+            + "AND NOT EXISTS (SELECT p.id FROM OutboxMessage p WHERE p.destination = m.destination "
+            + "AND p.aggregateId = m.aggregateId AND p.id < m.id AND p.status IN (:pending, :processing)) "
+            + "ORDER BY m.id")
+    List<OutboxMessage> findDispatchable(@Param("destination") OutboxMessage.Destination destination,
+            @Param("now") LocalDateTime now,
+            @Param("pending") OutboxMessage.Status pending,
+            @Param("processing") OutboxMessage.Status processing,
+            Pageable pageable);
+
+    long countByStatusIn(Collection<OutboxMessage.Status> statuses);
+
+    long countByStatus(OutboxMessage.Status status);
+
+    @Query("SELECT MIN(m.createdAt) FROM OutboxMessage m WHERE m.status IN :statuses")
+    LocalDateTime findOldestCreatedAt(@Param("statuses") Collection<OutboxMessage.Status> statuses);
+
+    @Modifying
+    @Query("DELETE FROM OutboxMessage m WHERE m.status = :status AND m.processedAt < :cutoff")
+    int deleteProcessedBefore(@Param("status") OutboxMessage.Status status, @Param("cutoff") LocalDateTime cutoff);
+}
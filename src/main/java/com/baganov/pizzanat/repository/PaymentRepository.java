@@ -8,14 +8,18 @@ package com.baganov.pizzanat.repository;
 
 import com.baganov.pizzanat.entity.Payment;
 import com.baganov.pizzanat.entity.PaymentStatus;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository для работы с платежами
@@ -40,6 +44,14 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
     @Query("SELECT p FROM Payment p WHERE p.order.id = :orderId ORDER BY p.createdAt DESC LIMIT 1")
     Optional<Payment> findLatestByOrderId(@Param("orderId") Long orderId);
 
+    /**
+     * Последние платежи для набора заказов одним запросом
+     * (при совпадении времени создания у заказа может вернуться несколько платежей)
+     */
+    @Query("SELECT p FROM Payment p WHERE p.order.id IN :orderIds AND p.createdAt = "
+            + "(SELECT MAX(p2.createdAt) FROM Payment p2 WHERE p2.order.id = p.order.id)")
+    List<Payment> findLatestByOrderIdIn(@Param("orderIds") Collection<Integer> orderIds);
+
     /**
      * Найти все платежи по статусу
      */
@@ -56,6 +68,18 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
      */
     List<Payment> findByCreatedAtBetweenOrderByCreatedAtDesc(LocalDateTime start, LocalDateTime end);
 
+    /**
+     * Платежи за период для выгрузки, потоком по курсору (только внутри транзакции, поток нужно закрыть):
+     * [id, createdAt, orderId, yookassaPaymentId, status, method, amount, currency, paidAt, refundId]
+     */
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "500"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true") })
+    @Query("SELECT p.id, p.createdAt, o.id, p.yookassaPaymentId, p.status, p.method, p.amount, p.currency, "
+            + "p.paidAt, p.refundId FROM Payment p JOIN p.order o "
+            + "WHERE p.createdAt >= :from AND p.createdAt < :to ORDER BY p.createdAt, p.id")
+    Stream<Object[]> streamForExport(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
     /**
      * Найти успешные платежи за период
      */
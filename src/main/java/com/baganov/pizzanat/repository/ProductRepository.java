@@ -33,6 +33,9 @@ public interface ProductRepository extends JpaRepository<Product, Integer> {
         Page<Product> searchProducts(@Param("categoryId") Integer categoryId, @Param("query") String query,
                         Pageable pageable);
 
+        @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category")
+        List<Product> findAllWithCategory();
+
         @Query("SELECT p FROM Product p JOIN FETCH p.category WHERE p.id = :id")
         Optional<Product> findByIdWithCategory(@Param("id") Integer id);
 
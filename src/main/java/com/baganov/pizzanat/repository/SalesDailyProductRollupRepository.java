@@ -0,0 +1,40 @@
+package com.baganov.pizzanat.repository;
+
+import com.baganov.pizzanat.entity.SalesDailyProductRollup;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface SalesDailyProductRollupRepository
+        extends JpaRepository<SalesDailyProductRollup, SalesDailyProductRollup.Key> {
+
+    /**
+     * @return 0, если строки товара за этот день еще нет
+     */
+    @Modifying
+    @Query("UPDATE SalesDailyProductRollup r SET r.units = r.units + :units, r.revenue = r.revenue + :revenue "
+            + "WHERE r.bucketDate = :bucketDate AND r.productId = :productId")
+    int increment(@Param("bucketDate") LocalDate bucketDate, @Param("productId") Integer productId,
+            @Param("units") long units, @Param("revenue") BigDecimal revenue);
+
+    /**
+     * Самые продаваемые товары за все время: [ID товара, название, штук, выручка].
+     * Товары, удаленные из каталога, не попадают в выборку.
+     */
+    @Query("SELECT r.productId, p.name, SUM(r.units), SUM(r.revenue) FROM SalesDailyProductRollup r "
+            + "JOIN Product p ON p.id = r.productId "
+            + "GROUP BY r.productId, p.name ORDER BY SUM(r.units) DESC")
+    List<Object[]> findTopProducts(Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM SalesDailyProductRollup r WHERE r.bucketDate >= :from AND r.bucketDate < :to")
+    int deleteRange(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
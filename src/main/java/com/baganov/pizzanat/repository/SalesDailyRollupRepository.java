@@ -0,0 +1,34 @@
+package com.baganov.pizzanat.repository;
+
+import com.baganov.pizzanat.entity.SalesDailyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Repository
+public interface SalesDailyRollupRepository extends JpaRepository<SalesDailyRollup, LocalDate> {
+
+    /**
+     * @return 0, если строки за этот день еще нет
+     */
+    @Modifying
+    @Query("UPDATE SalesDailyRollup r SET r.ordersCount = r.ordersCount + :orders, r.revenue = r.revenue + :revenue "
+            + "WHERE r.bucketDate = :bucketDate")
+    int increment(@Param("bucketDate") LocalDate bucketDate, @Param("orders") long orders,
+            @Param("revenue") BigDecimal revenue);
+
+    @Query("SELECT COALESCE(SUM(r.ordersCount), 0) FROM SalesDailyRollup r")
+    long sumOrdersCount();
+
+    @Query("SELECT COALESCE(SUM(r.revenue), 0) FROM SalesDailyRollup r")
+    BigDecimal sumRevenue();
+
+    @Modifying
+    @Query("DELETE FROM SalesDailyRollup r WHERE r.bucketDate >= :from AND r.bucketDate < :to")
+    int deleteRange(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
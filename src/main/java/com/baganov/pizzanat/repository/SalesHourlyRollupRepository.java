@@ -0,0 +1,31 @@
+package com.baganov.pizzanat.repository;
+
+import com.baganov.pizzanat.entity.SalesHourlyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SalesHourlyRollupRepository extends JpaRepository<SalesHourlyRollup, LocalDateTime> {
+
+    /**
+     * @return 0, если строки за этот час еще нет
+     */
+    @Modifying
+    @Query("UPDATE SalesHourlyRollup r SET r.ordersCount = r.ordersCount + :orders, r.revenue = r.revenue + :revenue "
+            + "WHERE r.bucketStart = :bucketStart")
+    int increment(@Param("bucketStart") LocalDateTime bucketStart, @Param("orders") long orders,
+            @Param("revenue") BigDecimal revenue);
+
+    List<SalesHourlyRollup> findByBucketStartGreaterThanEqualOrderByBucketStartAsc(LocalDateTime from);
+
+    @Modifying
+    @Query("DELETE FROM SalesHourlyRollup r WHERE r.bucketStart >= :from AND r.bucketStart < :to")
+    int deleteRange(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
@@ -0,0 +1,23 @@
+package com.baganov.pizzanat.repository;
+
+import com.baganov.pizzanat.entity.SalesRollupState;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface SalesRollupStateRepository extends JpaRepository<SalesRollupState, Short> {
+
+    /**
+     * Блокирует строку состояния до конца транзакции: запись приращений и сверка на разных узлах
+     * ждут друг друга
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM SalesRollupState s WHERE s.id = :id")
+    Optional<SalesRollupState> findForUpdate(@Param("id") Short id);
+}
@@ -0,0 +1,19 @@
+package com.baganov.pizzanat.repository;
+
+import com.baganov.pizzanat.entity.SalesStatusRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SalesStatusRollupRepository extends JpaRepository<SalesStatusRollup, String> {
+
+    /**
+     * @return 0, если строки статуса еще нет
+     */
+    @Modifying
+    @Query("UPDATE SalesStatusRollup r SET r.ordersCount = r.ordersCount + :delta WHERE r.statusName = :statusName")
+    int increment(@Param("statusName") String statusName, @Param("delta") long delta);
+}
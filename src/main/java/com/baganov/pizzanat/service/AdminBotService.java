@@ -1,7 +1,7 @@
 /**
  * @file: AdminBotService.java
  * @description: Сервис для работы с админским Telegram ботом
- * @dependencies: AdminBotRepository, OrderService, UserService, PaymentRepository
+ * @dependencies: AdminBotRepository, OrderService, OrderStatsService, UserService, PaymentRepository
  * @created: 2025-06-13
  */
 package com.baganov.pizzanat.service;
@@ -14,16 +14,24 @@ import com.baganov.pizzanat.entity.PaymentStatus;
 import com.baganov.pizzanat.entity.PaymentMethod;
 import com.baganov.pizzanat.entity.OrderPaymentStatus;
 import com.baganov.pizzanat.entity.OrderDisplayStatus;
-import com.baganov.pizzanat.event.NewOrderEvent;
 import com.baganov.pizzanat.event.PaymentAlertEvent;
+import com.baganov.pizzanat.exception.InvalidOrderStatusTransitionException;
 import java.time.temporal.ChronoUnit;
+import com.baganov.pizzanat.model.dto.DailyOrderStats;
 import com.baganov.pizzanat.model.dto.order.OrderDTO;
 import com.baganov.pizzanat.model.entity.TelegramAdminUser;
 import com.baganov.pizzanat.repository.TelegramAdminUserRepository;
 import com.baganov.pizzanat.repository.PaymentRepository;
+import com.baganov.pizzanat.service.order.ActiveOrderView;
+import com.baganov.pizzanat.service.order.ActiveOrdersProjection;
+import com.baganov.pizzanat.service.order.OrderStatusTransitions;
+import com.baganov.pizzanat.service.outbox.OutboxDelivery;
+import com.baganov.pizzanat.service.stats.OrderStatsService;
+import com.baganov.pizzanat.util.TimeZoneUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.event.EventListener;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -45,6 +53,8 @@ public class AdminBotService {
 
     private final TelegramAdminUserRepository adminUserRepository;
     private final OrderService orderService;
+    private final ActiveOrdersProjection activeOrdersProjection;
+    private final OrderStatsService orderStatsService;
     private final TelegramAdminNotificationService telegramAdminNotificationService;
     private final TelegramUserNotificationService telegramUserNotificationService;
     private final PaymentRepository paymentRepository;
@@ -90,37 +100,27 @@ public class AdminBotService {
     }
 
     /**
-     * Уведомление всех администраторов о новом заказе
+     * Уведомление всех администраторов о новом заказе (из outbox).
+     * Ошибки отправки отдельным администраторам собираются в delivery и приводят к повтору сообщения
      */
-    public void notifyAdminsAboutNewOrder(Order order) {
-        try {
-            List<TelegramAdminUser> activeAdmins = adminUserRepository.findByIsActiveTrue();
+    public void notifyAdminsAboutNewOrder(Order order, OutboxDelivery delivery) {
+        List<TelegramAdminUser> activeAdmins = adminUserRepository.findByIsActiveTrue();
 
-            if (activeAdmins.isEmpty()) {
-                log.warn("Нет активных администраторов для уведомления о заказе #{}", order.getId());
-                return;
-            }
-
-            String orderMessage = formatNewOrderMessage(order);
-            InlineKeyboardMarkup keyboard = telegramAdminNotificationService
-                    .createOrderManagementKeyboard(order.getId().longValue());
-
-            for (TelegramAdminUser admin : activeAdmins) {
-                try {
-                    telegramAdminNotificationService.sendMessageWithButtons(admin.getTelegramChatId(), orderMessage,
-                            keyboard);
-                    log.debug("Уведомление о заказе #{} отправлено администратору: {}", order.getId(),
-                            admin.getUsername());
-                } catch (Exception e) {
-                    log.error("Ошибка отправки уведомления администратору {}: {}", admin.getUsername(), e.getMessage());
-                }
-            }
+        if (activeAdmins.isEmpty()) {
+            log.warn("Нет активных администраторов для уведомления о заказе #{}", order.getId());
+            return;
+        }
 
-            log.info("Уведомления о заказе #{} отправлены {} администраторам", order.getId(), activeAdmins.size());
+        String orderMessage = formatNewOrderMessage(order);
+        InlineKeyboardMarkup keyboard = telegramAdminNotificationService
+                .createOrderManagementKeyboard(order.getId().longValue());
 
-        } catch (Exception e) {
-            log.error("Ошибка при уведомлении администраторов о заказе #{}: {}", order.getId(), e.getMessage(), e);
+        for (TelegramAdminUser admin : activeAdmins) {
+            delivery.send("order:" + admin.getTelegramChatId(), () -> telegramAdminNotificationService
+                    .deliverMessage(admin.getTelegramChatId(), orderMessage, true, keyboard));
         }
+
+        log.info("Уведомления о заказе #{} отправлены {} администраторам", order.getId(), activeAdmins.size());
     }
 
     /**
@@ -159,6 +159,11 @@ public class AdminBotService {
                         log.info("Статус заказа #{} уже установлен на {}, пропускаем изменение", orderId, newStatusStr);
                         return;
                     }
+
+                    if (!OrderStatusTransitions.isAllowed(currentStatus, newStatusStr.toUpperCase())) {
+                        sendTransitionRejected(chatId, orderId, currentStatus, newStatusStr);
+                        return;
+                    }
                 }
 
                 OrderDTO updatedOrder = orderService.updateOrderStatus(orderId.intValue(), newStatusStr);
@@ -180,6 +185,13 @@ public class AdminBotService {
 
                 log.info("Статус заказа #{} изменен на {} администратором chatId={} (с уведомлением пользователю)",
                         orderId, newStatusStr, chatId);
+            } catch (InvalidOrderStatusTransitionException e) {
+                sendTransitionRejected(chatId, orderId, e.getFromStatus(), newStatusStr);
+            } catch (OptimisticLockingFailureException e) {
+                log.warn("Заказ #{} одновременно изменен другим администратором: {}", orderId, e.getMessage());
+                telegramAdminNotificationService.sendMessage(chatId, String.format(
+                        "⚠️ Заказ #%d только что изменен другим администратором. Обновите список заказов", orderId),
+                        false);
             } catch (Exception e) {
                 log.error("Ошибка при изменении статуса заказа #{}: {}", orderId, e.getMessage());
                 telegramAdminNotificationService.sendMessage(chatId, "❌ Ошибка при изменении статуса заказа", false);
@@ -191,6 +203,17 @@ public class AdminBotService {
         }
     }
 
+    private void sendTransitionRejected(Long chatId, Long orderId, String currentStatus, String newStatus) {
+        String message = String.format(
+                "⚠️ *Заказ #%d нельзя перевести в статус %s*\n\n" +
+                        "Текущий статус: %s",
+                orderId,
+                getStatusDisplayNameByString(newStatus),
+                getStatusDisplayNameByString(currentStatus));
+        telegramAdminNotificationService.sendMessage(chatId, message, true);
+        log.info("Переход заказа #{} из {} в {} отклонен", orderId, currentStatus, newStatus);
+    }
+
     /**
      * Обработка запроса деталей заказа
      */
@@ -304,35 +327,19 @@ public class AdminBotService {
      */
     public String getOrdersStats() {
         try {
-            LocalDate today = LocalDate.now();
-            LocalDateTime startOfDay = today.atStartOfDay();
-            LocalDateTime endOfDay = today.plusDays(1).atStartOfDay();
-
-            // Получаем статистику за сегодня
-            List<Order> todayOrders = orderService.findOrdersByDateRange(startOfDay, endOfDay);
-
-            long totalOrders = todayOrders.size();
-            BigDecimal totalRevenue = todayOrders.stream()
-                    .map(Order::getTotalAmount)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-            // Статистика по статусам
-            long pendingCount = todayOrders.stream()
-                    .filter(o -> "CREATED".equals(o.getStatus().getName()) || "PENDING".equals(o.getStatus().getName()))
-                    .count();
-            long confirmedCount = todayOrders.stream().filter(o -> "CONFIRMED".equals(o.getStatus().getName())).count();
-            long preparingCount = todayOrders.stream().filter(
-                    o -> "PREPARING".equals(o.getStatus().getName()) || "COOKING".equals(o.getStatus().getName()))
-                    .count();
-            long readyCount = todayOrders.stream().filter(o -> "READY".equals(o.getStatus().getName())).count();
-            long deliveringCount = todayOrders.stream().filter(o -> "DELIVERING".equals(o.getStatus().getName()))
-                    .count();
-            long deliveredCount = todayOrders.stream().filter(
-                    o -> "DELIVERED".equals(o.getStatus().getName()) || "COMPLETED".equals(o.getStatus().getName()))
-                    .count();
-            long cancelledCount = todayOrders.stream().filter(
-                    o -> "CANCELLED".equals(o.getStatus().getName()) || "CANCELED".equals(o.getStatus().getName()))
-                    .count();
+            LocalDate today = TimeZoneUtils.nowInMoscow().toLocalDate();
+            DailyOrderStats stats = orderStatsService.getDailyStats(today);
+
+            long totalOrders = stats.getTotalOrders();
+            BigDecimal totalRevenue = stats.getTotalRevenue();
+
+            long pendingCount = stats.countOf("CREATED", "PENDING");
+            long confirmedCount = stats.countOf("CONFIRMED");
+            long preparingCount = stats.countOf("PREPARING", "COOKING");
+            long readyCount = stats.countOf("READY");
+            long deliveringCount = stats.countOf("DELIVERING");
+            long deliveredCount = stats.countOf("DELIVERED", "COMPLETED");
+            long cancelledCount = stats.countOf("CANCELLED", "CANCELED");
 
             return String.format(
                     "📊 *Статистика заказов за %s*\n\n" +
@@ -362,7 +369,7 @@ public class AdminBotService {
      */
     public String getActiveOrders() {
         try {
-            List<Order> activeOrders = orderService.findActiveOrders();
+            List<ActiveOrderView> activeOrders = activeOrdersProjection.getInProgressOrders();
 
             if (activeOrders.isEmpty()) {
                 return "📋 *Активные заказы*\n\nНет активных заказов";
@@ -370,16 +377,16 @@ public class AdminBotService {
 
             StringBuilder message = new StringBuilder("📋 *Активные заказы*\n\n");
 
-            for (Order order : activeOrders) {
+            for (ActiveOrderView order : activeOrders) {
                 message.append(String.format(
                         "🔸 *Заказ #%d*\n" +
                                 "Статус: %s\n" +
                                 "Сумма: %.2f ₽\n" +
                                 "Время: %s\n\n",
-                        order.getId(),
-                        getStatusDisplayName(order.getStatus()),
-                        order.getTotalAmount(),
-                        order.getCreatedAt().format(DateTimeFormatter.ofPattern("dd.MM HH:mm"))));
+                        order.id(),
+                        getStatusDisplayNameByString(order.status()),
+                        order.totalAmount(),
+                        order.createdAt().format(DateTimeFormatter.ofPattern("dd.MM HH:mm"))));
             }
 
             return message.toString();
@@ -846,27 +853,38 @@ public class AdminBotService {
      * Учитывает случаи когда Order.paymentMethod=null но есть успешные платежи
      */
     private OrderDisplayStatus determineOrderDisplayStatusFixed(Order order, Payment latestPayment) {
+        return determineOrderDisplayStatusFixed(order.getId(), order.getPaymentStatus(),
+                latestPayment != null ? latestPayment.getStatus() : null,
+                latestPayment != null ? latestPayment.getCreatedAt() : null);
+    }
+
+    private OrderDisplayStatus determineOrderDisplayStatusFixed(ActiveOrderView order) {
+        return determineOrderDisplayStatusFixed(order.id(), order.paymentStatus(),
+                order.latestPaymentStatus(), order.latestPaymentCreatedAt());
+    }
+
+    private OrderDisplayStatus determineOrderDisplayStatusFixed(Integer orderId, OrderPaymentStatus orderPaymentStatus,
+            PaymentStatus latestPaymentStatus, LocalDateTime latestPaymentCreatedAt) {
         // Проверяем есть ли успешно завершенные платежи
-        if (latestPayment != null && latestPayment.getStatus() == PaymentStatus.SUCCEEDED) {
-            log.debug("Заказ #{} имеет успешный платеж {} ({})", 
-                order.getId(), latestPayment.getId(), latestPayment.getMethod());
+        if (latestPaymentStatus == PaymentStatus.SUCCEEDED) {
+            log.debug("Заказ #{} имеет успешный платеж", orderId);
             return OrderDisplayStatus.PAYMENT_SUCCESS;
         }
 
         // Проверяем статус оплаты заказа
-        if (order.getPaymentStatus() == OrderPaymentStatus.PAID) {
-            log.debug("Заказ #{} имеет paymentStatus=PAID", order.getId());
+        if (orderPaymentStatus == OrderPaymentStatus.PAID) {
+            log.debug("Заказ #{} имеет paymentStatus=PAID", orderId);
             return OrderDisplayStatus.PAYMENT_SUCCESS;
         }
 
         // Если есть активные платежи в ожидании
-        if (latestPayment != null) {
-            switch (latestPayment.getStatus()) {
+        if (latestPaymentStatus != null) {
+            switch (latestPaymentStatus) {
                 case PENDING:
                 case WAITING_FOR_CAPTURE:
                     // Проверяем возраст платежа для определения таймаута
                     long minutesElapsed = ChronoUnit.MINUTES.between(
-                        latestPayment.getCreatedAt(), LocalDateTime.now()
+                        latestPaymentCreatedAt, LocalDateTime.now()
                     );
                     
                     if (minutesElapsed >= 10) {
@@ -891,29 +909,30 @@ public class AdminBotService {
     /**
      * Добавляет краткую информацию о платеже с улучшенным форматированием
      */
-    private void appendBriefPaymentInfoEnhanced(StringBuilder message, Order order, Payment latestPayment, OrderDisplayStatus displayStatus) {
+    private void appendBriefPaymentInfoEnhanced(StringBuilder message, ActiveOrderView order, OrderDisplayStatus displayStatus) {
         try {
-            message.append("💳 *Оплата:* ").append(displayStatus.getFormattedStatusWithInfo(latestPayment)).append("\n");
+            ActiveOrderView.LatestPayment latestPayment = order.latestPayment();
+            message.append("💳 *Оплата:* ").append(displayStatus.getFormattedStatusWithInfo(order.latestPaymentCreatedAt())).append("\n");
             
             // Добавляем дополнительную информацию в зависимости от статуса
             if (displayStatus == OrderDisplayStatus.PAYMENT_POLLING && latestPayment != null) {
-                message.append("🔄 *Автоопрос:* ").append(OrderDisplayStatus.getPollingIndicator(latestPayment)).append("\n");
+                message.append("🔄 *Автоопрос:* ").append(OrderDisplayStatus.getPollingIndicator(latestPayment.createdAt())).append("\n");
             } else if (displayStatus == OrderDisplayStatus.PAYMENT_TIMEOUT) {
                 message.append("⏰ *Внимание:* Таймаут оплаты\n");
-            } else if (displayStatus == OrderDisplayStatus.PAYMENT_SUCCESS && latestPayment != null && latestPayment.getPaidAt() != null) {
-                message.append("✅ *Оплачено:* ").append(latestPayment.getPaidAt().format(DateTimeFormatter.ofPattern("HH:mm"))).append("\n");
+            } else if (displayStatus == OrderDisplayStatus.PAYMENT_SUCCESS && latestPayment != null && latestPayment.paidAt() != null) {
+                message.append("✅ *Оплачено:* ").append(latestPayment.paidAt().format(DateTimeFormatter.ofPattern("HH:mm"))).append("\n");
             }
             
             // Ссылка на проверку для неоплаченных онлайн платежей
-            if (latestPayment != null && isOnlinePayment(latestPayment.getMethod()) 
-                && latestPayment.getYookassaPaymentId() != null 
+            if (latestPayment != null && isOnlinePayment(latestPayment.method()) 
+                && latestPayment.yookassaPaymentId() != null 
                 && displayStatus != OrderDisplayStatus.PAYMENT_SUCCESS) {
-                String checkUrl = "https://yoomoney.ru/checkout/payments/v2/contract?orderId=" + latestPayment.getYookassaPaymentId();
+                String checkUrl = "https://yoomoney.ru/checkout/payments/v2/contract?orderId=" + latestPayment.yookassaPaymentId();
                 message.append("🔗 [Проверить оплату](").append(checkUrl).append(")\n");
             }
             
         } catch (Exception e) {
-            log.error("Ошибка краткого отображения платежа для заказа #{}: {}", order.getId(), e.getMessage(), e);
+            log.error("Ошибка краткого отображения платежа для заказа #{}: {}", order.id(), e.getMessage(), e);
             message.append("💳 *Оплата:* ❓ Ошибка данных\n");
         }
     }
@@ -1056,7 +1075,7 @@ public class AdminBotService {
      */
     public void sendActiveOrdersWithButtons(Long chatId) {
         try {
-            List<Order> activeOrders = orderService.findActiveOrdersIncludingNew();
+            List<ActiveOrderView> activeOrders = activeOrdersProjection.getActiveOrders();
 
             if (activeOrders.isEmpty()) {
                 telegramAdminNotificationService.sendMessage(chatId, "📋 *Активные заказы*\n\nНет активных заказов",
@@ -1068,51 +1087,51 @@ public class AdminBotService {
             telegramAdminNotificationService.sendMessage(chatId, "📋 *Активные заказы (включая новые)*", true);
 
             // Отправляем каждый заказ отдельным сообщением с кнопками
-            for (Order order : activeOrders) {
+            for (ActiveOrderView order : activeOrders) {
                 // Определяем визуальный статус для каждого заказа с исправленной логикой
-                Payment latestPayment = getLatestPayment(order);
-                OrderDisplayStatus displayStatus = determineOrderDisplayStatusFixed(order, latestPayment);
+                OrderDisplayStatus displayStatus = determineOrderDisplayStatusFixed(order);
                 
                 StringBuilder orderMessage = new StringBuilder();
-                orderMessage.append(displayStatus.getEmoji()).append(" *Заказ #").append(order.getId()).append("*\n");
-                orderMessage.append("Статус: ").append(getStatusDisplayName(order.getStatus())).append("\n");
-                orderMessage.append("Оплата: ").append(displayStatus.getFormattedStatusWithInfo(latestPayment)).append("\n");
-                orderMessage.append("Сумма: ").append(String.format("%.2f", order.getTotalAmount())).append(" ₽\n");
+                orderMessage.append(displayStatus.getEmoji()).append(" *Заказ #").append(order.id()).append("*\n");
+                orderMessage.append("Статус: ").append(getStatusDisplayNameByString(order.status())).append("\n");
+                orderMessage.append("Оплата: ").append(displayStatus.getFormattedStatusWithInfo(order.latestPaymentCreatedAt())).append("\n");
+                orderMessage.append("Сумма: ").append(String.format("%.2f", order.totalAmount())).append(" ₽\n");
                 orderMessage.append("Время: ")
-                        .append(order.getCreatedAt().format(DateTimeFormatter.ofPattern("dd.MM HH:mm"))).append("\n\n");
+                        .append(order.createdAt().format(DateTimeFormatter.ofPattern("dd.MM HH:mm"))).append("\n\n");
 
                 // Информация о пользователе системы
-                if (order.getUser() != null) {
+                ActiveOrderView.Customer customer = order.customer();
+                if (customer != null) {
                     orderMessage.append("👤 *Пользователь:* ");
-                    orderMessage.append(escapeMarkdown(order.getUser().getFirstName()));
-                    if (order.getUser().getLastName() != null) {
-                        orderMessage.append(" ").append(escapeMarkdown(order.getUser().getLastName()));
+                    orderMessage.append(escapeMarkdown(customer.firstName()));
+                    if (customer.lastName() != null) {
+                        orderMessage.append(" ").append(escapeMarkdown(customer.lastName()));
                     }
-                    if (order.getUser().getUsername() != null) {
-                        orderMessage.append(" (@").append(escapeMarkdown(order.getUser().getUsername())).append(")");
+                    if (customer.username() != null) {
+                        orderMessage.append(" (@").append(escapeMarkdown(customer.username())).append(")");
                     }
                     orderMessage.append("\n");
 
-                    if (order.getUser().getPhone() != null) {
+                    if (customer.phone() != null) {
                         orderMessage.append("📱 *Телефон пользователя:* ")
-                                .append(escapeMarkdown(order.getUser().getPhone()))
+                                .append(escapeMarkdown(customer.phone()))
                                 .append("\n");
                     }
                     orderMessage.append("\n");
                 }
 
                 // Контактные данные заказа
-                orderMessage.append("📞 *Контакт заказа:* ").append(escapeMarkdown(order.getContactName()))
+                orderMessage.append("📞 *Контакт заказа:* ").append(escapeMarkdown(order.contactName()))
                         .append("\n");
-                orderMessage.append("📞 *Телефон заказа:* ").append(escapeMarkdown(order.getContactPhone())).append("\n\n");
+                orderMessage.append("📞 *Телефон заказа:* ").append(escapeMarkdown(order.contactPhone())).append("\n\n");
 
                 // Краткая информация о платеже с улучшенным форматированием
-                appendBriefPaymentInfoEnhanced(orderMessage, order, latestPayment, displayStatus);
+                appendBriefPaymentInfoEnhanced(orderMessage, order, displayStatus);
 
                 String finalMessage = orderMessage.toString();
 
                 InlineKeyboardMarkup keyboard = telegramAdminNotificationService
-                        .createOrderManagementKeyboard(order.getId().longValue());
+                        .createOrderManagementKeyboard(order.id().longValue());
 
                 telegramAdminNotificationService.sendMessageWithButtons(chatId, finalMessage, keyboard);
             }
@@ -1127,35 +1146,23 @@ public class AdminBotService {
     }
 
     /**
-     * Обработчик события создания нового заказа
+     * Уведомление о новом заказе
      * НОВАЯ ЛОГИКА: Все заказы отправляются в админский бот сразу при создании
+     * Вызывается из outbox (AdminTelegramOutboxHandler) после фиксации транзакции заказа
      */
-    @EventListener
-    @Async
-    public void handleNewOrderEvent(NewOrderEvent event) {
-        try {
-            Order order = event.getOrder();
-            log.info("📧 Получено событие о новом заказе #{} для уведомления администраторов", order.getId());
-
-            // Проверяем откуда пришло событие - из OrderService или из YooKassaPaymentService
-            boolean isPaymentSuccessNotification = order.getPaymentStatus() == OrderPaymentStatus.PAID && 
-                                                   isOnlinePayment(order.getPaymentMethod());
-
-            if (isPaymentSuccessNotification) {
-                // Это уведомление о успешной оплате - отправляем специальное сообщение
-                Payment latestPayment = getLatestPayment(order);
-                String paymentLabel = "✅ ЗАКАЗ ОПЛАЧЕН через " + getPaymentMethodDisplayName(order.getPaymentMethod());
-                sendSuccessfulPaymentOrderNotification(order, paymentLabel);
-                log.info("💰 Отправлено уведомление об успешной оплате заказа #{}", order.getId());
-            } else {
-                // Обычное уведомление о новом заказе - отправляем всегда для всех заказов
-                notifyAdminsAboutNewOrder(order);
-                log.info("✅ Уведомление о новом заказе #{} отправлено в админский бот (способ оплаты: {})", 
-                    order.getId(), order.getPaymentMethod());
-            }
+    public void notifyAboutNewOrder(Order order, OutboxDelivery delivery) {
+        log.info("📧 Уведомление администраторов о новом заказе #{}", order.getId());
 
-        } catch (Exception e) {
-            log.error("❌ Ошибка обработки события нового заказа #{}: {}", event.getOrder().getId(), e.getMessage(), e);
+        // Заказ, оплаченный онлайн, отправляется карточкой "ЗАКАЗ ОПЛАЧЕН"
+        boolean isPaymentSuccessNotification = order.getPaymentStatus() == OrderPaymentStatus.PAID &&
+                                               isOnlinePayment(order.getPaymentMethod());
+
+        if (isPaymentSuccessNotification) {
+            String paymentLabel = "✅ ЗАКАЗ ОПЛАЧЕН через " + getPaymentMethodDisplayName(order.getPaymentMethod());
+            sendSuccessfulPaymentOrderNotification(order, paymentLabel, delivery);
+        } else {
+            // Обычное уведомление о новом заказе - отправляем всегда для всех заказов
+            notifyAdminsAboutNewOrder(order, delivery);
         }
     }
 
@@ -1279,6 +1286,28 @@ public class AdminBotService {
         }
     }
 
+    /**
+     * Отправка уведомления о заказе с подтвержденной оплатой (из outbox)
+     */
+    private void sendSuccessfulPaymentOrderNotification(Order order, String paymentLabel, OutboxDelivery delivery) {
+        String message = formatNewOrderMessageWithPaymentLabel(order, paymentLabel);
+
+        List<TelegramAdminUser> activeAdmins = adminUserRepository.findByIsActiveTrue();
+
+        if (activeAdmins.isEmpty()) {
+            log.warn("Нет активных администраторов для отправки уведомления о заказе #{}", order.getId());
+            return;
+        }
+
+        for (TelegramAdminUser admin : activeAdmins) {
+            delivery.send("paid-order:" + admin.getTelegramChatId(), () -> telegramAdminNotificationService
+                    .deliverMessage(admin.getTelegramChatId(), message, true, null));
+        }
+
+        log.info("💰 Уведомление о заказе #{} с {} отправлено {} администраторам",
+                order.getId(), paymentLabel, activeAdmins.size());
+    }
+
     /**
      * Очистка username для создания корректной Telegram ссылки
      */
@@ -1380,38 +1409,28 @@ public class AdminBotService {
     }
 
     /**
-     * Отправка простого уведомления админам об оплаченном заказе
+     * Отправка простого уведомления админам об оплаченном заказе (из outbox)
      */
-    public void sendSimplePaymentNotification(Order order) {
-        try {
-            // Простое сообщение: "Заказ номер ХХ успешно оплачен сумма (дата)"
-            String message = String.format("Заказ номер %d успешно оплачен %s ₽ (%s)", 
-                order.getId(), 
-                order.getTotalAmount(), 
-                LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm")));
-            
-            List<TelegramAdminUser> activeAdmins = adminUserRepository.findByIsActiveTrue();
+    public void sendSimplePaymentNotification(Order order, OutboxDelivery delivery) {
+        // Простое сообщение: "Заказ номер ХХ успешно оплачен сумма (дата)"
+        String message = String.format("Заказ номер %d успешно оплачен %s ₽ (%s)",
+            order.getId(),
+            order.getTotalAmount(),
+            LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm")));
 
-            if (activeAdmins.isEmpty()) {
-                log.warn("Нет активных администраторов для отправки уведомления об оплате заказа #{}", order.getId());
-                return;
-            }
+        List<TelegramAdminUser> activeAdmins = adminUserRepository.findByIsActiveTrue();
 
-            for (TelegramAdminUser admin : activeAdmins) {
-                try {
-                    telegramAdminNotificationService.sendMessage(admin.getTelegramChatId(), message, false);
-                    log.debug("Простое уведомление об оплате заказа #{} отправлено администратору: {}", 
-                            order.getId(), admin.getUsername());
-                } catch (Exception e) {
-                    log.error("Ошибка отправки уведомления об оплате администратору {}: {}", admin.getUsername(), e.getMessage());
-                }
-            }
-
-            log.info("✅ Простое уведомление об оплате заказа #{} отправлено {} администраторам", order.getId(), activeAdmins.size());
+        if (activeAdmins.isEmpty()) {
+            log.warn("Нет активных администраторов для отправки уведомления об оплате заказа #{}", order.getId());
+            return;
+        }
 
-        } catch (Exception e) {
-            log.error("Ошибка отправки простого уведомления об оплате заказа #{}: {}", order.getId(), e.getMessage());
+        for (TelegramAdminUser admin : activeAdmins) {
+            delivery.send("payment:" + admin.getTelegramChatId(), () -> telegramAdminNotificationService
+                    .deliverMessage(admin.getTelegramChatId(), message, false, null));
         }
+
+        log.info("✅ Простое уведомление об оплате заказа #{} отправлено {} администраторам", order.getId(), activeAdmins.size());
     }
 
     /**
@@ -8,6 +8,7 @@ package com.baganov.pizzanat.service;
 
 import com.baganov.pizzanat.entity.Category;
 import com.baganov.pizzanat.entity.Product;
+import com.baganov.pizzanat.event.CatalogChangedEvent;
 import com.baganov.pizzanat.model.dto.product.CreateProductRequest;
 import com.baganov.pizzanat.model.dto.product.ProductDTO;
 import com.baganov.pizzanat.model.dto.product.UpdateProductRequest;
@@ -15,6 +16,7 @@ import com.baganov.pizzanat.repository.CategoryRepository;
 import com.baganov.pizzanat.repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -27,6 +29,7 @@ public class AdminProductService {
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
     private final StorageService storageService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public ProductDTO createProduct(CreateProductRequest request) {
@@ -58,6 +61,9 @@ public class AdminProductService {
         Product savedProduct = productRepository.save(product);
         log.info("Продукт создан с ID: {}", savedProduct.getId());
 
+        // Снимок каталога перестраивается после коммита транзакции
+        eventPublisher.publishEvent(new CatalogChangedEvent(this, savedProduct.getId(), "create"));
+
         return mapToDTO(savedProduct);
     }
 
@@ -107,6 +113,8 @@ public class AdminProductService {
         Product savedProduct = productRepository.save(product);
         log.info("Продукт обновлен с ID: {}", savedProduct.getId());
 
+        eventPublisher.publishEvent(new CatalogChangedEvent(this, savedProduct.getId(), "update"));
+
         return mapToDTO(savedProduct);
     }
 
@@ -119,6 +127,8 @@ public class AdminProductService {
 
         productRepository.delete(product);
         log.info("Продукт удален с ID: {}", productId);
+
+        eventPublisher.publishEvent(new CatalogChangedEvent(this, productId, "delete"));
     }
 
     public ProductDTO getProductById(Integer productId) {
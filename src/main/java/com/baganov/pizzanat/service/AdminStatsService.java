@@ -6,31 +6,40 @@
  */
 package com.baganov.pizzanat.service;
 
+import com.baganov.pizzanat.entity.SalesDailyRollup;
 import com.baganov.pizzanat.model.dto.AdminStatsResponse;
 import com.baganov.pizzanat.repository.*;
+import com.baganov.pizzanat.service.order.StageLatencyTracker;
+import com.baganov.pizzanat.service.stats.SalesRollupService;
+import com.baganov.pizzanat.util.TimeZoneUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.Query;
 import java.math.BigDecimal;
-import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
-import java.util.stream.Collectors;
 
+/**
+ * Заказы, выручка, популярные товары и статусы читаются из агрегатов продаж (SalesRollupService),
+ * а не считаются по orders и order_items на каждый запрос: время ответа зависит от числа дней,
+ * а не от числа заказов. Агрегаты отстают от заказов на период записи приращений
+ * (app.sales-rollup.flush-interval-ms).
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class AdminStatsService {
 
-    private final OrderRepository orderRepository;
+    private static final int POPULAR_PRODUCTS_LIMIT = 5;
+    private static final int HOURLY_SALES_HOURS = 24;
+
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
-    private final OrderStatusRepository orderStatusRepository;
-    private final EntityManager entityManager;
+    private final SalesRollupService salesRollupService;
+    private final StageLatencyTracker stageLatencyTracker;
 
     /**
      * Получает полную статистику для админ панели
@@ -40,15 +49,20 @@ public class AdminStatsService {
         log.info("Получение статистики админ панели");
 
         try {
-            // Получаем все метрики параллельно
-            Long totalOrders = getTotalOrders();
-            BigDecimal totalRevenue = getTotalRevenue();
+            LocalDateTime now = TimeZoneUtils.nowInMoscow();
+            Long totalOrders = salesRollupService.getTotalOrders();
+            BigDecimal totalRevenue = salesRollupService.getTotalRevenue();
             Long totalProducts = getTotalProducts();
             Long totalCategories = getTotalCategories();
-            Long ordersToday = getOrdersToday();
-            BigDecimal revenueToday = getRevenueToday();
-            List<AdminStatsResponse.PopularProduct> popularProducts = getPopularProducts();
-            Map<String, Long> orderStatusStats = getOrderStatusStats();
+            Optional<SalesDailyRollup> today = salesRollupService.getDay(now.toLocalDate());
+            Long ordersToday = today.map(SalesDailyRollup::getOrdersCount).orElse(0L);
+            BigDecimal revenueToday = today.map(SalesDailyRollup::getRevenue).orElse(BigDecimal.ZERO);
+            List<AdminStatsResponse.PopularProduct> popularProducts =
+                    salesRollupService.getTopProducts(POPULAR_PRODUCTS_LIMIT);
+            Map<String, Long> orderStatusStats = salesRollupService.getStatusCounts();
+            List<AdminStatsResponse.HourlySales> hourlySales = getHourlySales(now);
+            // Время этапов считается в памяти по журналу статусов, без запроса к БД
+            Map<String, AdminStatsResponse.StageLatency> stageLatencies = stageLatencyTracker.snapshot();
 
             AdminStatsResponse response = AdminStatsResponse.builder()
                     .totalOrders(totalOrders)
@@ -59,6 +73,8 @@ public class AdminStatsService {
                     .revenueToday(revenueToday)
                     .popularProducts(popularProducts)
                     .orderStatusStats(orderStatusStats)
+                    .hourlySales(hourlySales)
+                    .stageLatencies(stageLatencies)
                     .build();
 
             log.info("Статистика успешно получена: {} заказов, {} выручка", totalOrders, totalRevenue);
@@ -70,25 +86,6 @@ public class AdminStatsService {
         }
     }
 
-    /**
-     * Получает общее количество заказов
-     */
-    private Long getTotalOrders() {
-        String sql = "SELECT COUNT(*) FROM orders";
-        Query query = entityManager.createNativeQuery(sql);
-        return ((Number) query.getSingleResult()).longValue();
-    }
-
-    /**
-     * Получает общую выручку
-     */
-    private BigDecimal getTotalRevenue() {
-        String sql = "SELECT COALESCE(SUM(total_amount), 0) FROM orders";
-        Query query = entityManager.createNativeQuery(sql);
-        Object result = query.getSingleResult();
-        return result != null ? (BigDecimal) result : BigDecimal.ZERO;
-    }
-
     /**
      * Получает общее количество продуктов
      */
@@ -104,91 +101,16 @@ public class AdminStatsService {
     }
 
     /**
-     * Получает количество заказов за сегодня
-     */
-    private Long getOrdersToday() {
-        LocalDateTime startOfDay = LocalDate.now().atStartOfDay();
-        LocalDateTime endOfDay = startOfDay.plusDays(1);
-
-        String sql = "SELECT COUNT(*) FROM orders WHERE created_at >= ? AND created_at < ?";
-        Query query = entityManager.createNativeQuery(sql);
-        query.setParameter(1, startOfDay);
-        query.setParameter(2, endOfDay);
-        return ((Number) query.getSingleResult()).longValue();
-    }
-
-    /**
-     * Получает выручку за сегодня
+     * Получает продажи по часам за последние сутки, включая текущий час
      */
-    private BigDecimal getRevenueToday() {
-        LocalDateTime startOfDay = LocalDate.now().atStartOfDay();
-        LocalDateTime endOfDay = startOfDay.plusDays(1);
-
-        String sql = "SELECT COALESCE(SUM(total_amount), 0) FROM orders WHERE created_at >= ? AND created_at < ?";
-        Query query = entityManager.createNativeQuery(sql);
-        query.setParameter(1, startOfDay);
-        query.setParameter(2, endOfDay);
-        Object result = query.getSingleResult();
-        return result != null ? (BigDecimal) result : BigDecimal.ZERO;
-    }
-
-    /**
-     * Получает ТОП-5 популярных товаров
-     */
-    @SuppressWarnings("unchecked")
-    private List<AdminStatsResponse.PopularProduct> getPopularProducts() {
-        String sql = """
-                SELECT
-                    p.id as product_id,
-                    p.name as product_name,
-                    SUM(oi.quantity) as total_sold,
-                    SUM(oi.quantity * oi.price) as total_revenue
-                FROM order_items oi
-                JOIN products p ON oi.product_id = p.id
-                GROUP BY p.id, p.name
-                ORDER BY total_sold DESC
-                LIMIT 5
-                """;
-
-        Query query = entityManager.createNativeQuery(sql);
-        List<Object[]> results = query.getResultList();
-
-        return results.stream()
-                .map(row -> AdminStatsResponse.PopularProduct.builder()
-                        .productId(((Number) row[0]).intValue())
-                        .productName((String) row[1])
-                        .totalSold(((Number) row[2]).longValue())
-                        .totalRevenue((BigDecimal) row[3])
+    private List<AdminStatsResponse.HourlySales> getHourlySales(LocalDateTime now) {
+        LocalDateTime from = now.truncatedTo(ChronoUnit.HOURS).minusHours(HOURLY_SALES_HOURS - 1);
+        return salesRollupService.getHourlySince(from).stream()
+                .map(hour -> AdminStatsResponse.HourlySales.builder()
+                        .hourStart(hour.getBucketStart().toString())
+                        .ordersCount(hour.getOrdersCount())
+                        .revenue(hour.getRevenue())
                         .build())
-                .collect(Collectors.toList());
-    }
-
-    /**
-     * Получает статистику по статусам заказов
-     */
-    @SuppressWarnings("unchecked")
-    private Map<String, Long> getOrderStatusStats() {
-        String sql = """
-                SELECT
-                    os.name as status_name,
-                    COUNT(o.id) as order_count
-                FROM order_statuses os
-                LEFT JOIN orders o ON o.status_id = os.id
-                WHERE os.is_active = true
-                GROUP BY os.name
-                ORDER BY order_count DESC
-                """;
-
-        Query query = entityManager.createNativeQuery(sql);
-        List<Object[]> results = query.getResultList();
-
-        Map<String, Long> statusStats = new LinkedHashMap<>();
-        for (Object[] row : results) {
-            String statusName = (String) row[0];
-            Long count = ((Number) row[1]).longValue();
-            statusStats.put(statusName, count);
-        }
-
-        return statusStats;
+                .toList();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,120 @@
+/**
+ * @file: BootstrapService.java
+ * @description: Сборка стартовых данных мини-приложения (каталог, корзина, профиль) за один запрос
+ * @dependencies: CatalogSnapshotService, CartService
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service;
+
+import com.baganov.pizzanat.dto.ProductDto;
+import com.baganov.pizzanat.entity.User;
+import com.baganov.pizzanat.model.dto.bootstrap.BootstrapResponse;
+import com.baganov.pizzanat.model.dto.cart.CartDTO;
+import com.baganov.pizzanat.model.dto.product.CategoryDTO;
+import com.baganov.pizzanat.service.catalog.CatalogSnapshot;
+import com.baganov.pizzanat.service.catalog.CatalogSnapshotService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Каталожная часть берется из снимка каталога: она общая для всех пользователей и
+ * собирается один раз на версию снимка, поэтому единственное обращение к БД - чтение корзины
+ * в потоке запроса.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BootstrapService {
+
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final CartService cartService;
+
+    private final AtomicReference<CatalogPart> catalogPart = new AtomicReference<>();
+
+    public BootstrapResponse getBootstrap(String sessionId, User user) {
+        Integer userId = user != null ? user.getId() : null;
+
+        CatalogPart catalog = getCatalogPart();
+
+        CartDTO cart;
+        try {
+            cart = cartService.getCart(sessionId, userId);
+        } catch (Exception e) {
+            // Меню должно открыться даже при ошибке чтения корзины
+            log.error("Не удалось загрузить корзину для bootstrap (userId: {}, sessionId: {}): {}",
+                    userId, sessionId, e.getMessage(), e);
+            cart = emptyCart(sessionId);
+        }
+
+        return BootstrapResponse.builder()
+                .catalogVersion(catalog.version())
+                .categories(catalog.categories())
+                .productsByCategory(catalog.productsByCategory())
+                .specialOffers(catalog.specialOffers())
+                .profile(toProfileSummary(user))
+                .cart(cart)
+                .build();
+    }
+
+    private CatalogPart getCatalogPart() {
+        CatalogSnapshot snapshot = catalogSnapshotService.getSnapshot();
+        CatalogPart cached = catalogPart.get();
+        if (cached != null && cached.version() == snapshot.getVersion()) {
+            return cached;
+        }
+
+        // Меню показывает только доступные продукты, в порядке меню внутри категории
+        Map<Integer, List<ProductDto>> available = new HashMap<>();
+        for (ProductDto product : snapshot.getAvailableProducts()) {
+            available.computeIfAbsent(product.getCategoryId(), id -> new ArrayList<>()).add(product);
+        }
+        List<CategoryDTO> categories = snapshot.getActiveCategories();
+        Map<Integer, List<ProductDto>> productsByCategory = new LinkedHashMap<>();
+        for (CategoryDTO category : categories) {
+            List<ProductDto> products = available.get(category.getId());
+            if (products != null) {
+                productsByCategory.put(category.getId(), List.copyOf(products));
+            }
+        }
+
+        CatalogPart built = new CatalogPart(snapshot.getVersion(), categories,
+                Collections.unmodifiableMap(productsByCategory), snapshot.getSpecialOffers());
+        catalogPart.set(built);
+        return built;
+    }
+
+    private static BootstrapResponse.ProfileSummary toProfileSummary(User user) {
+        if (user == null) {
+            return null;
+        }
+        return BootstrapResponse.ProfileSummary.builder()
+                .id(user.getId())
+                .displayName(user.getDisplayName())
+                .firstName(user.getFirstName())
+                .phone(user.getPhone())
+                .hasVerifiedAuthentication(user.hasVerifiedAuthentication())
+                .build();
+    }
+
+    private static CartDTO emptyCart(String sessionId) {
+        return CartDTO.builder()
+                .sessionId(sessionId)
+                .totalAmount(BigDecimal.ZERO)
+                .items(new ArrayList<>())
+                .build();
+    }
+
+    private record CatalogPart(long version, List<CategoryDTO> categories,
+            Map<Integer, List<ProductDto>> productsByCategory, List<ProductDto> specialOffers) {
+    }
+}
@@ -1,238 +1,286 @@
 package com.baganov.pizzanat.service;
 
+import com.baganov.pizzanat.dto.ProductDto;
+import com.baganov.pizzanat.entity.Cart;
 import com.baganov.pizzanat.model.dto.cart.CartDTO;
+import com.baganov.pizzanat.model.dto.cart.CartDeliveryDTO;
 import com.baganov.pizzanat.model.dto.cart.CartItemDTO;
-import com.baganov.pizzanat.entity.Cart;
-import com.baganov.pizzanat.entity.CartItem;
-import com.baganov.pizzanat.entity.Product;
-import com.baganov.pizzanat.entity.User;
-import com.baganov.pizzanat.repository.CartRepository;
-import com.baganov.pizzanat.repository.ProductRepository;
-import com.baganov.pizzanat.repository.UserRepository;
+import com.baganov.pizzanat.model.dto.cart.CartOperation;
+import com.baganov.pizzanat.service.DeliveryZoneService.DeliveryQuote;
+import com.baganov.pizzanat.service.cart.CartLines;
+import com.baganov.pizzanat.service.cart.CartOperations;
+import com.baganov.pizzanat.service.cart.CartPricingService;
+import com.baganov.pizzanat.service.cart.PersistentCartService;
+import com.baganov.pizzanat.service.cart.PricedCart;
+import com.baganov.pizzanat.service.cart.SessionCart;
+import com.baganov.pizzanat.service.cart.SessionCartStore;
+import com.baganov.pizzanat.service.catalog.CatalogSnapshot;
+import com.baganov.pizzanat.service.catalog.CatalogSnapshotService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.UUID;
-import java.util.stream.Collectors;
 
+/**
+ * Корзины пользователей хранятся в БД (PersistentCartService).
+ * Корзины анонимных сессий - в SessionCartStore, цены и названия берутся из снимка каталога,
+ * поэтому действия гостя с корзиной не обращаются к БД. В БД корзина сессии попадает
+ * только при входе пользователя (слияние) или при оформлении заказа.
+ * Итоги и доставку для обоих видов корзин считает CartPricingService.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class CartService {
 
-    private final CartRepository cartRepository;
-    private final UserRepository userRepository;
-    private final ProductRepository productRepository;
-    private final StorageService storageService;
+    private final PersistentCartService persistentCartService;
+    private final SessionCartStore sessionCartStore;
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final CartPricingService cartPricingService;
 
-    @Transactional(readOnly = true)
     public CartDTO getCart(String sessionId, Integer userId) {
-        Cart cart = findExistingCart(sessionId, userId);
-        if (cart == null) {
-            // Возвращаем пустую корзину если её нет
-            return CartDTO.builder()
-                    .sessionId(sessionId)
-                    .totalAmount(BigDecimal.ZERO)
-                    .items(List.of())
-                    .build();
+        if (userId != null) {
+            return mapToDTO(userId, persistentCartService.getCart(userId));
         }
-        return mapToDTO(cart);
+        if (sessionId == null) {
+            return emptyCart();
+        }
+        return sessionCartStore.find(sessionId)
+                .map(this::mapToDTO)
+                .orElseGet(() -> mapToDTO(SessionCart.create(sessionId)));
     }
 
-    @Transactional
     public CartDTO addToCart(String sessionId, Integer userId, Integer productId, Integer quantity) {
-        Cart cart = findOrCreateCart(sessionId, userId);
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new IllegalArgumentException("Продукт не найден с ID: " + productId));
+        if (userId != null) {
+            return mapToDTO(userId, persistentCartService.addToCart(userId, productId, quantity));
+        }
 
+        ProductDto product = catalogSnapshotService.getSnapshot().findProduct(productId)
+                .orElseThrow(() -> new IllegalArgumentException("Продукт не найден с ID: " + productId));
         if (!product.isAvailable()) {
             throw new IllegalArgumentException("Продукт недоступен");
         }
 
-        Optional<CartItem> existingItem = cart.getItems().stream()
-                .filter(item -> item.getProduct().getId().equals(productId))
-                .findFirst();
-
-        if (existingItem.isPresent()) {
-            CartItem item = existingItem.get();
-            item.setQuantity(item.getQuantity() + quantity);
-        } else {
-            CartItem newItem = CartItem.builder()
-                    .cart(cart)
-                    .product(product)
-                    .quantity(quantity)
-                    .build();
-            cart.addItem(newItem);
-        }
-
-        cartRepository.save(cart);
+        SessionCart cart = sessionCartStore.update(requireSessionId(sessionId),
+                sessionCart -> sessionCart.getItems().merge(productId, quantity, Integer::sum));
         return mapToDTO(cart);
     }
 
-    @Transactional
     public CartDTO updateCartItem(String sessionId, Integer userId, Integer productId, Integer quantity) {
-        Cart cart = findOrCreateCart(sessionId, userId);
+        if (userId != null) {
+            return mapToDTO(userId, persistentCartService.updateCartItem(userId, productId, quantity));
+        }
 
-        CartItem item = cart.getItems().stream()
-                .filter(i -> i.getProduct().getId().equals(productId))
-                .findFirst()
-                .orElseThrow(() -> new IllegalArgumentException("Товар не найден в корзине"));
+        SessionCart cart = sessionCartStore.update(requireSessionId(sessionId), sessionCart -> {
+            if (!sessionCart.getItems().containsKey(productId)) {
+                throw new IllegalArgumentException("Товар не найден в корзине");
+            }
+            if (quantity <= 0) {
+                sessionCart.getItems().remove(productId);
+            } else {
+                sessionCart.getItems().put(productId, quantity);
+            }
+        });
+        return mapToDTO(cart);
+    }
 
-        if (quantity <= 0) {
-            cart.removeItem(item);
-        } else {
-            item.setQuantity(quantity);
+    public CartDTO removeFromCart(String sessionId, Integer userId, Integer productId) {
+        if (userId != null) {
+            return mapToDTO(userId, persistentCartService.removeFromCart(userId, productId));
         }
 
-        cartRepository.save(cart);
+        SessionCart cart = sessionCartStore.update(requireSessionId(sessionId), sessionCart -> {
+            if (sessionCart.getItems().remove(productId) == null) {
+                throw new IllegalArgumentException("Товар не найден в корзине");
+            }
+        });
         return mapToDTO(cart);
     }
 
-    @Transactional
-    public CartDTO removeFromCart(String sessionId, Integer userId, Integer productId) {
-        Cart cart = findOrCreateCart(sessionId, userId);
+    /**
+     * Пакетное изменение корзины: все операции применяются атомарно, ответ строится один раз
+     */
+    public CartDTO applyOperations(String sessionId, Integer userId, List<CartOperation> operations) {
+        CartOperations.validate(operations);
+        if (userId != null) {
+            return mapToDTO(userId, persistentCartService.applyOperations(userId, operations));
+        }
 
-        CartItem item = cart.getItems().stream()
-                .filter(i -> i.getProduct().getId().equals(productId))
-                .findFirst()
-                .orElseThrow(() -> new IllegalArgumentException("Товар не найден в корзине"));
+        CatalogSnapshot snapshot = catalogSnapshotService.getSnapshot();
+        for (CartOperation operation : operations) {
+            if (CartOperations.addsQuantity(operation)) {
+                ProductDto product = snapshot.findProduct(operation.getProductId())
+                        .orElseThrow(() -> new IllegalArgumentException(
+                                "Продукт не найден с ID: " + operation.getProductId()));
+                if (!product.isAvailable()) {
+                    throw new IllegalArgumentException("Продукт недоступен");
+                }
+            }
+        }
 
-        cart.removeItem(item);
-        cartRepository.save(cart);
+        SessionCart cart = sessionCartStore.update(requireSessionId(sessionId), sessionCart -> {
+            for (CartOperation operation : operations) {
+                CartOperations.apply(sessionCart.getItems(), operation);
+            }
+        });
         return mapToDTO(cart);
     }
 
-    @Transactional
     public void clearCart(String sessionId, Integer userId) {
-        Cart cart = findOrCreateCart(sessionId, userId);
-        cart.getItems().clear();
-        cartRepository.save(cart);
+        if (userId != null) {
+            persistentCartService.clearCart(userId);
+            return;
+        }
+        sessionCartStore.delete(requireSessionId(sessionId));
     }
 
-    @Transactional
     public void mergeAnonymousCartWithUserCart(String sessionId, Integer userId) {
         if (sessionId == null || userId == null) {
             return;
         }
 
-        Optional<Cart> anonymousCartOpt = cartRepository.findBySessionId(sessionId);
-        if (anonymousCartOpt.isEmpty() || anonymousCartOpt.get().getItems().isEmpty()) {
-            return;
-        }
+        Map<Integer, Integer> sessionItems = sessionCartStore.find(sessionId)
+                .map(SessionCart::getItems)
+                .orElse(Map.of());
+        persistentCartService.mergeIntoUserCart(userId, sessionItems, sessionId);
+        sessionCartStore.delete(sessionId);
+        cartPricingService.transfer(CartPricingService.cartKey(sessionId, null),
+                CartPricingService.cartKey(null, userId));
 
-        Cart anonymousCart = anonymousCartOpt.get();
-        Cart userCart = findOrCreateCart(null, userId);
-
-        for (CartItem anonymousItem : anonymousCart.getItems()) {
-            Optional<CartItem> existingItem = userCart.getItems().stream()
-                    .filter(item -> item.getProduct().getId().equals(anonymousItem.getProduct().getId()))
-                    .findFirst();
+        log.info("Корзина сессии {} перенесена в корзину пользователя {} ({} позиций)",
+                sessionId, userId, sessionItems.size());
+    }
 
-            if (existingItem.isPresent()) {
-                CartItem item = existingItem.get();
-                item.setQuantity(item.getQuantity() + anonymousItem.getQuantity());
-            } else {
-                CartItem newItem = CartItem.builder()
-                        .cart(userCart)
-                        .product(anonymousItem.getProduct())
-                        .quantity(anonymousItem.getQuantity())
-                        .build();
-                userCart.addItem(newItem);
-            }
+    /**
+     * Запоминает адрес доставки корзины: в ответах корзины появляется стоимость доставки,
+     * которая дальше пересчитывается по сумме корзины без повторного определения зоны
+     */
+    public CartDTO setDeliveryAddress(String sessionId, Integer userId, String address) {
+        if (userId == null) {
+            requireSessionId(sessionId);
         }
-
-        cartRepository.save(userCart);
-        cartRepository.delete(anonymousCart);
+        cartPricingService.setDeliveryAddress(CartPricingService.cartKey(sessionId, userId), address);
+        return getCart(sessionId, userId);
     }
 
-    private Cart findExistingCart(String sessionId, Integer userId) {
-        if (userId != null) {
-            return cartRepository.findByUserId(userId).orElse(null);
-        } else if (sessionId != null) {
-            return cartRepository.findBySessionId(sessionId).orElse(null);
+    /**
+     * Корзина сессии для оформления заказа: из хранилища сессий в виде несохраняемой сущности,
+     * либо корзина сессии, сохраненная в БД ранее. null, если корзины нет.
+     */
+    public Cart findSessionCartForCheckout(String sessionId) {
+        Optional<SessionCart> sessionCart = sessionCartStore.find(sessionId);
+        if (sessionCart.isPresent() && !sessionCart.get().isEmpty()) {
+            return persistentCartService.toTransientCart(sessionCart.get());
         }
-        return null;
+        return persistentCartService.findLegacySessionCart(sessionId).orElse(null);
     }
 
-    private Cart findOrCreateCart(String sessionId, Integer userId) {
-        if (userId != null) {
-            return cartRepository.findByUserId(userId)
-                    .orElseGet(() -> createCartForUser(userId));
-        } else if (sessionId != null) {
-            return cartRepository.findBySessionId(sessionId)
-                    .orElseGet(() -> createAnonymousCart(sessionId));
+    /**
+     * Удаляет корзину сессии после фиксации транзакции заказа,
+     * чтобы при откате заказа корзина гостя сохранилась
+     */
+    public void clearSessionCartAfterCommit(String sessionId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    sessionCartStore.delete(sessionId);
+                }
+            });
         } else {
-            throw new IllegalArgumentException("Должен быть указан либо sessionId, либо userId");
+            sessionCartStore.delete(sessionId);
         }
     }
 
-    private Cart createCartForUser(Integer userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new IllegalArgumentException("Пользователь не найден с ID: " + userId));
+    private static String requireSessionId(String sessionId) {
+        if (sessionId == null) {
+            throw new IllegalArgumentException("Должен быть указан либо sessionId, либо userId");
+        }
+        return sessionId;
+    }
 
-        Cart cart = Cart.builder()
-                .user(user)
+    private static CartDTO emptyCart() {
+        return CartDTO.builder()
+                .totalAmount(BigDecimal.ZERO)
+                .items(List.of())
                 .build();
-
-        return cartRepository.save(cart);
     }
 
-    private Cart createAnonymousCart(String sessionId) {
-        Cart cart = Cart.builder()
-                .sessionId(sessionId != null ? sessionId : UUID.randomUUID().toString())
-                .build();
+    private CartDTO mapToDTO(Integer userId, CartLines lines) {
+        PricedCart priced = cartPricingService.price(CartPricingService.cartKey(null, userId), lines.quantities());
+        return mapToDTO(lines.cartId(), lines.sessionId(), priced, lines.itemIds());
+    }
 
-        return cartRepository.save(cart);
+    private CartDTO mapToDTO(SessionCart cart) {
+        PricedCart priced = cartPricingService.price(
+                CartPricingService.cartKey(cart.getSessionId(), null), cart.getItems());
+        return mapToDTO(null, cart.getSessionId(), priced, Map.of());
     }
 
-    private CartDTO mapToDTO(Cart cart) {
-        List<CartItemDTO> itemDTOs = cart.getItems().stream()
-                .map(this::mapToDTO)
-                .collect(Collectors.toList());
+    /**
+     * У позиций корзины сессии нет строки в cart_items, в качестве id используется ID продукта
+     */
+    private static CartDTO mapToDTO(Integer cartId, String sessionId, PricedCart priced,
+            Map<Integer, Integer> itemIds) {
+        List<CartItemDTO> items = priced.lines().stream()
+                .map(line -> CartItemDTO.builder()
+                        .id(itemIds.getOrDefault(line.product().getId(), line.product().getId()))
+                        .productId(line.product().getId())
+                        .productName(line.product().getName())
+                        .productImageUrl(line.product().getImageUrl())
+                        .price(line.price())
+                        .discountedPrice(line.discountedPrice())
+                        .quantity(line.quantity())
+                        .subtotal(line.subtotal())
+                        .build())
+                .toList();
+
+        CartDeliveryDTO delivery = mapDelivery(priced);
+        BigDecimal deliveryCost = delivery != null && delivery.getDeliveryCost() != null
+                ? delivery.getDeliveryCost()
+                : BigDecimal.ZERO;
 
         return CartDTO.builder()
-                .id(cart.getId())
-                .sessionId(cart.getSessionId())
-                .totalAmount(cart.getTotalAmount())
-                .items(itemDTOs)
+                .id(cartId)
+                .sessionId(sessionId)
+                .totalAmount(priced.itemsAmount())
+                .baseAmount(priced.baseAmount())
+                .discountAmount(priced.discountAmount())
+                .itemsCount(priced.itemsCount())
+                .delivery(delivery)
+                .totalWithDelivery(priced.itemsAmount().add(deliveryCost))
+                .items(items)
                 .build();
     }
 
-    private CartItemDTO mapToDTO(CartItem item) {
-        String imageUrl = null;
-        if (item.getProduct().getImageUrl() != null && !item.getProduct().getImageUrl().isEmpty()) {
-            try {
-                // Для изображений продуктов используем простые публичные URL
-                if (item.getProduct().getImageUrl().startsWith("products/")) {
-                    imageUrl = storageService.getPublicUrl(item.getProduct().getImageUrl());
-                } else {
-                    // Если URL уже полный, используем как есть
-                    imageUrl = item.getProduct().getImageUrl();
-                }
-            } catch (Exception e) {
-                log.error("Error generating public URL for product image", e);
-            }
+    private static CartDeliveryDTO mapDelivery(PricedCart priced) {
+        if (priced.deliveryAddress() == null) {
+            return null;
         }
-
-        BigDecimal price = item.getProduct().getPrice();
-        BigDecimal discountedPrice = item.getProduct().getDiscountedPrice() != null
-                ? item.getProduct().getDiscountedPrice()
-                : price;
-
-        return CartItemDTO.builder()
-                .id(item.getId())
-                .productId(item.getProduct().getId())
-                .productName(item.getProduct().getName())
-                .productImageUrl(imageUrl)
-                .price(price)
-                .discountedPrice(discountedPrice)
-                .quantity(item.getQuantity())
-                .subtotal(discountedPrice.multiply(BigDecimal.valueOf(item.getQuantity())))
+        DeliveryQuote quote = priced.deliveryQuote();
+        if (quote == null) {
+            return CartDeliveryDTO.builder()
+                    .address(priced.deliveryAddress())
+                    .available(false)
+                    .build();
+        }
+        BigDecimal itemsAmount = priced.itemsAmount();
+        return CartDeliveryDTO.builder()
+                .address(priced.deliveryAddress())
+                .available(true)
+                .zoneName(quote.zoneName())
+                .deliveryCost(quote.deliveryCost(itemsAmount))
+                .baseCost(quote.baseCost())
+                .freeDeliveryThreshold(quote.freeDeliveryThreshold())
+                .amountToFreeDelivery(quote.amountToFreeDelivery(itemsAmount))
+                .deliveryFree(quote.isDeliveryFree(itemsAmount))
+                .estimatedTime(quote.estimatedTime())
                 .build();
     }
-}
\ No newline at end of file
+}
@@ -1,62 +1,26 @@
 package com.baganov.pizzanat.service;
 
 import com.baganov.pizzanat.model.dto.product.CategoryDTO;
-import com.baganov.pizzanat.entity.Category;
-import com.baganov.pizzanat.repository.CategoryRepository;
+import com.baganov.pizzanat.service.catalog.CatalogSnapshotService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class CategoryService {
 
-    private final CategoryRepository categoryRepository;
-    private final StorageService storageService;
+    private final CatalogSnapshotService catalogSnapshotService;
 
-    @Cacheable(value = "categories", key = "'category:' + #id")
     public CategoryDTO getCategoryById(Integer id) {
-        Category category = categoryRepository.findById(id)
+        return catalogSnapshotService.getSnapshot().findCategory(id)
                 .orElseThrow(() -> new IllegalArgumentException("Категория не найдена с ID: " + id));
-        return mapToDTO(category);
     }
 
-    @Cacheable(value = "categories", key = "'categories:all'")
     public List<CategoryDTO> getAllActiveCategories() {
-        return categoryRepository.findAllByIsActiveTrueOrderByDisplayOrderAsc()
-                .stream()
-                .map(this::mapToDTO)
-                .collect(Collectors.toList());
+        return catalogSnapshotService.getSnapshot().getActiveCategories();
     }
-
-    private CategoryDTO mapToDTO(Category category) {
-        String imageUrlWithPresignedUrl = null;
-        if (category.getImageUrl() != null && !category.getImageUrl().isEmpty()) {
-            try {
-                // Для изображений категорий используем простые публичные URL
-                if (category.getImageUrl().startsWith("categories/")) {
-                    imageUrlWithPresignedUrl = storageService.getPublicUrl(category.getImageUrl());
-                } else {
-                    // Если URL уже полный, используем как есть
-                    imageUrlWithPresignedUrl = category.getImageUrl();
-                }
-            } catch (Exception e) {
-                log.error("Failed to generate public URL for category image: {}", category.getImageUrl(), e);
-                imageUrlWithPresignedUrl = category.getImageUrl();
-            }
-        }
-
-        return CategoryDTO.builder()
-                .id(category.getId())
-                .name(category.getName())
-                .description(category.getDescription())
-                .imageUrl(imageUrlWithPresignedUrl)
-                .displayOrder(category.getDisplayOrder())
-                .build();
-    }
-}
\ No newline at end of file
+}
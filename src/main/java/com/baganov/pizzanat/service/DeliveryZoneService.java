@@ -1,25 +1,39 @@
 /**
  * @file: DeliveryZoneService.java
  * @description: Сервис для определения зон доставки и расчета стоимости по адресу
- * @dependencies: Spring Data JPA, DeliveryZone entities
+ * @dependencies: Spring Data JPA, DeliveryZone entities, DeliveryZoneMatcher
  * @created: 2025-01-23
  */
 package com.baganov.pizzanat.service;
 
 import com.baganov.pizzanat.entity.DeliveryZone;
 import com.baganov.pizzanat.entity.DeliveryZoneKeyword;
-import com.baganov.pizzanat.entity.DeliveryZoneStreet;
+import com.baganov.pizzanat.event.ReferenceDataChangedEvent;
 import com.baganov.pizzanat.repository.DeliveryZoneRepository;
+import com.baganov.pizzanat.service.delivery.DeliveryZoneMatcher;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
+/**
+ * Зона по адресу ищется скомпилированным DeliveryZoneMatcher без обращения к БД. Матчер собирается
+ * при старте и пересобирается, только если изменились зоны, улицы или ключевые слова: после
+ * ReferenceDataChangedEvent и при периодической проверке (app.delivery-zones.refresh-interval-ms)
+ * для правок напрямую в БД.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -27,114 +41,105 @@ public class DeliveryZoneService {
 
     private final DeliveryZoneRepository deliveryZoneRepository;
 
+    private final AtomicReference<DeliveryZoneMatcher> matcher = new AtomicReference<>();
+    private final AtomicLong matcherVersion = new AtomicLong();
+
     /**
      * Определяет зону доставки по адресу
      *
      * @param address адрес для проверки
-     * @return зона доставки или пустой Optional если зона не найдена
+     * @return зона доставки (отсоединенная сущность только для чтения) или пустой Optional если зона не найдена
      */
-    @org.springframework.transaction.annotation.Transactional(readOnly = true)
     public Optional<DeliveryZone> determineZoneByAddress(String address) {
         if (address == null || address.trim().isEmpty()) {
             log.warn("Пустой адрес для определения зоны доставки");
             return Optional.empty();
         }
 
-        log.info("=== НАЧАЛО ОПРЕДЕЛЕНИЯ ЗОНЫ ДОСТАВКИ ===");
-        log.info("Определение зоны доставки для адреса: {}", address);
+        Optional<DeliveryZone> zone = matcher().match(address);
+        if (zone.isPresent()) {
+            log.debug("Адрес '{}' соответствует зоне: {} (стоимость: {}₽)",
+                    address, zone.get().getName(), zone.get().getBaseCost());
+        } else {
+            log.debug("Не найдена зона доставки для адреса: {}", address);
+        }
+        return zone;
+    }
 
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
         try {
-            // ИСПРАВЛЕНИЕ: Загружаем коллекции отдельными запросами для избежания
-            // MultipleBagFetchException
-            // 1. Сначала загружаем зоны с улицами
-            List<DeliveryZone> activeZones = deliveryZoneRepository.findByIsActiveTrueWithStreets();
-            log.info("Найдено активных зон в БД: {}", activeZones.size());
-
-            if (activeZones.isEmpty()) {
-                log.error("❌ В БД НЕТ АКТИВНЫХ ЗОН ДОСТАВКИ!");
-                return Optional.empty();
-            }
-
-            // 2. Затем загружаем ключевые слова для всех найденных зон одним запросом
-            List<Integer> zoneIds = activeZones.stream()
-                    .map(DeliveryZone::getId)
-                    .toList();
-
-            // Загружаем ключевые слова для всех зон
-            List<DeliveryZone> zonesWithKeywords = deliveryZoneRepository.loadKeywordsForZones(zoneIds);
-            log.info("Загружены ключевые слова для {} зон", zonesWithKeywords.size());
-
-            // 3. Объединяем данные: у нас есть zones с streets и zonesWithKeywords с
-            // keywords
-            // Поскольку Hibernate кэширует сущности, keywords теперь доступны в исходных
-            // объектах
-            // Принудительная инициализация коллекций keywords внутри транзакции
-            for (DeliveryZone zone : zonesWithKeywords) {
-                // Инициализируем коллекцию keywords в рамках активной сессии
-                int keywordsCount = zone.getKeywords().size();
-                log.debug("Зона {}: ключевых слов={}", zone.getName(), keywordsCount);
-            }
+            refreshMatcher();
+        } catch (Exception e) {
+            log.error("Не удалось собрать матчер зон доставки при старте: {}", e.getMessage(), e);
+        }
+    }
 
-            // Создаем Map для быстрого поиска зон с инициализированными keywords
-            Map<Integer, DeliveryZone> zonesMap = zonesWithKeywords.stream()
-                    .collect(Collectors.toMap(DeliveryZone::getId, zone -> zone));
-
-            // Используем зоны с полностью инициализированными коллекциями
-            for (DeliveryZone zone : activeZones) {
-                DeliveryZone zoneWithKeywords = zonesMap.get(zone.getId());
-                log.info("Проверка зоны: {} (ID: {}, приоритет: {}, улиц: {})",
-                        zone.getName(), zone.getId(), zone.getPriority(),
-                        zone.getStreets().size());
-
-                if (addressMatchesZone(address, zone, zoneWithKeywords)) {
-                    log.info("✅ НАЙДЕНА ЗОНА: Адрес '{}' соответствует зоне: {} (стоимость: {}₽)",
-                            address, zone.getName(), zone.getBaseCost());
-                    return Optional.of(zone);
-                } else {
-                    log.info("❌ Адрес '{}' НЕ соответствует зоне: {}", address, zone.getName());
-                }
-            }
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onReferenceDataChanged(ReferenceDataChangedEvent event) {
+        refreshMatcher();
+    }
 
-            log.warn("❌ НЕ НАЙДЕНА зона доставки для адреса: {}", address);
-            log.info("=== КОНЕЦ ОПРЕДЕЛЕНИЯ ЗОНЫ ДОСТАВКИ ===");
-            return Optional.empty();
+    /**
+     * Страховка для изменений зон, сделанных напрямую в БД или на другом узле
+     */
+    @Scheduled(fixedDelayString = "${app.delivery-zones.refresh-interval-ms:300000}",
+            initialDelayString = "${app.delivery-zones.refresh-interval-ms:300000}")
+    public void scheduledRefresh() {
+        try {
+            refreshMatcher();
         } catch (Exception e) {
-            log.error("🚨 КРИТИЧЕСКАЯ ОШИБКА в determineZoneByAddress: {}", e.getMessage(), e);
-            throw e;
+            log.warn("Не удалось проверить изменения зон доставки: {}", e.getMessage());
         }
     }
 
     /**
-     * Проверяет, соответствует ли адрес указанной зоне доставки
-     *
-     * @param address          адрес для проверки
-     * @param zoneWithStreets  зона с инициализированными улицами
-     * @param zoneWithKeywords зона с инициализированными ключевыми словами (может
-     *                         быть null)
+     * Перечитывает активные зоны и пересобирает матчер, если правила изменились
      */
-    private boolean addressMatchesZone(String address, DeliveryZone zoneWithStreets, DeliveryZone zoneWithKeywords) {
-        // Проверка по улицам (используем зону с инициализированными улицами)
-        for (DeliveryZoneStreet street : zoneWithStreets.getStreets()) {
-            if (street.matchesAddress(address)) {
-                log.debug("Адрес соответствует улице '{}' в зоне '{}'",
-                        street.getStreetName(), zoneWithStreets.getName());
-                return true;
-            }
+    public synchronized DeliveryZoneMatcher refreshMatcher() {
+        // Улицы и ключевые слова загружаются отдельными запросами, чтобы избежать MultipleBagFetchException
+        List<DeliveryZone> activeZones = deliveryZoneRepository.findByIsActiveTrueWithStreets();
+        Map<Integer, List<DeliveryZoneKeyword>> keywordsByZoneId = activeZones.isEmpty()
+                ? Map.of()
+                : deliveryZoneRepository.loadKeywordsForZones(activeZones.stream().map(DeliveryZone::getId).toList())
+                        .stream()
+                        .collect(Collectors.toMap(DeliveryZone::getId, zone -> List.copyOf(zone.getKeywords())));
+
+        DeliveryZoneMatcher existing = matcher.get();
+        if (existing != null
+                && existing.getSignature().equals(DeliveryZoneMatcher.signature(activeZones, keywordsByZoneId))) {
+            return existing;
         }
 
-        // Проверка по ключевым словам (используем зону с инициализированными ключевыми
-        // словами)
-        if (zoneWithKeywords != null) {
-            for (DeliveryZoneKeyword keyword : zoneWithKeywords.getKeywords()) {
-                if (keyword.matchesAddress(address)) {
-                    log.debug("Адрес соответствует ключевому слову '{}' в зоне '{}'",
-                            keyword.getKeyword(), zoneWithStreets.getName());
-                    return true;
-                }
-            }
+        DeliveryZoneMatcher compiled = DeliveryZoneMatcher.compile(activeZones, keywordsByZoneId);
+        matcher.set(compiled);
+        matcherVersion.incrementAndGet();
+        if (activeZones.isEmpty()) {
+            log.error("❌ В БД НЕТ АКТИВНЫХ ЗОН ДОСТАВКИ!");
         }
+        log.info("Матчер зон доставки собран: зон {}, улиц {}, ключевых слов {}, состояний автомата {}",
+                compiled.getZoneCount(), compiled.getStreetCount(), compiled.getKeywordCount(),
+                compiled.getStateCount());
+        return compiled;
+    }
+
+    /**
+     * Версия правил зон: увеличивается при каждой пересборке матчера с новой сигнатурой.
+     * Тарифы, закэшированные под прежней версией (CartPricingService), больше не используются
+     */
+    public long getMatcherVersion() {
+        return matcherVersion.get();
+    }
 
-        return false;
+    private DeliveryZoneMatcher matcher() {
+        DeliveryZoneMatcher current = matcher.get();
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            current = matcher.get();
+            return current != null ? current : refreshMatcher();
+        }
     }
 
     /**
@@ -145,60 +150,34 @@ public class DeliveryZoneService {
      * @return результат расчета доставки
      */
     public DeliveryCalculationResult calculateDelivery(String address, BigDecimal orderAmount) {
+        return quoteDelivery(address).calculate(address, orderAmount);
+    }
+
+    /**
+     * Определяет тариф доставки для адреса без учета суммы заказа.
+     * Поиск зоны - дорогая часть расчета; тариф можно переиспользовать при изменении суммы корзины.
+     *
+     * @param address адрес доставки
+     * @return тариф найденной зоны или стандартный тариф
+     */
+    public DeliveryQuote quoteDelivery(String address) {
         Optional<DeliveryZone> zoneOpt = determineZoneByAddress(address);
 
         if (zoneOpt.isEmpty()) {
             // ИСПРАВЛЕНИЕ: Вместо отказа в доставке, возвращаем стандартную зону с 250₽
             log.info("Адрес '{}' не найден в зональной системе, применяем стандартный тариф 250₽", address);
-
-            BigDecimal standardCost = new BigDecimal("250"); // 250₽ для неизвестных адресов
-            BigDecimal freeThreshold = new BigDecimal("1200"); // Бесплатно от 1200₽
-            boolean isDeliveryFree = orderAmount.compareTo(freeThreshold) >= 0;
-            BigDecimal finalCost = isDeliveryFree ? BigDecimal.ZERO : standardCost;
-
-            return DeliveryCalculationResult.builder()
-                    .address(address)
-                    .deliveryAvailable(true) // ИЗМЕНЕНО: доставка доступна
-                    .zoneName("Стандартная зона")
-                    .zoneDescription("Доставка по городу Волжск (стандартный тариф)")
-                    .deliveryCost(finalCost)
-                    .baseCost(standardCost)
-                    .freeDeliveryThreshold(freeThreshold)
-                    .isDeliveryFree(isDeliveryFree)
-                    .estimatedTimeMin(30)
-                    .estimatedTimeMax(50)
-                    .estimatedTime("30-50 минут")
-                    .currency("RUB")
-                    .message(isDeliveryFree ? "Бесплатная доставка" : "Доставка - " + finalCost + " ₽")
-                    .workingHours("09:00-22:00")
-                    .city("Волжск")
-                    .region("Республика Марий Эл")
-                    .reason(null) // Убираем причину отказа
-                    .build();
+            return DeliveryQuote.STANDARD;
         }
 
         DeliveryZone zone = zoneOpt.get();
-        BigDecimal finalCost = zone.getFinalDeliveryCost(orderAmount);
-        boolean isFree = zone.isDeliveryFree(orderAmount);
-
-        return DeliveryCalculationResult.builder()
-                .address(address)
-                .deliveryAvailable(true)
-                .zoneName(zone.getName())
-                .zoneDescription(zone.getDescription())
-                .deliveryCost(finalCost)
-                .baseCost(zone.getBaseCost())
-                .freeDeliveryThreshold(zone.getFreeDeliveryThreshold())
-                .isDeliveryFree(isFree)
-                .estimatedTimeMin(zone.getDeliveryTimeMin())
-                .estimatedTimeMax(zone.getDeliveryTimeMax())
-                .estimatedTime(zone.getFormattedDeliveryTime())
-                .currency("RUB")
-                .message(isFree ? "Бесплатная доставка" : "Доставка - " + finalCost + " ₽")
-                .workingHours("09:00-22:00") // TODO: сделать настраиваемым
-                .city("Волжск")
-                .region("Республика Марий Эл")
-                .build();
+        return new DeliveryQuote(
+                zone.getName(),
+                zone.getDescription(),
+                zone.getBaseCost(),
+                zone.getFreeDeliveryThreshold(),
+                zone.getDeliveryTimeMin(),
+                zone.getDeliveryTimeMax(),
+                zone.getFormattedDeliveryTime());
     }
 
     /**
@@ -249,4 +228,74 @@ public class DeliveryZoneService {
         private String city;
         private String region;
     }
-}
\ No newline at end of file
+
+    /**
+     * Тариф зоны доставки: стоимость для конкретной суммы заказа - сравнение с порогом
+     */
+    public record DeliveryQuote(
+            String zoneName,
+            String zoneDescription,
+            BigDecimal baseCost,
+            BigDecimal freeDeliveryThreshold,
+            Integer estimatedTimeMin,
+            Integer estimatedTimeMax,
+            String estimatedTime) {
+
+        /**
+         * Стандартный тариф для адресов вне зональной системы: 250₽, бесплатно от 1200₽
+         */
+        public static final DeliveryQuote STANDARD = new DeliveryQuote(
+                "Стандартная зона",
+                "Доставка по городу Волжск (стандартный тариф)",
+                new BigDecimal("250"),
+                new BigDecimal("1200"),
+                30,
+                50,
+                "30-50 минут");
+
+        public boolean isDeliveryFree(BigDecimal orderAmount) {
+            return freeDeliveryThreshold != null &&
+                    orderAmount != null &&
+                    orderAmount.compareTo(freeDeliveryThreshold) >= 0;
+        }
+
+        public BigDecimal deliveryCost(BigDecimal orderAmount) {
+            return isDeliveryFree(orderAmount) ? BigDecimal.ZERO : baseCost;
+        }
+
+        /**
+         * Сумма, которой не хватает до бесплатной доставки (0, если доставка уже бесплатна)
+         */
+        public BigDecimal amountToFreeDelivery(BigDecimal orderAmount) {
+            if (freeDeliveryThreshold == null) {
+                return null;
+            }
+            BigDecimal amount = orderAmount != null ? orderAmount : BigDecimal.ZERO;
+            return freeDeliveryThreshold.subtract(amount).max(BigDecimal.ZERO);
+        }
+
+        public DeliveryCalculationResult calculate(String address, BigDecimal orderAmount) {
+            boolean isFree = isDeliveryFree(orderAmount);
+            BigDecimal finalCost = isFree ? BigDecimal.ZERO : baseCost;
+
+            return DeliveryCalculationResult.builder()
+                    .address(address)
+                    .deliveryAvailable(true)
+                    .zoneName(zoneName)
+                    .zoneDescription(zoneDescription)
+                    .deliveryCost(finalCost)
+                    .baseCost(baseCost)
+                    .freeDeliveryThreshold(freeDeliveryThreshold)
+                    .isDeliveryFree(isFree)
+                    .estimatedTimeMin(estimatedTimeMin)
+                    .estimatedTimeMax(estimatedTimeMax)
+                    .estimatedTime(estimatedTime)
+                    .currency("RUB")
+                    .message(isFree ? "Бесплатная доставка" : "Доставка - " + finalCost + " ₽")
+                    .workingHours("09:00-22:00") // TODO: сделать настраиваемым
+                    .city("Волжск")
+                    .region("Республика Марий Эл")
+                    .build();
+        }
+    }
+}
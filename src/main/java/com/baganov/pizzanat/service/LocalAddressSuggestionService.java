@@ -1,13 +1,17 @@
 package com.baganov.pizzanat.service;
 
 import com.baganov.pizzanat.model.dto.address.AddressSuggestion;
+import com.baganov.pizzanat.util.ParsedAddress;
+import com.baganov.pizzanat.util.RussianAddressParser;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * Локальный сервис автоподсказок адресов для города Волжск
@@ -29,6 +33,20 @@ public class LocalAddressSuggestionService {
             "улица Химиков", "улица Металлургов", "улица Машиностроителей",
             "микрорайон Дубрава", "микрорайон Сосновка", "микрорайон Березки");
 
+    /**
+     * Названия улиц без типа: запросы "ул. лен" и "Ленина" находят "улица Ленина"
+     */
+    private static final List<String> STREET_NAMES = VOLZHSK_STREETS.stream()
+            .map(RussianAddressParser::normalize)
+            .toList();
+
+    /**
+     * Тип и название известных улиц по правилам разбора адреса
+     */
+    private static final Set<String> STREET_KEYS = VOLZHSK_STREETS.stream()
+            .map(street -> streetKey(RussianAddressParser.parse(street)))
+            .collect(Collectors.toSet());
+
     /**
      * Получить локальные автоподсказки адресов
      */
@@ -38,9 +56,12 @@ public class LocalAddressSuggestionService {
         }
 
         String normalizedQuery = query.toLowerCase().trim();
+        String streetQuery = RussianAddressParser.normalize(query);
 
-        return VOLZHSK_STREETS.stream()
-                .filter(street -> street.toLowerCase().contains(normalizedQuery))
+        return IntStream.range(0, VOLZHSK_STREETS.size())
+                .filter(i -> VOLZHSK_STREETS.get(i).toLowerCase().contains(normalizedQuery)
+                        || streetQuery != null && STREET_NAMES.get(i).contains(streetQuery))
+                .mapToObj(VOLZHSK_STREETS::get)
                 .map(this::createLocalSuggestion)
                 .collect(Collectors.toList());
     }
@@ -129,23 +150,7 @@ public class LocalAddressSuggestionService {
      * ДОБАВЛЕНО: Для унификации с Yandex API
      */
     private String extractStreetName(String street) {
-        String streetName = street.trim();
-
-        if (streetName.toLowerCase().startsWith("улица ")) {
-            streetName = streetName.substring(6); // Убираем "улица "
-        } else if (streetName.toLowerCase().startsWith("ул. ")) {
-            streetName = streetName.substring(4); // Убираем "ул. "
-        } else if (streetName.toLowerCase().startsWith("переулок ")) {
-            streetName = streetName.substring(9); // Убираем "переулок "
-        } else if (streetName.toLowerCase().startsWith("пер. ")) {
-            streetName = streetName.substring(5); // Убираем "пер. "
-        } else if (streetName.toLowerCase().startsWith("проспект ")) {
-            streetName = streetName.substring(9); // Убираем "проспект "
-        } else if (streetName.toLowerCase().startsWith("микрорайон ")) {
-            streetName = streetName.substring(11); // Убираем "микрорайон "
-        }
-
-        return streetName.trim();
+        return RussianAddressParser.stripStreetType(street);
     }
 
     /**
@@ -163,8 +168,18 @@ public class LocalAddressSuggestionService {
             return false;
         }
 
-        // Проверяем, содержит ли одну из известных улиц
-        return VOLZHSK_STREETS.stream()
-                .anyMatch(street -> normalizedAddress.contains(street.toLowerCase()));
+        // Проверяем, что улица адреса - одна из известных; "ул. Ленина, д. 5" и "Ленина 5" - улица Ленина
+        return STREET_KEYS.contains(streetKey(RussianAddressParser.parse(address)));
+    }
+
+    /**
+     * Тип и название улицы; тип по умолчанию - "улица"
+     */
+    private static String streetKey(ParsedAddress address) {
+        if (address.street() == null) {
+            return null;
+        }
+        String type = address.streetType() != null ? address.streetType() : ParsedAddress.DEFAULT_STREET_TYPE;
+        return type + " " + address.street();
     }
 }
\ No newline at end of file
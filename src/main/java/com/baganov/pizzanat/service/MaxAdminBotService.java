@@ -1,25 +1,33 @@
 /**
  * @file: MaxAdminBotService.java
  * @description: Сервис для работы с админским MAX ботом
- * @dependencies: MaxAdminUserRepository, OrderService, MaxAdminNotificationService
+ * @dependencies: MaxAdminUserRepository, OrderService, OrderStatsService, MaxAdminNotificationService
  * @created: 2026-03-27
  */
 package com.baganov.pizzanat.service;
 
 import com.baganov.pizzanat.config.MaxBotConfig;
 import com.baganov.pizzanat.entity.*;
-import com.baganov.pizzanat.event.NewOrderEvent;
 import com.baganov.pizzanat.event.PaymentAlertEvent;
-import com.baganov.pizzanat.event.PaymentStatusChangedEvent;
+import com.baganov.pizzanat.exception.InvalidOrderStatusTransitionException;
+import com.baganov.pizzanat.model.dto.DailyOrderStats;
 import com.baganov.pizzanat.model.dto.order.OrderDTO;
 import com.baganov.pizzanat.model.entity.TelegramAdminUser;
 import com.baganov.pizzanat.repository.TelegramAdminUserRepository;
 import com.baganov.pizzanat.repository.PaymentRepository;
 import com.baganov.pizzanat.repository.UserRepository;
+import com.baganov.pizzanat.service.order.ActiveOrderView;
+import com.baganov.pizzanat.service.order.ActiveOrdersProjection;
+import com.baganov.pizzanat.service.order.OrderStatusTransitions;
+import com.baganov.pizzanat.service.outbox.OutboxDelivery;
+import com.baganov.pizzanat.service.stats.OrderStatsService;
+import com.baganov.pizzanat.util.TimeZoneUtils;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.event.EventListener;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
@@ -44,6 +52,8 @@ public class MaxAdminBotService {
     private final TelegramAdminUserRepository adminUserRepository;
     private final MaxBotConfig maxBotConfig;
     private final OrderService orderService;
+    private final ActiveOrdersProjection activeOrdersProjection;
+    private final OrderStatsService orderStatsService;
     private final PaymentRepository paymentRepository;
     private final UserRepository userRepository;
     private final RestTemplate restTemplate;
@@ -134,6 +144,11 @@ public class MaxAdminBotService {
                     log.info("MAX: Статус заказа #{} уже установлен на {}, пропускаем изменение", orderId, newStatusStr);
                     return;
                 }
+
+                if (!OrderStatusTransitions.isAllowed(currentStatus, newStatusStr.toUpperCase())) {
+                    sendTransitionRejected(maxUserId, orderId, currentStatus, newStatusStr);
+                    return;
+                }
             }
 
             // Обновляем статус заказа
@@ -153,12 +168,28 @@ public class MaxAdminBotService {
             log.info("MAX: Статус заказа #{} изменен на {} администратором userId={}",
                     orderId, newStatusStr, maxUserId);
 
+        } catch (InvalidOrderStatusTransitionException e) {
+            sendTransitionRejected(maxUserId, e.getOrderId(), e.getFromStatus(), e.getToStatus());
+        } catch (OptimisticLockingFailureException e) {
+            log.warn("MAX: Заказ одновременно изменен другим администратором: {}", e.getMessage());
+            sendMessageToUser(maxUserId, "⚠️ Заказ только что изменен другим администратором. Обновите список заказов");
         } catch (Exception e) {
             log.error("MAX: Ошибка при обработке изменения статуса заказа: {}", e.getMessage(), e);
             sendMessageToUser(maxUserId, "❌ Ошибка при изменении статуса заказа");
         }
     }
 
+    private void sendTransitionRejected(Long maxUserId, Integer orderId, String currentStatus, String newStatus) {
+        String message = String.format(
+                "⚠️ **Заказ #%d нельзя перевести в статус %s**\n\n" +
+                        "Текущий статус: %s",
+                orderId,
+                getStatusDisplayNameByString(newStatus),
+                getStatusDisplayNameByString(currentStatus));
+        sendMessageToUser(maxUserId, message);
+        log.info("MAX: Переход заказа #{} из {} в {} отклонен", orderId, currentStatus, newStatus);
+    }
+
     /**
      * Обработка запроса деталей заказа
      */
@@ -289,33 +320,19 @@ public class MaxAdminBotService {
      */
     public String getOrdersStats() {
         try {
-            LocalDate today = LocalDate.now();
-            LocalDateTime startOfDay = today.atStartOfDay();
-            LocalDateTime endOfDay = today.plusDays(1).atStartOfDay();
-
-            List<Order> todayOrders = orderService.findOrdersByDateRange(startOfDay, endOfDay);
-
-            long totalOrders = todayOrders.size();
-            BigDecimal totalRevenue = todayOrders.stream()
-                    .map(Order::getTotalAmount)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-            long pendingCount = todayOrders.stream()
-                    .filter(o -> "CREATED".equals(o.getStatus().getName()) || "PENDING".equals(o.getStatus().getName()))
-                    .count();
-            long confirmedCount = todayOrders.stream().filter(o -> "CONFIRMED".equals(o.getStatus().getName())).count();
-            long preparingCount = todayOrders.stream().filter(
-                    o -> "PREPARING".equals(o.getStatus().getName()) || "COOKING".equals(o.getStatus().getName()))
-                    .count();
-            long readyCount = todayOrders.stream().filter(o -> "READY".equals(o.getStatus().getName())).count();
-            long deliveringCount = todayOrders.stream().filter(o -> "DELIVERING".equals(o.getStatus().getName()))
-                    .count();
-            long deliveredCount = todayOrders.stream().filter(
-                    o -> "DELIVERED".equals(o.getStatus().getName()) || "COMPLETED".equals(o.getStatus().getName()))
-                    .count();
-            long cancelledCount = todayOrders.stream().filter(
-                    o -> "CANCELLED".equals(o.getStatus().getName()) || "CANCELED".equals(o.getStatus().getName()))
-                    .count();
+            LocalDate today = TimeZoneUtils.nowInMoscow().toLocalDate();
+            DailyOrderStats stats = orderStatsService.getDailyStats(today);
+
+            long totalOrders = stats.getTotalOrders();
+            BigDecimal totalRevenue = stats.getTotalRevenue();
+
+            long pendingCount = stats.countOf("CREATED", "PENDING");
+            long confirmedCount = stats.countOf("CONFIRMED");
+            long preparingCount = stats.countOf("PREPARING", "COOKING");
+            long readyCount = stats.countOf("READY");
+            long deliveringCount = stats.countOf("DELIVERING");
+            long deliveredCount = stats.countOf("DELIVERED", "COMPLETED");
+            long cancelledCount = stats.countOf("CANCELLED", "CANCELED");
 
             return String.format(
                     "📊 **Статистика заказов за %s**\n\n" +
@@ -345,7 +362,7 @@ public class MaxAdminBotService {
      */
     public String getActiveOrders() {
         try {
-            List<Order> activeOrders = orderService.findActiveOrders();
+            List<ActiveOrderView> activeOrders = activeOrdersProjection.getInProgressOrders();
 
             if (activeOrders.isEmpty()) {
                 return "📋 **Активные заказы**\n\nНет активных заказов";
@@ -353,16 +370,16 @@ public class MaxAdminBotService {
 
             StringBuilder message = new StringBuilder("📋 **Активные заказы**\n\n");
 
-            for (Order order : activeOrders) {
+            for (ActiveOrderView order : activeOrders) {
                 message.append(String.format(
                         "🔸 **Заказ #%d**\n" +
                                 "Статус: %s\n" +
                                 "Сумма: %.2f ₽\n" +
                                 "Время: %s\n\n",
-                        order.getId(),
-                        getStatusDisplayName(order.getStatus()),
-                        order.getTotalAmount(),
-                        order.getCreatedAt().format(DateTimeFormatter.ofPattern("dd.MM HH:mm"))));
+                        order.id(),
+                        getStatusDisplayNameByString(order.status()),
+                        order.totalAmount(),
+                        order.createdAt().format(DateTimeFormatter.ofPattern("dd.MM HH:mm"))));
             }
 
             return message.toString();
@@ -378,7 +395,7 @@ public class MaxAdminBotService {
      */
     public void sendActiveOrdersWithButtons(Long maxUserId) {
         try {
-            List<Order> activeOrders = orderService.findActiveOrdersIncludingNew();
+            List<ActiveOrderView> activeOrders = activeOrdersProjection.getActiveOrders();
 
             if (activeOrders.isEmpty()) {
                 sendMessageToUser(maxUserId, "📋 **Активные заказы**\n\nНет активных заказов");
@@ -389,25 +406,26 @@ public class MaxAdminBotService {
             sendMessageToUser(maxUserId, "📋 **Активные заказы (включая новые)**");
 
             // Отправляем каждый заказ отдельным сообщением с кнопками
-            for (Order order : activeOrders) {
-                Payment latestPayment = getLatestPayment(order);
-                OrderDisplayStatus displayStatus = determineOrderDisplayStatus(order, latestPayment);
+            for (ActiveOrderView order : activeOrders) {
+                OrderDisplayStatus displayStatus = determineOrderDisplayStatus(order.paymentStatus(),
+                        order.latestPaymentStatus(), order.latestPaymentCreatedAt());
 
                 StringBuilder orderMessage = new StringBuilder();
-                orderMessage.append(displayStatus.getEmoji()).append(" **Заказ #").append(order.getId()).append("**\n");
-                orderMessage.append("Статус: ").append(getStatusDisplayName(order.getStatus())).append("\n");
-                orderMessage.append("Оплата: ").append(getPaymentStatusDisplay(order)).append("\n");
-                orderMessage.append("Сумма: ").append(String.format("%.2f", order.getTotalAmount())).append(" ₽\n");
+                orderMessage.append(displayStatus.getEmoji()).append(" **Заказ #").append(order.id()).append("**\n");
+                orderMessage.append("Статус: ").append(getStatusDisplayNameByString(order.status())).append("\n");
+                orderMessage.append("Оплата: ").append(getPaymentStatusDisplay(order.paymentStatus(),
+                        order.paymentMethod(), order.status(), order.latestPaymentStatus())).append("\n");
+                orderMessage.append("Сумма: ").append(String.format("%.2f", order.totalAmount())).append(" ₽\n");
                 orderMessage.append("Время: ")
-                        .append(order.getCreatedAt().format(DateTimeFormatter.ofPattern("dd.MM HH:mm"))).append("\n\n");
+                        .append(order.createdAt().format(DateTimeFormatter.ofPattern("dd.MM HH:mm"))).append("\n\n");
 
                 // Контактные данные
-                orderMessage.append("📞 **Контакт:** ").append(escapeMarkdown(order.getContactName()))
+                orderMessage.append("📞 **Контакт:** ").append(escapeMarkdown(order.contactName()))
                         .append("\n");
-                orderMessage.append("📞 **Телефон:** ").append(escapeMarkdown(order.getContactPhone())).append("\n");
+                orderMessage.append("📞 **Телефон:** ").append(escapeMarkdown(order.contactPhone())).append("\n");
 
                 String finalMessage = orderMessage.toString();
-                List<Map<String, Object>> attachments = createOrderManagementAttachments(order.getId());
+                List<Map<String, Object>> attachments = createOrderManagementAttachments(order.id());
 
                 sendMessageToUserWithButtons(maxUserId, finalMessage, attachments);
             }
@@ -424,27 +442,17 @@ public class MaxAdminBotService {
     // ==================== СОБЫТИЯ ====================
 
     /**
-     * Обработчик события создания нового заказа
+     * Уведомление администраторов о новом заказе
+     * Вызывается из outbox (AdminMaxOutboxHandler) после фиксации транзакции заказа
      */
-    @EventListener
-    @Async
-    public void handleNewOrderEvent(NewOrderEvent event) {
+    public void notifyAboutNewOrder(Order order, OutboxDelivery delivery) {
         if (!maxBotConfig.isAdminEnabled()) {
             log.debug("MAX admin notifications disabled");
             return;
         }
 
-        try {
-            Order order = event.getOrder();
-            log.info("📧 MAX: Получено событие о новом заказе #{} для уведомления администраторов", order.getId());
-
-            notifyAdminsAboutNewOrder(order);
-            log.info("✅ MAX: Уведомление о новом заказе #{} отправлено", order.getId());
-
-        } catch (Exception e) {
-            log.error("❌ MAX: Ошибка обработки события нового заказа #{}: {}",
-                    event.getOrder().getId(), e.getMessage(), e);
-        }
+        log.info("📧 MAX: Уведомление администраторов о новом заказе #{}", order.getId());
+        notifyAdminsAboutNewOrder(order, delivery);
     }
 
     /**
@@ -466,61 +474,32 @@ public class MaxAdminBotService {
     }
 
     /**
-     * Обработчик события успешной оплаты
+     * Уведомление администраторов об успешной оплате
+     * Вызывается из outbox (AdminMaxOutboxHandler) после фиксации транзакции платежа
      */
-    @EventListener
-    @Async
-    public void handlePaymentStatusChangedEvent(PaymentStatusChangedEvent event) {
+    public void notifyAboutPaymentSuccess(Order order, OutboxDelivery delivery) {
         if (!maxBotConfig.isAdminEnabled()) {
             return;
         }
 
-        try {
-            // Отправляем уведомление только при успешной оплате
-            if (event.getNewStatus() == PaymentStatus.SUCCEEDED) {
-                Integer orderId = event.getOrderId();
-                Optional<Order> orderOpt = orderService.findById(orderId.longValue());
-
-                if (orderOpt.isPresent()) {
-                    Order order = orderOpt.get();
-                    notifyAdminsAboutPaymentSuccess(order);
-                    log.info("✅ MAX: Уведомление об успешной оплате заказа #{} отправлено", orderId);
-                }
-            }
-        } catch (Exception e) {
-            log.error("❌ MAX: Ошибка обработки события оплаты: {}", e.getMessage(), e);
-        }
-    }
+        String paymentMessage = formatPaymentSuccessMessage(order);
 
-    /**
-     * Уведомление администраторов об успешной оплате
-     */
-    private void notifyAdminsAboutPaymentSuccess(Order order) {
-        try {
-            String paymentMessage = formatPaymentSuccessMessage(order);
+        List<TelegramAdminUser> activeAdmins = adminUserRepository.findByIsActiveTrue();
 
-            List<TelegramAdminUser> activeAdmins = adminUserRepository.findByIsActiveTrue();
-
-            if (activeAdmins.isEmpty()) {
-                // Отправляем в общий чат если настроен
-                if (maxBotConfig.getAdminChatId() != null && !maxBotConfig.getAdminChatId().isEmpty()) {
-                    sendMessageToChat(maxBotConfig.getAdminChatId(), paymentMessage);
-                }
-                return;
-            }
-
-            for (TelegramAdminUser admin : activeAdmins) {
-                try {
-                    sendMessageToUser(admin.getTelegramChatId(), paymentMessage);
-                    log.debug("MAX: Уведомление об оплате отправлено администратору: {}", admin.getUsername());
-                } catch (Exception e) {
-                    log.error("MAX: Ошибка отправки уведомления об оплате {}: {}", admin.getUsername(), e.getMessage());
-                }
+        if (activeAdmins.isEmpty()) {
+            // Отправляем в общий чат если настроен
+            if (maxBotConfig.getAdminChatId() != null && !maxBotConfig.getAdminChatId().isEmpty()) {
+                delivery.send("payment-chat", () -> postMessage("chat_id=" + maxBotConfig.getAdminChatId(),
+                        paymentMessage, null, maxBotConfig.getAdminBotToken()));
             }
+            return;
+        }
 
-        } catch (Exception e) {
-            log.error("MAX: Ошибка при уведомлении об оплате: {}", e.getMessage(), e);
+        for (TelegramAdminUser admin : activeAdmins) {
+            delivery.send("payment:" + admin.getTelegramChatId(), () -> postMessage(
+                    "user_id=" + admin.getTelegramChatId(), paymentMessage, null, maxBotConfig.getAdminBotToken()));
         }
+        log.info("✅ MAX: Уведомление об успешной оплате заказа #{} отправлено", order.getId());
     }
 
     /**
@@ -541,54 +520,35 @@ public class MaxAdminBotService {
                 escapeMarkdown(order.getContactPhone()));
     }
 
-    /**
-     * Отправка сообщения в чат
-     */
-    private void sendMessageToChat(String chatId, String message) {
-        sendMessageToChatWithButtons(chatId, message, null);
-    }
-
     // ==================== УВЕДОМЛЕНИЯ ====================
 
     /**
-     * Уведомление всех администраторов о новом заказе
+     * Уведомление всех администраторов о новом заказе.
+     * Ошибки отправки отдельным администраторам собираются в delivery и приводят к повтору сообщения outbox
      */
-    public void notifyAdminsAboutNewOrder(Order order) {
-        try {
-            List<TelegramAdminUser> activeAdmins = adminUserRepository.findByIsActiveTrue();
-
-            if (activeAdmins.isEmpty()) {
-                log.warn("MAX: Нет активных администраторов для уведомления о заказе #{}", order.getId());
-                // Отправляем в общий чат если настроен
-                if (maxBotConfig.getAdminChatId() != null && !maxBotConfig.getAdminChatId().isEmpty()) {
-                    String orderMessage = formatNewOrderMessage(order);
-                    List<Map<String, Object>> attachments = createOrderManagementAttachments(order.getId());
-                    sendMessageToChatWithButtons(maxBotConfig.getAdminChatId(), orderMessage, attachments);
-                }
-                return;
+    private void notifyAdminsAboutNewOrder(Order order, OutboxDelivery delivery) {
+        List<TelegramAdminUser> activeAdmins = adminUserRepository.findByIsActiveTrue();
+        String orderMessage = formatNewOrderMessage(order);
+        List<Map<String, Object>> attachments = createOrderManagementAttachments(order.getId());
+
+        if (activeAdmins.isEmpty()) {
+            log.warn("MAX: Нет активных администраторов для уведомления о заказе #{}", order.getId());
+            // Отправляем в общий чат если настроен
+            if (maxBotConfig.getAdminChatId() != null && !maxBotConfig.getAdminChatId().isEmpty()) {
+                delivery.send("order-chat", () -> postMessage("chat_id=" + maxBotConfig.getAdminChatId(),
+                        orderMessage, attachments, maxBotConfig.getAdminBotToken()));
             }
+            return;
+        }
 
-            String orderMessage = formatNewOrderMessage(order);
-            List<Map<String, Object>> attachments = createOrderManagementAttachments(order.getId());
-
-            for (TelegramAdminUser admin : activeAdmins) {
-                try {
-                    sendMessageToUserWithButtons(admin.getTelegramChatId(), orderMessage, attachments);
-                    log.debug("MAX: Уведомление о заказе #{} отправлено администратору: {}",
-                            order.getId(), admin.getUsername());
-                } catch (Exception e) {
-                    log.error("MAX: Ошибка отправки уведомления администратору {}: {}",
-                            admin.getUsername(), e.getMessage());
-                }
-            }
-
-            log.info("MAX: Уведомления о заказе #{} отправлены {} администраторам",
-                    order.getId(), activeAdmins.size());
-
-        } catch (Exception e) {
-            log.error("MAX: Ошибка при уведомлении администраторов о заказе #{}: {}",
-                    order.getId(), e.getMessage(), e);
+        for (TelegramAdminUser admin : activeAdmins) {
+            delivery.send("order:" + admin.getTelegramChatId(), () -> postMessage(
+                    "user_id=" + admin.getTelegramChatId(), orderMessage, attachments,
+                    maxBotConfig.getAdminBotToken()));
         }
+
+        log.info("MAX: Уведомления о заказе #{} отправлены {} администраторам",
+                order.getId(), activeAdmins.size());
     }
 
     /**
@@ -671,6 +631,15 @@ public class MaxAdminBotService {
         return sendMessageToUserWithButtonsAndToken(maxUserId, message, null, maxBotConfig.getUserBotToken());
     }
 
+    /**
+     * Отправка уведомления о смене статуса заказа с пробросом ошибки MAX API (для повторов outbox)
+     *
+     * @return false, если токен User Bot не настроен
+     */
+    public boolean deliverOrderStatusNotification(Long maxUserId, String message) throws JsonProcessingException {
+        return postMessage("user_id=" + maxUserId, message, null, maxBotConfig.getUserBotToken());
+    }
+
     /**
      * Внутренний метод отправки сообщения с указанным токеном
      *
@@ -678,39 +647,8 @@ public class MaxAdminBotService {
      */
     private boolean sendMessageToUserWithButtonsAndToken(Long maxUserId, String message,
             List<Map<String, Object>> attachments, String botToken) {
-
-        if (botToken == null || botToken.isEmpty()) {
-            log.warn("MAX: Bot token не настроен - нельзя отправить сообщение");
-            return false;
-        }
-
-        // MAX API формат: POST /messages?user_id={user_id}
-        // Токен передается в заголовке Authorization
-        String url = String.format("%s/messages?user_id=%d", maxBotConfig.getApiUrl(), maxUserId);
-
-        Map<String, Object> body = new HashMap<>();
-        body.put("text", message);
-        body.put("format", "markdown"); // Включаем Markdown форматирование
-
-        if (attachments != null && !attachments.isEmpty()) {
-            body.put("attachments", attachments);
-        }
-
         try {
-            // Логируем тело запроса для отладки
-            String jsonBody = objectMapper.writeValueAsString(body);
-            log.info("MAX API: Отправка сообщения пользователю {}: URL={}, Body={}", maxUserId, url, jsonBody);
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.set("Authorization", botToken); // Токен в заголовке Authorization
-
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(body, headers);
-
-            var response = restTemplate.postForEntity(url, entity, String.class);
-            log.info("MAX API: Ответ для пользователя {}: Status={}, Body={}", maxUserId, response.getStatusCode(), response.getBody());
-            return true; // Успешно отправлено
-
+            return postMessage("user_id=" + maxUserId, message, attachments, botToken);
         } catch (Exception e) {
             log.error("MAX: Error calling MAX API for user {}: {}", maxUserId, e.getMessage(), e);
             return false; // Ошибка отправки
@@ -718,23 +656,23 @@ public class MaxAdminBotService {
     }
 
     /**
-     * Отправка сообщения в чат с кнопками
+     * Отправка сообщения пользователю или в чат; ошибка MAX API пробрасывается
      *
      * Документация MAX API: https://dev.max.ru/docs-api/methods/POST/messages
-     * URL: POST /messages?chat_id={chat_id}
+     * URL: POST /messages?user_id={user_id} или POST /messages?chat_id={chat_id}
      * Authorization: Header "Authorization: {access_token}"
+     *
+     * @param recipient параметр получателя: "user_id=..." или "chat_id=..."
+     * @return false, если токен не настроен и сообщение не отправлялось
      */
-    private void sendMessageToChatWithButtons(String chatId, String message,
-            List<Map<String, Object>> attachments) {
-        String adminBotToken = maxBotConfig.getAdminBotToken();
-
-        if (adminBotToken == null || adminBotToken.isEmpty()) {
-            log.warn("MAX: Admin bot token не настроен");
-            return;
+    private boolean postMessage(String recipient, String message, List<Map<String, Object>> attachments,
+            String botToken) throws JsonProcessingException {
+        if (botToken == null || botToken.isEmpty()) {
+            log.warn("MAX: Bot token не настроен - нельзя отправить сообщение");
+            return false;
         }
 
-        // MAX API формат: POST /messages?chat_id={chat_id}
-        String url = String.format("%s/messages?chat_id=%s", maxBotConfig.getApiUrl(), chatId);
+        String url = String.format("%s/messages?%s", maxBotConfig.getApiUrl(), recipient);
 
         Map<String, Object> body = new HashMap<>();
         body.put("text", message);
@@ -744,23 +682,19 @@ public class MaxAdminBotService {
             body.put("attachments", attachments);
         }
 
-        try {
-            // Логируем тело запроса для отладки
-            String jsonBody = objectMapper.writeValueAsString(body);
-            log.info("MAX API: Отправка сообщения в чат {}: URL={}, Body={}", chatId, url, jsonBody);
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.set("Authorization", adminBotToken); // Токен в заголовке Authorization
+        // Логируем тело запроса для отладки
+        String jsonBody = objectMapper.writeValueAsString(body);
+        log.info("MAX API: Отправка сообщения {}: URL={}, Body={}", recipient, url, jsonBody);
 
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(body, headers);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("Authorization", botToken); // Токен в заголовке Authorization
 
-            var response = restTemplate.postForEntity(url, entity, String.class);
-            log.info("MAX API: Ответ для чата {}: Status={}, Body={}", chatId, response.getStatusCode(), response.getBody());
+        HttpEntity<Map<String, Object>> entity = new HttpEntity<>(body, headers);
 
-        } catch (Exception e) {
-            log.error("MAX: Error calling MAX API for chat {}: {}", chatId, e.getMessage(), e);
-        }
+        var response = restTemplate.postForEntity(url, entity, String.class);
+        log.info("MAX API: Ответ для {}: Status={}, Body={}", recipient, response.getStatusCode(), response.getBody());
+        return true;
     }
 
     // ==================== INLINE КНОПКИ ====================
@@ -1020,20 +954,27 @@ public class MaxAdminBotService {
      * Определение статуса отображения заказа
      */
     private OrderDisplayStatus determineOrderDisplayStatus(Order order, Payment latestPayment) {
-        if (latestPayment != null && latestPayment.getStatus() == PaymentStatus.SUCCEEDED) {
+        return determineOrderDisplayStatus(order.getPaymentStatus(),
+                latestPayment != null ? latestPayment.getStatus() : null,
+                latestPayment != null ? latestPayment.getCreatedAt() : null);
+    }
+
+    private OrderDisplayStatus determineOrderDisplayStatus(OrderPaymentStatus orderPaymentStatus,
+            PaymentStatus latestPaymentStatus, LocalDateTime latestPaymentCreatedAt) {
+        if (latestPaymentStatus == PaymentStatus.SUCCEEDED) {
             return OrderDisplayStatus.PAYMENT_SUCCESS;
         }
 
-        if (order.getPaymentStatus() == OrderPaymentStatus.PAID) {
+        if (orderPaymentStatus == OrderPaymentStatus.PAID) {
             return OrderDisplayStatus.PAYMENT_SUCCESS;
         }
 
-        if (latestPayment != null) {
-            switch (latestPayment.getStatus()) {
+        if (latestPaymentStatus != null) {
+            switch (latestPaymentStatus) {
                 case PENDING:
                 case WAITING_FOR_CAPTURE:
                     long minutesElapsed = ChronoUnit.MINUTES.between(
-                            latestPayment.getCreatedAt(), LocalDateTime.now());
+                            latestPaymentCreatedAt, LocalDateTime.now());
 
                     if (minutesElapsed >= 10) {
                         return OrderDisplayStatus.PAYMENT_TIMEOUT;
@@ -1057,23 +998,30 @@ public class MaxAdminBotService {
      * Получение отображаемого статуса оплаты
      */
     private String getPaymentStatusDisplay(Order order) {
-        if (order.getPaymentStatus() == OrderPaymentStatus.PAID) {
+        // Последний платеж нужен только для онлайн-оплаты, еще не отмеченной на заказе
+        Payment latestPayment = order.getPaymentStatus() == OrderPaymentStatus.PAID
+                || order.getPaymentMethod() == PaymentMethod.CASH ? null : getLatestPayment(order);
+        return getPaymentStatusDisplay(order.getPaymentStatus(), order.getPaymentMethod(),
+                order.getStatus() != null ? order.getStatus().getName() : null,
+                latestPayment != null ? latestPayment.getStatus() : null);
+    }
+
+    private String getPaymentStatusDisplay(OrderPaymentStatus orderPaymentStatus, PaymentMethod paymentMethod,
+            String orderStatusName, PaymentStatus latestPaymentStatus) {
+        if (orderPaymentStatus == OrderPaymentStatus.PAID) {
             return "✅ Оплачено";
         }
 
-        if (order.getPaymentMethod() == PaymentMethod.CASH) {
-            if (order.getStatus() != null &&
-                    ("DELIVERED".equals(order.getStatus().getName()) ||
-                            "COMPLETED".equals(order.getStatus().getName()))) {
+        if (paymentMethod == PaymentMethod.CASH) {
+            if ("DELIVERED".equals(orderStatusName) || "COMPLETED".equals(orderStatusName)) {
                 return "✅ Оплачено наличными";
             } else {
                 return "💵 Оплата при доставке";
             }
         }
 
-        Payment latestPayment = getLatestPayment(order);
-        if (latestPayment != null) {
-            switch (latestPayment.getStatus()) {
+        if (latestPaymentStatus != null) {
+            switch (latestPaymentStatus) {
                 case SUCCEEDED:
                     return "✅ Оплачено";
                 case PENDING:
@@ -1498,6 +1446,17 @@ public class MaxAdminBotService {
         return keyboardAttachment;
     }
 
+    /**
+     * Отправка запроса на отзыв с пробросом ошибки MAX API (для повторов outbox)
+     *
+     * @return false, если токен User Bot не настроен
+     */
+    public boolean deliverReviewRequestNotification(Long maxUserId, Integer orderId, java.math.BigDecimal totalAmount)
+            throws JsonProcessingException {
+        return postMessage("user_id=" + maxUserId, formatReviewRequestMessage(orderId, totalAmount),
+                createReviewButtonsAttachment(), maxBotConfig.getUserBotToken());
+    }
+
     /**
      * Отправка запроса на отзыв пользователю MAX при доставке заказа
      *
@@ -5,7 +5,6 @@ import com.baganov.pizzanat.entity.Order;
 import com.baganov.pizzanat.entity.OrderItem;
 import com.baganov.pizzanat.entity.Payment;
 import com.baganov.pizzanat.entity.DeliveryLocation;
-import com.baganov.pizzanat.event.NewOrderEvent;
 import com.baganov.pizzanat.event.OrderStatusChangedEvent;
 import com.baganov.pizzanat.entity.OrderPaymentStatus;
 import com.baganov.pizzanat.entity.PaymentMethod;
@@ -13,11 +12,9 @@ import com.baganov.pizzanat.repository.DeliveryLocationRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.context.event.EventListener;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
@@ -52,12 +49,12 @@ public class MaxAdminNotificationService {
     private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm");
 
     /**
-     * Обработчик события нового заказа
+     * Уведомление о новом заказе в чат администраторов
      * Аналогично Telegram Admin Bot - отправляет полноценные уведомления с inline кнопками
+     * Вызывается из outbox (AdminMaxOutboxHandler) после фиксации транзакции заказа;
+     * ошибка MAX API пробрасывается для повтора
      */
-    @EventListener
-    @Async
-    public void handleNewOrderEvent(NewOrderEvent event) {
+    public void notifyAboutNewOrder(Order order) {
         log.info("🔔 MAX: Проверка конфигурации - enabled: {}, adminEnabled: {}, adminChatId: {}, adminBotToken: {}",
                 maxBotConfig.isEnabled(),
                 maxBotConfig.isAdminEnabled(),
@@ -69,18 +66,13 @@ public class MaxAdminNotificationService {
             return;
         }
 
-        try {
-            Order order = event.getOrder();
-            log.info("📧 MAX: Получено событие о новом заказе #{}", order.getId());
+        log.info("📧 MAX: Получено событие о новом заказе #{}", order.getId());
 
-            String message = formatNewOrderMessage(order);
-            List<Map<String, Object>> attachments = createOrderManagementAttachments(order.getId());
+        String message = formatNewOrderMessage(order);
+        List<Map<String, Object>> attachments = createOrderManagementAttachments(order.getId());
 
-            sendMessageToMaxChat(message, order.getId(), attachments);
-            log.info("✅ MAX admin notification sent for new order: {}", order.getId());
-        } catch (Exception e) {
-            log.error("❌ Failed to send MAX new order notification: {}", e.getMessage());
-        }
+        sendMessageToMaxChat(message, order.getId(), attachments);
+        log.info("✅ MAX admin notification sent for new order: {}", order.getId());
     }
 
     /**
@@ -104,12 +96,12 @@ public class MaxAdminNotificationService {
     }
 
     /**
-     * Отправка уведомления об изменении статуса заказа
+     * Отправка уведомления об изменении статуса заказа.
+     * Не подписан на OrderStatusChangedEvent: событие публикуется для потока заказа клиента,
+     * а смены статуса администраторы делают сами
      *
      * @param event событие изменения статуса
      */
-    @EventListener
-    @Async
     public void handleOrderStatusChanged(OrderStatusChangedEvent event) {
         if (!maxBotConfig.isAdminEnabled()) {
             return;
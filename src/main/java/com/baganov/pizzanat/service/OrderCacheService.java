@@ -0,0 +1,108 @@
+/**
+ * @file: OrderCacheService.java
+ * @description: Ключи и точечная инвалидация кэшей заказов (orderDetails, userOrders, allOrders)
+ * @dependencies: Spring Cache, Spring Transactions, CacheGenerationStore
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service;
+
+import com.baganov.pizzanat.config.cache.CacheGenerationStore;
+import com.baganov.pizzanat.entity.Order;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Вместо сброса кэшей целиком (allEntries) инвалидируются только затронутые записи:
+ * <ul>
+ * <li>orderDetails - записи конкретного заказа через поколение заказа в ключе;</li>
+ * <li>userOrders - страницы истории одного пользователя через его поколение в ключе;</li>
+ * <li>allOrders - страницы админского списка через общее поколение в ключе.</li>
+ * </ul>
+ * Записи устаревших поколений больше не читаются и вытесняются по размеру/TTL кэша.
+ * Поколения хранятся там же, где записи: в Redis при включенном L2, иначе в памяти узла.
+ * Поэтому смена поколения видна всем узлам, в том числе их L1, который evict очищает только локально.
+ */
+@Slf4j
+@Service("orderCacheService")
+@RequiredArgsConstructor
+public class OrderCacheService {
+
+    public static final String ORDER_DETAILS_CACHE = "orderDetails";
+
+    private static final String ALL_ORDERS_SCOPE = "allOrders";
+
+    private final CacheManager cacheManager;
+    private final CacheGenerationStore generationStore;
+
+    public String orderDetailsKey(Integer orderId, Integer userId) {
+        return orderId + "-g" + generationStore.current(orderScope(orderId)) + "-" + userId;
+    }
+
+    public String userOrdersKey(Integer userId, Pageable pageable) {
+        long generation = userId != null ? generationStore.current(userOrdersScope(userId)) : 0;
+        return userId + "-g" + generation + "-" + pageable.getPageNumber() + "-" + pageable.getPageSize();
+    }
+
+    public String allOrdersKey(Pageable pageable) {
+        return "g" + generationStore.current(ALL_ORDERS_SCOPE) + "-" + pageable.getPageNumber() + "-" + pageable.getPageSize()
+                + "-" + pageable.getSort();
+    }
+
+    /**
+     * Инвалидирует кэши, затронутые изменением заказа.
+     * Внутри транзакции инвалидация откладывается до коммита,
+     * чтобы параллельное чтение не закэшировало старое состояние заново.
+     */
+    public void evictOrder(Order order) {
+        if (order == null || order.getId() == null) {
+            return;
+        }
+        evictOrder(order.getId(), order.getUser() != null ? order.getUser().getId() : null);
+    }
+
+    public void evictOrder(Integer orderId, Integer userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    doEvict(orderId, userId);
+                }
+            });
+        } else {
+            doEvict(orderId, userId);
+        }
+    }
+
+    private void doEvict(Integer orderId, Integer userId) {
+        Cache orderDetails = cacheManager.getCache(ORDER_DETAILS_CACHE);
+        if (orderDetails != null) {
+            // Заказ кэшируется как по ID владельца, так и без него (админский доступ).
+            // Записи текущего поколения удаляются сразу на этом узле и в L2, остальные узлы
+            // перестанут читать их из своего L1 после смены поколения
+            orderDetails.evict(orderDetailsKey(orderId, userId));
+            orderDetails.evict(orderDetailsKey(orderId, null));
+        }
+        generationStore.advance(orderScope(orderId));
+
+        if (userId != null) {
+            generationStore.advance(userOrdersScope(userId));
+        }
+        generationStore.advance(ALL_ORDERS_SCOPE);
+
+        log.debug("Инвалидированы кэши заказа #{} (пользователь: {})", orderId, userId);
+    }
+
+    private static String orderScope(Integer orderId) {
+        return "order:" + orderId;
+    }
+
+    private static String userOrdersScope(Integer userId) {
+        return "userOrders:" + userId;
+    }
+}
@@ -1,6 +1,8 @@
 package com.baganov.pizzanat.service;
 
+import com.baganov.pizzanat.model.dto.order.BulkUpdateOrderStatusResponse;
 import com.baganov.pizzanat.model.dto.order.CreateOrderRequest;
+import com.baganov.pizzanat.model.dto.order.OrderCursorPage;
 import com.baganov.pizzanat.model.dto.order.OrderDTO;
 import com.baganov.pizzanat.model.dto.order.OrderItemDTO;
 import com.baganov.pizzanat.model.dto.payment.PaymentUrlResponse;
@@ -10,33 +12,58 @@ import com.baganov.pizzanat.entity.*;
 import com.baganov.pizzanat.repository.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.Caching;
-import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
+import com.baganov.pizzanat.service.cart.CartLines;
+import com.baganov.pizzanat.service.cart.CartPricingService;
+import com.baganov.pizzanat.service.cart.PricedCart;
+import com.baganov.pizzanat.service.cart.PricedLine;
+import com.baganov.pizzanat.service.order.ActiveOrderView;
+import com.baganov.pizzanat.service.order.OrderCursor;
+import com.baganov.pizzanat.service.order.OrderStatusTransitions;
 import com.baganov.pizzanat.event.NewOrderEvent;
-import com.baganov.pizzanat.service.DeliveryZoneService;
+import com.baganov.pizzanat.exception.InvalidOrderStatusTransitionException;
+import com.baganov.pizzanat.event.OrderStatusChangedEvent;
+import com.baganov.pizzanat.service.outbox.OutboxDelivery;
+import com.baganov.pizzanat.service.outbox.OutboxService;
+import com.baganov.pizzanat.service.reference.ReferenceDataService;
+import com.baganov.pizzanat.util.ParsedAddress;
+import com.baganov.pizzanat.util.RussianAddressParser;
+import com.baganov.pizzanat.util.TimeZoneUtils;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.dao.OptimisticLockingFailureException;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class OrderService {
 
+    public static final String STATUS_FROM = "oldStatus";
+    public static final String STATUS_TO = "newStatus";
+    public static final int MAX_CURSOR_PAGE_SIZE = 100;
+
     private final OrderRepository orderRepository;
-    private final OrderStatusRepository orderStatusRepository;
+    private final ReferenceDataService referenceDataService;
     private final CartRepository cartRepository;
     private final UserRepository userRepository;
     private final DeliveryLocationRepository deliveryLocationRepository;
@@ -46,8 +73,12 @@ public class OrderService {
     private final TelegramBotService telegramBotService;
     private final TelegramUserNotificationService telegramUserNotificationService;
     private final ScheduledNotificationService scheduledNotificationService;
+    private final OutboxService outboxService;
+    private final OrderCacheService orderCacheService;
+    private final CartService cartService;
+    private final CartPricingService cartPricingService;
+    private final PaymentRepository paymentRepository;
     private final ApplicationEventPublisher eventPublisher;
-    private final DeliveryZoneService deliveryZoneService;
 
     // Используем @Lazy для разрыва циклической зависимости с MaxAdminBotService
     @Autowired
@@ -55,7 +86,6 @@ public class OrderService {
     private MaxAdminBotService maxAdminBotService;
 
     @Transactional
-    @CacheEvict(value = { "userOrders", "orderDetails", "allOrders" }, allEntries = true)
     public OrderDTO createOrder(Integer userId, String sessionId, CreateOrderRequest request) {
         // Валидация входных данных
         if (!request.hasValidDeliveryInfo()) {
@@ -75,55 +105,47 @@ public class OrderService {
 
         // Определяем пункт доставки
         DeliveryLocation deliveryLocation;
+        String locationAddress;
         if (request.getDeliveryLocationId() != null) {
             // Используем существующий пункт доставки
-            deliveryLocation = deliveryLocationRepository.findById(request.getDeliveryLocationId())
-                    .orElseThrow(() -> new IllegalArgumentException("Пункт выдачи не найден"));
-
-            if (!deliveryLocation.isActive()) {
-                throw new IllegalArgumentException("Пункт выдачи недоступен");
+            Optional<DeliveryLocation> activeLocation =
+                    referenceDataService.findActiveLocation(request.getDeliveryLocationId());
+            if (activeLocation.isPresent()) {
+                // Активный пункт выдачи: данные берутся из справочника, в заказ идет ссылка без SELECT
+                locationAddress = activeLocation.get().getAddress();
+                deliveryLocation = referenceDataService.locationReference(activeLocation.get());
+            } else {
+                deliveryLocation = deliveryLocationRepository.findById(request.getDeliveryLocationId())
+                        .orElseThrow(() -> new IllegalArgumentException("Пункт выдачи не найден"));
+                if (!deliveryLocation.isActive()) {
+                    throw new IllegalArgumentException("Пункт выдачи недоступен");
+                }
+                locationAddress = deliveryLocation.getAddress();
             }
         } else {
             // Создаем новый пункт доставки для Android приложения
             deliveryLocation = createDeliveryLocationFromAddress(request.getDeliveryAddress());
+            locationAddress = deliveryLocation.getAddress();
         }
 
-        // Рассчитываем стоимость товаров
-        BigDecimal itemsAmount = cart.getTotalAmount();
-        
-        // Рассчитываем стоимость доставки
-        BigDecimal deliveryCost = BigDecimal.ZERO;
         String deliveryType = request.getDeliveryType() != null ? request.getDeliveryType() : "Самовывоз";
-        
-        // Если выбрана доставка курьером - рассчитываем стоимость через зональную систему
-        if (request.isDeliveryByCourier() && request.getDeliveryAddress() != null) {
-            try {
-                log.info("Расчет стоимости доставки для адреса: {} (сумма товаров: {})", 
-                        request.getDeliveryAddress(), itemsAmount);
-                
-                DeliveryZoneService.DeliveryCalculationResult deliveryResult = 
-                    deliveryZoneService.calculateDelivery(request.getDeliveryAddress(), itemsAmount);
-                
-                if (deliveryResult.isDeliveryAvailable()) {
-                    deliveryCost = deliveryResult.getDeliveryCost();
-                    log.info("Стоимость доставки рассчитана: {} (зона: {})", 
-                            deliveryCost, deliveryResult.getZoneName());
-                } else {
-                    log.warn("Доставка недоступна для адреса: {}", request.getDeliveryAddress());
-                    throw new IllegalArgumentException("Доставка недоступна для указанного адреса");
-                }
-            } catch (Exception e) {
-                log.error("Ошибка при расчете стоимости доставки: {}", e.getMessage(), e);
-                // Используем стандартную стоимость доставки как fallback
-                deliveryCost = new BigDecimal("250"); // Стандартная стоимость
-                log.info("Применена стандартная стоимость доставки: {}", deliveryCost);
-            }
+
+        // Суммы и тариф доставки - из итогов корзины: тариф закэширован под текущей версией правил зон,
+        // зона ищется, только если для этого дома тарифа еще нет
+        String deliveryAddress = request.isDeliveryByCourier() ? request.getDeliveryAddress() : null;
+        PricedCart priced = cartPricingService.priceForCheckout(CartPricingService.cartKey(sessionId, userId),
+                CartLines.of(cart).quantities(), deliveryAddress);
+        BigDecimal itemsAmount = priced.itemsAmount();
+        BigDecimal deliveryCost = priced.deliveryCost() != null ? priced.deliveryCost() : BigDecimal.ZERO;
+        if (priced.deliveryQuote() != null) {
+            log.info("Стоимость доставки для адреса {}: {} (зона: {}, сумма товаров: {})",
+                    deliveryAddress, deliveryCost, priced.deliveryQuote().zoneName(), itemsAmount);
         }
-        
+
         // Общая сумма заказа = товары + доставка
         BigDecimal totalAmount = itemsAmount.add(deliveryCost);
 
-        OrderStatus createdStatus = orderStatusRepository.findByName("CREATED")
+        OrderStatus createdStatus = referenceDataService.statusReference("CREATED")
                 .orElseThrow(() -> new IllegalArgumentException("Статус заказа 'CREATED' не найден"));
 
         // Получаем финальный комментарий (приоритет: comment > notes)
@@ -143,55 +165,52 @@ public class OrderService {
                 .paymentMethod(request.getPaymentMethod()) // Устанавливаем способ оплаты
                 .build();
 
-        // Копирование товаров из корзины в заказ
+        // Копирование товаров из корзины в заказ по ценам, из которых сложилась сумма заказа
+        Map<Integer, PricedLine> pricedLines = priced.lines().stream()
+                .collect(Collectors.toMap(line -> line.product().getId(), line -> line));
         for (CartItem cartItem : cart.getItems()) {
-            // Используем скидочную цену если есть, иначе обычную
-            BigDecimal itemPrice = cartItem.getProduct().getDiscountedPrice() != null
-                    ? cartItem.getProduct().getDiscountedPrice()
-                    : cartItem.getProduct().getPrice();
+            PricedLine line = pricedLines.get(cartItem.getProduct().getId());
+            if (line == null) {
+                throw new IllegalArgumentException("Продукт не найден с ID: " + cartItem.getProduct().getId());
+            }
 
             OrderItem orderItem = OrderItem.builder()
                     .order(order)
                     .product(cartItem.getProduct())
                     .quantity(cartItem.getQuantity())
-                    .price(itemPrice)
+                    .price(line.discountedPrice())
                     .build();
             order.addItem(orderItem);
         }
 
         order = orderRepository.save(order);
+        orderCacheService.evictOrder(order);
 
         // Очистка корзины после создания заказа
-        cart.getItems().clear();
-        cartRepository.save(cart);
-
-        // Отправка Telegram уведомлений о новом заказе
-        try {
-            // Уведомление администраторов через AdminBotService (правильный способ)
-            // TelegramBotService отключен из-за неправильной конфигурации chat ID
-            // telegramBotService.sendNewOrderNotification(order);
-
-            // Персональное уведомление пользователю (если у него есть Telegram ID)
-            telegramUserNotificationService.sendPersonalNewOrderNotification(order);
-
-            // Публикуем событие о новом заказе для админского бота
-            eventPublisher.publishEvent(new NewOrderEvent(this, order));
-            log.debug("Событие о новом заказе #{} опубликовано", order.getId());
-            log.debug("Уведомления администраторам отправляются через AdminBotService автоматически");
-        } catch (Exception e) {
-            log.error("Ошибка отправки Telegram уведомления о новом заказе #{}: {}", order.getId(), e.getMessage());
+        if (cart.getId() != null) {
+            cart.clearItems();
+            cartRepository.save(cart);
+        } else {
+            // Корзина сессии не хранится в БД
+            cartService.clearSessionCartAfterCommit(sessionId);
         }
 
+        // Уведомления администраторам, пользователю и выгрузка в Google Sheets доставляются из outbox
+        // после фиксации транзакции заказа
+        outboxService.enqueue(OutboxMessage.EventType.ORDER_CREATED, order.getId(), null);
+        eventPublisher.publishEvent(new NewOrderEvent(this, order));
+
         log.info("Создан новый заказ #{} на сумму {} (товары: {}, доставка: {}, тип: {}, адрес: {})",
                 order.getId(), order.getTotalAmount(), itemsAmount, deliveryCost, deliveryType,
-                request.getDeliveryAddress() != null ? request.getDeliveryAddress() : deliveryLocation.getAddress());
+                request.getDeliveryAddress() != null ? request.getDeliveryAddress() : locationAddress);
 
         return mapToDTO(order);
     }
 
     /**
      * Создает новый пункт доставки из адреса (для Android приложения)
-     * Если пункт с таким адресом уже существует, возвращает существующий
+     * Если пункт с таким адресом уже существует, возвращает существующий.
+     * Адреса сравниваются по ключу разобранного адреса: "ул. Ленина, д. 5" и "Ленина 5, кв. 3" - один пункт.
      */
     private DeliveryLocation createDeliveryLocationFromAddress(String address) {
         if (address == null || address.trim().isEmpty()) {
@@ -199,16 +218,18 @@ public class OrderService {
         }
 
         String cleanAddress = address.trim();
+        ParsedAddress parsedAddress = RussianAddressParser.parse(cleanAddress);
+        String addressKey = parsedAddress.isEmpty() ? null : parsedAddress.key();
 
         // Проверяем, существует ли уже пункт доставки с таким адресом
-        Optional<DeliveryLocation> existingLocation = deliveryLocationRepository.findByAddress(cleanAddress);
+        Optional<DeliveryLocation> existingLocation = findDeliveryLocation(cleanAddress, addressKey);
         if (existingLocation.isPresent()) {
             log.info("Используется существующий пункт доставки с адресом: {}", cleanAddress);
             return existingLocation.get();
         }
 
         // Генерируем уникальное имя для пункта доставки
-        String locationName = "Доставка по адресу: " + cleanAddress;
+        String locationName = ReferenceDataService.ADDRESS_LOCATION_PREFIX + cleanAddress;
 
         // На всякий случай проверяем существование по имени (хотя это маловероятно)
         int counter = 1;
@@ -222,6 +243,7 @@ public class OrderService {
         DeliveryLocation newLocation = DeliveryLocation.builder()
                 .name(finalName)
                 .address(cleanAddress)
+                .addressKey(addressKey)
                 .phone("Указать при доставке")
                 .workingHours("Круглосуточно")
                 .isActive(true)
@@ -234,11 +256,28 @@ public class OrderService {
         } catch (Exception e) {
             log.error("Ошибка при создании пункта доставки для адреса: {}", cleanAddress, e);
             // Если произошла ошибка уникальности, попробуем найти существующий
-            return deliveryLocationRepository.findByAddress(cleanAddress)
+            return findDeliveryLocation(cleanAddress, addressKey)
                     .orElseThrow(() -> new RuntimeException("Не удалось создать или найти пункт доставки"));
         }
     }
 
+    /**
+     * Пункт доставки по ключу адреса, а для пунктов, созданных до появления ключа, - по точному адресу;
+     * найденному так пункту ключ проставляется
+     */
+    private Optional<DeliveryLocation> findDeliveryLocation(String cleanAddress, String addressKey) {
+        if (addressKey != null) {
+            Optional<DeliveryLocation> byKey = deliveryLocationRepository.findFirstByAddressKeyOrderByIdAsc(addressKey);
+            if (byKey.isPresent()) {
+                return byKey;
+            }
+        }
+        Optional<DeliveryLocation> byAddress = deliveryLocationRepository.findByAddress(cleanAddress);
+        byAddress.filter(location -> location.getAddressKey() == null && addressKey != null)
+                .ifPresent(location -> location.setAddressKey(addressKey));
+        return byAddress;
+    }
+
     /**
      * Создает URL для оплаты заказа через платежную систему
      *
@@ -283,32 +322,174 @@ public class OrderService {
     }
 
     @Transactional(readOnly = true)
-    @Cacheable(value = "orderDetails", key = "#orderId + '-' + #userId")
+    @Cacheable(value = "orderDetails", key = "@orderCacheService.orderDetailsKey(#orderId, #userId)")
     public OrderDTO getOrderById(Integer orderId, Integer userId) {
-        Order order = findOrder(orderId, userId);
-        return mapToDTO(order);
+        Order order = orderRepository.findWithDetailsByIdIn(List.of(orderId)).stream()
+                .filter(found -> userId == null
+                        || (found.getUser() != null && userId.equals(found.getUser().getId())))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Заказ не найден"));
+        return mapToDTO(order, paymentRepository.findLatestByOrderId(orderId.longValue()).orElse(null));
     }
 
     @Transactional(readOnly = true)
-    @Cacheable(value = "userOrders", key = "#userId + '-' + #pageable.pageNumber + '-' + #pageable.pageSize")
+    @Cacheable(value = "userOrders", key = "@orderCacheService.userOrdersKey(#userId, #pageable)")
     public Page<OrderDTO> getUserOrders(Integer userId, Pageable pageable) {
-        return orderRepository.findByUserIdOrderByCreatedAtDesc(userId, pageable)
-                .map(this::mapToDTO);
+        return loadPage(orderRepository.findIdsByUserId(userId, pageable));
     }
 
     @Transactional(readOnly = true)
-    @Cacheable(value = "allOrders", key = "#pageable.pageNumber + '-' + #pageable.pageSize + '-' + #pageable.sort")
+    @Cacheable(value = "allOrders", key = "@orderCacheService.allOrdersKey(#pageable)")
     public Page<OrderDTO> getAllOrders(Pageable pageable) {
-        return orderRepository.findAll(pageable)
-                .map(this::mapToDTO);
+        return loadPage(orderRepository.findAllIds(pageable));
+    }
+
+    /**
+     * История заказов пользователя по курсору: без OFFSET, подсчет строк - только по запросу
+     */
+    @Transactional(readOnly = true)
+    public OrderCursorPage getUserOrdersByCursor(Integer userId, String cursor, int size, boolean includeTotal) {
+        OrderCursor after = OrderCursor.decode(cursor);
+        Pageable limit = keysetLimit(size);
+        List<Integer> ids = after == null
+                ? orderRepository.findFirstIdsByUserId(userId, limit)
+                : orderRepository.findIdsByUserIdBefore(userId, after.createdAt(), after.id(), limit);
+        return loadCursorPage(ids, size, includeTotal ? orderRepository.countByUserId(userId) : null);
+    }
+
+    /**
+     * Список заказов админки по курсору с необязательным фильтром по статусу
+     */
+    @Transactional(readOnly = true)
+    public OrderCursorPage getOrdersByCursor(String statusName, String cursor, int size, boolean includeTotal) {
+        OrderCursor after = OrderCursor.decode(cursor);
+        Pageable limit = keysetLimit(size);
+
+        if (statusName == null || statusName.isBlank()) {
+            List<Integer> ids = after == null
+                    ? orderRepository.findFirstIds(limit)
+                    : orderRepository.findIdsBefore(after.createdAt(), after.id(), limit);
+            return loadCursorPage(ids, size, includeTotal ? orderRepository.count() : null);
+        }
+
+        Integer statusId = referenceDataService.findStatus(statusName)
+                .map(OrderStatus::getId)
+                .orElseThrow(() -> new IllegalArgumentException("Статус заказа '" + statusName + "' не найден"));
+        List<Integer> ids = after == null
+                ? orderRepository.findFirstIdsByStatusId(statusId, limit)
+                : orderRepository.findIdsByStatusIdBefore(statusId, after.createdAt(), after.id(), limit);
+        return loadCursorPage(ids, size, includeTotal ? orderRepository.countByStatusId(statusId) : null);
+    }
+
+    /**
+     * Все активные заказы (включая новые) для проекции активных заказов: заказы и последние платежи двумя запросами
+     */
+    @Transactional(readOnly = true)
+    public List<ActiveOrderView> loadActiveOrderViews() {
+        return mapToViews(orderRepository.findActiveOrdersIncludingNew());
+    }
+
+    /**
+     * Текущее состояние нескольких заказов для проекции активных заказов одним запросом;
+     * удаленных заказов в результате нет
+     */
+    @Transactional(readOnly = true)
+    public List<ActiveOrderView> loadOrderViews(Collection<Integer> orderIds) {
+        if (orderIds.isEmpty()) {
+            return List.of();
+        }
+        return mapToViews(orderRepository.findWithDetailsByIdIn(orderIds));
+    }
+
+    /**
+     * Последние платежи заказов одним запросом (ключ - ID заказа)
+     */
+    @Transactional(readOnly = true)
+    public Map<Integer, Payment> findLatestPayments(Collection<Integer> orderIds) {
+        if (orderIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<Integer, Payment> latest = new HashMap<>();
+        for (Payment payment : paymentRepository.findLatestByOrderIdIn(orderIds)) {
+            // При одинаковом времени создания берется платеж с большим ID
+            latest.merge(payment.getOrder().getId(), payment,
+                    (current, candidate) -> candidate.getId() > current.getId() ? candidate : current);
+        }
+        return latest;
+    }
+
+    /**
+     * Страница ID (плюс count) -> заказы со связями одним запросом -> последние платежи одним запросом:
+     * число SQL-запросов не зависит от размера страницы и числа позиций в заказах
+     */
+    private Page<OrderDTO> loadPage(Page<Integer> ids) {
+        return new PageImpl<>(mapToDTOs(loadOrdered(ids.getContent())), ids.getPageable(), ids.getTotalElements());
+    }
+
+    /**
+     * Заказы со связями в порядке переданных ID
+     */
+    private List<Order> loadOrdered(List<Integer> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Integer, Order> orders = orderRepository.findWithDetailsByIdIn(ids).stream()
+                .collect(Collectors.toMap(Order::getId, order -> order, (first, second) -> first));
+        return ids.stream()
+                .map(orders::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * Запрашивается на одну строку больше размера страницы, чтобы узнать, есть ли следующая
+     */
+    private static Pageable keysetLimit(int size) {
+        if (size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            throw new IllegalArgumentException("Размер страницы должен быть от 1 до " + MAX_CURSOR_PAGE_SIZE);
+        }
+        return PageRequest.of(0, size + 1);
+    }
+
+    private OrderCursorPage loadCursorPage(List<Integer> ids, int size, Long total) {
+        boolean hasNext = ids.size() > size;
+        List<Integer> pageIds = hasNext ? ids.subList(0, size) : ids;
+        List<Order> orders = loadOrdered(pageIds);
+        String nextCursor = hasNext && !orders.isEmpty()
+                ? OrderCursor.of(orders.get(orders.size() - 1)).encode()
+                : null;
+        return OrderCursorPage.builder()
+                .items(mapToDTOs(orders))
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .totalElements(total)
+                .build();
+    }
+
+    private List<ActiveOrderView> mapToViews(List<Order> orders) {
+        if (orders.isEmpty()) {
+            return List.of();
+        }
+        Map<Integer, Payment> payments = findLatestPayments(orders.stream().map(Order::getId).toList());
+        return orders.stream()
+                .map(order -> {
+                    Payment latestPayment = payments.get(order.getId());
+                    return ActiveOrderView.of(order, latestPayment, mapToDTO(order, latestPayment));
+                })
+                .toList();
+    }
+
+    private List<OrderDTO> mapToDTOs(List<Order> orders) {
+        if (orders.isEmpty()) {
+            return List.of();
+        }
+        Map<Integer, Payment> payments = findLatestPayments(orders.stream().map(Order::getId).toList());
+        return orders.stream()
+                .map(order -> mapToDTO(order, payments.get(order.getId())))
+                .toList();
     }
 
     @Transactional
-    @Caching(evict = {
-            @CacheEvict(value = "userOrders", allEntries = true),
-            @CacheEvict(value = "orderDetails", allEntries = true),
-            @CacheEvict(value = "allOrders", allEntries = true)
-    })
     public OrderDTO updateOrderStatus(Integer orderId, String statusName) {
         log.info("Начало обновления статуса заказа {} на '{}'", orderId, statusName);
 
@@ -328,13 +509,12 @@ public class OrderService {
             Order order = orderRepository.findById(orderId)
                     .orElseThrow(() -> new IllegalArgumentException("Заказ с ID " + orderId + " не найден"));
 
-            log.debug("Найден заказ с ID: {}, текущий статус: '{}'", orderId, order.getStatus().getName());
-
-            // Сохраняем старый статус для логирования и уведомлений
-            OrderStatus oldStatus = order.getStatus();
+            // Сохраняем старый статус для логирования и уведомлений (из справочника, без загрузки связи)
+            OrderStatus oldStatus = resolveStatus(order);
+            log.debug("Найден заказ с ID: {}, текущий статус: '{}'", orderId, oldStatus.getName());
 
             // Поиск нового статуса
-            OrderStatus newStatus = orderStatusRepository.findByName(normalizedStatusName)
+            OrderStatus newStatus = referenceDataService.findStatus(normalizedStatusName)
                     .orElseThrow(() -> new IllegalArgumentException(
                             String.format(
                                     "Статус заказа '%s' не найден. Доступные статусы: PENDING, CONFIRMED, PREPARING, READY, DELIVERING, DELIVERED, CANCELLED, CREATED, PAID",
@@ -349,21 +529,37 @@ public class OrderService {
                 return mapToDTO(order);
             }
 
-            // Обновляем статус
-            order.setStatus(newStatus);
+            OrderStatusTransitions.requireAllowed(orderId, oldStatus.getName(), newStatus.getName());
+
+            // Обновляем статус (версия заказа проверяется при фиксации транзакции)
+            order.setStatus(referenceDataService.statusReference(newStatus.getName()).orElse(newStatus));
             order = orderRepository.save(order);
+            orderCacheService.evictOrder(order);
 
             log.info("Статус заказа #{} успешно изменен с '{}' на '{}'",
                     order.getId(), oldStatus.getName(), newStatus.getName());
 
-            // Отправка Telegram уведомления об изменении статуса (безопасно)
-            sendTelegramNotificationSafely(order, oldStatus.getName(), newStatus.getName());
+            // Уведомление пользователя доставляется из outbox после фиксации транзакции
+            outboxService.enqueue(OutboxMessage.EventType.ORDER_STATUS_CHANGED, order.getId(),
+                    Map.of(STATUS_FROM, oldStatus.getName(), STATUS_TO, newStatus.getName()));
+
+            // Подписчики потока событий заказа получают изменение после фиксации транзакции
+            eventPublisher.publishEvent(new OrderStatusChangedEvent(this, order,
+                    oldStatus.getName(), newStatus.getName()));
+
+            // Планирование реферального уведомления при доставке заказа
+            if ("DELIVERED".equalsIgnoreCase(newStatus.getName())) {
+                scheduleReferralReminderSafely(order);
+            }
 
             return mapToDTO(order);
 
         } catch (IllegalArgumentException e) {
             log.error("Ошибка валидации при обновлении статуса заказа {}: {}", orderId, e.getMessage());
             throw e;
+        } catch (InvalidOrderStatusTransitionException | OptimisticLockingFailureException e) {
+            log.warn("Статус заказа {} не изменен: {}", orderId, e.getMessage());
+            throw e;
         } catch (Exception e) {
             log.error("Неожиданная ошибка при обновлении статуса заказа {} на '{}': {}", orderId, statusName,
                     e.getMessage(), e);
@@ -372,82 +568,141 @@ public class OrderService {
     }
 
     /**
-     * Безопасная отправка уведомлений пользователю о смене статуса заказа
-     * Поддерживает Telegram и MAX пользователей
+     * Массовая смена статуса заказов одним UPDATE.
+     * Строки заказов блокируются на время транзакции, поэтому прежний статус каждого заказа точен,
+     * а параллельное изменение через сущность получит конфликт версии. Заказы, которые не найдены
+     * или не могут перейти в новый статус по таблице переходов, пропускаются и попадают в ответ.
+     * События смены статуса публикуются по каждому заказу и доставляются после фиксации транзакции.
      */
-    private void sendTelegramNotificationSafely(Order order, String oldStatusName, String newStatusName) {
-        try {
-            log.info("🔔 Отправка уведомления о смене статуса заказа #{}: {} -> {}",
-                    order.getId(), oldStatusName, newStatusName);
+    @Transactional
+    public BulkUpdateOrderStatusResponse updateOrderStatuses(Collection<Integer> orderIds, String statusName) {
+        if (orderIds == null || orderIds.isEmpty()) {
+            throw new IllegalArgumentException("Список заказов не может быть пустым");
+        }
+        if (statusName == null || statusName.trim().isEmpty()) {
+            throw new IllegalArgumentException("Название статуса не может быть пустым");
+        }
+
+        String normalizedStatusName = statusName.trim().toUpperCase();
+        OrderStatus newStatus = referenceDataService.findStatus(normalizedStatusName)
+                .orElseThrow(() -> new IllegalArgumentException(
+                        String.format("Статус заказа '%s' не найден", normalizedStatusName)));
+
+        List<Integer> ids = orderIds.stream().filter(Objects::nonNull).distinct().toList();
+        Map<Integer, Order> orders = orderRepository.findAllByIdInForUpdate(ids).stream()
+                .collect(Collectors.toMap(Order::getId, order -> order));
 
-            User user = order.getUser();
-            if (user == null) {
-                log.info("🔔 Заказ #{} не привязан к пользователю, персональное уведомление не отправляется", order.getId());
-                return;
+        BulkUpdateOrderStatusResponse response = BulkUpdateOrderStatusResponse.builder()
+                .statusName(newStatus.getName())
+                .build();
+        Map<Integer, String> oldStatuses = new LinkedHashMap<>();
+        Map<Integer, Integer> userIds = new HashMap<>();
+        for (Integer id : ids) {
+            Order order = orders.get(id);
+            if (order == null) {
+                response.getRejected().add(new BulkUpdateOrderStatusResponse.Rejected(id, null, "Заказ не найден"));
+                continue;
             }
+            String oldStatusName = resolveStatus(order).getName();
+            if (oldStatusName.equals(newStatus.getName())) {
+                response.getUnchangedOrderIds().add(id);
+            } else if (!OrderStatusTransitions.isAllowed(oldStatusName, newStatus.getName())) {
+                response.getRejected().add(new BulkUpdateOrderStatusResponse.Rejected(id, oldStatusName,
+                        "Переход не разрешен"));
+            } else {
+                oldStatuses.put(id, oldStatusName);
+                // ID пользователя берется из прокси без загрузки: после UPDATE контекст очищается
+                userIds.put(id, order.getUser() != null ? order.getUser().getId() : null);
+            }
+        }
 
-            String username = user.getUsername();
-            Long userMessengerId = user.getTelegramId();
+        if (oldStatuses.isEmpty()) {
+            log.info("Массовая смена статуса на '{}': подходящих заказов нет (без изменений: {}, отклонено: {})",
+                    newStatus.getName(), response.getUnchangedOrderIds().size(), response.getRejected().size());
+            return response;
+        }
+
+        // Реферальные напоминания планируются до UPDATE, пока заказы еще в контексте
+        if ("DELIVERED".equalsIgnoreCase(newStatus.getName())) {
+            oldStatuses.keySet().forEach(id -> scheduleReferralReminderSafely(orders.get(id)));
+        }
 
-            log.info("🔔 Пользователь заказа #{}: username={}, telegramId={}",
-                    order.getId(), username, userMessengerId);
+        int updated = orderRepository.updateStatusByIdIn(oldStatuses.keySet(),
+                referenceDataService.statusReference(newStatus.getName()).orElse(newStatus),
+                TimeZoneUtils.nowInMoscow());
+
+        oldStatuses.forEach((id, oldStatusName) -> {
+            orderCacheService.evictOrder(id, userIds.get(id));
+            outboxService.enqueue(OutboxMessage.EventType.ORDER_STATUS_CHANGED, id,
+                    Map.of(STATUS_FROM, oldStatusName, STATUS_TO, newStatus.getName()));
+            eventPublisher.publishEvent(new OrderStatusChangedEvent(this, id, oldStatusName, newStatus.getName()));
+            response.getUpdatedOrderIds().add(id);
+        });
+
+        log.info("Массовая смена статуса на '{}': изменено {} заказов, без изменений {}, отклонено {}",
+                newStatus.getName(), updated, response.getUnchangedOrderIds().size(), response.getRejected().size());
+        return response;
+    }
 
-            if (userMessengerId == null) {
-                log.info("🔔 У пользователя {} нет мессенджер ID, уведомление не отправляется", username);
-                return;
+    /**
+     * Отправка уведомления пользователю о смене статуса заказа (вызывается из outbox)
+     * Поддерживает Telegram и MAX пользователей. Ошибки мессенджера собираются в delivery и приводят
+     * к повтору: уведомление о статусе и запрос на отзыв учитываются как отдельные получатели
+     */
+    public void notifyCustomerAboutStatusChange(Order order, String oldStatusName, String newStatusName,
+            OutboxDelivery delivery) {
+        log.info("🔔 Отправка уведомления о смене статуса заказа #{}: {} -> {}",
+                order.getId(), oldStatusName, newStatusName);
+
+        User user = order.getUser();
+        if (user == null) {
+            log.info("🔔 Заказ #{} не привязан к пользователю, персональное уведомление не отправляется", order.getId());
+            return;
+        }
+
+        String username = user.getUsername();
+        Long userMessengerId = user.getTelegramId();
+
+        log.info("🔔 Пользователь заказа #{}: username={}, telegramId={}",
+                order.getId(), username, userMessengerId);
+
+        if (userMessengerId == null) {
+            log.info("🔔 У пользователя {} нет мессенджер ID, уведомление не отправляется", username);
+            return;
+        }
+
+        boolean delivered = "DELIVERED".equalsIgnoreCase(newStatusName);
+
+        // Определяем тип пользователя по username и отправляем уведомление
+        if (username != null && username.startsWith("max_")) {
+            // MAX пользователь - отправляем через MAX бот
+            log.info("🔔 Отправка MAX уведомления пользователю {} (ID: {})", username, userMessengerId);
+            String statusMessage = formatMaxStatusUpdateMessage(order, oldStatusName, newStatusName);
+            delivery.send("status", () -> maxAdminBotService.deliverOrderStatusNotification(userMessengerId,
+                    statusMessage));
+
+            // Отправляем запрос на отзыв при доставке
+            if (delivered) {
+                delivery.send("review", () -> maxAdminBotService.deliverReviewRequestNotification(
+                        userMessengerId, order.getId(), order.getTotalAmount()));
             }
 
-            // Определяем тип пользователя по username и отправляем уведомление
-            if (username != null && username.startsWith("max_")) {
-                // MAX пользователь - отправляем через MAX бот
-                log.info("🔔 Отправка MAX уведомления пользователю {} (ID: {})", username, userMessengerId);
-                String statusMessage = formatMaxStatusUpdateMessage(order, oldStatusName, newStatusName);
-                boolean sent = maxAdminBotService.sendOrderStatusNotification(userMessengerId, statusMessage);
-                if (sent) {
-                    log.info("✅ MAX уведомление об изменении статуса заказа #{} отправлено пользователю {}",
-                            order.getId(), username);
-                } else {
-                    log.warn("❌ Не удалось отправить MAX уведомление пользователю {} для заказа #{}", username, order.getId());
-                }
+        } else if (username != null && username.startsWith("tg_")) {
+            // Telegram пользователь - отправляем через Telegram бот
+            log.info("🔔 Отправка Telegram уведомления пользователю {}", username);
+            if (telegramUserNotificationService != null) {
+                delivery.send("status", () -> telegramUserNotificationService
+                        .sendPersonalOrderStatusUpdateNotification(order, oldStatusName, newStatusName));
 
                 // Отправляем запрос на отзыв при доставке
-                if ("DELIVERED".equalsIgnoreCase(newStatusName)) {
-                    boolean reviewSent = maxAdminBotService.sendReviewRequestNotification(
-                            userMessengerId, order.getId(), order.getTotalAmount());
-                    if (reviewSent) {
-                        log.info("MAX запрос на отзыв для заказа #{} отправлен пользователю {}", order.getId(), username);
-                    }
-                }
-
-            } else if (username != null && username.startsWith("tg_")) {
-                // Telegram пользователь - отправляем через Telegram бот
-                log.info("🔔 Отправка Telegram уведомления пользователю {}", username);
-                if (telegramUserNotificationService != null) {
-                    telegramUserNotificationService.sendPersonalOrderStatusUpdateNotification(order, oldStatusName, newStatusName);
-                    log.info("✅ Telegram уведомление об изменении статуса заказа #{} отправлено пользователю {}",
-                            order.getId(), username);
-
-                    // Отправляем запрос на отзыв при доставке
-                    if ("DELIVERED".equalsIgnoreCase(newStatusName)) {
-                        telegramUserNotificationService.sendReviewRequestNotification(order);
-                        log.info("Telegram запрос на отзыв для заказа #{} отправлен пользователю {}", order.getId(), username);
-                    }
-                } else {
-                    log.warn("TelegramUserNotificationService недоступен, уведомление не отправлено для заказа #{}", order.getId());
+                if (delivered) {
+                    delivery.send("review", () -> telegramUserNotificationService.sendReviewRequestNotification(order));
                 }
             } else {
-                log.info("🔔 Пользователь {} не является пользователем мессенджера (Telegram/MAX), уведомление не отправляется. Username не начинается с 'max_' или 'tg_'", username);
+                log.warn("TelegramUserNotificationService недоступен, уведомление не отправлено для заказа #{}", order.getId());
             }
-
-            // Планирование реферального уведомления при доставке заказа
-            if ("DELIVERED".equalsIgnoreCase(newStatusName)) {
-                scheduleReferralReminderSafely(order);
-            }
-
-        } catch (Exception e) {
-            log.error("❌ Ошибка отправки уведомлений об изменении статуса заказа #{}: {}",
-                    order.getId(), e.getMessage());
-            // Не пробрасываем исключение, чтобы не нарушать основную логику обновления статуса
+        } else {
+            log.info("🔔 Пользователь {} не является пользователем мессенджера (Telegram/MAX), уведомление не отправляется. Username не начинается с 'max_' или 'tg_'", username);
         }
     }
 
@@ -535,13 +790,8 @@ public class OrderService {
      * @return обновленный заказ
      */
     @Transactional
-    @Caching(evict = {
-            @CacheEvict(value = "userOrders", allEntries = true),
-            @CacheEvict(value = "orderDetails", allEntries = true),
-            @CacheEvict(value = "allOrders", allEntries = true)
-    })
     public OrderDTO markOrderAsPaid(Integer orderId) {
-        // Обновляем статус заказа на "Оплачен"
+        // Обновляем статус заказа на "Оплачен" (инвалидация кэшей внутри updateOrderStatus)
         return updateOrderStatus(orderId, "PAID");
     }
 
@@ -559,7 +809,7 @@ public class OrderService {
         if (userId != null) {
             return cartRepository.findByUserId(userId).orElse(null);
         } else if (sessionId != null) {
-            return cartRepository.findBySessionId(sessionId).orElse(null);
+            return cartService.findSessionCartForCheckout(sessionId);
         }
         return null;
     }
@@ -614,13 +864,22 @@ public class OrderService {
                 return false;
             }
 
-            OrderStatus newStatus = orderStatusRepository.findByName(statusName.toUpperCase()).orElse(null);
+            OrderStatus newStatus = referenceDataService.findStatus(statusName).orElse(null);
             if (newStatus == null) {
                 return false;
             }
 
-            order.setStatus(newStatus);
+            String oldStatusName = resolveStatus(order).getName();
+            if (!OrderStatusTransitions.isAllowed(oldStatusName, newStatus.getName())) {
+                log.warn("Заказ #{} нельзя перевести из статуса '{}' в '{}'", orderId, oldStatusName,
+                        newStatus.getName());
+                return false;
+            }
+            order.setStatus(referenceDataService.statusReference(newStatus.getName()).orElse(newStatus));
             orderRepository.save(order);
+            orderCacheService.evictOrder(order);
+            eventPublisher.publishEvent(new OrderStatusChangedEvent(this, order,
+                    oldStatusName, newStatus.getName()));
             return true;
         } catch (Exception e) {
             log.error("Ошибка обновления статуса заказа {}: {}", orderId, e.getMessage());
@@ -629,6 +888,10 @@ public class OrderService {
     }
 
     private OrderDTO mapToDTO(Order order) {
+        return mapToDTO(order, null);
+    }
+
+    private OrderDTO mapToDTO(Order order, Payment latestPayment) {
         List<OrderItemDTO> itemDTOs = order.getItems().stream()
                 .map(this::mapToDTO)
                 .collect(Collectors.toList());
@@ -637,13 +900,16 @@ public class OrderService {
         String createdAtStr = order.getCreatedAt() != null ? order.getCreatedAt().toString() : null;
         String updatedAtStr = order.getUpdatedAt() != null ? order.getUpdatedAt().toString() : null;
 
+        OrderStatus status = resolveStatus(order);
+        DeliveryLocation location = resolveLocation(order);
+
         return OrderDTO.builder()
                 .id(order.getId())
-                .status(order.getStatus().getName())
-                .statusDescription(order.getStatus().getDescription())
-                .deliveryLocationId(order.getDeliveryLocation().getId())
-                .deliveryLocationName(order.getDeliveryLocation().getName())
-                .deliveryLocationAddress(order.getDeliveryLocation().getAddress())
+                .status(status.getName())
+                .statusDescription(status.getDescription())
+                .deliveryLocationId(location.getId())
+                .deliveryLocationName(location.getName())
+                .deliveryLocationAddress(location.getAddress())
                 .deliveryAddress(order.getDeliveryAddress())
                 .totalAmount(order.getTotalAmount())
                 .deliveryCost(order.getDeliveryCost()) // Стоимость доставки
@@ -651,12 +917,34 @@ public class OrderService {
                 .comment(order.getComment())
                 .contactName(order.getContactName())
                 .contactPhone(order.getContactPhone())
+                .paymentMethod(order.getPaymentMethod() != null ? order.getPaymentMethod().name() : null)
+                .paymentStatus(order.getPaymentStatus() != null ? order.getPaymentStatus().name() : null)
+                .latestPaymentStatus(latestPayment != null ? latestPayment.getStatus().name() : null)
                 .createdAt(createdAtStr)
                 .updatedAt(updatedAtStr)
                 .items(itemDTOs)
                 .build();
     }
 
+    /**
+     * Если связь - незагруженная ссылка (getReference), данные берутся из справочника без SELECT
+     */
+    private OrderStatus resolveStatus(Order order) {
+        OrderStatus status = order.getStatus();
+        if (Hibernate.isInitialized(status)) {
+            return status;
+        }
+        return referenceDataService.findStatus(status.getId()).orElse(status);
+    }
+
+    private DeliveryLocation resolveLocation(Order order) {
+        DeliveryLocation location = order.getDeliveryLocation();
+        if (Hibernate.isInitialized(location)) {
+            return location;
+        }
+        return referenceDataService.findActiveLocation(location.getId()).orElse(location);
+    }
+
     private OrderItemDTO mapToDTO(OrderItem item) {
         String imageUrl = null;
         if (item.getProduct().getImageUrl() != null && !item.getProduct().getImageUrl().isEmpty()) {
@@ -2,11 +2,15 @@ package com.baganov.pizzanat.service;
 
 import com.baganov.pizzanat.dto.ProductDto;
 import com.baganov.pizzanat.entity.Product;
+import com.baganov.pizzanat.event.CatalogChangedEvent;
 import com.baganov.pizzanat.mapper.ProductMapper;
 import com.baganov.pizzanat.repository.ProductRepository;
+import com.baganov.pizzanat.service.catalog.CatalogSnapshot;
+import com.baganov.pizzanat.service.catalog.CatalogSnapshotService;
+import com.baganov.pizzanat.service.catalog.ProductSearchIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -14,16 +18,19 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
+import java.util.Optional;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
-@Transactional(readOnly = true)
 public class ProductService {
 
     private final ProductRepository productRepository;
     private final ProductMapper productMapper;
     private final S3Service s3Service;
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final ProductSearchIndex productSearchIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     private static final String PRODUCTS_FOLDER = "products";
 
@@ -34,40 +41,43 @@ public class ProductService {
 
         Product product = productMapper.toEntity(productDto);
         Product savedProduct = productRepository.save(product);
+        eventPublisher.publishEvent(new CatalogChangedEvent(this, savedProduct.getId(), "create"));
         return productMapper.toDto(savedProduct);
     }
 
-    @Cacheable(value = "products", key = "'product:' + #id")
+    // Чтения каталога обслуживаются из снимка в памяти без транзакции и обращения к БД
+
     public ProductDto getProductById(Integer id) {
-        Product product = productRepository.findById(id)
+        return catalogSnapshotService.getSnapshot().findProduct(id)
                 .orElseThrow(() -> new IllegalArgumentException("Продукт не найден с ID: " + id));
-        return productMapper.toDto(product);
     }
 
     public Page<ProductDto> getAllProducts(Pageable pageable) {
-        return productRepository.findAllByIsAvailableTrue(pageable)
-                .map(productMapper::toDto);
+        return CatalogSnapshot.page(catalogSnapshotService.getSnapshot().getAvailableProducts(), pageable);
     }
 
     public Page<ProductDto> getProductsByCategory(Integer categoryId, Pageable pageable) {
-        return productRepository.findByCategoryId(categoryId, pageable)
-                .map(productMapper::toDto);
+        return CatalogSnapshot.page(catalogSnapshotService.getSnapshot().getProductsByCategory(categoryId),
+                pageable);
     }
 
-    @Cacheable(value = "products", key = "'products:special'")
     public List<ProductDto> getSpecialOffers() {
-        return productRepository.findByIsSpecialOfferTrue()
-                .stream()
-                .map(productMapper::toDto)
-                .toList();
+        return catalogSnapshotService.getSnapshot().getSpecialOffers();
     }
 
     public Page<ProductDto> searchProducts(String query, Integer categoryId, Pageable pageable) {
-        if (categoryId != null) {
-            return productRepository.findByCategoryIdAndNameContainingIgnoreCase(categoryId, query, pageable)
-                    .map(productMapper::toDto);
+        CatalogSnapshot snapshot = catalogSnapshotService.getSnapshot();
+        if (ProductSearchIndex.isEmptyQuery(query)) {
+            // Пустой запрос - просмотр каталога: все доступные продукты (или продукты категории) в порядке меню
+            List<ProductDto> products = snapshot.getAvailableProducts().stream()
+                    .filter(product -> categoryId == null || categoryId.equals(product.getCategoryId()))
+                    .toList();
+            return CatalogSnapshot.page(products, pageable);
         }
-        return productRepository.findByNameContainingIgnoreCase(query, pageable)
-                .map(productMapper::toDto);
+        List<ProductDto> matches = productSearchIndex.search(query, categoryId).stream()
+                .map(snapshot::findProduct)
+                .flatMap(Optional::stream)
+                .toList();
+        return CatalogSnapshot.page(matches, pageable);
     }
 }
\ No newline at end of file
@@ -3,9 +3,9 @@ package com.baganov.pizzanat.service;
 import com.baganov.pizzanat.entity.Role;
 import com.baganov.pizzanat.entity.SmsCode;
 import com.baganov.pizzanat.entity.User;
-import com.baganov.pizzanat.repository.RoleRepository;
 import com.baganov.pizzanat.repository.SmsCodeRepository;
 import com.baganov.pizzanat.repository.UserRepository;
+import com.baganov.pizzanat.service.reference.ReferenceDataService;
 import com.baganov.pizzanat.security.JwtService;
 import com.baganov.pizzanat.util.PhoneNumberValidator;
 import com.baganov.pizzanat.util.SmsCodeGenerator;
@@ -32,7 +32,7 @@ public class SmsAuthService {
 
     private final SmsCodeRepository smsCodeRepository;
     private final UserRepository userRepository;
-    private final RoleRepository roleRepository;
+    private final ReferenceDataService referenceDataService;
     private final ExolveService exolveService;
     private final PhoneNumberValidator phoneValidator;
     private final SmsCodeGenerator smsCodeGenerator;
@@ -48,7 +48,7 @@ public class SmsAuthService {
 
     public SmsAuthService(SmsCodeRepository smsCodeRepository,
             UserRepository userRepository,
-            RoleRepository roleRepository,
+            ReferenceDataService referenceDataService,
             ExolveService exolveService,
             PhoneNumberValidator phoneValidator,
             SmsCodeGenerator smsCodeGenerator,
@@ -57,7 +57,7 @@ public class SmsAuthService {
             PasswordEncoder passwordEncoder) {
         this.smsCodeRepository = smsCodeRepository;
         this.userRepository = userRepository;
-        this.roleRepository = roleRepository;
+        this.referenceDataService = referenceDataService;
         this.exolveService = exolveService;
         this.phoneValidator = phoneValidator;
         this.smsCodeGenerator = smsCodeGenerator;
@@ -248,7 +248,7 @@ public class SmsAuthService {
         String username = generateUsernameFromPhone(phoneNumber);
 
         // Получение роли USER
-        Role userRole = roleRepository.findByName("ROLE_USER")
+        Role userRole = referenceDataService.findRole("ROLE_USER")
                 .orElseThrow(() -> new RuntimeException("Роль ROLE_USER не найдена"));
 
         User newUser = User.builder()
@@ -20,6 +20,15 @@ public interface TelegramAdminNotificationService {
      */
     void sendMessage(Long chatId, String message, boolean parseMarkdown);
 
+    /**
+     * Отправка сообщения с пробросом ошибки для повторов outbox.
+     * Если админский бот отключен, сообщение не отправляется и ошибкой не считается
+     *
+     * @param keyboard inline кнопки или null
+     */
+    void deliverMessage(Long chatId, String message, boolean parseMarkdown, InlineKeyboardMarkup keyboard)
+            throws Exception;
+
     /**
      * Создание клавиатуры для управления заказом
      */
@@ -15,6 +15,7 @@ import org.telegram.telegrambots.meta.api.objects.replykeyboard.InlineKeyboardMa
 import org.telegram.telegrambots.meta.api.objects.replykeyboard.buttons.InlineKeyboardButton;
 import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
 
+import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -22,6 +23,8 @@ import java.util.List;
 @Service
 public class TelegramAdminNotificationServiceImpl implements TelegramAdminNotificationService {
 
+    private static final String ADMIN_BOT_BEAN = "pizzaNatAdminBot";
+
     @Autowired
     private ApplicationContext applicationContext;
 
@@ -56,6 +59,27 @@ public class TelegramAdminNotificationServiceImpl implements TelegramAdminNotifi
         }
     }
 
+    @Override
+    public void deliverMessage(Long chatId, String message, boolean parseMarkdown, InlineKeyboardMarkup keyboard)
+            throws Exception {
+        if (!applicationContext.containsBean(ADMIN_BOT_BEAN)) {
+            log.debug("Админский бот отключен, сообщение для chatId={} не отправлено", chatId);
+            return;
+        }
+        Object adminBot = applicationContext.getBean(ADMIN_BOT_BEAN);
+        try {
+            adminBot.getClass()
+                    .getMethod("deliverMessage", Long.class, String.class, boolean.class, InlineKeyboardMarkup.class)
+                    .invoke(adminBot, chatId, message, parseMarkdown, keyboard);
+        } catch (InvocationTargetException e) {
+            // Ошибка Telegram API из бота, а не рефлексии
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
     @Override
     public InlineKeyboardMarkup createOrderManagementKeyboard(Long orderId) {
         try {
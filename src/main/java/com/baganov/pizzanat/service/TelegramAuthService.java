@@ -9,9 +9,9 @@ import com.baganov.pizzanat.model.dto.auth.AuthResponse;
 import com.baganov.pizzanat.model.dto.telegram.TelegramAuthResponse;
 import com.baganov.pizzanat.model.dto.telegram.TelegramStatusResponse;
 import com.baganov.pizzanat.model.dto.telegram.TelegramUserData;
-import com.baganov.pizzanat.repository.RoleRepository;
 import com.baganov.pizzanat.repository.TelegramAuthTokenRepository;
 import com.baganov.pizzanat.repository.UserRepository;
+import com.baganov.pizzanat.service.reference.ReferenceDataService;
 import com.baganov.pizzanat.security.JwtService;
 import com.baganov.pizzanat.service.RateLimitService.RateLimitType;
 import com.baganov.pizzanat.util.TelegramUserDataExtractor;
@@ -38,7 +38,7 @@ public class TelegramAuthService {
 
     private final TelegramAuthTokenRepository tokenRepository;
     private final UserRepository userRepository;
-    private final RoleRepository roleRepository;
+    private final ReferenceDataService referenceDataService;
     private final JwtService jwtService;
     private final TokenGenerator tokenGenerator;
     private final TelegramUserDataExtractor userDataExtractor;
@@ -420,7 +420,7 @@ public class TelegramAuthService {
      * @param user пользователь
      */
     private void addDefaultRole(User user) {
-        Role userRole = roleRepository.findByName("ROLE_USER")
+        Role userRole = referenceDataService.findRole("ROLE_USER")
                 .orElseThrow(() -> new IllegalStateException("Роль ROLE_USER не найдена"));
         user.setRoles(Set.of(userRole));
         user.setActive(true);
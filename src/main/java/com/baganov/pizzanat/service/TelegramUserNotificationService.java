@@ -20,6 +20,7 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
 import java.math.BigDecimal;
@@ -46,7 +47,9 @@ public class TelegramUserNotificationService {
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm");
 
     /**
-     * Отправка персонального уведомления пользователю о создании заказа
+     * Отправка персонального уведомления пользователю о создании заказа.
+     * Вызывается из outbox: ошибка Telegram API пробрасывается для повтора,
+     * заблокированный бот или отсутствующий чат повтором не исправить - они только логируются
      *
      * @param order заказ
      */
@@ -55,21 +58,17 @@ public class TelegramUserNotificationService {
             return;
         }
 
-        try {
-            String message = formatNewOrderMessage(order);
-            sendPersonalMessage(order.getUser().getTelegramId(), message);
-
+        String message = formatNewOrderMessage(order);
+        Long telegramId = order.getUser().getTelegramId();
+        if (postPersonalMessage(telegramId, personalMessage(telegramId, message))) {
             log.info("Персональное уведомление о новом заказе #{} отправлено пользователю {} (Telegram ID: {})",
                     order.getId(), order.getUser().getUsername(), order.getUser().getTelegramId());
-
-        } catch (Exception e) {
-            log.error("Ошибка отправки персонального уведомления о новом заказе #{} пользователю {}: {}",
-                    order.getId(), order.getUser().getUsername(), e.getMessage(), e);
         }
     }
 
     /**
-     * Отправка персонального уведомления пользователю об изменении статуса заказа
+     * Отправка персонального уведомления пользователю об изменении статуса заказа (из outbox,
+     * ошибка Telegram API пробрасывается)
      *
      * @param order     заказ
      * @param oldStatus старый статус
@@ -80,22 +79,18 @@ public class TelegramUserNotificationService {
             return;
         }
 
-        try {
-            String message = formatPersonalStatusUpdateMessage(order, oldStatus, newStatus);
-            sendPersonalMessage(order.getUser().getTelegramId(), message);
-
+        String message = formatPersonalStatusUpdateMessage(order, oldStatus, newStatus);
+        Long telegramId = order.getUser().getTelegramId();
+        if (postPersonalMessage(telegramId, personalMessage(telegramId, message))) {
             log.info(
                     "Персональное уведомление об изменении статуса заказа #{} отправлено пользователю {} (Telegram ID: {})",
                     order.getId(), order.getUser().getUsername(), order.getUser().getTelegramId());
-
-        } catch (Exception e) {
-            log.error("Ошибка отправки персонального уведомления об изменении статуса заказа #{} пользователю {}: {}",
-                    order.getId(), order.getUser().getUsername(), e.getMessage(), e);
         }
     }
 
     /**
-     * Отправка простого уведомления пользователю об успешной оплате заказа
+     * Отправка простого уведомления пользователю об успешной оплате заказа (из outbox,
+     * ошибка Telegram API пробрасывается)
      *
      * @param order заказ
      */
@@ -104,21 +99,16 @@ public class TelegramUserNotificationService {
             return;
         }
 
-        try {
-            // Простое сообщение: "Заказ номер ХХ успешно оплачен сумма (дата)"
-            String message = String.format("Заказ номер %d успешно оплачен %s ₽ (%s)", 
-                order.getId(), 
-                order.getTotalAmount(), 
-                java.time.LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm")));
-            
-            sendPersonalMessage(order.getUser().getTelegramId(), message);
+        // Простое сообщение: "Заказ номер ХХ успешно оплачен сумма (дата)"
+        String message = String.format("Заказ номер %d успешно оплачен %s ₽ (%s)", 
+            order.getId(), 
+            order.getTotalAmount(), 
+            java.time.LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm")));
 
+        Long telegramId = order.getUser().getTelegramId();
+        if (postPersonalMessage(telegramId, personalMessage(telegramId, message))) {
             log.info("Простое уведомление об оплате заказа #{} отправлено пользователю {} (Telegram ID: {})",
                     order.getId(), order.getUser().getUsername(), order.getUser().getTelegramId());
-
-        } catch (Exception e) {
-            log.error("Ошибка отправки простого уведомления об оплате заказа #{} пользователю {}: {}",
-                    order.getId(), order.getUser().getUsername(), e.getMessage(), e);
         }
     }
 
@@ -273,37 +263,40 @@ public class TelegramUserNotificationService {
      */
     public boolean sendPersonalMessage(Long telegramId, String text) {
         try {
-            String url = telegramAuthProperties.getApiUrl() + "/sendMessage";
-
-            TelegramPersonalMessage telegramMessage = new TelegramPersonalMessage();
-            telegramMessage.setChatId(telegramId.toString());
-            telegramMessage.setText(text);
-            telegramMessage.setParseMode("HTML");
+            return postPersonalMessage(telegramId, personalMessage(telegramId, text));
+        } catch (Exception e) {
+            log.error("Ошибка при отправке персонального Telegram сообщения пользователю {}: {}",
+                    telegramId, e.getMessage());
+            return false;
+        }
+    }
 
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
+    private TelegramPersonalMessage personalMessage(Long telegramId, String text) {
+        TelegramPersonalMessage telegramMessage = new TelegramPersonalMessage();
+        telegramMessage.setChatId(telegramId.toString());
+        telegramMessage.setText(text);
+        telegramMessage.setParseMode("HTML");
+        return telegramMessage;
+    }
 
-            HttpEntity<TelegramPersonalMessage> entity = new HttpEntity<>(telegramMessage, headers);
+    /**
+     * Вызов sendMessage Telegram API
+     *
+     * @return false, если пользователь заблокировал бота или чат не найден (повтор не поможет)
+     * @throws RestClientException прочие ошибки Telegram API
+     */
+    private boolean postPersonalMessage(Long telegramId, Object message) {
+        String url = telegramAuthProperties.getApiUrl() + "/sendMessage";
 
-            ResponseEntity<String> response = telegramAuthRestTemplate.postForEntity(url, entity, String.class);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
 
-            if (response.getStatusCode().is2xxSuccessful()) {
-                log.debug("Персональное Telegram сообщение отправлено пользователю: {}", telegramId);
-                return true;
-            } else {
-                int statusCode = response.getStatusCode().value();
-                // 403 = пользователь заблокировал бота, 400 = чат не найден
-                if (statusCode == 403) {
-                    log.debug("⚠️ Пользователь {} заблокировал бота @DIMBOpizzaBot", telegramId);
-                } else if (statusCode == 400) {
-                    log.debug("⚠️ Чат не найден для пользователя {} (не начинал диалог с ботом)", telegramId);
-                } else {
-                    log.warn("Ошибка отправки сообщения пользователю {}: HTTP {}", telegramId, statusCode);
-                }
-                return false;
-            }
+        HttpEntity<Object> entity = new HttpEntity<>(message, headers);
 
-        } catch (Exception e) {
+        ResponseEntity<String> response;
+        try {
+            response = telegramAuthRestTemplate.postForEntity(url, entity, String.class);
+        } catch (RestClientException e) {
             // Обрабатываем HTTP ошибки из исключения
             String errorMsg = e.getMessage();
             if (errorMsg != null) {
@@ -315,10 +308,23 @@ public class TelegramUserNotificationService {
                     return false;
                 }
             }
-            log.error("Ошибка при отправке персонального Telegram сообщения пользователю {}: {}",
-                    telegramId, errorMsg);
+            throw e;
+        }
+
+        if (response.getStatusCode().is2xxSuccessful()) {
+            log.debug("Персональное Telegram сообщение отправлено пользователю: {}", telegramId);
+            return true;
+        }
+        int statusCode = response.getStatusCode().value();
+        // 403 = пользователь заблокировал бота, 400 = чат не найден
+        if (statusCode == 403) {
+            log.debug("⚠️ Пользователь {} заблокировал бота @DIMBOpizzaBot", telegramId);
+            return false;
+        } else if (statusCode == 400) {
+            log.debug("⚠️ Чат не найден для пользователя {} (не начинал диалог с ботом)", telegramId);
             return false;
         }
+        throw new RestClientException("Ошибка отправки сообщения пользователю " + telegramId + ": HTTP " + statusCode);
     }
 
     /**
@@ -385,47 +391,22 @@ public class TelegramUserNotificationService {
      */
     public boolean sendPersonalMessageWithButtons(Long telegramId, String text, List<List<Map<String, Object>>> buttons) {
         try {
-            String url = telegramAuthProperties.getApiUrl() + "/sendMessage";
-
-            Map<String, Object> message = new HashMap<>();
-            message.put("chat_id", telegramId.toString());
-            message.put("text", text);
-            message.put("parse_mode", "HTML");
-            message.put("reply_markup", Map.of("inline_keyboard", buttons));
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(message, headers);
-
-            ResponseEntity<String> response = telegramAuthRestTemplate.postForEntity(url, entity, String.class);
-
-            if (response.getStatusCode().is2xxSuccessful()) {
-                log.debug("Сообщение с кнопками отправлено пользователю: {}", telegramId);
-                return true;
-            } else {
-                int statusCode = response.getStatusCode().value();
-                if (statusCode == 403) {
-                    log.debug("⚠️ Пользователь {} заблокировал бота @DIMBOpizzaBot", telegramId);
-                } else if (statusCode == 400) {
-                    log.debug("⚠️ Чат не найден для пользователя {}", telegramId);
-                } else {
-                    log.warn("Ошибка отправки сообщения пользователю {}: HTTP {}", telegramId, statusCode);
-                }
-                return false;
-            }
-
+            return postPersonalMessage(telegramId, messageWithButtons(telegramId, text, buttons));
         } catch (Exception e) {
-            String errorMsg = e.getMessage();
-            if (errorMsg != null && (errorMsg.contains("403 Forbidden") || errorMsg.contains("Forbidden: bot was blocked"))) {
-                log.debug("⚠️ Пользователь {} заблокировал бота @DIMBOpizzaBot", telegramId);
-                return false;
-            }
-            log.error("Ошибка при отправке сообщения с кнопками пользователю {}: {}", telegramId, errorMsg);
+            log.error("Ошибка при отправке сообщения с кнопками пользователю {}: {}", telegramId, e.getMessage());
             return false;
         }
     }
 
+    private Map<String, Object> messageWithButtons(Long telegramId, String text, List<List<Map<String, Object>>> buttons) {
+        Map<String, Object> message = new HashMap<>();
+        message.put("chat_id", telegramId.toString());
+        message.put("text", text);
+        message.put("parse_mode", "HTML");
+        message.put("reply_markup", Map.of("inline_keyboard", buttons));
+        return message;
+    }
+
     /**
      * Отправка фото с подписью и inline кнопками пользователю
      * @param telegramId ID пользователя в Telegram
@@ -479,7 +460,8 @@ public class TelegramUserNotificationService {
     }
 
     /**
-     * Отправка сообщения с просьбой оставить отзыв при доставке заказа
+     * Отправка сообщения с просьбой оставить отзыв при доставке заказа (из outbox,
+     * ошибка Telegram API пробрасывается)
      *
      * @param order заказ
      */
@@ -488,23 +470,16 @@ public class TelegramUserNotificationService {
             return;
         }
 
-        try {
-            String message = formatReviewRequestMessage(order);
-            List<List<Map<String, Object>>> buttons = createReviewButtons();
+        String message = formatReviewRequestMessage(order);
+        List<List<Map<String, Object>>> buttons = createReviewButtons();
 
-            boolean sent = sendPersonalMessageWithButtons(order.getUser().getTelegramId(), message, buttons);
-
-            if (sent) {
-                log.info("Запрос на отзыв для заказа #{} отправлен пользователю {} (Telegram ID: {})",
-                        order.getId(), order.getUser().getUsername(), order.getUser().getTelegramId());
-            } else {
-                log.warn("Не удалось отправить запрос на отзыв пользователю {} для заказа #{}",
-                        order.getUser().getUsername(), order.getId());
-            }
-
-        } catch (Exception e) {
-            log.error("Ошибка отправки запроса на отзыв для заказа #{} пользователю {}: {}",
-                    order.getId(), order.getUser().getUsername(), e.getMessage(), e);
+        if (postPersonalMessage(order.getUser().getTelegramId(),
+                messageWithButtons(order.getUser().getTelegramId(), message, buttons))) {
+            log.info("Запрос на отзыв для заказа #{} отправлен пользователю {} (Telegram ID: {})",
+                    order.getId(), order.getUser().getUsername(), order.getUser().getTelegramId());
+        } else {
+            log.warn("Не удалось отправить запрос на отзыв пользователю {} для заказа #{}",
+                    order.getUser().getUsername(), order.getId());
         }
     }
 
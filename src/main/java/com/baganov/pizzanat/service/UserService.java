@@ -2,8 +2,8 @@ package com.baganov.pizzanat.service;
 
 import com.baganov.pizzanat.entity.Role;
 import com.baganov.pizzanat.entity.User;
-import com.baganov.pizzanat.repository.RoleRepository;
 import com.baganov.pizzanat.repository.UserRepository;
+import com.baganov.pizzanat.service.reference.ReferenceDataService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
@@ -20,15 +20,15 @@ import java.util.Set;
 public class UserService implements UserDetailsService {
 
     private final UserRepository userRepository;
-    private final RoleRepository roleRepository;
+    private final ReferenceDataService referenceDataService;
     private final PasswordEncoder passwordEncoder;
 
     @Autowired
     public UserService(UserRepository userRepository,
-            RoleRepository roleRepository,
+            ReferenceDataService referenceDataService,
             @Lazy PasswordEncoder passwordEncoder) {
         this.userRepository = userRepository;
-        this.roleRepository = roleRepository;
+        this.referenceDataService = referenceDataService;
         this.passwordEncoder = passwordEncoder;
     }
 
@@ -52,7 +52,7 @@ public class UserService implements UserDetailsService {
         user.setPassword(passwordEncoder.encode(user.getPassword()));
 
         // Установка роли пользователя
-        Role userRole = roleRepository.findByName("ROLE_USER")
+        Role userRole = referenceDataService.findRole("ROLE_USER")
                 .orElseThrow(() -> new IllegalStateException("Роль ROLE_USER не найдена"));
         user.setRoles(Set.of(userRole));
 
@@ -8,10 +8,9 @@ package com.baganov.pizzanat.service;
 
 import com.baganov.pizzanat.config.YooKassaConfig;
 import com.baganov.pizzanat.entity.*;
-import com.baganov.pizzanat.event.NewOrderEvent;
+import com.baganov.pizzanat.event.OrderStatusChangedEvent;
 import com.baganov.pizzanat.event.PaymentAlertEvent;
 import com.baganov.pizzanat.event.PaymentStatusChangedEvent;
-import com.baganov.pizzanat.event.PaymentSuccessNotificationEvent;
 import com.baganov.pizzanat.model.dto.payment.CreatePaymentRequest;
 import com.baganov.pizzanat.model.dto.payment.PaymentResponse;
 import com.baganov.pizzanat.model.dto.payment.SbpBankInfo;
@@ -21,7 +20,9 @@ import com.baganov.pizzanat.model.dto.payment.ReceiptItemDto;
 import com.baganov.pizzanat.model.dto.payment.AmountDto;
 import com.baganov.pizzanat.repository.OrderRepository;
 import com.baganov.pizzanat.repository.PaymentRepository;
-import com.baganov.pizzanat.repository.OrderStatusRepository;
+import com.baganov.pizzanat.service.order.OrderStatusTransitions;
+import com.baganov.pizzanat.service.outbox.OutboxService;
+import com.baganov.pizzanat.service.reference.ReferenceDataService;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.micrometer.core.instrument.Timer;
@@ -34,6 +35,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 import org.springframework.web.reactive.function.client.WebClient;
 
 import java.time.LocalDateTime;
@@ -61,11 +63,13 @@ public class YooKassaPaymentService {
     private final WebClient yooKassaWebClient;
     private final PaymentRepository paymentRepository;
     private final OrderRepository orderRepository;
-    private final OrderStatusRepository orderStatusRepository;
+    private final ReferenceDataService referenceDataService;
     private final ObjectMapper objectMapper;
     private final PaymentMetricsService paymentMetricsService;
     private final PaymentAlertService paymentAlertService;
     private final ApplicationEventPublisher eventPublisher;
+    private final OrderCacheService orderCacheService;
+    private final OutboxService outboxService;
 
     /**
      * Создание платежа через ЮKassa API
@@ -93,7 +97,7 @@ public class YooKassaPaymentService {
         payment.setIdempotenceKey(generateIdempotenceKey());
 
         // Сохраняем платеж
-        payment = paymentRepository.save(payment);
+        payment = savePayment(payment);
 
         try {
             // Записываем метрику создания платежа
@@ -112,10 +116,11 @@ public class YooKassaPaymentService {
             updatePaymentFromYooKassaResponse(payment, response);
 
             // Сохраняем обновленный платеж
-            payment = paymentRepository.save(payment);
+            payment = savePayment(payment);
 
             log.info("✅ Платеж ЮKassa создан успешно: ID={}, YooKassa ID={}",
                     payment.getId(), payment.getYookassaPaymentId());
+            publishPaymentStatusChanged(payment, null);
 
             // Завершаем измерение времени
             PaymentResponse result = mapToPaymentResponse(payment);
@@ -128,7 +133,7 @@ public class YooKassaPaymentService {
             PaymentStatus oldStatus = payment.getStatus();
             payment.setStatus(PaymentStatus.FAILED);
             payment.setErrorMessage(e.getMessage());
-            payment = paymentRepository.save(payment);
+            payment = savePayment(payment);
 
             // Записываем метрику изменения статуса
             paymentMetricsService.recordPaymentStatusChange(payment, oldStatus);
@@ -206,7 +211,7 @@ public class YooKassaPaymentService {
 
             // Обновляем платеж на основе уведомления
             updatePaymentFromYooKassaResponse(payment, paymentObject);
-            payment = paymentRepository.save(payment);
+            payment = savePayment(payment);
 
             log.info("📊 Статус платежа {} изменен: {} → {} (событие: {})",
                     payment.getId(), oldStatus, payment.getStatus(), eventType);
@@ -215,7 +220,7 @@ public class YooKassaPaymentService {
             if (oldStatus != payment.getStatus()) {
                 paymentMetricsService.recordPaymentStatusChange(payment, oldStatus);
                 paymentAlertService.onPaymentStatusChanged(payment, oldStatus);
-                
+                publishPaymentStatusChanged(payment, oldStatus);
             }
 
             // Обрабатываем специфичные события ЮKassa
@@ -234,6 +239,8 @@ public class YooKassaPaymentService {
 
         } catch (Exception e) {
             log.error("❌ Ошибка обработки webhook ЮKassa: {}", e.getMessage(), e);
+            // Платеж не фиксируется без статуса заказа и сообщений outbox: ЮKassa повторит webhook
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             return false;
         }
     }
@@ -320,8 +327,12 @@ public class YooKassaPaymentService {
                     .block();
 
             // Обновляем статус платежа
+            PaymentStatus oldStatus = payment.getStatus();
             updatePaymentFromYooKassaResponse(payment, response);
-            payment = paymentRepository.save(payment);
+            payment = savePayment(payment);
+            if (oldStatus != payment.getStatus()) {
+                publishPaymentStatusChanged(payment, oldStatus);
+            }
 
             log.info("🚫 Платеж {} отменен", payment.getId());
 
@@ -377,11 +388,12 @@ public class YooKassaPaymentService {
             // Обновляем платеж
             PaymentStatus oldStatus = payment.getStatus();
             updatePaymentFromYooKassaResponse(payment, response);
-            payment = paymentRepository.save(payment);
+            payment = savePayment(payment);
 
             if (oldStatus != payment.getStatus()) {
                 log.info("📊 Статус платежа {} обновлен: {} → {}",
                         payment.getId(), oldStatus, payment.getStatus());
+                publishPaymentStatusChanged(payment, oldStatus);
 
                 // Обновляем статус заказа при успешной оплате
                 if (payment.getStatus() == PaymentStatus.SUCCEEDED && oldStatus != PaymentStatus.SUCCEEDED) {
@@ -635,77 +647,78 @@ public class YooKassaPaymentService {
         }
     }
 
+    /**
+     * Сохраняет платеж и инвалидирует кэш его заказа: OrderDTO содержит статус последнего платежа
+     */
+    private Payment savePayment(Payment payment) {
+        Payment saved = paymentRepository.save(payment);
+        orderCacheService.evictOrder(saved.getOrder());
+        return saved;
+    }
+
+    /**
+     * Событие для потока заказа и списка активных заказов; доставляется после фиксации транзакции.
+     * Для нового платежа oldStatus - null.
+     */
+    private void publishPaymentStatusChanged(Payment payment, PaymentStatus oldStatus) {
+        eventPublisher.publishEvent(new PaymentStatusChangedEvent(this, payment.getOrder().getId(),
+                oldStatus, payment.getStatus()));
+    }
+
+    /**
+     * Перевод заказа в CONFIRMED/PAID и запись ORDER_PAID в outbox.
+     * Ошибка пробрасывается: иначе оплата зафиксировалась бы без уведомлений и выгрузки заказа
+     */
     private void updateOrderStatusAfterPayment(Order order) {
-        try {
-            log.info("💰 Заказ {} успешно оплачен через ЮКассу", order.getId());
+        log.info("💰 Заказ {} успешно оплачен через ЮКассу", order.getId());
 
-            // Находим статус "CONFIRMED" для оплаченного заказа
-            Optional<OrderStatus> paidStatusOpt = orderStatusRepository.findByName("CONFIRMED");
-            if (paidStatusOpt.isPresent()) {
+        // Находим статус "CONFIRMED" для оплаченного заказа
+        Optional<OrderStatus> paidStatusOpt = referenceDataService.statusReference("CONFIRMED");
+        if (paidStatusOpt.isPresent()) {
+            String oldStatusName = referenceDataService.findStatus(order.getStatus().getId())
+                    .map(OrderStatus::getName)
+                    .orElse(null);
+            // Заказ, который администратор уже продвинул дальше, не возвращается в CONFIRMED
+            if (OrderStatusTransitions.isAllowed(oldStatusName, "CONFIRMED")) {
                 order.setStatus(paidStatusOpt.get());
+                eventPublisher.publishEvent(new OrderStatusChangedEvent(this, order, oldStatusName, "CONFIRMED"));
                 log.info("📋 Статус заказа {} изменен на CONFIRMED", order.getId());
             } else {
-                log.warn("⚠️ Статус CONFIRMED не найден в БД");
+                log.info("📋 Заказ {} уже в статусе {}, статус заказа не меняется", order.getId(), oldStatusName);
             }
+        } else {
+            log.warn("⚠️ Статус CONFIRMED не найден в БД");
+        }
+        
+        // Устанавливаем способ оплаты на основе платежа
+        List<Payment> payments = paymentRepository.findByOrderIdOrderByCreatedAtDesc(order.getId().longValue());
+        if (!payments.isEmpty()) {
+            Payment successfulPayment = payments.stream()
+                .filter(p -> p.getStatus() == PaymentStatus.SUCCEEDED)
+                .findFirst()
+                .orElse(null);
             
-            // Устанавливаем способ оплаты на основе платежа
-            List<Payment> payments = paymentRepository.findByOrderIdOrderByCreatedAtDesc(order.getId().longValue());
-            if (!payments.isEmpty()) {
-                Payment successfulPayment = payments.stream()
-                    .filter(p -> p.getStatus() == PaymentStatus.SUCCEEDED)
-                    .findFirst()
-                    .orElse(null);
-                
-                if (successfulPayment != null) {
-                    // Устанавливаем способ оплаты из платежа (уже PaymentMethod enum)
-                    order.setPaymentMethod(successfulPayment.getMethod());
-                    // Устанавливаем статус оплаты как PAID
-                    order.setPaymentStatus(OrderPaymentStatus.PAID);
-                    log.info("💳 Заказ {} - установлен способ оплаты: {}, статус оплаты: PAID", order.getId(), successfulPayment.getMethod());
-                }
-            }
-            
-            // Обновляем время изменения
-            order.setUpdatedAt(LocalDateTime.now());
-            
-            // Сохраняем изменения заказа
-            Order updatedOrder = orderRepository.save(order);
-            log.info("✅ Статус заказа {} обновлен на CONFIRMED, способ оплаты: {}", 
-                    order.getId(), updatedOrder.getPaymentMethod());
-
-            // Публикуем событие об изменении статуса платежа для Google Sheets
-            try {
-                eventPublisher.publishEvent(new PaymentStatusChangedEvent(this, updatedOrder.getId(), 
-                    PaymentStatus.PENDING, PaymentStatus.SUCCEEDED));
-                log.info("✅ Событие изменения статуса платежа для заказа #{} опубликовано", updatedOrder.getId());
-            } catch (Exception e) {
-                log.error("❌ Ошибка публикации события изменения статуса платежа для заказа #{}: {}", 
-                    updatedOrder.getId(), e.getMessage(), e);
-            }
-
-            // Публикуем событие о простом уведомлении для админов и пользователя
-            try {
-                eventPublisher.publishEvent(new PaymentSuccessNotificationEvent(this, updatedOrder));
-                log.info("✅ Событие простого уведомления об оплате заказа #{} опубликовано", updatedOrder.getId());
-            } catch (Exception e) {
-                log.error("❌ Ошибка публикации события простого уведомления об оплате заказа #{}: {}", updatedOrder.getId(), e.getMessage());
+            if (successfulPayment != null) {
+                // Устанавливаем способ оплаты из платежа (уже PaymentMethod enum)
+                order.setPaymentMethod(successfulPayment.getMethod());
+                // Устанавливаем статус оплаты как PAID
+                order.setPaymentStatus(OrderPaymentStatus.PAID);
+                log.info("💳 Заказ {} - установлен способ оплаты: {}, статус оплаты: PAID", order.getId(), successfulPayment.getMethod());
             }
-
-            // Публикуем событие о новом заказе для админского бота
-            // Поскольку платеж завершен, AdminBotService.hasActivePendingPayments() вернет false
-            // и уведомление будет отправлено в бот
-            try {
-                eventPublisher.publishEvent(new NewOrderEvent(this, updatedOrder));
-                log.info("✅ Событие о успешно оплаченном заказе #{} опубликовано", updatedOrder.getId());
-            } catch (Exception e) {
-                log.error("❌ Ошибка публикации события для заказа #{}: {}", updatedOrder.getId(), e.getMessage(), e);
-                // Не прерываем выполнение, так как основная функция платежа выполнена
-            }
-
-        } catch (Exception e) {
-            log.error("❌ Ошибка обновления статуса заказа #{}: {}", order.getId(), e.getMessage(), e);
-            // Не пробрасываем исключение, чтобы не нарушить обработку webhook
         }
+        
+        // Обновляем время изменения
+        order.setUpdatedAt(LocalDateTime.now());
+        
+        // Сохраняем изменения заказа
+        Order updatedOrder = orderRepository.save(order);
+        orderCacheService.evictOrder(updatedOrder);
+        log.info("✅ Статус заказа {} обновлен на CONFIRMED, способ оплаты: {}", 
+                order.getId(), updatedOrder.getPaymentMethod());
+
+        // Уведомления администраторам и пользователю, обновление Google Sheets
+        // доставляются из outbox после фиксации транзакции
+        outboxService.enqueue(OutboxMessage.EventType.ORDER_PAID, updatedOrder.getId(), null);
     }
 
     private PaymentResponse mapToPaymentResponse(Payment payment) {
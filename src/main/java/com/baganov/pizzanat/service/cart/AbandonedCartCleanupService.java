@@ -0,0 +1,114 @@
+/**
+ * @file: AbandonedCartCleanupService.java
+ * @description: Периодическое удаление брошенных корзин сессий из БД пакетами
+ * @dependencies: PersistentCartService, CartStoreProperties, Micrometer
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service.cart;
+
+import com.baganov.pizzanat.config.CartStoreProperties;
+import com.baganov.pizzanat.service.cart.PersistentCartService.ExpiredCartsBatch;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Корзины гостей хранятся в SessionCartStore, но корзины сессий, сохраненные в БД ранее,
+ * удалялись только при слиянии с корзиной пользователя. Задача удаляет корзины, которые
+ * не менялись дольше app.cart.retention.ttl: каждый пакет - отдельная короткая транзакция,
+ * между пакетами - пауза, число пакетов за запуск ограничено.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "app.cart.retention.enabled", havingValue = "true", matchIfMissing = true)
+public class AbandonedCartCleanupService {
+
+    private final PersistentCartService persistentCartService;
+    private final CartStoreProperties.Retention retention;
+    private final Counter cartsDeleted;
+    private final Counter itemsDeleted;
+    private final Timer runTimer;
+
+    public AbandonedCartCleanupService(PersistentCartService persistentCartService,
+            CartStoreProperties properties,
+            MeterRegistry meterRegistry) {
+        this.persistentCartService = persistentCartService;
+        this.retention = properties.getRetention();
+        this.cartsDeleted = Counter.builder("cart.retention.carts.deleted")
+                .description("Удалено брошенных корзин сессий")
+                .register(meterRegistry);
+        this.itemsDeleted = Counter.builder("cart.retention.items.deleted")
+                .description("Удалено позиций брошенных корзин сессий")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("cart.retention.run.time")
+                .description("Время удаления брошенных корзин за один запуск")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Ежедневно в 4:30 - в период минимальной нагрузки
+     */
+    @Scheduled(cron = "${app.cart.retention.cron:0 30 4 * * *}")
+    public void cleanupAbandonedCarts() {
+        try {
+            runTimer.record(() -> {
+                deleteExpiredCarts();
+            });
+        } catch (Exception e) {
+            log.error("Ошибка при удалении брошенных корзин сессий: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @return число удаленных корзин
+     */
+    int deleteExpiredCarts() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention.getTtl());
+        long startTime = System.currentTimeMillis();
+        int totalCarts = 0;
+        int totalItems = 0;
+        int batches = 0;
+
+        while (batches < retention.getMaxBatchesPerRun()) {
+            ExpiredCartsBatch batch = persistentCartService.deleteExpiredSessionCarts(cutoff,
+                    retention.getBatchSize());
+            batches++;
+            totalCarts += batch.carts();
+            totalItems += batch.items();
+            cartsDeleted.increment(batch.carts());
+            itemsDeleted.increment(batch.items());
+
+            if (batch.carts() < retention.getBatchSize() || !pause()) {
+                break;
+            }
+        }
+
+        if (totalCarts > 0) {
+            log.info("Удалено брошенных корзин сессий: {} (позиций: {}) за {} мс, пакетов: {}",
+                    totalCarts, totalItems, System.currentTimeMillis() - startTime, batches);
+        } else {
+            log.debug("Брошенных корзин сессий старше {} не найдено", cutoff);
+        }
+        return totalCarts;
+    }
+
+    private boolean pause() {
+        if (retention.getPause().isZero()) {
+            return true;
+        }
+        try {
+            Thread.sleep(retention.getPause().toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Удаление брошенных корзин прервано");
+            return false;
+        }
+    }
+}
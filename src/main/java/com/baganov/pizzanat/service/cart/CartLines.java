@@ -0,0 +1,36 @@
+/**
+ * @file: CartLines.java
+ * @description: Состав корзины из БД без цен: количество и ID строки cart_items по продуктам
+ * @dependencies: Cart
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service.cart;
+
+import com.baganov.pizzanat.entity.Cart;
+import com.baganov.pizzanat.entity.CartItem;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Цены и итоги по составу считает CartPricingService по снимку каталога,
+ * поэтому корзины из БД и корзины сессий отображаются одинаково.
+ */
+public record CartLines(Integer cartId, String sessionId, Map<Integer, Integer> quantities,
+        Map<Integer, Integer> itemIds) {
+
+    public static CartLines empty() {
+        return new CartLines(null, null, Map.of(), Map.of());
+    }
+
+    public static CartLines of(Cart cart) {
+        Map<Integer, Integer> quantities = new LinkedHashMap<>();
+        Map<Integer, Integer> itemIds = new LinkedHashMap<>();
+        for (CartItem item : cart.getItems()) {
+            Integer productId = item.getProduct().getId();
+            quantities.merge(productId, item.getQuantity(), Integer::sum);
+            itemIds.putIfAbsent(productId, item.getId());
+        }
+        return new CartLines(cart.getId(), cart.getSessionId(), quantities, itemIds);
+    }
+}
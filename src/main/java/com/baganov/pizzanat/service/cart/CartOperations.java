@@ -0,0 +1,73 @@
+/**
+ * @file: CartOperations.java
+ * @description: Проверка и применение операций пакетного изменения корзины
+ * @dependencies: CartOperation
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service.cart;
+
+import com.baganov.pizzanat.model.dto.cart.CartOperation;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Общие правила для корзин в БД и в хранилище сессий
+ */
+public final class CartOperations {
+
+    private CartOperations() {
+    }
+
+    /**
+     * Проверяет параметры операций до начала изменений, чтобы пакет не применялся частично
+     */
+    public static void validate(List<CartOperation> operations) {
+        for (CartOperation operation : operations) {
+            Integer quantity = operation.getQuantity();
+            switch (operation.getOp()) {
+                case ADD -> {
+                    if (quantity == null || quantity < 1) {
+                        throw new IllegalArgumentException(
+                                "Для ADD количество должно быть положительным (продукт " + operation.getProductId() + ")");
+                    }
+                }
+                case SET -> {
+                    if (quantity == null || quantity < 0) {
+                        throw new IllegalArgumentException(
+                                "Для SET количество обязательно и не может быть отрицательным (продукт "
+                                        + operation.getProductId() + ")");
+                    }
+                }
+                case REMOVE -> {
+                }
+            }
+        }
+    }
+
+    /**
+     * Операция может добавить продукт в корзину (требует проверки доступности продукта)
+     */
+    public static boolean addsQuantity(CartOperation operation) {
+        return operation.getOp() == CartOperation.Type.ADD
+                || (operation.getOp() == CartOperation.Type.SET && operation.getQuantity() > 0);
+    }
+
+    /**
+     * Применяет операцию к позициям корзины сессии (ID продукта -> количество)
+     */
+    public static void apply(Map<Integer, Integer> items, CartOperation operation) {
+        Integer productId = operation.getProductId();
+        switch (operation.getOp()) {
+            case ADD -> items.merge(productId, operation.getQuantity(), Integer::sum);
+            case SET -> {
+                if (operation.getQuantity() == 0) {
+                    items.remove(productId);
+                } else {
+                    items.put(productId, operation.getQuantity());
+                }
+            }
+            case REMOVE -> items.remove(productId);
+        }
+    }
+}
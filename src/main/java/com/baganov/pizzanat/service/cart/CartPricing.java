@@ -0,0 +1,94 @@
+/**
+ * @file: CartPricing.java
+ * @description: Накопленные итоги одной корзины с пересчетом только изменившихся позиций
+ * @dependencies: CatalogSnapshot, PricedLine
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service.cart;
+
+import com.baganov.pizzanat.dto.ProductDto;
+import com.baganov.pizzanat.service.catalog.CatalogSnapshot;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Итоги обновляются по разнице между рассчитанным и новым составом корзины: суммы строк
+ * считаются заново только для добавленных и изменившихся позиций, удаленные вычитаются из итогов.
+ * При смене версии снимка каталога цены могли измениться, поэтому все позиции пересчитываются.
+ */
+final class CartPricing {
+
+    private final Map<Integer, PricedLine> lines = new HashMap<>();
+    private long catalogVersion = -1;
+    private BigDecimal itemsAmount = BigDecimal.ZERO;
+    private BigDecimal baseAmount = BigDecimal.ZERO;
+    private int itemsCount;
+    private volatile String deliveryAddress;
+
+    synchronized PricedCart update(CatalogSnapshot snapshot, Map<Integer, Integer> quantities) {
+        if (snapshot.getVersion() != catalogVersion) {
+            lines.clear();
+            itemsAmount = BigDecimal.ZERO;
+            baseAmount = BigDecimal.ZERO;
+            itemsCount = 0;
+            catalogVersion = snapshot.getVersion();
+        }
+
+        for (Iterator<Map.Entry<Integer, PricedLine>> it = lines.entrySet().iterator(); it.hasNext();) {
+            Map.Entry<Integer, PricedLine> entry = it.next();
+            if (!quantities.containsKey(entry.getKey())) {
+                subtract(entry.getValue());
+                it.remove();
+            }
+        }
+
+        List<PricedLine> result = new ArrayList<>(quantities.size());
+        for (Map.Entry<Integer, Integer> entry : quantities.entrySet()) {
+            Integer productId = entry.getKey();
+            int quantity = entry.getValue();
+            PricedLine line = lines.get(productId);
+            if (line == null || line.quantity() != quantity) {
+                if (line != null) {
+                    subtract(line);
+                }
+                Optional<ProductDto> product = snapshot.findProduct(productId);
+                if (product.isEmpty()) {
+                    lines.remove(productId);
+                    continue;
+                }
+                line = PricedLine.of(product.get(), quantity);
+                lines.put(productId, line);
+                add(line);
+            }
+            result.add(line);
+        }
+
+        return new PricedCart(List.copyOf(result), itemsAmount, baseAmount, itemsCount, null, null);
+    }
+
+    String getDeliveryAddress() {
+        return deliveryAddress;
+    }
+
+    void setDeliveryAddress(String deliveryAddress) {
+        this.deliveryAddress = deliveryAddress;
+    }
+
+    private void add(PricedLine line) {
+        itemsAmount = itemsAmount.add(line.subtotal());
+        baseAmount = baseAmount.add(line.baseSubtotal());
+        itemsCount += line.quantity();
+    }
+
+    private void subtract(PricedLine line) {
+        itemsAmount = itemsAmount.subtract(line.subtotal());
+        baseAmount = baseAmount.subtract(line.baseSubtotal());
+        itemsCount -= line.quantity();
+    }
+}
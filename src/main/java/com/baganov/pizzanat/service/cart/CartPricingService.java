@@ -0,0 +1,148 @@
+/**
+ * @file: CartPricingService.java
+ * @description: Итоги корзин и стоимость доставки с инкрементальным пересчетом
+ * @dependencies: CatalogSnapshotService, DeliveryZoneService, RussianAddressParser, Caffeine, CartStoreProperties
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service.cart;
+
+import com.baganov.pizzanat.config.CartStoreProperties;
+import com.baganov.pizzanat.service.DeliveryZoneService;
+import com.baganov.pizzanat.service.DeliveryZoneService.DeliveryCalculationResult;
+import com.baganov.pizzanat.service.DeliveryZoneService.DeliveryQuote;
+import com.baganov.pizzanat.service.catalog.CatalogSnapshotService;
+import com.baganov.pizzanat.util.RussianAddressParser;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Для каждой корзины хранятся рассчитанные позиции, итоги и последний известный адрес доставки.
+ * При изменении корзины пересчитываются только изменившиеся позиции (CartPricing).
+ * Тариф зоны кэшируется по версии правил зон и ключу разобранного адреса (ParsedAddress.key()):
+ * поиск зоны выполняется один раз на дом, как бы ни был записан адрес ("ул. Ленина, д. 5",
+ * "Ленина 5, кв. 3"), а стоимость доставки при изменении суммы - сравнение с порогом бесплатной доставки.
+ * Оформление заказа берет суммы и тариф отсюда же: ключ тарифа включает версию правил зон,
+ * поэтому устаревший тариф не применяется.
+ * Состояние хранится в памяти узла и восстанавливается при первом обращении к корзине.
+ */
+@Slf4j
+@Service
+public class CartPricingService {
+
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final DeliveryZoneService deliveryZoneService;
+    private final Cache<String, CartPricing> pricings;
+    private final Cache<String, DeliveryQuote> quotes;
+
+    public CartPricingService(CatalogSnapshotService catalogSnapshotService,
+            DeliveryZoneService deliveryZoneService,
+            CartStoreProperties properties,
+            MeterRegistry meterRegistry) {
+        this.catalogSnapshotService = catalogSnapshotService;
+        this.deliveryZoneService = deliveryZoneService;
+        this.pricings = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSessions())
+                .expireAfterAccess(properties.getSessionTtl())
+                .recordStats()
+                .build();
+        this.quotes = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxDeliveryQuotes())
+                .expireAfterWrite(properties.getDeliveryQuoteTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, pricings, "cartPricing");
+        CaffeineCacheMetrics.monitor(meterRegistry, quotes, "deliveryQuotes");
+    }
+
+    public static String cartKey(String sessionId, Integer userId) {
+        return userId != null ? "user:" + userId : "session:" + sessionId;
+    }
+
+    /**
+     * Итоги корзины с указанным составом. Если состав не изменился с прошлого вызова,
+     * суммы не пересчитываются. Для пустой корзины без адреса состояние не создается.
+     */
+    public PricedCart price(String cartKey, Map<Integer, Integer> quantities) {
+        CartPricing pricing = quantities.isEmpty()
+                ? pricings.getIfPresent(cartKey)
+                : pricings.get(cartKey, key -> new CartPricing());
+        if (pricing == null) {
+            return PricedCart.EMPTY;
+        }
+        PricedCart priced = pricing.update(catalogSnapshotService.getSnapshot(), quantities);
+
+        String address = pricing.getDeliveryAddress();
+        if (address == null) {
+            return priced;
+        }
+        try {
+            return priced.withDelivery(address, quoteDelivery(address));
+        } catch (Exception e) {
+            log.warn("Не удалось определить тариф доставки для адреса '{}': {}", address, e.getMessage());
+            return priced.withDelivery(address, null);
+        }
+    }
+
+    /**
+     * Итоги корзины для оформления заказа с доставкой по адресу заказа (null - без доставки).
+     * Продукты, которых нет и в перестроенном снимке каталога, в итоги не входят.
+     * Ошибка определения тарифа пробрасывается: заказ не оформляется с неизвестной стоимостью доставки.
+     */
+    public PricedCart priceForCheckout(String cartKey, Map<Integer, Integer> quantities, String deliveryAddress) {
+        CartPricing pricing = pricings.get(cartKey, key -> new CartPricing());
+        PricedCart priced = pricing.update(catalogSnapshotService.getSnapshot(), quantities);
+        if (priced.lines().size() < quantities.size()) {
+            // Снимок мог еще не включать продукт, добавленный после его построения
+            priced = pricing.update(catalogSnapshotService.rebuild(), quantities);
+        }
+        return deliveryAddress != null
+                ? priced.withDelivery(deliveryAddress, quoteDelivery(deliveryAddress))
+                : priced;
+    }
+
+    /**
+     * Запоминает адрес доставки корзины для расчета стоимости доставки в итогах
+     */
+    public void setDeliveryAddress(String cartKey, String address) {
+        pricings.get(cartKey, key -> new CartPricing()).setDeliveryAddress(address);
+    }
+
+    /**
+     * Переносит адрес доставки корзины сессии в корзину пользователя, если у нее адреса нет
+     */
+    public void transfer(String fromCartKey, String toCartKey) {
+        CartPricing from = pricings.getIfPresent(fromCartKey);
+        pricings.invalidate(fromCartKey);
+        if (from == null || from.getDeliveryAddress() == null) {
+            return;
+        }
+        CartPricing to = pricings.get(toCartKey, key -> new CartPricing());
+        if (to.getDeliveryAddress() == null) {
+            to.setDeliveryAddress(from.getDeliveryAddress());
+        }
+    }
+
+    /**
+     * Тариф зоны доставки для адреса; зона определяется один раз на дом в пределах TTL кэша.
+     * Ключ включает версию правил зон: после изменения зон, улиц или ключевых слов тариф
+     * определяется заново, а записи прежней версии вытесняются по размеру и TTL
+     */
+    public DeliveryQuote quoteDelivery(String address) {
+        String key = deliveryZoneService.getMatcherVersion() + "|" + RussianAddressParser.parse(address).key();
+        return quotes.get(key, k -> deliveryZoneService.quoteDelivery(address));
+    }
+
+    /**
+     * То же, что DeliveryZoneService.calculateDelivery, но с тарифом из кэша
+     */
+    public DeliveryCalculationResult calculateDelivery(String address, BigDecimal orderAmount) {
+        return quoteDelivery(address).calculate(address, orderAmount);
+    }
+}
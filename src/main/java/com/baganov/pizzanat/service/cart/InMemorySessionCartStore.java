@@ -0,0 +1,64 @@
+/**
+ * @file: InMemorySessionCartStore.java
+ * @description: Хранилище корзин сессий в памяти узла (Caffeine с TTL)
+ * @dependencies: Caffeine, Micrometer, CartStoreProperties
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service.cart;
+
+import com.baganov.pizzanat.config.CartStoreProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Подходит для одного узла: корзины гостей теряются при перезапуске.
+ * Изменения атомарны в пределах сессии - сохраненный экземпляр не изменяется,
+ * вместо него записывается измененная копия.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.cart.store", havingValue = "memory", matchIfMissing = true)
+public class InMemorySessionCartStore implements SessionCartStore {
+
+    private final Cache<String, SessionCart> carts;
+
+    public InMemorySessionCartStore(CartStoreProperties properties, MeterRegistry meterRegistry) {
+        this.carts = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSessions())
+                .expireAfterAccess(properties.getSessionTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, carts, "sessionCarts");
+        log.info("Корзины сессий хранятся в памяти (TTL: {}, максимум: {})",
+                properties.getSessionTtl(), properties.getMaxSessions());
+    }
+
+    @Override
+    public Optional<SessionCart> find(String sessionId) {
+        return Optional.ofNullable(carts.getIfPresent(sessionId));
+    }
+
+    @Override
+    public SessionCart update(String sessionId, Consumer<SessionCart> mutation) {
+        return carts.asMap().compute(sessionId, (id, existing) -> {
+            SessionCart cart = existing != null ? existing.copy() : SessionCart.create(id);
+            mutation.accept(cart);
+            cart.setUpdatedAt(LocalDateTime.now());
+            return cart;
+        });
+    }
+
+    @Override
+    public void delete(String sessionId) {
+        carts.invalidate(sessionId);
+    }
+}
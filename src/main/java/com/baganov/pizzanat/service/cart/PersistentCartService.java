@@ -0,0 +1,285 @@
+/**
+ * @file: PersistentCartService.java
+ * @description: Корзины в БД (carts/cart_items): корзины пользователей и перенос корзин сессий
+ * @dependencies: CartRepository, UserRepository, ProductRepository
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service.cart;
+
+import com.baganov.pizzanat.entity.Cart;
+import com.baganov.pizzanat.entity.CartItem;
+import com.baganov.pizzanat.entity.Product;
+import com.baganov.pizzanat.entity.User;
+import com.baganov.pizzanat.model.dto.cart.CartOperation;
+import com.baganov.pizzanat.repository.CartRepository;
+import com.baganov.pizzanat.repository.ProductRepository;
+import com.baganov.pizzanat.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PersistentCartService {
+
+    private final CartRepository cartRepository;
+    private final UserRepository userRepository;
+    private final ProductRepository productRepository;
+
+    @Transactional(readOnly = true)
+    public CartLines getCart(Integer userId) {
+        return cartRepository.findByUserId(userId)
+                .map(CartLines::of)
+                .orElseGet(CartLines::empty);
+    }
+
+    @Transactional
+    public CartLines addToCart(Integer userId, Integer productId, Integer quantity) {
+        Cart cart = findOrCreateCart(userId);
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new IllegalArgumentException("Продукт не найден с ID: " + productId));
+
+        if (!product.isAvailable()) {
+            throw new IllegalArgumentException("Продукт недоступен");
+        }
+
+        addItem(cart, product, quantity);
+
+        cartRepository.save(cart);
+        return CartLines.of(cart);
+    }
+
+    @Transactional
+    public CartLines updateCartItem(Integer userId, Integer productId, Integer quantity) {
+        Cart cart = findOrCreateCart(userId);
+
+        CartItem item = findItem(cart, productId)
+                .orElseThrow(() -> new IllegalArgumentException("Товар не найден в корзине"));
+
+        if (quantity <= 0) {
+            cart.removeItem(item);
+        } else {
+            item.setQuantity(quantity);
+        }
+
+        cartRepository.save(cart);
+        return CartLines.of(cart);
+    }
+
+    @Transactional
+    public CartLines removeFromCart(Integer userId, Integer productId) {
+        Cart cart = findOrCreateCart(userId);
+
+        CartItem item = findItem(cart, productId)
+                .orElseThrow(() -> new IllegalArgumentException("Товар не найден в корзине"));
+
+        cart.removeItem(item);
+        cartRepository.save(cart);
+        return CartLines.of(cart);
+    }
+
+    @Transactional
+    public void clearCart(Integer userId) {
+        Cart cart = findOrCreateCart(userId);
+        cart.clearItems();
+        cartRepository.save(cart);
+    }
+
+    /**
+     * Применяет пакет операций в одной транзакции: корзина загружается и сохраняется один раз,
+     * продукты для добавления - одним запросом. Операции должны быть предварительно проверены
+     * (CartOperations.validate); при ошибке в любой операции транзакция откатывается целиком.
+     */
+    @Transactional
+    public CartLines applyOperations(Integer userId, List<CartOperation> operations) {
+        Cart cart = findOrCreateCart(userId);
+
+        Set<Integer> addedProductIds = operations.stream()
+                .filter(CartOperations::addsQuantity)
+                .map(CartOperation::getProductId)
+                .collect(Collectors.toSet());
+        Map<Integer, Product> products = addedProductIds.isEmpty()
+                ? Map.of()
+                : productRepository.findAllById(addedProductIds).stream()
+                        .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        for (CartOperation operation : operations) {
+            Integer productId = operation.getProductId();
+            CartItem item = cart.findItem(productId);
+            switch (operation.getOp()) {
+                case ADD -> addItem(cart, availableProduct(products, productId), operation.getQuantity());
+                case SET -> {
+                    if (operation.getQuantity() == 0) {
+                        if (item != null) {
+                            cart.removeItem(item);
+                        }
+                    } else {
+                        // Как для корзины сессии: положительное количество требует доступного продукта,
+                        // даже если позиция уже в корзине
+                        Product product = availableProduct(products, productId);
+                        if (item != null) {
+                            item.setQuantity(operation.getQuantity());
+                        } else {
+                            addItem(cart, product, operation.getQuantity());
+                        }
+                    }
+                }
+                case REMOVE -> {
+                    if (item != null) {
+                        cart.removeItem(item);
+                    }
+                }
+            }
+        }
+
+        cartRepository.save(cart);
+        return CartLines.of(cart);
+    }
+
+    /**
+     * Переносит товары корзины сессии в корзину пользователя.
+     * Также переносится корзина сессии, сохраненная в БД до появления хранилища сессий.
+     */
+    @Transactional
+    public void mergeIntoUserCart(Integer userId, Map<Integer, Integer> sessionItems, String sessionId) {
+        Optional<Cart> legacyCart = cartRepository.findBySessionId(sessionId);
+        boolean hasLegacyItems = legacyCart.isPresent() && !legacyCart.get().getItems().isEmpty();
+        if (sessionItems.isEmpty() && !hasLegacyItems) {
+            legacyCart.ifPresent(cartRepository::delete);
+            return;
+        }
+
+        Cart userCart = findOrCreateCart(userId);
+
+        if (!sessionItems.isEmpty()) {
+            Map<Integer, Product> products = productRepository.findAllById(sessionItems.keySet()).stream()
+                    .collect(Collectors.toMap(Product::getId, Function.identity()));
+            sessionItems.forEach((productId, quantity) -> {
+                Product product = products.get(productId);
+                if (product != null) {
+                    addItem(userCart, product, quantity);
+                } else {
+                    log.warn("Продукт {} из корзины сессии {} не найден, пропускаем", productId, sessionId);
+                }
+            });
+        }
+
+        if (legacyCart.isPresent()) {
+            for (CartItem anonymousItem : legacyCart.get().getItems()) {
+                addItem(userCart, anonymousItem.getProduct(), anonymousItem.getQuantity());
+            }
+            cartRepository.delete(legacyCart.get());
+        }
+
+        cartRepository.save(userCart);
+    }
+
+    /**
+     * Корзина сессии в виде несохраняемой сущности для оформления заказа.
+     * Продукты загружаются одним запросом; отсутствующие в БД пропускаются.
+     */
+    @Transactional(readOnly = true)
+    public Cart toTransientCart(SessionCart sessionCart) {
+        Map<Integer, Product> products = productRepository.findAllById(sessionCart.getItems().keySet()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        Cart cart = Cart.builder()
+                .sessionId(sessionCart.getSessionId())
+                .build();
+        sessionCart.getItems().forEach((productId, quantity) -> {
+            Product product = products.get(productId);
+            if (product != null) {
+                cart.addItem(CartItem.builder()
+                        .product(product)
+                        .quantity(quantity)
+                        .build());
+            }
+        });
+        return cart;
+    }
+
+    /**
+     * Корзина сессии, сохраненная в БД до появления хранилища сессий
+     */
+    @Transactional(readOnly = true)
+    public Optional<Cart> findLegacySessionCart(String sessionId) {
+        return cartRepository.findBySessionId(sessionId);
+    }
+
+    /**
+     * Удаляет один пакет брошенных корзин сессий и их позиций тремя запросами по множеству строк
+     *
+     * @return число удаленных корзин и позиций; корзин меньше batchSize - больше удалять нечего
+     */
+    @Transactional
+    public ExpiredCartsBatch deleteExpiredSessionCarts(LocalDateTime cutoff, int batchSize) {
+        List<Integer> cartIds = cartRepository.findExpiredSessionCartIds(cutoff, PageRequest.of(0, batchSize));
+        if (cartIds.isEmpty()) {
+            return new ExpiredCartsBatch(0, 0);
+        }
+        int items = cartRepository.deleteItemsByCartIdIn(cartIds);
+        int carts = cartRepository.deleteByIdIn(cartIds);
+        return new ExpiredCartsBatch(carts, items);
+    }
+
+    public record ExpiredCartsBatch(int carts, int items) {
+    }
+
+    private static Product availableProduct(Map<Integer, Product> products, Integer productId) {
+        Product product = products.get(productId);
+        if (product == null) {
+            throw new IllegalArgumentException("Продукт не найден с ID: " + productId);
+        }
+        if (!product.isAvailable()) {
+            throw new IllegalArgumentException("Продукт недоступен");
+        }
+        return product;
+    }
+
+    private void addItem(Cart cart, Product product, Integer quantity) {
+        Optional<CartItem> existingItem = findItem(cart, product.getId());
+
+        if (existingItem.isPresent()) {
+            CartItem item = existingItem.get();
+            item.setQuantity(item.getQuantity() + quantity);
+        } else {
+            CartItem newItem = CartItem.builder()
+                    .cart(cart)
+                    .product(product)
+                    .quantity(quantity)
+                    .build();
+            cart.addItem(newItem);
+        }
+    }
+
+    private Optional<CartItem> findItem(Cart cart, Integer productId) {
+        return Optional.ofNullable(cart.findItem(productId));
+    }
+
+    private Cart findOrCreateCart(Integer userId) {
+        return cartRepository.findByUserId(userId)
+                .orElseGet(() -> createCartForUser(userId));
+    }
+
+    private Cart createCartForUser(Integer userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new IllegalArgumentException("Пользователь не найден с ID: " + userId));
+
+        Cart cart = Cart.builder()
+                .user(user)
+                .build();
+
+        return cartRepository.save(cart);
+    }
+}
@@ -0,0 +1,37 @@
+/**
+ * @file: PricedCart.java
+ * @description: Итоги корзины и доставка для последнего известного адреса
+ * @dependencies: PricedLine, DeliveryZoneService.DeliveryQuote
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service.cart;
+
+import com.baganov.pizzanat.service.DeliveryZoneService.DeliveryQuote;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * @param lines           позиции в порядке корзины; продукты, удаленные из каталога, пропущены
+ * @param itemsAmount     сумма товаров со скидками
+ * @param baseAmount      сумма товаров без скидок
+ * @param deliveryAddress последний известный адрес доставки (null, если не указан)
+ * @param deliveryQuote   тариф зоны для этого адреса (null, если адрес не указан или зона не определена)
+ */
+public record PricedCart(List<PricedLine> lines, BigDecimal itemsAmount, BigDecimal baseAmount, int itemsCount,
+        String deliveryAddress, DeliveryQuote deliveryQuote) {
+
+    static final PricedCart EMPTY = new PricedCart(List.of(), BigDecimal.ZERO, BigDecimal.ZERO, 0, null, null);
+
+    public BigDecimal discountAmount() {
+        return baseAmount.subtract(itemsAmount);
+    }
+
+    public BigDecimal deliveryCost() {
+        return deliveryQuote != null ? deliveryQuote.deliveryCost(itemsAmount) : null;
+    }
+
+    PricedCart withDelivery(String address, DeliveryQuote quote) {
+        return new PricedCart(lines, itemsAmount, baseAmount, itemsCount, address, quote);
+    }
+}
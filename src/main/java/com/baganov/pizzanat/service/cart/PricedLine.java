@@ -0,0 +1,29 @@
+/**
+ * @file: PricedLine.java
+ * @description: Рассчитанная позиция корзины: цены продукта и сумма строки
+ * @dependencies: ProductDto
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service.cart;
+
+import com.baganov.pizzanat.dto.ProductDto;
+
+import java.math.BigDecimal;
+
+/**
+ * @param subtotal     сумма строки по цене со скидкой
+ * @param baseSubtotal сумма строки без скидки
+ */
+public record PricedLine(ProductDto product, int quantity, BigDecimal price, BigDecimal discountedPrice,
+        BigDecimal subtotal, BigDecimal baseSubtotal) {
+
+    static PricedLine of(ProductDto product, int quantity) {
+        BigDecimal price = product.getPrice();
+        BigDecimal discountedPrice = product.getDiscountedPrice() != null
+                ? product.getDiscountedPrice()
+                : price;
+        BigDecimal multiplier = BigDecimal.valueOf(quantity);
+        return new PricedLine(product, quantity, price, discountedPrice,
+                discountedPrice.multiply(multiplier), price.multiply(multiplier));
+    }
+}
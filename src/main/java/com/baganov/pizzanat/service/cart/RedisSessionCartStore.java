@@ -0,0 +1,77 @@
+/**
+ * @file: RedisSessionCartStore.java
+ * @description: Хранилище корзин сессий в Redis для нескольких узлов
+ * @dependencies: Spring Data Redis, Jackson, CartStoreProperties
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service.cart;
+
+import com.baganov.pizzanat.config.CartStoreProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Корзина хранится JSON-строкой с TTL, который продлевается при каждом обращении.
+ * Изменение - чтение, модификация и запись без блокировки: запросы одной сессии
+ * приходят последовательно, при гонке выигрывает последняя запись.
+ * Требует Redis autoconfiguration (в prod она отключена в application.yml).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.cart.store", havingValue = "redis")
+public class RedisSessionCartStore implements SessionCartStore {
+
+    private static final String KEY_PREFIX = "cart:session:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final CartStoreProperties properties;
+
+    @Override
+    public Optional<SessionCart> find(String sessionId) {
+        String json = redisTemplate.opsForValue().getAndExpire(KEY_PREFIX + sessionId, properties.getSessionTtl());
+        return Optional.ofNullable(json).map(this::deserialize);
+    }
+
+    @Override
+    public SessionCart update(String sessionId, Consumer<SessionCart> mutation) {
+        SessionCart cart = find(sessionId).orElseGet(() -> SessionCart.create(sessionId));
+        mutation.accept(cart);
+        cart.setUpdatedAt(LocalDateTime.now());
+        redisTemplate.opsForValue().set(KEY_PREFIX + sessionId, serialize(cart), properties.getSessionTtl());
+        return cart;
+    }
+
+    @Override
+    public void delete(String sessionId) {
+        redisTemplate.delete(KEY_PREFIX + sessionId);
+    }
+
+    private String serialize(SessionCart cart) {
+        try {
+            return objectMapper.writeValueAsString(cart);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось сериализовать корзину сессии " + cart.getSessionId(), e);
+        }
+    }
+
+    private SessionCart deserialize(String json) {
+        try {
+            return objectMapper.readValue(json, SessionCart.class);
+        } catch (JsonProcessingException e) {
+            // Поврежденная запись считается отсутствующей и будет перезаписана
+            log.warn("Не удалось прочитать корзину сессии из Redis: {}", e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/**
+ * @file: SessionCart.java
+ * @description: Корзина анонимной сессии, хранимая вне БД
+ * @dependencies: нет
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service.cart;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Хранит только ID продуктов и количества; цены и названия берутся из снимка каталога
+ * при построении ответа, поэтому корзина не устаревает при изменении цен.
+ */
+@Data
+@NoArgsConstructor
+public class SessionCart {
+
+    private String sessionId;
+
+    /**
+     * ID продукта -> количество, в порядке добавления
+     */
+    private Map<Integer, Integer> items = new LinkedHashMap<>();
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    public static SessionCart create(String sessionId) {
+        SessionCart cart = new SessionCart();
+        cart.setSessionId(sessionId);
+        cart.setCreatedAt(LocalDateTime.now());
+        cart.setUpdatedAt(cart.getCreatedAt());
+        return cart;
+    }
+
+    public SessionCart copy() {
+        SessionCart copy = new SessionCart();
+        copy.setSessionId(sessionId);
+        copy.setItems(new LinkedHashMap<>(items));
+        copy.setCreatedAt(createdAt);
+        copy.setUpdatedAt(updatedAt);
+        return copy;
+    }
+
+    @JsonIgnore
+    public boolean isEmpty() {
+        return items.isEmpty();
+    }
+}
@@ -0,0 +1,28 @@
+/**
+ * @file: SessionCartStore.java
+ * @description: Хранилище корзин анонимных сессий (ключ-значение с TTL)
+ * @dependencies: SessionCart
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service.cart;
+
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Корзины гостей живут в хранилище до входа пользователя или оформления заказа
+ * и не попадают в таблицы carts/cart_items.
+ * Возвращаемые экземпляры не должны изменяться вызывающим кодом - только через update.
+ */
+public interface SessionCartStore {
+
+    Optional<SessionCart> find(String sessionId);
+
+    /**
+     * Применяет изменение к корзине сессии, создавая ее при отсутствии.
+     * Если mutation бросает исключение, сохраненная корзина не меняется.
+     */
+    SessionCart update(String sessionId, Consumer<SessionCart> mutation);
+
+    void delete(String sessionId);
+}
@@ -0,0 +1,112 @@
+/**
+ * @file: CatalogResponseCache.java
+ * @description: Кэш заранее сериализованных ответов каталога, привязанный к версии снимка
+ * @dependencies: CatalogSnapshotService, Jackson
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service.catalog;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Каждый ответ сериализуется и сжимается один раз на версию каталога.
+ * Повторные запросы (включая условные с If-None-Match) отдаются из готовых байтов
+ * без обращения к сервисам и Jackson. При смене версии снимка все записи сбрасываются.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CatalogResponseCache {
+
+    /**
+     * Ограничение на число разных ответов (страниц) на одну версию каталога
+     */
+    private static final int MAX_ENTRIES_PER_VERSION = 256;
+
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final ObjectMapper objectMapper;
+
+    private final AtomicReference<VersionedEntries> entries =
+            new AtomicReference<>(new VersionedEntries(0, new ConcurrentHashMap<>()));
+
+    /**
+     * Готовый ответ для ключа в текущей версии каталога.
+     * body вызывается только при первом обращении к ключу в этой версии.
+     */
+    public EncodedResponse get(String key, Supplier<Object> body) {
+        VersionedEntries current = currentEntries();
+        EncodedResponse cached = current.responses().get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        EncodedResponse encoded = encode(body.get());
+        if (current.responses().size() < MAX_ENTRIES_PER_VERSION) {
+            EncodedResponse existing = current.responses().putIfAbsent(key, encoded);
+            return existing != null ? existing : encoded;
+        }
+        return encoded;
+    }
+
+    private VersionedEntries currentEntries() {
+        long version = catalogSnapshotService.getSnapshot().getVersion();
+        VersionedEntries current = entries.get();
+        // Версия снимка только растет; более новая запись в кэше не заменяется старой
+        while (current.version() < version) {
+            VersionedEntries fresh = new VersionedEntries(version, new ConcurrentHashMap<>());
+            if (entries.compareAndSet(current, fresh)) {
+                log.debug("Кэш ответов каталога сброшен: версия {} -> {}", current.version(), version);
+                return fresh;
+            }
+            current = entries.get();
+        }
+        return current;
+    }
+
+    private EncodedResponse encode(Object body) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            return new EncodedResponse(json, gzip(json), etag(json));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось сериализовать ответ каталога", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static String etag(byte[] data) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(data);
+            return "\"" + HexFormat.of().formatHex(hash, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 недоступен", e);
+        }
+    }
+
+    private record VersionedEntries(long version, Map<String, EncodedResponse> responses) {
+    }
+}
@@ -0,0 +1,164 @@
+/**
+ * @file: CatalogSnapshot.java
+ * @description: Неизменяемый версионированный снимок каталога (продукты и категории)
+ * @dependencies: ProductDto, CategoryDTO, Spring Data
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service.catalog;
+
+import com.baganov.pizzanat.dto.ProductDto;
+import com.baganov.pizzanat.model.dto.product.CategoryDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Снимок каталога, построенный один раз в памяти.
+ * Все списки вычисляются при построении и больше не изменяются,
+ * поэтому снимок можно безопасно читать из любых потоков без блокировок.
+ * DTO внутри снимка разделяются между запросами и не должны изменяться вызывающим кодом.
+ */
+public final class CatalogSnapshot {
+
+    private final long version;
+    private final LocalDateTime builtAt;
+
+    private final Map<Integer, ProductDto> productsById;
+    private final List<ProductDto> allProducts;
+    private final List<ProductDto> availableProducts;
+    private final Map<Integer, List<ProductDto>> productsByCategory;
+    private final List<ProductDto> specialOffers;
+
+    private final Map<Integer, CategoryDTO> categoriesById;
+    private final List<CategoryDTO> activeCategories;
+
+    public CatalogSnapshot(long version, List<ProductDto> products, List<CategoryDTO> categories,
+            Set<Integer> activeCategoryIds) {
+        this.version = version;
+        this.builtAt = LocalDateTime.now();
+
+        Map<Integer, CategoryDTO> categoryIndex = new HashMap<>();
+        for (CategoryDTO category : categories) {
+            categoryIndex.put(category.getId(), category);
+        }
+        this.categoriesById = Map.copyOf(categoryIndex);
+
+        this.activeCategories = categories.stream()
+                .filter(category -> activeCategoryIds.contains(category.getId()))
+                .sorted(Comparator.comparing(CategoryDTO::getDisplayOrder,
+                        Comparator.nullsLast(Comparator.naturalOrder())))
+                .toList();
+
+        // Порядок меню: порядок отображения категории, затем ID продукта
+        Comparator<ProductDto> menuOrder = Comparator
+                .comparing((ProductDto product) -> categoryDisplayOrder(categoryIndex, product))
+                .thenComparing(ProductDto::getId);
+
+        List<ProductDto> sorted = new ArrayList<>(products);
+        sorted.sort(menuOrder);
+        this.allProducts = List.copyOf(sorted);
+
+        Map<Integer, ProductDto> productIndex = new HashMap<>();
+        Map<Integer, List<ProductDto>> byCategory = new LinkedHashMap<>();
+        for (ProductDto product : sorted) {
+            productIndex.put(product.getId(), product);
+            if (product.getCategoryId() != null) {
+                byCategory.computeIfAbsent(product.getCategoryId(), id -> new ArrayList<>()).add(product);
+            }
+        }
+        this.productsById = Map.copyOf(productIndex);
+
+        Map<Integer, List<ProductDto>> frozenByCategory = new LinkedHashMap<>();
+        byCategory.forEach((categoryId, list) -> frozenByCategory.put(categoryId, List.copyOf(list)));
+        this.productsByCategory = Collections.unmodifiableMap(frozenByCategory);
+
+        this.availableProducts = sorted.stream()
+                .filter(ProductDto::isAvailable)
+                .toList();
+
+        this.specialOffers = sorted.stream()
+                .filter(product -> product.isAvailable() && product.isSpecialOffer())
+                .toList();
+    }
+
+    private static int categoryDisplayOrder(Map<Integer, CategoryDTO> categoryIndex, ProductDto product) {
+        CategoryDTO category = product.getCategoryId() != null ? categoryIndex.get(product.getCategoryId()) : null;
+        if (category == null || category.getDisplayOrder() == null) {
+            return Integer.MAX_VALUE;
+        }
+        return category.getDisplayOrder();
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public LocalDateTime getBuiltAt() {
+        return builtAt;
+    }
+
+    public int getProductCount() {
+        return productsById.size();
+    }
+
+    public Optional<ProductDto> findProduct(Integer id) {
+        return Optional.ofNullable(id != null ? productsById.get(id) : null);
+    }
+
+    public Optional<CategoryDTO> findCategory(Integer id) {
+        return Optional.ofNullable(id != null ? categoriesById.get(id) : null);
+    }
+
+    /**
+     * Все продукты (включая недоступные) в порядке меню
+     */
+    public List<ProductDto> getAllProducts() {
+        return allProducts;
+    }
+
+    /**
+     * Доступные продукты в порядке меню
+     */
+    public List<ProductDto> getAvailableProducts() {
+        return availableProducts;
+    }
+
+    /**
+     * Все продукты категории в порядке меню (пустой список для неизвестной категории)
+     */
+    public List<ProductDto> getProductsByCategory(Integer categoryId) {
+        return productsByCategory.getOrDefault(categoryId, List.of());
+    }
+
+    public List<ProductDto> getSpecialOffers() {
+        return specialOffers;
+    }
+
+    public List<CategoryDTO> getActiveCategories() {
+        return activeCategories;
+    }
+
+    /**
+     * Нарезка страницы из предвычисленного списка.
+     * Порядок задается снимком, сортировка из Pageable не применяется.
+     */
+    public static <T> Page<T> page(List<T> source, Pageable pageable) {
+        if (pageable == null || pageable.isUnpaged()) {
+            return new PageImpl<>(source);
+        }
+        int from = (int) Math.min(pageable.getOffset(), source.size());
+        int to = Math.min(from + pageable.getPageSize(), source.size());
+        return new PageImpl<>(source.subList(from, to), pageable, source.size());
+    }
+}
@@ -0,0 +1,132 @@
+/**
+ * @file: CatalogSnapshotService.java
+ * @description: Хранит текущий снимок каталога и атомарно заменяет его при изменениях
+ * @dependencies: ProductRepository, CategoryRepository, ProductMapper, CategoryMapper, ProductSearchIndex
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service.catalog;
+
+import com.baganov.pizzanat.dto.ProductDto;
+import com.baganov.pizzanat.entity.Category;
+import com.baganov.pizzanat.event.CatalogChangedEvent;
+import com.baganov.pizzanat.mapper.CategoryMapper;
+import com.baganov.pizzanat.mapper.ProductMapper;
+import com.baganov.pizzanat.model.dto.product.CategoryDTO;
+import com.baganov.pizzanat.repository.CategoryRepository;
+import com.baganov.pizzanat.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Источник данных каталога для всех читающих эндпоинтов.
+ * Снимок строится из БД при старте и после каждого изменения каталога,
+ * чтения обслуживаются из памяти без обращения к JDBC.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CatalogSnapshotService {
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final ProductMapper productMapper;
+    private final CategoryMapper categoryMapper;
+    private final ProductSearchIndex productSearchIndex;
+
+    private final AtomicReference<CatalogSnapshot> current = new AtomicReference<>();
+
+    /**
+     * Текущий снимок каталога. При первом обращении до старта приложения строится синхронно.
+     */
+    public CatalogSnapshot getSnapshot() {
+        CatalogSnapshot snapshot = current.get();
+        if (snapshot != null) {
+            return snapshot;
+        }
+        synchronized (this) {
+            snapshot = current.get();
+            return snapshot != null ? snapshot : rebuild();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.error("Не удалось построить снимок каталога при старте: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Перестраивает снимок после фиксации транзакции, изменившей каталог.
+     * Если изменен один продукт, поисковый индекс обновляется только для него.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        log.info("Каталог изменен (продукт: {}, причина: {}), перестраиваем снимок",
+                event.getProductId(), event.getReason());
+        try {
+            Integer productId = event.getProductId();
+            if (productId == null) {
+                rebuild();
+                return;
+            }
+            synchronized (this) {
+                CatalogSnapshot snapshot = buildSnapshot();
+                snapshot.findProduct(productId).ifPresentOrElse(
+                        productSearchIndex::upsert,
+                        () -> productSearchIndex.delete(productId));
+            }
+        } catch (Exception e) {
+            log.error("Не удалось перестроить снимок каталога, продолжаем обслуживать версию {}: {}",
+                    current.get() != null ? current.get().getVersion() : null, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Строит новый снимок из БД, атомарно публикует его и полностью перестраивает поисковый индекс
+     */
+    public synchronized CatalogSnapshot rebuild() {
+        CatalogSnapshot snapshot = buildSnapshot();
+        productSearchIndex.rebuild(snapshot.getAllProducts());
+        return snapshot;
+    }
+
+    private CatalogSnapshot buildSnapshot() {
+        long startTime = System.currentTimeMillis();
+
+        List<Category> categories = categoryRepository.findAll();
+        List<CategoryDTO> categoryDTOs = categories.stream()
+                .map(categoryMapper::toDto)
+                .toList();
+        Set<Integer> activeCategoryIds = categories.stream()
+                .filter(category -> Boolean.TRUE.equals(category.getIsActive()))
+                .map(Category::getId)
+                .collect(Collectors.toSet());
+
+        List<ProductDto> products = productRepository.findAllWithCategory().stream()
+                .map(productMapper::toDto)
+                .toList();
+
+        CatalogSnapshot previous = current.get();
+        long version = previous != null ? previous.getVersion() + 1 : 1;
+        CatalogSnapshot snapshot = new CatalogSnapshot(version, products, categoryDTOs, activeCategoryIds);
+        current.set(snapshot);
+
+        log.info("Снимок каталога v{} построен за {} мс: {} продуктов, {} активных категорий",
+                version, System.currentTimeMillis() - startTime, snapshot.getProductCount(),
+                snapshot.getActiveCategories().size());
+        return snapshot;
+    }
+}
@@ -0,0 +1,100 @@
+/**
+ * @file: EncodedResponse.java
+ * @description: Заранее сериализованный и сжатый ответ каталога со строгим ETag
+ * @dependencies: Spring Web
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service.catalog;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * JSON и gzip-представление одного ответа, ETag вычислен по содержимому JSON.
+ * У gzip-представления свой ETag (с суффиксом -gzip): это другие байты, и строгий ETag
+ * не должен совпадать у разных представлений, иначе кэш может отдать сжатое тело клиенту без gzip.
+ */
+public record EncodedResponse(byte[] json, byte[] gzip, String etag) {
+
+    private static final String GZIP_ETAG_SUFFIX = "-gzip";
+
+    /**
+     * ETag gzip-представления: суффикс добавляется внутри кавычек
+     */
+    public String gzipEtag() {
+        return etag.substring(0, etag.length() - 1) + GZIP_ETAG_SUFFIX + "\"";
+    }
+
+    /**
+     * Формирует ответ: 304 при совпадении If-None-Match с ETag выбранного представления,
+     * иначе готовые байты (gzip, если клиент его принимает)
+     */
+    public ResponseEntity<byte[]> toResponseEntity(String ifNoneMatch, String acceptEncoding) {
+        boolean gzipped = acceptsGzip(acceptEncoding);
+        String selectedEtag = gzipped ? gzipEtag() : etag;
+        if (matches(ifNoneMatch, selectedEtag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(selectedEtag)
+                    .cacheControl(CacheControl.noCache())
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .eTag(selectedEtag)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.APPLICATION_JSON);
+
+        if (gzipped) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(gzip);
+        }
+        return builder.body(json);
+    }
+
+    /**
+     * Слабое сравнение ETag по RFC 9110 (для If-None-Match префикс W/ игнорируется)
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (!parts[0].trim().equalsIgnoreCase("gzip")) {
+                continue;
+            }
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim().replace(" ", "");
+                if (param.equals("q=0") || param.equals("q=0.0") || param.equals("q=0.00")
+                        || param.equals("q=0.000")) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+}
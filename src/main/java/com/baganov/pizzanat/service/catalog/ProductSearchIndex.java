@@ -0,0 +1,365 @@
+/**
+ * @file: ProductSearchIndex.java
+ * @description: Инвертированный индекс для полнотекстового поиска продуктов в памяти
+ * @dependencies: RussianStemmer
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service.catalog;
+
+import com.baganov.pizzanat.dto.ProductDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Поиск по названию, описанию и категории доступных продуктов.
+ * <ul>
+ * <li>морфология - слова приводятся к основе стеммером Snowball ("пиццы" находит "пицца");</li>
+ * <li>ввод по мере набора - основа запроса от 3 символов совпадает как префикс;</li>
+ * <li>опечатки - кандидаты подбираются по общим триграммам и проверяются расстоянием Дамерау-Левенштейна;</li>
+ * <li>ранжирование - вес поля (название > категория > описание) x тип совпадения x IDF.</li>
+ * </ul>
+ * Индекс обновляется точечно при изменении продукта, полная перестройка - только при синхронизации каталога.
+ */
+@Slf4j
+@Component
+public class ProductSearchIndex {
+
+    private static final float NAME_WEIGHT = 3.0f;
+    private static final float CATEGORY_WEIGHT = 1.5f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+
+    private static final float EXACT_MATCH = 1.0f;
+    private static final float PREFIX_MATCH = 0.7f;
+    private static final float FUZZY_MATCH = 0.5f;
+
+    private static final int MIN_PREFIX_LENGTH = 3;
+    private static final double MIN_TRIGRAM_SIMILARITY = 0.3;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Основа слова -> (ID продукта -> максимальный вес поля, в котором она встречается)
+     */
+    private final TreeMap<String, Map<Integer, Float>> postings = new TreeMap<>();
+    private final Map<String, Set<String>> trigramTerms = new HashMap<>();
+    private final Map<Integer, IndexedProduct> products = new HashMap<>();
+
+    /**
+     * Полная перестройка индекса по списку продуктов
+     */
+    public void rebuild(Collection<ProductDto> source) {
+        long startTime = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            trigramTerms.clear();
+            products.clear();
+            source.forEach(this::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Поисковый индекс продуктов построен за {} мс: {} продуктов, {} терминов",
+                System.currentTimeMillis() - startTime, size(), termCount());
+    }
+
+    /**
+     * Добавляет или обновляет продукт. Недоступные продукты из индекса удаляются.
+     */
+    public void upsert(ProductDto product) {
+        lock.writeLock().lock();
+        try {
+            remove(product.getId());
+            add(product);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void delete(Integer productId) {
+        lock.writeLock().lock();
+        try {
+            remove(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Запрос без слов для поиска (пустой, из пробелов или знаков препинания)
+     */
+    public static boolean isEmptyQuery(String query) {
+        return analyze(query).isEmpty();
+    }
+
+    /**
+     * ID найденных продуктов в порядке убывания релевантности; для пустого запроса (isEmptyQuery) - пустой список.
+     * В приоритете продукты, совпавшие по всем словам запроса; если таких нет - по любому слову.
+     */
+    public List<Integer> search(String query, Integer categoryId) {
+        List<String> queryTerms = new ArrayList<>(new LinkedHashSet<>(analyze(query)));
+        if (queryTerms.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Integer, Float> scores = new HashMap<>();
+        Map<Integer, Integer> matchedTerms = new HashMap<>();
+        int requiredTerms = 0;
+
+        lock.readLock().lock();
+        try {
+            int total = products.size();
+            for (String term : queryTerms) {
+                Map<Integer, Float> termScores = matchTerm(term, total);
+                if (termScores.isEmpty()) {
+                    continue;
+                }
+                requiredTerms++;
+                termScores.forEach((productId, score) -> {
+                    if (categoryId == null || categoryId.equals(products.get(productId).categoryId())) {
+                        scores.merge(productId, score, Float::sum);
+                        matchedTerms.merge(productId, 1, Integer::sum);
+                    }
+                });
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        int required = requiredTerms;
+        List<Integer> result = scores.keySet().stream()
+                .filter(productId -> matchedTerms.get(productId) == required)
+                .toList();
+        if (result.isEmpty()) {
+            result = List.copyOf(scores.keySet());
+        }
+
+        return result.stream()
+                .sorted(Comparator.comparing((Integer productId) -> scores.get(productId)).reversed()
+                        .thenComparing(Comparator.naturalOrder()))
+                .toList();
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return products.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int termCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(ProductDto product) {
+        if (product.getId() == null || !product.isAvailable()) {
+            return;
+        }
+
+        Map<String, Float> weights = new HashMap<>();
+        analyze(product.getName()).forEach(term -> weights.merge(term, NAME_WEIGHT, Float::max));
+        analyze(product.getCategoryName()).forEach(term -> weights.merge(term, CATEGORY_WEIGHT, Float::max));
+        analyze(product.getDescription()).forEach(term -> weights.merge(term, DESCRIPTION_WEIGHT, Float::max));
+
+        weights.forEach((term, weight) -> {
+            Map<Integer, Float> termPostings = postings.get(term);
+            if (termPostings == null) {
+                termPostings = new HashMap<>();
+                postings.put(term, termPostings);
+                for (String trigram : trigrams(term)) {
+                    trigramTerms.computeIfAbsent(trigram, key -> new HashSet<>()).add(term);
+                }
+            }
+            termPostings.put(product.getId(), weight);
+        });
+
+        products.put(product.getId(), new IndexedProduct(product.getCategoryId(), Set.copyOf(weights.keySet())));
+    }
+
+    private void remove(Integer productId) {
+        IndexedProduct indexed = products.remove(productId);
+        if (indexed == null) {
+            return;
+        }
+        for (String term : indexed.terms()) {
+            Map<Integer, Float> termPostings = postings.get(term);
+            if (termPostings == null) {
+                continue;
+            }
+            termPostings.remove(productId);
+            if (termPostings.isEmpty()) {
+                postings.remove(term);
+                for (String trigram : trigrams(term)) {
+                    Set<String> terms = trigramTerms.get(trigram);
+                    if (terms != null) {
+                        terms.remove(term);
+                        if (terms.isEmpty()) {
+                            trigramTerms.remove(trigram);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Лучшая оценка каждого продукта для одного слова запроса: точное совпадение основы,
+     * совпадение по префиксу, а при отсутствии обоих - нечеткое совпадение
+     */
+    private Map<Integer, Float> matchTerm(String term, int total) {
+        Map<Integer, Float> result = new HashMap<>();
+
+        Map<Integer, Float> exact = postings.get(term);
+        if (exact != null) {
+            accumulate(result, exact, EXACT_MATCH * idf(exact.size(), total));
+        }
+
+        if (term.length() >= MIN_PREFIX_LENGTH) {
+            for (Map<Integer, Float> prefixed : postings.subMap(term, false, term + Character.MAX_VALUE, false)
+                    .values()) {
+                accumulate(result, prefixed, PREFIX_MATCH * idf(prefixed.size(), total));
+            }
+        }
+
+        if (result.isEmpty()) {
+            int maxEdits = maxEdits(term.length());
+            if (maxEdits > 0) {
+                for (String candidate : fuzzyCandidates(term)) {
+                    int distance = editDistance(term, candidate, maxEdits);
+                    if (distance <= maxEdits) {
+                        Map<Integer, Float> fuzzy = postings.get(candidate);
+                        float similarity = 1.0f - (float) distance / (term.length() + 1);
+                        accumulate(result, fuzzy, FUZZY_MATCH * similarity * idf(fuzzy.size(), total));
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private static void accumulate(Map<Integer, Float> result, Map<Integer, Float> termPostings, float factor) {
+        termPostings.forEach((productId, fieldWeight) -> result.merge(productId, fieldWeight * factor, Float::max));
+    }
+
+    private static float idf(int documentFrequency, int total) {
+        return (float) Math.log(1.0 + (double) Math.max(total, 1) / documentFrequency);
+    }
+
+    private static int maxEdits(int length) {
+        if (length < 4) {
+            return 0;
+        }
+        return length < 7 ? 1 : 2;
+    }
+
+    /**
+     * Термины индекса, у которых коэффициент Дайса по триграммам не ниже порога
+     */
+    private List<String> fuzzyCandidates(String term) {
+        Set<String> termTrigrams = trigrams(term);
+        Map<String, Integer> shared = new HashMap<>();
+        for (String trigram : termTrigrams) {
+            Set<String> terms = trigramTerms.get(trigram);
+            if (terms != null) {
+                terms.forEach(candidate -> shared.merge(candidate, 1, Integer::sum));
+            }
+        }
+
+        List<String> candidates = new ArrayList<>();
+        shared.forEach((candidate, count) -> {
+            double dice = 2.0 * count / (termTrigrams.size() + trigrams(candidate).size());
+            if (dice >= MIN_TRIGRAM_SIMILARITY) {
+                candidates.add(candidate);
+            }
+        });
+        return candidates;
+    }
+
+    /**
+     * Разбивает текст на слова и приводит их к основе
+     */
+    static List<String> analyze(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String normalized = text.toLowerCase(Locale.ROOT).replace('ё', 'е');
+        List<String> terms = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= normalized.length(); i++) {
+            boolean letterOrDigit = i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i));
+            if (letterOrDigit && start < 0) {
+                start = i;
+            } else if (!letterOrDigit && start >= 0) {
+                String stem = RussianStemmer.stem(normalized.substring(start, i));
+                if (stem.length() > 1 || Character.isDigit(stem.charAt(0))) {
+                    terms.add(stem);
+                }
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    static Set<String> trigrams(String term) {
+        String padded = "$" + term + "$";
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            result.add(padded.substring(i, i + 3));
+        }
+        return result;
+    }
+
+    /**
+     * Расстояние Дамерау-Левенштейна (с транспозицией соседних символов).
+     * Возвращает maxEdits + 1, как только расстояние заведомо превышает порог.
+     */
+    static int editDistance(String a, String b, int maxEdits) {
+        if (Math.abs(a.length() - b.length()) > maxEdits) {
+            return maxEdits + 1;
+        }
+        int[][] d = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++) {
+            d[i][0] = i;
+        }
+        for (int j = 0; j <= b.length(); j++) {
+            d[0][j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            int rowMin = Integer.MAX_VALUE;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                d[i][j] = Math.min(Math.min(d[i - 1][j] + 1, d[i][j - 1] + 1), d[i - 1][j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    d[i][j] = Math.min(d[i][j], d[i - 2][j - 2] + 1);
+                }
+                rowMin = Math.min(rowMin, d[i][j]);
+            }
+            if (rowMin > maxEdits) {
+                return maxEdits + 1;
+            }
+        }
+        return d[a.length()][b.length()];
+    }
+
+    private record IndexedProduct(Integer categoryId, Set<String> terms) {
+    }
+}
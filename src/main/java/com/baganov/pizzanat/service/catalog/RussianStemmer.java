@@ -0,0 +1,178 @@
+/**
+ * @file: RussianStemmer.java
+ * @description: Стеммер русского языка (алгоритм Snowball/Porter) для поискового индекса
+ * @dependencies: нет
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service.catalog;
+
+/**
+ * Реализация алгоритма Snowball для русского языка.
+ * Ожидает слово в нижнем регистре с заменой "ё" на "е"; латиница и цифры возвращаются как есть.
+ */
+public final class RussianStemmer {
+
+    private static final String[] PERFECTIVE_GERUND_1 = { "вшись", "вши", "в" };
+    private static final String[] PERFECTIVE_GERUND_2 = { "ившись", "ывшись", "ивши", "ывши", "ив", "ыв" };
+
+    private static final String[] ADJECTIVE = {
+            "ими", "ыми", "его", "ого", "ему", "ому",
+            "ее", "ие", "ые", "ое", "ей", "ий", "ый", "ой", "ем", "им", "ым", "ом",
+            "их", "ых", "ую", "юю", "ая", "яя", "ою", "ею" };
+
+    private static final String[] PARTICIPLE_1 = { "ем", "нн", "вш", "ющ", "щ" };
+    private static final String[] PARTICIPLE_2 = { "ивш", "ывш", "ующ" };
+
+    private static final String[] REFLEXIVE = { "ся", "сь" };
+
+    private static final String[] VERB_1 = {
+            "ете", "йте", "ешь", "нно",
+            "ла", "на", "ли", "ем", "ло", "но", "ет", "ют", "ны", "ть",
+            "й", "л", "н" };
+    private static final String[] VERB_2 = {
+            "ейте", "уйте",
+            "ила", "ыла", "ена", "ите", "или", "ыли", "ило", "ыло", "ено", "ует", "уют", "ены", "ить", "ыть",
+            "ишь",
+            "ей", "уй", "ил", "ыл", "им", "ым", "ен", "ят", "ит", "ыт", "ую",
+            "ю" };
+
+    private static final String[] NOUN = {
+            "иями", "ями", "ами", "ией", "иям", "ием", "иях",
+            "ев", "ов", "ие", "ье", "еи", "ии", "ей", "ой", "ий", "ям", "ем", "ам", "ом", "ах", "ях", "ию", "ью",
+            "ия", "ья",
+            "а", "е", "и", "й", "о", "у", "ы", "ь", "ю", "я" };
+
+    private static final String[] SUPERLATIVE = { "ейше", "ейш" };
+    private static final String[] DERIVATIONAL = { "ость", "ост" };
+
+    private RussianStemmer() {
+    }
+
+    public static String stem(String word) {
+        if (word == null || word.length() < 3 || !isCyrillic(word)) {
+            return word;
+        }
+
+        StringBuilder sb = new StringBuilder(word);
+        int rv = regionRv(sb);
+        if (rv >= sb.length()) {
+            return word;
+        }
+        int r2 = regionR(sb, regionR(sb, 0));
+
+        // Шаг 1
+        if (!removeEnding(sb, rv, PERFECTIVE_GERUND_1, true) && !removeEnding(sb, rv, PERFECTIVE_GERUND_2, false)) {
+            removeEnding(sb, rv, REFLEXIVE, false);
+            if (removeEnding(sb, rv, ADJECTIVE, false)) {
+                if (!removeEnding(sb, rv, PARTICIPLE_1, true)) {
+                    removeEnding(sb, rv, PARTICIPLE_2, false);
+                }
+            } else if (!removeEnding(sb, rv, VERB_1, true) && !removeEnding(sb, rv, VERB_2, false)) {
+                removeEnding(sb, rv, NOUN, false);
+            }
+        }
+
+        // Шаг 2
+        if (sb.length() > rv && sb.charAt(sb.length() - 1) == 'и') {
+            sb.setLength(sb.length() - 1);
+        }
+
+        // Шаг 3
+        removeEnding(sb, Math.max(r2, rv), DERIVATIONAL, false);
+
+        // Шаг 4
+        if (endsWith(sb, rv, "нн")) {
+            sb.setLength(sb.length() - 1);
+        } else if (removeEnding(sb, rv, SUPERLATIVE, false)) {
+            if (endsWith(sb, rv, "нн")) {
+                sb.setLength(sb.length() - 1);
+            }
+        } else if (sb.length() > rv && sb.charAt(sb.length() - 1) == 'ь') {
+            sb.setLength(sb.length() - 1);
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Удаляет самое длинное подходящее окончание внутри региона.
+     * Для групп, требующих предшествующей "а"/"я", эта буква остается в слове.
+     */
+    private static boolean removeEnding(StringBuilder sb, int region, String[] endings, boolean precededByAOrYa) {
+        String longest = null;
+        for (String ending : endings) {
+            if ((longest == null || ending.length() > longest.length()) && endsWith(sb, region, ending)) {
+                int start = sb.length() - ending.length();
+                if (precededByAOrYa) {
+                    if (start - 1 < region) {
+                        continue;
+                    }
+                    char previous = sb.charAt(start - 1);
+                    if (previous != 'а' && previous != 'я') {
+                        continue;
+                    }
+                }
+                longest = ending;
+            }
+        }
+        if (longest == null) {
+            return false;
+        }
+        sb.setLength(sb.length() - longest.length());
+        return true;
+    }
+
+    private static boolean endsWith(StringBuilder sb, int region, String ending) {
+        int start = sb.length() - ending.length();
+        if (start < region || start < 0) {
+            return false;
+        }
+        for (int i = 0; i < ending.length(); i++) {
+            if (sb.charAt(start + i) != ending.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * RV - часть слова после первой гласной
+     */
+    private static int regionRv(CharSequence word) {
+        for (int i = 0; i < word.length(); i++) {
+            if (isVowel(word.charAt(i))) {
+                return i + 1;
+            }
+        }
+        return word.length();
+    }
+
+    /**
+     * R1 (или R2 при start = R1) - часть после первой согласной, следующей за гласной
+     */
+    private static int regionR(CharSequence word, int start) {
+        for (int i = start + 1; i < word.length(); i++) {
+            if (!isVowel(word.charAt(i)) && isVowel(word.charAt(i - 1))) {
+                return i + 1;
+            }
+        }
+        return word.length();
+    }
+
+    private static boolean isVowel(char c) {
+        return switch (c) {
+            case 'а', 'е', 'и', 'о', 'у', 'ы', 'э', 'ю', 'я' -> true;
+            default -> false;
+        };
+    }
+
+    private static boolean isCyrillic(String word) {
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+            if (c >= 'а' && c <= 'я') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
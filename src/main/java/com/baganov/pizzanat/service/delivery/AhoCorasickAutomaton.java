@@ -0,0 +1,172 @@
+/**
+ * @file: AhoCorasickAutomaton.java
+ * @description: Автомат Ахо-Корасик для поиска всех вхождений набора строк за один проход по тексту
+ * @dependencies: -
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service.delivery;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Неизменяемый детерминированный автомат: переходы из каждого состояния по каждому символу алфавита
+ * образцов посчитаны при сборке, поэтому поиск - ровно один переход на символ текста, без возвратов
+ * по ссылкам неудачи. Символы, которых нет ни в одном образце, возвращают автомат в корень.
+ * Пустые образцы не добавляются.
+ */
+final class AhoCorasickAutomaton {
+
+    private static final int ROOT = 0;
+    private static final int[] NO_MATCHES = new int[0];
+
+    /**
+     * Код символа -> номер в алфавите образцов или -1
+     */
+    private final int[] alphabet;
+    private final int symbols;
+    /**
+     * Переход: transitions[state * symbols + symbol]
+     */
+    private final int[] transitions;
+    /**
+     * Номера образцов, которые заканчиваются в состоянии, включая найденные по ссылкам неудачи
+     */
+    private final int[][] matches;
+
+    private AhoCorasickAutomaton(int[] alphabet, int symbols, int[] transitions, int[][] matches) {
+        this.alphabet = alphabet;
+        this.symbols = symbols;
+        this.transitions = transitions;
+        this.matches = matches;
+    }
+
+    /**
+     * Собирает автомат; номер образца - его индекс в patterns
+     */
+    static AhoCorasickAutomaton build(List<String> patterns) {
+        int maxChar = 0;
+        for (String pattern : patterns) {
+            for (int i = 0; i < pattern.length(); i++) {
+                maxChar = Math.max(maxChar, pattern.charAt(i));
+            }
+        }
+        int[] alphabet = new int[maxChar + 1];
+        Arrays.fill(alphabet, -1);
+        int symbols = 0;
+        for (String pattern : patterns) {
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = pattern.charAt(i);
+                if (alphabet[c] < 0) {
+                    alphabet[c] = symbols++;
+                }
+            }
+        }
+        int width = Math.max(symbols, 1);
+
+        // Бор образцов
+        List<int[]> children = new ArrayList<>();
+        List<List<Integer>> terminals = new ArrayList<>();
+        children.add(newNode(width));
+        terminals.add(new ArrayList<>());
+        for (int id = 0; id < patterns.size(); id++) {
+            String pattern = patterns.get(id);
+            if (pattern.isEmpty()) {
+                continue;
+            }
+            int state = ROOT;
+            for (int i = 0; i < pattern.length(); i++) {
+                int symbol = alphabet[pattern.charAt(i)];
+                int next = children.get(state)[symbol];
+                if (next < 0) {
+                    next = children.size();
+                    children.get(state)[symbol] = next;
+                    children.add(newNode(width));
+                    terminals.add(new ArrayList<>());
+                }
+                state = next;
+            }
+            terminals.get(state).add(id);
+        }
+
+        // Ссылки неудачи в порядке обхода в ширину: к моменту обработки состояния переходы
+        // из его ссылки неудачи (она ближе к корню) уже достроены
+        int states = children.size();
+        int[] transitions = new int[states * width];
+        int[] fail = new int[states];
+        int[][] matches = new int[states][];
+        Deque<Integer> queue = new ArrayDeque<>();
+        matches[ROOT] = toArray(terminals.get(ROOT));
+        for (int symbol = 0; symbol < width; symbol++) {
+            int child = children.get(ROOT)[symbol];
+            if (child < 0) {
+                transitions[symbol] = ROOT;
+            } else {
+                transitions[symbol] = child;
+                fail[child] = ROOT;
+                queue.add(child);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            matches[state] = merge(terminals.get(state), matches[fail[state]]);
+            for (int symbol = 0; symbol < width; symbol++) {
+                int child = children.get(state)[symbol];
+                if (child < 0) {
+                    transitions[state * width + symbol] = transitions[fail[state] * width + symbol];
+                } else {
+                    transitions[state * width + symbol] = child;
+                    fail[child] = transitions[fail[state] * width + symbol];
+                    queue.add(child);
+                }
+            }
+        }
+        return new AhoCorasickAutomaton(alphabet, width, transitions, matches);
+    }
+
+    /**
+     * Сообщает номер каждого образца, найденного в text; образец, встретившийся несколько раз,
+     * сообщается несколько раз
+     */
+    void search(CharSequence text, IntConsumer onMatch) {
+        int state = ROOT;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            int symbol = c < alphabet.length ? alphabet[c] : -1;
+            state = symbol < 0 ? ROOT : transitions[state * symbols + symbol];
+            for (int id : matches[state]) {
+                onMatch.accept(id);
+            }
+        }
+    }
+
+    int stateCount() {
+        return matches.length;
+    }
+
+    private static int[] newNode(int width) {
+        int[] node = new int[width];
+        Arrays.fill(node, -1);
+        return node;
+    }
+
+    private static int[] merge(List<Integer> own, int[] inherited) {
+        if (own.isEmpty()) {
+            return inherited;
+        }
+        int[] result = new int[own.size() + inherited.length];
+        for (int i = 0; i < own.size(); i++) {
+            result[i] = own.get(i);
+        }
+        System.arraycopy(inherited, 0, result, own.size(), inherited.length);
+        return result;
+    }
+
+    private static int[] toArray(List<Integer> ids) {
+        return ids.isEmpty() ? NO_MATCHES : ids.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
@@ -0,0 +1,271 @@
+/**
+ * @file: DeliveryZoneMatcher.java
+ * @description: Скомпилированные правила зон доставки: поиск зоны по адресу без обращения к БД
+ * @dependencies: AhoCorasickAutomaton, RussianAddressParser, DeliveryZone, DeliveryZoneStreet, DeliveryZoneKeyword
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service.delivery;
+
+import com.baganov.pizzanat.entity.DeliveryZone;
+import com.baganov.pizzanat.entity.DeliveryZoneKeyword;
+import com.baganov.pizzanat.entity.DeliveryZoneStreet;
+import com.baganov.pizzanat.util.ParsedAddress;
+import com.baganov.pizzanat.util.RussianAddressParser;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.IntConsumer;
+
+/**
+ * Правила те же, что у DeliveryZoneStreet.matchesAddress и DeliveryZoneKeyword.matchesAddress,
+ * но применяются к разобранному адресу (RussianAddressParser): улицы и ключевые слова ищутся в
+ * ParsedAddress.searchText() - населенный пункт и улица без типа, - номер дома берется из разбора.
+ * Названия улиц и ключевые слова нормализуются по тем же правилам один раз и собираются в один автомат;
+ * поиск - один проход автомата, поэтому время не зависит от числа зон, улиц и ключевых слов.
+ * Результат зависит только от частей ParsedAddress.key(), поэтому по ключу можно кэшировать тариф. Из подошедших зон выбирается
+ * зона с наибольшим приоритетом, при равном приоритете - с меньшим ID; внутри зоны, как и раньше,
+ * достаточно одной подошедшей улицы или ключевого слова.
+ * <p>
+ * Экземпляр неизменяем и безопасен для чтения из любых потоков. Зоны в результате - отсоединенные
+ * сущности только для чтения.
+ */
+public final class DeliveryZoneMatcher {
+
+    /**
+     * Зоны по убыванию приоритета; индекс - ранг зоны, меньший ранг важнее
+     */
+    private final List<DeliveryZone> zones;
+    private final AhoCorasickAutomaton automaton;
+    /**
+     * Номер образца автомата -> правила, которые он подтверждает
+     */
+    private final Rule[][] rulesByPattern;
+    private final Map<String, Integer> exactKeywords;
+    private final List<PrefixKeyword> prefixKeywords;
+    private final String signature;
+    private final int streetCount;
+    private final int keywordCount;
+
+    private DeliveryZoneMatcher(List<DeliveryZone> zones, AhoCorasickAutomaton automaton, Rule[][] rulesByPattern,
+            Map<String, Integer> exactKeywords, List<PrefixKeyword> prefixKeywords, String signature,
+            int streetCount, int keywordCount) {
+        this.zones = zones;
+        this.automaton = automaton;
+        this.rulesByPattern = rulesByPattern;
+        this.exactKeywords = exactKeywords;
+        this.prefixKeywords = prefixKeywords;
+        this.signature = signature;
+        this.streetCount = streetCount;
+        this.keywordCount = keywordCount;
+    }
+
+    /**
+     * @param activeZones      активные зоны с загруженными улицами
+     * @param keywordsByZoneId ключевые слова зон по ID зоны
+     */
+    public static DeliveryZoneMatcher compile(List<DeliveryZone> activeZones,
+            Map<Integer, List<DeliveryZoneKeyword>> keywordsByZoneId) {
+        List<DeliveryZone> zones = sortByPriority(activeZones);
+
+        Map<String, Integer> patternIds = new HashMap<>();
+        List<String> patterns = new ArrayList<>();
+        List<List<Rule>> rules = new ArrayList<>();
+        Map<String, Integer> exactKeywords = new HashMap<>();
+        List<PrefixKeyword> prefixKeywords = new ArrayList<>();
+        int streetCount = 0;
+        int keywordCount = 0;
+
+        for (int rank = 0; rank < zones.size(); rank++) {
+            DeliveryZone zone = zones.get(rank);
+            for (DeliveryZoneStreet street : zone.getStreets()) {
+                String name = RussianAddressParser.normalize(street.getStreetName());
+                if (name == null) {
+                    continue;
+                }
+                Rule rule = new Rule(rank, street.getHouseNumberFrom(), street.getHouseNumberTo(),
+                        Boolean.TRUE.equals(street.getIsEvenOnly()), Boolean.TRUE.equals(street.getIsOddOnly()));
+                addPattern(name, rule, patternIds, patterns, rules);
+                streetCount++;
+            }
+            for (DeliveryZoneKeyword keyword : keywordsByZoneId.getOrDefault(zone.getId(), List.of())) {
+                String text = RussianAddressParser.normalize(keyword.getKeyword());
+                if (text == null) {
+                    continue;
+                }
+                String matchType = keyword.getMatchType() != null
+                        ? keyword.getMatchType().toLowerCase(Locale.ROOT)
+                        : "contains";
+                switch (matchType) {
+                    case "exact" -> exactKeywords.merge(text, rank, Math::min);
+                    case "starts_with" -> prefixKeywords.add(new PrefixKeyword(text, rank));
+                    default -> addPattern(text, Rule.anyHouse(rank), patternIds, patterns, rules);
+                }
+                keywordCount++;
+            }
+        }
+
+        Rule[][] rulesByPattern = rules.stream()
+                .map(list -> list.toArray(Rule[]::new))
+                .toArray(Rule[][]::new);
+        return new DeliveryZoneMatcher(List.copyOf(zones), AhoCorasickAutomaton.build(patterns), rulesByPattern,
+                Map.copyOf(exactKeywords), List.copyOf(prefixKeywords), signature(activeZones, keywordsByZoneId),
+                streetCount, keywordCount);
+    }
+
+    /**
+     * Отпечаток всех полей, влияющих на поиск и тариф. Совпадает - пересобирать матчер не нужно.
+     */
+    public static String signature(List<DeliveryZone> activeZones,
+            Map<Integer, List<DeliveryZoneKeyword>> keywordsByZoneId) {
+        StringBuilder signature = new StringBuilder();
+        for (DeliveryZone zone : sortByPriority(activeZones)) {
+            signature.append("Z|").append(zone.getId()).append('|').append(zone.getName())
+                    .append('|').append(zone.getDescription()).append('|').append(zone.getPriority())
+                    .append('|').append(zone.getBaseCost()).append('|').append(zone.getFreeDeliveryThreshold())
+                    .append('|').append(zone.getDeliveryTimeMin()).append('|').append(zone.getDeliveryTimeMax())
+                    .append('\n');
+            zone.getStreets().stream()
+                    .sorted(Comparator.comparing(DeliveryZoneStreet::getId,
+                            Comparator.nullsLast(Comparator.naturalOrder())))
+                    .forEach(street -> signature.append("S|").append(street.getStreetName())
+                            .append('|').append(street.getHouseNumberFrom())
+                            .append('|').append(street.getHouseNumberTo())
+                            .append('|').append(street.getIsEvenOnly())
+                            .append('|').append(street.getIsOddOnly()).append('\n'));
+            keywordsByZoneId.getOrDefault(zone.getId(), List.of()).stream()
+                    .sorted(Comparator.comparing(DeliveryZoneKeyword::getId,
+                            Comparator.nullsLast(Comparator.naturalOrder())))
+                    .forEach(keyword -> signature.append("K|").append(keyword.getKeyword())
+                            .append('|').append(keyword.getMatchType()).append('\n'));
+        }
+        return signature.toString();
+    }
+
+    /**
+     * Зона доставки для адреса или пустой Optional, если адрес не подходит ни под одну зону
+     */
+    public Optional<DeliveryZone> match(String address) {
+        return match(RussianAddressParser.parse(address));
+    }
+
+    public Optional<DeliveryZone> match(ParsedAddress address) {
+        String text = address.searchText();
+        if (text.isEmpty()) {
+            return Optional.empty();
+        }
+        Lookup lookup = new Lookup(address.house());
+
+        Integer exact = exactKeywords.get(text);
+        if (exact != null) {
+            lookup.best = exact;
+        }
+        for (PrefixKeyword keyword : prefixKeywords) {
+            if (keyword.rank() < lookup.best && text.startsWith(keyword.prefix())) {
+                lookup.best = keyword.rank();
+            }
+        }
+        automaton.search(text, lookup);
+
+        return lookup.best < zones.size() ? Optional.of(zones.get(lookup.best)) : Optional.empty();
+    }
+
+    public String getSignature() {
+        return signature;
+    }
+
+    public int getZoneCount() {
+        return zones.size();
+    }
+
+    public int getStreetCount() {
+        return streetCount;
+    }
+
+    public int getKeywordCount() {
+        return keywordCount;
+    }
+
+    public int getStateCount() {
+        return automaton.stateCount();
+    }
+
+    private static List<DeliveryZone> sortByPriority(List<DeliveryZone> zones) {
+        return zones.stream()
+                .sorted(Comparator.comparing((DeliveryZone zone) -> zone.getPriority() != null ? zone.getPriority() : 0)
+                        .reversed()
+                        .thenComparing(DeliveryZone::getId, Comparator.nullsLast(Comparator.naturalOrder())))
+                .toList();
+    }
+
+    private static void addPattern(String pattern, Rule rule, Map<String, Integer> patternIds,
+            List<String> patterns, List<List<Rule>> rules) {
+        int id = patternIds.computeIfAbsent(pattern, key -> {
+            patterns.add(key);
+            rules.add(new ArrayList<>());
+            return patterns.size() - 1;
+        });
+        rules.get(id).add(rule);
+    }
+
+    /**
+     * Улица или ключевое слово зоны rank с ограничением номеров домов (null - без ограничения)
+     */
+    private record Rule(int rank, Integer houseFrom, Integer houseTo, boolean evenOnly, boolean oddOnly) {
+
+        static Rule anyHouse(int rank) {
+            return new Rule(rank, null, null, false, false);
+        }
+
+        boolean hasHouseRange() {
+            return houseFrom != null || houseTo != null;
+        }
+
+        /**
+         * Как в DeliveryZoneStreet: номер дома не определен - улица подходит;
+         * четность проверяется только для номера внутри диапазона
+         */
+        boolean accepts(Integer house) {
+            if (house == null) {
+                return true;
+            }
+            boolean inRange = (houseFrom == null || house >= houseFrom) && (houseTo == null || house <= houseTo);
+            if (inRange && evenOnly && house % 2 != 0) {
+                return false;
+            }
+            if (inRange && oddOnly && house % 2 == 0) {
+                return false;
+            }
+            return inRange;
+        }
+    }
+
+    private record PrefixKeyword(String prefix, int rank) {
+    }
+
+    /**
+     * Состояние одного поиска: лучший ранг подошедшей зоны
+     */
+    private final class Lookup implements IntConsumer {
+
+        private final Integer house;
+        private int best = Integer.MAX_VALUE;
+
+        private Lookup(Integer house) {
+            this.house = house;
+        }
+
+        @Override
+        public void accept(int patternId) {
+            for (Rule rule : rulesByPattern[patternId]) {
+                if (rule.rank() < best && (!rule.hasHouseRange() || rule.accepts(house))) {
+                    best = rule.rank();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/**
+ * @file: AccountingExportService.java
+ * @description: Потоковая выгрузка заказов, позиций и платежей за период в CSV или NDJSON
+ * @dependencies: OrderRepository, PaymentRepository, ExportFormat, ExportDataset
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service.export;
+
+import com.baganov.pizzanat.repository.OrderRepository;
+import com.baganov.pizzanat.repository.PaymentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Строки читаются курсором (fetch size 500) внутри одной read-only транзакции и сразу пишутся в ответ:
+ * в памяти одновременно находится не больше одной пачки строк и буфер записи, поэтому выгрузка
+ * за месяц и за год занимает одинаковую память. Запросы возвращают скалярные колонки, а не сущности,
+ * так что контекст персистентности не растет и ленивые связи не догружаются.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AccountingExportService {
+
+    private final OrderRepository orderRepository;
+    private final PaymentRepository paymentRepository;
+
+    /**
+     * Пишет строки набора dataset, созданные в [from, to), в out
+     *
+     * @return число выгруженных строк
+     */
+    @Transactional(readOnly = true)
+    public long export(ExportDataset dataset, ExportFormat format, LocalDate from, LocalDate to, OutputStream out)
+            throws IOException {
+        long startTime = System.currentTimeMillis();
+        long rows = 0;
+        try (Stream<Object[]> stream = open(dataset, from.atStartOfDay(), to.atStartOfDay());
+                ExportWriter writer = format.open(out, dataset.getColumns())) {
+            Iterator<Object[]> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                writer.write(iterator.next());
+                rows++;
+            }
+        }
+        log.info("Выгрузка {} за {} - {} в {}: {} строк за {} мс", dataset.getPath(), from, to.minusDays(1),
+                format.getExtension(), rows, System.currentTimeMillis() - startTime);
+        return rows;
+    }
+
+    private Stream<Object[]> open(ExportDataset dataset, LocalDateTime from, LocalDateTime to) {
+        return switch (dataset) {
+            case ORDERS -> orderRepository.streamForExport(from, to);
+            case ORDER_ITEMS -> orderRepository.streamItemsForExport(from, to);
+            case PAYMENTS -> paymentRepository.streamForExport(from, to);
+        };
+    }
+}
@@ -0,0 +1,52 @@
+/**
+ * @file: ExportDataset.java
+ * @description: Наборы данных выгрузки для бухгалтерии и их колонки
+ * @dependencies: -
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service.export;
+
+import jakarta.validation.ValidationException;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Колонки совпадают по порядку со строками запросов streamForExport / streamItemsForExport
+ * в OrderRepository и PaymentRepository
+ */
+public enum ExportDataset {
+
+    ORDERS("orders", List.of("order_id", "created_at", "status", "delivery_type", "delivery_address",
+            "contact_name", "contact_phone", "payment_method", "payment_status", "delivery_cost", "total_amount")),
+    ORDER_ITEMS("order-items", List.of("order_id", "order_created_at", "product_id", "product_name", "quantity",
+            "price")),
+    PAYMENTS("payments", List.of("payment_id", "created_at", "order_id", "yookassa_payment_id", "status", "method",
+            "amount", "currency", "paid_at", "refund_id"));
+
+    private final String path;
+    private final List<String> columns;
+
+    ExportDataset(String path, List<String> columns) {
+        this.path = path;
+        this.columns = columns;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    public static ExportDataset fromPath(String value) {
+        String normalized = value.trim().toLowerCase(Locale.ROOT);
+        for (ExportDataset dataset : values()) {
+            if (dataset.path.equals(normalized)) {
+                return dataset;
+            }
+        }
+        throw new ValidationException("Неизвестный набор данных: " + value + " (допустимо: orders, order-items, payments)");
+    }
+}
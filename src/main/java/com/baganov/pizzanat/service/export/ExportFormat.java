@@ -0,0 +1,54 @@
+/**
+ * @file: ExportFormat.java
+ * @description: Форматы выгрузки для бухгалтерии: CSV и NDJSON
+ * @dependencies: Jackson
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service.export;
+
+import jakarta.validation.ValidationException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Locale;
+
+public enum ExportFormat {
+
+    CSV("csv", "text/csv;charset=UTF-8"),
+    NDJSON("ndjson", "application/x-ndjson;charset=UTF-8");
+
+    private final String extension;
+    private final String contentType;
+
+    ExportFormat(String extension, String contentType) {
+        this.extension = extension;
+        this.contentType = contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * Открывает запись строк с колонками columns поверх out
+     */
+    public ExportWriter open(OutputStream out, List<String> columns) throws IOException {
+        return switch (this) {
+            case CSV -> new CsvExportWriter(out, columns);
+            case NDJSON -> new NdjsonExportWriter(out, columns);
+        };
+    }
+
+    public static ExportFormat fromParam(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (RuntimeException e) {
+            throw new ValidationException("Неизвестный формат выгрузки: " + value + " (допустимо: csv, ndjson)");
+        }
+    }
+}
@@ -0,0 +1,22 @@
+/**
+ * @file: ExportWriter.java
+ * @description: Построчная запись выгрузки в выходной поток
+ * @dependencies: -
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Строки пишутся через буфер и не накапливаются: память не зависит от размера выгрузки.
+ * close() дописывает буфер, но не закрывает исходный поток.
+ */
+public interface ExportWriter extends Closeable {
+
+    /**
+     * Одна строка; значения в порядке колонок, переданных при открытии
+     */
+    void write(Object[] values) throws IOException;
+}
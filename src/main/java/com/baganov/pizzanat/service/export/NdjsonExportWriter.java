@@ -0,0 +1,78 @@
+/**
+ * @file: NdjsonExportWriter.java
+ * @description: Запись выгрузки в NDJSON: один JSON-объект на строку
+ * @dependencies: Jackson
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service.export;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Пишет через JsonGenerator без промежуточных Map и ObjectNode; имена колонок сериализуются один раз.
+ * Числа пишутся числами без экспоненты, даты - строками ISO-8601, пустые значения - null.
+ */
+class NdjsonExportWriter implements ExportWriter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final JsonFactory JSON_FACTORY = JsonFactory.builder()
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .enable(StreamWriteFeature.WRITE_BIGDECIMAL_AS_PLAIN)
+            .build();
+
+    private final JsonGenerator generator;
+    private final SerializedString[] fieldNames;
+    private boolean empty = true;
+
+    NdjsonExportWriter(OutputStream out, List<String> columns) throws IOException {
+        this.generator = JSON_FACTORY.createGenerator(new BufferedOutputStream(out, BUFFER_SIZE));
+        this.generator.setRootValueSeparator(new SerializedString("\n"));
+        this.fieldNames = columns.stream().map(SerializedString::new).toArray(SerializedString[]::new);
+    }
+
+    @Override
+    public void write(Object[] values) throws IOException {
+        generator.writeStartObject();
+        for (int i = 0; i < fieldNames.length; i++) {
+            generator.writeFieldName(fieldNames[i]);
+            writeValue(i < values.length ? values[i] : null);
+        }
+        generator.writeEndObject();
+        empty = false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!empty) {
+            generator.writeRaw('\n');
+        }
+        generator.close();
+    }
+
+    private void writeValue(Object value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else if (value instanceof BigDecimal decimal) {
+            generator.writeNumber(decimal);
+        } else if (value instanceof Integer number) {
+            generator.writeNumber(number);
+        } else if (value instanceof Long number) {
+            generator.writeNumber(number);
+        } else if (value instanceof Boolean flag) {
+            generator.writeBoolean(flag);
+        } else if (value instanceof Enum<?> constant) {
+            generator.writeString(constant.name());
+        } else {
+            generator.writeString(value.toString());
+        }
+    }
+}
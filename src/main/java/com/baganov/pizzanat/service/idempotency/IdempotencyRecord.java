@@ -0,0 +1,25 @@
+/**
+ * @file: IdempotencyRecord.java
+ * @description: Запись хранилища ключей идемпотентности
+ * @dependencies: -
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service.idempotency;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * @param fingerprint хэш тела запроса: тот же ключ с другим телом - ошибка клиента
+ * @param response    JSON результата; null, пока запрос выполняется
+ */
+public record IdempotencyRecord(String fingerprint, String response) {
+
+    public static IdempotencyRecord inFlight(String fingerprint) {
+        return new IdempotencyRecord(fingerprint, null);
+    }
+
+    @JsonIgnore
+    public boolean isCompleted() {
+        return response != null;
+    }
+}
@@ -0,0 +1,235 @@
+/**
+ * @file: IdempotencyService.java
+ * @description: Выполнение запроса не более одного раза на ключ Idempotency-Key
+ * @dependencies: IdempotencyStore, IdempotencyProperties, Jackson, Micrometer
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service.idempotency;
+
+import com.baganov.pizzanat.config.IdempotencyProperties;
+import com.baganov.pizzanat.exception.IdempotencyConflictException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ValidationException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Первый запрос с ключом выполняется, его результат сохраняется JSON-строкой на время TTL,
+ * повторы получают сохраненный результат без повторного выполнения.
+ * Повторы, пришедшие пока оригинал выполняется, ждут его результата: на том же узле - через
+ * общий CompletableFuture, с другого узла - опросом хранилища. Ошибка оригинала освобождает ключ.
+ * Сохраненный результат, который не читается в тип результата (например, после изменения DTO),
+ * не выполняется повторно - клиент получает конфликт с именем ключа и повторяет запрос с новым ключом.
+ * Вызывать вне транзакции, чтобы результат сохранялся только после ее фиксации.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    private final IdempotencyStore store;
+    private final IdempotencyProperties properties;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentMap<String, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    private record InFlight(String fingerprint, CompletableFuture<String> response) {
+    }
+
+    /**
+     * @param scope      пространство ключей (операция и владелец), чтобы ключи разных клиентов не пересекались
+     * @param key        значение заголовка Idempotency-Key; без ключа действие выполняется как обычно
+     * @param request    тело запроса, по которому проверяется, что повтор совпадает с оригиналом
+     * @param resultType тип результата для чтения сохраненного JSON
+     */
+    public <T> T execute(String scope, String key, Object request, Class<T> resultType, Supplier<T> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        String clientKey = validateKey(key);
+        String storeKey = scope + ":" + clientKey;
+        String fingerprint = fingerprint(request);
+
+        Optional<IdempotencyRecord> existing = store.find(storeKey);
+        if (existing.isPresent() && existing.get().isCompleted()) {
+            checkFingerprint(existing.get().fingerprint(), fingerprint);
+            count("replayed");
+            log.info("Повтор запроса {}: возвращен сохраненный результат", storeKey);
+            return read(clientKey, existing.get().response(), resultType);
+        }
+
+        InFlight own = new InFlight(fingerprint, new CompletableFuture<>());
+        InFlight running = inFlight.putIfAbsent(storeKey, own);
+        if (running != null) {
+            return join(clientKey, storeKey, running, fingerprint, resultType);
+        }
+        try {
+            return executeOwned(clientKey, storeKey, own, resultType, action);
+        } finally {
+            inFlight.remove(storeKey, own);
+        }
+    }
+
+    private <T> T executeOwned(String clientKey, String storeKey, InFlight own, Class<T> resultType,
+            Supplier<T> action) {
+        Optional<String> completedElsewhere;
+        try {
+            completedElsewhere = acquire(storeKey, own.fingerprint());
+        } catch (RuntimeException e) {
+            own.response().completeExceptionally(e);
+            throw e;
+        }
+        if (completedElsewhere.isPresent()) {
+            own.response().complete(completedElsewhere.get());
+            count("replayed");
+            return read(clientKey, completedElsewhere.get(), resultType);
+        }
+
+        try {
+            T result = action.get();
+            String response = write(result);
+            store.complete(storeKey, own.fingerprint(), response, properties.getTtl());
+            own.response().complete(response);
+            count("executed");
+            return result;
+        } catch (RuntimeException | Error e) {
+            store.release(storeKey);
+            own.response().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Занимает ключ в хранилище. Если ключ занят другим узлом, ждет его результата
+     * не дольше waitTimeout; результат другого узла возвращается вместо выполнения.
+     */
+    private Optional<String> acquire(String storeKey, String fingerprint) {
+        long deadline = System.nanoTime() + properties.getWaitTimeout().toNanos();
+        while (!store.tryStart(storeKey, fingerprint, properties.getInFlightLease())) {
+            // Ключ занят другим узлом или выполнен между find и tryStart
+            Optional<IdempotencyRecord> record = store.find(storeKey);
+            if (record.isPresent()) {
+                checkFingerprint(record.get().fingerprint(), fingerprint);
+                if (record.get().isCompleted()) {
+                    return Optional.of(record.get().response());
+                }
+            }
+            if (System.nanoTime() > deadline) {
+                throw stillRunning();
+            }
+            pause();
+        }
+        return Optional.empty();
+    }
+
+    private <T> T join(String clientKey, String storeKey, InFlight running, String fingerprint,
+            Class<T> resultType) {
+        checkFingerprint(running.fingerprint(), fingerprint);
+        log.info("Повтор запроса {} ждет результата выполняющегося оригинала", storeKey);
+        try {
+            String response = running.response()
+                    .get(properties.getWaitTimeout().toMillis(), TimeUnit.MILLISECONDS);
+            count("joined");
+            return read(clientKey, response, resultType);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw stillRunning();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw stillRunning();
+        }
+    }
+
+    private String validateKey(String key) {
+        String trimmed = key.trim();
+        if (trimmed.length() > properties.getMaxKeyLength()
+                || !trimmed.chars().allMatch(c -> c > 0x20 && c < 0x7F)) {
+            throw new ValidationException("Некорректный заголовок " + HEADER
+                    + ": допускаются печатные ASCII-символы, не длиннее " + properties.getMaxKeyLength());
+        }
+        return trimmed;
+    }
+
+    private void checkFingerprint(String stored, String actual) {
+        if (!stored.equals(actual)) {
+            count("conflict");
+            throw new IdempotencyConflictException("Ключ идемпотентности уже использован для другого запроса");
+        }
+    }
+
+    private IdempotencyConflictException stillRunning() {
+        count("conflict");
+        return new IdempotencyConflictException("Запрос с этим ключом идемпотентности еще выполняется, повторите позже");
+    }
+
+    private String fingerprint(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Не удалось вычислить отпечаток запроса", e);
+        }
+    }
+
+    private String write(Object result) {
+        try {
+            return objectMapper.writeValueAsString(result);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось сохранить результат запроса", e);
+        }
+    }
+
+    private <T> T read(String clientKey, String response, Class<T> resultType) {
+        try {
+            return objectMapper.readerFor(resultType)
+                    .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                    .readValue(response);
+        } catch (JsonProcessingException e) {
+            count("unreadable");
+            log.error("Не удалось прочитать сохраненный результат запроса с ключом {}: {}", clientKey, e.getMessage());
+            throw new IdempotencyConflictException("Запрос с ключом идемпотентности '" + clientKey
+                    + "' уже выполнен, но его результат не удалось прочитать; повторите запрос с новым ключом");
+        }
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(properties.getPollInterval().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw stillRunning();
+        }
+    }
+
+    private void count(String outcome) {
+        Counter.builder("idempotency.requests")
+                .description("Запросы с заголовком Idempotency-Key")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+}
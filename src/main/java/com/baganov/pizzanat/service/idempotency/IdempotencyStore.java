@@ -0,0 +1,28 @@
+/**
+ * @file: IdempotencyStore.java
+ * @description: Хранилище ключей идемпотентности (ключ-значение с TTL)
+ * @dependencies: IdempotencyRecord
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service.idempotency;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Ключ проходит два состояния: "выполняется" (короткий lease) и "выполнен" (результат с длинным TTL).
+ * Неудачный запрос удаляет ключ, чтобы клиент мог повторить его с тем же ключом.
+ */
+public interface IdempotencyStore {
+
+    Optional<IdempotencyRecord> find(String key);
+
+    /**
+     * Атомарно занимает ключ; false, если ключ уже выполняется или выполнен
+     */
+    boolean tryStart(String key, String fingerprint, Duration lease);
+
+    void complete(String key, String fingerprint, String response, Duration ttl);
+
+    void release(String key);
+}
@@ -0,0 +1,82 @@
+/**
+ * @file: InMemoryIdempotencyStore.java
+ * @description: Хранилище ключей идемпотентности в памяти узла (Caffeine с TTL на запись)
+ * @dependencies: Caffeine, Micrometer, IdempotencyProperties
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service.idempotency;
+
+import com.baganov.pizzanat.config.IdempotencyProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Подходит для одного узла: ключи теряются при перезапуске.
+ * Каждая запись живет свой срок - lease для выполняющихся запросов, TTL для результатов.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.idempotency.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private record Entry(IdempotencyRecord record, Duration ttl) {
+    }
+
+    private final Cache<String, Entry> entries;
+
+    public InMemoryIdempotencyStore(IdempotencyProperties properties, MeterRegistry meterRegistry) {
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxKeys())
+                .expireAfter(new Expiry<String, Entry>() {
+                    @Override
+                    public long expireAfterCreate(String key, Entry entry, long currentTime) {
+                        return entry.ttl().toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+                        return entry.ttl().toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, entries, "idempotencyKeys");
+        log.info("Ключи идемпотентности хранятся в памяти (TTL: {}, максимум: {})",
+                properties.getTtl(), properties.getMaxKeys());
+    }
+
+    @Override
+    public Optional<IdempotencyRecord> find(String key) {
+        return Optional.ofNullable(entries.getIfPresent(key)).map(Entry::record);
+    }
+
+    @Override
+    public boolean tryStart(String key, String fingerprint, Duration lease) {
+        Entry entry = new Entry(IdempotencyRecord.inFlight(fingerprint), lease);
+        return entries.asMap().putIfAbsent(key, entry) == null;
+    }
+
+    @Override
+    public void complete(String key, String fingerprint, String response, Duration ttl) {
+        entries.put(key, new Entry(new IdempotencyRecord(fingerprint, response), ttl));
+    }
+
+    @Override
+    public void release(String key) {
+        entries.invalidate(key);
+    }
+}
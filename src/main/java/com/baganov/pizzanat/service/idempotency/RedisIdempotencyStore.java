@@ -0,0 +1,89 @@
+/**
+ * @file: RedisIdempotencyStore.java
+ * @description: Хранилище ключей идемпотентности в Redis для нескольких узлов
+ * @dependencies: Spring Data Redis, Jackson
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Запись хранится JSON-строкой; занятие ключа - SET NX с lease, поэтому оригинал
+ * выполняется ровно на одном узле. Нечитаемая запись удаляется, иначе SET NX не занял бы ключ
+ * до конца TTL и клиент не смог бы повторить запрос. Требует Redis autoconfiguration.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.idempotency.store", havingValue = "redis")
+public class RedisIdempotencyStore implements IdempotencyStore {
+
+    private static final String KEY_PREFIX = "idempotency:";
+
+    /**
+     * Удаляет ключ, только если в нем все еще прочитанное значение: запись, которую другой узел
+     * успел заменить, не удаляется
+     */
+    private static final RedisScript<Long> DELETE_IF_EQUALS = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public Optional<IdempotencyRecord> find(String key) {
+        String json = redisTemplate.opsForValue().get(KEY_PREFIX + key);
+        return Optional.ofNullable(json).map(value -> deserialize(key, value));
+    }
+
+    @Override
+    public boolean tryStart(String key, String fingerprint, Duration lease) {
+        Boolean started = redisTemplate.opsForValue()
+                .setIfAbsent(KEY_PREFIX + key, serialize(IdempotencyRecord.inFlight(fingerprint)), lease);
+        return Boolean.TRUE.equals(started);
+    }
+
+    @Override
+    public void complete(String key, String fingerprint, String response, Duration ttl) {
+        redisTemplate.opsForValue().set(KEY_PREFIX + key, serialize(new IdempotencyRecord(fingerprint, response)), ttl);
+    }
+
+    @Override
+    public void release(String key) {
+        redisTemplate.delete(KEY_PREFIX + key);
+    }
+
+    private String serialize(IdempotencyRecord record) {
+        try {
+            return objectMapper.writeValueAsString(record);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось сериализовать запись идемпотентности", e);
+        }
+    }
+
+    private IdempotencyRecord deserialize(String key, String json) {
+        try {
+            return objectMapper.readValue(json, IdempotencyRecord.class);
+        } catch (JsonProcessingException e) {
+            // Поврежденная запись удаляется и считается отсутствующей: запрос выполнится заново
+            log.warn("Не удалось прочитать запись идемпотентности {} из Redis, запись удалена: {}",
+                    key, e.getMessage());
+            redisTemplate.execute(DELETE_IF_EQUALS, List.of(KEY_PREFIX + key), json);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/**
+ * @file: ActiveOrderView.java
+ * @description: Неизменяемое представление активного заказа для админ-панели и админских ботов
+ * @dependencies: Order, Payment, OrderDTO
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service.order;
+
+import com.baganov.pizzanat.entity.Order;
+import com.baganov.pizzanat.entity.OrderPaymentStatus;
+import com.baganov.pizzanat.entity.Payment;
+import com.baganov.pizzanat.entity.PaymentMethod;
+import com.baganov.pizzanat.entity.PaymentStatus;
+import com.baganov.pizzanat.entity.User;
+import com.baganov.pizzanat.model.dto.order.OrderDTO;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Данные, которые показывают список активных заказов и кнопки ботов: статус, суммы, контакт,
+ * время создания и состояние оплаты. details - полный DTO заказа для REST-эндпоинта /active.
+ *
+ * @param version       Order.version, которой соответствуют данные; по ней отбрасываются устаревшие события
+ * @param customer      пользователь, оформивший заказ; null для заказов без аккаунта
+ * @param latestPayment последний платеж заказа; null, если платежей не было
+ */
+public record ActiveOrderView(
+        Integer id,
+        long version,
+        String status,
+        BigDecimal totalAmount,
+        BigDecimal deliveryCost,
+        String contactName,
+        String contactPhone,
+        Customer customer,
+        PaymentMethod paymentMethod,
+        OrderPaymentStatus paymentStatus,
+        LatestPayment latestPayment,
+        LocalDateTime createdAt,
+        OrderDTO details) {
+
+    public record Customer(String firstName, String lastName, String username, String phone) {
+    }
+
+    public record LatestPayment(Long id, PaymentStatus status, PaymentMethod method, String yookassaPaymentId,
+            LocalDateTime createdAt, LocalDateTime paidAt) {
+    }
+
+    /**
+     * @param details DTO того же заказа; статус берется из него, чтобы не загружать связь повторно
+     */
+    public static ActiveOrderView of(Order order, Payment latestPayment, OrderDTO details) {
+        User user = order.getUser();
+        return new ActiveOrderView(
+                order.getId(),
+                order.getVersion(),
+                details.getStatus(),
+                order.getTotalAmount(),
+                order.getDeliveryCost(),
+                order.getContactName(),
+                order.getContactPhone(),
+                user != null
+                        ? new Customer(user.getFirstName(), user.getLastName(), user.getUsername(), user.getPhone())
+                        : null,
+                order.getPaymentMethod(),
+                order.getPaymentStatus(),
+                latestPayment != null
+                        ? new LatestPayment(latestPayment.getId(), latestPayment.getStatus(),
+                                latestPayment.getMethod(), latestPayment.getYookassaPaymentId(),
+                                latestPayment.getCreatedAt(), latestPayment.getPaidAt())
+                        : null,
+                order.getCreatedAt(),
+                details);
+    }
+
+    /**
+     * Тот же заказ в новом статусе и версии (для смены статуса без чтения из БД)
+     */
+    public ActiveOrderView withStatus(String newStatus, String statusDescription, long newVersion) {
+        OrderDTO updatedDetails = details.toBuilder()
+                .status(newStatus)
+                .statusDescription(statusDescription)
+                .build();
+        return new ActiveOrderView(id, newVersion, newStatus, totalAmount, deliveryCost, contactName, contactPhone, customer,
+                paymentMethod, paymentStatus, latestPayment, createdAt, updatedDetails);
+    }
+
+    public PaymentStatus latestPaymentStatus() {
+        return latestPayment != null ? latestPayment.status() : null;
+    }
+
+    public LocalDateTime latestPaymentCreatedAt() {
+        return latestPayment != null ? latestPayment.createdAt() : null;
+    }
+
+    /**
+     * Сколько заказ ожидает с момента оформления
+     */
+    public Duration age(LocalDateTime now) {
+        return createdAt != null ? Duration.between(createdAt, now) : Duration.ZERO;
+    }
+}
@@ -0,0 +1,310 @@
+/**
+ * @file: ActiveOrdersProjection.java
+ * @description: Проекция незавершенных заказов в памяти для админ-панели и админских ботов
+ * @dependencies: OrderService, ReferenceDataService, NewOrderEvent, OrderStatusChangedEvent, PaymentStatusChangedEvent
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service.order;
+
+import com.baganov.pizzanat.entity.OrderStatus;
+import com.baganov.pizzanat.event.NewOrderEvent;
+import com.baganov.pizzanat.event.OrderStatusChangedEvent;
+import com.baganov.pizzanat.event.PaymentStatusChangedEvent;
+import com.baganov.pizzanat.model.dto.order.OrderDTO;
+import com.baganov.pizzanat.service.OrderService;
+import com.baganov.pizzanat.service.reference.ReferenceDataService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Список активных заказов для админ-панели (/api/v1/admin/orders/active) и кнопок админских ботов.
+ * Загружается из БД при старте; просмотр списка обслуживается из памяти без запросов.
+ * Смена статуса применяется из события без чтения из БД. Слушатели разных транзакций могут
+ * поставить события в очередь не в порядке фиксации, поэтому событие с версией заказа ниже
+ * уже известной отбрасывается. Новые заказы, изменения платежей и смены статуса без версии
+ * (массовая смена) перечитываются пакетом: события, пришедшие, пока идет чтение, загружаются следующим запросом IN.
+ * Очередь событий разбирает не больше одного потока, поэтому более позднее чтение из БД
+ * всегда применяется последним; полная сверка не блокирует обновления отдельных заказов,
+ * а заказы, измененные во время нее, перечитываются после замены списка.
+ * Изменения, сделанные на другом узле, попадают в проекцию при периодической полной сверке.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ActiveOrdersProjection {
+
+    /**
+     * Статусы заказов, которые видны в списке активных (как в OrderRepository.findActiveOrdersIncludingNew)
+     */
+    public static final Set<String> ACTIVE_STATUSES = Set.of(
+            "CREATED", "PENDING", "CONFIRMED", "PREPARING", "COOKING", "READY", "DELIVERING");
+
+    /**
+     * Принятые в работу заказы (как в OrderRepository.findActiveOrders)
+     */
+    public static final Set<String> IN_PROGRESS_STATUSES = Set.of("CONFIRMED", "PREPARING", "READY", "DELIVERING");
+
+    private static final Comparator<ActiveOrderView> NEWEST_FIRST = Comparator
+            .comparing(ActiveOrderView::createdAt, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(ActiveOrderView::id, Comparator.reverseOrder());
+
+    private final OrderService orderService;
+    private final ReferenceDataService referenceDataService;
+
+    /**
+     * Изменение одного заказа; status == null или version == null - заказ нужно перечитать из БД
+     */
+    private record Update(Integer orderId, String status, Long version) {
+
+        static Update reload(Integer orderId) {
+            return new Update(orderId, null, null);
+        }
+
+        boolean needsReload() {
+            return status == null || version == null;
+        }
+    }
+
+    private final Object stateLock = new Object();
+    private final Map<Integer, ActiveOrderView> orders = new HashMap<>();
+    private final AtomicReference<List<ActiveOrderView>> sorted = new AtomicReference<>();
+    private Set<Integer> touchedDuringResync;
+    private long resyncs;
+
+    private final Object resyncLock = new Object();
+    private final Queue<Update> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    /**
+     * Активные заказы, новые сверху. При первом обращении до старта приложения загружаются синхронно.
+     */
+    public List<ActiveOrderView> getActiveOrders() {
+        List<ActiveOrderView> current = sorted.get();
+        if (current != null) {
+            return current;
+        }
+        synchronized (resyncLock) {
+            current = sorted.get();
+            return current != null ? current : resync();
+        }
+    }
+
+    /**
+     * Только принятые в работу заказы, без новых и ожидающих оплаты
+     */
+    public List<ActiveOrderView> getInProgressOrders() {
+        return getActiveOrders().stream()
+                .filter(order -> IN_PROGRESS_STATUSES.contains(order.status()))
+                .toList();
+    }
+
+    public List<OrderDTO> getActiveOrderDetails() {
+        return getActiveOrders().stream()
+                .map(ActiveOrderView::details)
+                .toList();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            resync();
+        } catch (Exception e) {
+            log.error("Не удалось загрузить активные заказы при старте: {}", e.getMessage(), e);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onNewOrder(NewOrderEvent event) {
+        enqueue(Update.reload(event.getOrder().getId()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        enqueue(new Update(event.getOrderId(), event.getNewStatus(), event.getOrderVersion()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPaymentStatusChanged(PaymentStatusChangedEvent event) {
+        enqueue(Update.reload(event.getOrderId()));
+    }
+
+    /**
+     * Страховочная полная сверка с БД: изменения с других узлов и пропущенные события
+     */
+    @Scheduled(fixedDelayString = "${app.active-orders.resync-interval-ms:300000}",
+            initialDelayString = "${app.active-orders.resync-interval-ms:300000}")
+    public void scheduledResync() {
+        try {
+            resync();
+        } catch (Exception e) {
+            log.error("Не удалось сверить активные заказы с БД: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Заменяет проекцию списком активных заказов из БД. Чтение идет без блокировки списка;
+     * заказы, измененные событиями за это время, перечитываются после замены.
+     */
+    public List<ActiveOrderView> resync() {
+        synchronized (resyncLock) {
+            long startTime = System.currentTimeMillis();
+            synchronized (stateLock) {
+                touchedDuringResync = new HashSet<>();
+            }
+            List<ActiveOrderView> loaded;
+            Set<Integer> touched;
+            List<ActiveOrderView> result;
+            try {
+                loaded = orderService.loadActiveOrderViews();
+            } finally {
+                synchronized (stateLock) {
+                    touched = touchedDuringResync;
+                    touchedDuringResync = null;
+                }
+            }
+            synchronized (stateLock) {
+                orders.clear();
+                loaded.forEach(order -> orders.put(order.id(), order));
+                resyncs++;
+                result = publish();
+            }
+            log.info("Активные заказы загружены за {} мс: {}", System.currentTimeMillis() - startTime, result.size());
+            if (!touched.isEmpty()) {
+                touched.forEach(orderId -> pending.add(Update.reload(orderId)));
+                drain();
+                result = sorted.get();
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Принимает изменение заказа после фиксации транзакции, изменившей его
+     */
+    private void enqueue(Update update) {
+        if (update.orderId() == null || sorted.get() == null) {
+            // Проекция еще не загружена: заказ попадет в нее при первой загрузке
+            return;
+        }
+        pending.add(update);
+        drain();
+    }
+
+    /**
+     * Разбирает очередь, если ее не разбирает другой поток
+     */
+    void drain() {
+        while (!pending.isEmpty() && draining.compareAndSet(false, true)) {
+            try {
+                List<Update> batch = new ArrayList<>();
+                Update update;
+                while ((update = pending.poll()) != null) {
+                    batch.add(update);
+                }
+                apply(batch);
+            } finally {
+                draining.set(false);
+            }
+        }
+    }
+
+    private void apply(List<Update> batch) {
+        Set<Integer> reloadIds = new LinkedHashSet<>();
+        long resyncsBefore;
+        synchronized (stateLock) {
+            resyncsBefore = resyncs;
+            for (Update update : batch) {
+                // Заказа нет в списке, а новый статус активный: данных для показа нет, нужно чтение
+                if (update.needsReload()
+                        || ACTIVE_STATUSES.contains(update.status()) && !orders.containsKey(update.orderId())) {
+                    reloadIds.add(update.orderId());
+                }
+            }
+        }
+
+        Map<Integer, ActiveOrderView> loaded = new HashMap<>();
+        if (!reloadIds.isEmpty()) {
+            try {
+                orderService.loadOrderViews(reloadIds).forEach(order -> loaded.put(order.id(), order));
+            } catch (Exception e) {
+                log.error("Не удалось обновить заказы {} в списке активных, они обновятся при сверке: {}",
+                        reloadIds, e.getMessage(), e);
+                reloadIds.clear();
+            }
+        }
+        Map<String, String> descriptions = new HashMap<>();
+        for (Update update : batch) {
+            if (!update.needsReload() && !descriptions.containsKey(update.status())) {
+                descriptions.put(update.status(), referenceDataService.findStatus(update.status())
+                        .map(OrderStatus::getDescription)
+                        .orElse(null));
+            }
+        }
+
+        synchronized (stateLock) {
+            if (resyncs != resyncsBefore) {
+                // Полная сверка заменила список после чтения: прочитанное могло устареть относительно нее
+                reloadIds.forEach(orderId -> pending.add(Update.reload(orderId)));
+            } else {
+                for (Integer orderId : reloadIds) {
+                    ActiveOrderView order = loaded.get(orderId);
+                    if (order != null && ACTIVE_STATUSES.contains(order.status())) {
+                        orders.put(orderId, order);
+                    } else {
+                        orders.remove(orderId);
+                    }
+                }
+            }
+            for (Update update : batch) {
+                // Перечитанный заказ уже содержит все изменения пакета
+                if (update.needsReload() || reloadIds.contains(update.orderId())) {
+                    continue;
+                }
+                ActiveOrderView order = orders.get(update.orderId());
+                if (order == null || update.version() < order.version()) {
+                    // Устаревшее событие: в списке уже состояние более поздней транзакции
+                    continue;
+                }
+                if (ACTIVE_STATUSES.contains(update.status())) {
+                    String description = descriptions.get(update.status());
+                    orders.put(update.orderId(), order.withStatus(update.status(),
+                            description != null ? description : order.details().getStatusDescription(),
+                            update.version()));
+                } else {
+                    orders.remove(update.orderId());
+                }
+            }
+            if (touchedDuringResync != null) {
+                batch.forEach(update -> touchedDuringResync.add(update.orderId()));
+            }
+            publish();
+        }
+    }
+
+    private List<ActiveOrderView> publish() {
+        List<ActiveOrderView> result = orders.values().stream()
+                .sorted(NEWEST_FIRST)
+                .toList();
+        sorted.set(result);
+        return result;
+    }
+}
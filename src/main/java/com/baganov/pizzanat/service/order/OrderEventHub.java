@@ -0,0 +1,318 @@
+/**
+ * @file: OrderEventHub.java
+ * @description: Подписки на поток событий заказа (SSE): рассылка смен статуса, heartbeat, досылка по Last-Event-ID
+ * @dependencies: SseEmitter, Caffeine, Micrometer, OrderEventsProperties
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service.order;
+
+import com.baganov.pizzanat.config.OrderEventsProperties;
+import com.baganov.pizzanat.event.OrderStatusChangedEvent;
+import com.baganov.pizzanat.event.PaymentStatusChangedEvent;
+import com.baganov.pizzanat.model.dto.order.OrderStreamEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Соединение не занимает поток: SseEmitter работает поверх асинхронного запроса сервлета,
+ * а запись в сокет выполняется на виртуальных потоках. У каждой подписки своя очередь,
+ * которую разбирает не больше одного потока, - события одного соединения не переставляются,
+ * а медленный клиент не задерживает остальных.
+ * <p>
+ * ID события - "эпоха узла-номер". Последние события заказа хранятся в памяти: при переподключении
+ * с Last-Event-ID пропущенные события досылаются, а если они или весь журнал заказа уже вытеснены
+ * или узел перезапускался, клиент получает снимок заказа (событие snapshot).
+ * События видны подписчикам того узла, где изменился статус; подписчики других узлов
+ * получают актуальное состояние снимком при переподключении.
+ */
+@Slf4j
+@Service
+public class OrderEventHub {
+
+    public static final String ORDER_STATUS = "order-status";
+    public static final String PAYMENT_STATUS = "payment-status";
+    public static final String SNAPSHOT = "snapshot";
+
+    private final OrderEventsProperties properties;
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<Integer, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+    private final AtomicInteger activeSubscriptions = new AtomicInteger();
+    private final Cache<Integer, ReplayLog> replayLogs;
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+
+    public OrderEventHub(OrderEventsProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.replayLogs = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxReplayOrders())
+                .expireAfterWrite(properties.getReplayTtl())
+                .build();
+        Gauge.builder("orders.events.subscriptions", activeSubscriptions, AtomicInteger::get)
+                .description("Открытые SSE-соединения потока событий заказов")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Открывает поток событий заказа. Доступ к заказу проверяет вызывающий код.
+     *
+     * @param lastEventId значение заголовка Last-Event-ID при переподключении, может быть null
+     * @param snapshot    текущее состояние заказа; читается, только если досылка невозможна
+     */
+    public SseEmitter subscribe(Integer orderId, String lastEventId, Supplier<?> snapshot) {
+        SseEmitter emitter = createEmitter();
+        Subscription subscription = new Subscription(orderId, emitter);
+        emitter.onCompletion(() -> unsubscribe(subscription));
+        emitter.onTimeout(() -> unsubscribe(subscription));
+        emitter.onError(error -> unsubscribe(subscription));
+
+        // Подписка регистрируется до чтения снимка, чтобы не потерять событие между ними
+        subscriptions.computeIfAbsent(orderId, id -> ConcurrentHashMap.newKeySet()).add(subscription);
+        activeSubscriptions.incrementAndGet();
+
+        // Вершина читается до журнала: событие после нее попадет либо в журнал, либо в подписку
+        long head = sequence.get();
+        ReplayLog replayLog = replayLogs.getIfPresent(orderId);
+        List<Event> missed;
+        if (replayLog != null) {
+            missed = replayLog.after(lastEventId, epoch);
+        } else {
+            // Журнала нет: событий по заказу не было или журнал вытеснен. Клиент ничего не пропустил,
+            // только если с его события на узле не было ни одного события
+            missed = eventId(head).equals(lastEventId) ? List.of() : null;
+        }
+        if (missed != null) {
+            missed.forEach(subscription::enqueue);
+        } else {
+            long lastSeq = replayLog != null ? replayLog.lastSeq() : head;
+            subscription.enqueue(new Event(eventId(lastSeq), SNAPSHOT, snapshot.get()));
+        }
+        log.debug("Подписка на события заказа #{} (Last-Event-ID: {}, досылка: {})",
+                orderId, lastEventId, missed != null ? missed.size() : "снимок");
+        return emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        publish(event.getOrderId(), ORDER_STATUS, event.getOldStatus(), event.getNewStatus());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPaymentStatusChanged(PaymentStatusChangedEvent event) {
+        publish(event.getOrderId(), PAYMENT_STATUS,
+                event.getOldStatus() != null ? event.getOldStatus().name() : null,
+                event.getNewStatus() != null ? event.getNewStatus().name() : null);
+    }
+
+    void publish(Integer orderId, String name, String oldStatus, String newStatus) {
+        if (orderId == null) {
+            return;
+        }
+        OrderStreamEvent payload = OrderStreamEvent.builder()
+                .orderId(orderId)
+                .oldStatus(oldStatus)
+                .newStatus(newStatus)
+                .occurredAt(LocalDateTime.now())
+                .build();
+        long seq = sequence.incrementAndGet();
+        Event event = new Event(eventId(seq), name, payload);
+        replayLogs.asMap()
+                .computeIfAbsent(orderId, id -> new ReplayLog(properties.getReplayEvents(), seq - 1))
+                .append(seq, event);
+
+        Set<Subscription> subscribers = subscriptions.get(orderId);
+        if (subscribers != null) {
+            subscribers.forEach(subscription -> subscription.enqueue(event));
+        }
+    }
+
+    /**
+     * Комментарий вместо события: клиент его не видит, а прокси и балансировщики не закрывают соединение
+     */
+    @Scheduled(fixedDelayString = "${app.order-events.heartbeat-interval-ms:15000}")
+    public void sendHeartbeats() {
+        subscriptions.values().forEach(subscribers -> subscribers.forEach(Subscription::heartbeat));
+    }
+
+    public int getActiveSubscriptions() {
+        return activeSubscriptions.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscriptions.values().forEach(subscribers -> subscribers.forEach(subscription -> subscription.emitter.complete()));
+        senders.shutdown();
+    }
+
+    SseEmitter createEmitter() {
+        return new SseEmitter(properties.getStreamTimeout().toMillis());
+    }
+
+    private void unsubscribe(Subscription subscription) {
+        if (!subscription.closed.compareAndSet(false, true)) {
+            return;
+        }
+        subscriptions.computeIfPresent(subscription.orderId, (id, subscribers) -> {
+            subscribers.remove(subscription);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+        activeSubscriptions.decrementAndGet();
+    }
+
+    private String eventId(long seq) {
+        return epoch + "-" + seq;
+    }
+
+    /**
+     * Удаляет журнал заказа, как при вытеснении по размеру или TTL (для тестов)
+     */
+    void evictReplayLog(Integer orderId) {
+        replayLogs.invalidate(orderId);
+    }
+
+    private record Event(String id, String name, Object data) {
+    }
+
+    /**
+     * Последние события одного заказа. evictedUpTo - номер последнего события узла, которого нет
+     * в журнале (вытесненного или случившегося до создания журнала): досылка возможна, только если
+     * клиент видел его или более позднее. Журнал, созданный заново после вытеснения, не знает
+     * о прежних событиях заказа.
+     */
+    private static final class ReplayLog {
+
+        private final int capacity;
+        private final Deque<Long> seqs = new ArrayDeque<>();
+        private final Deque<Event> events = new ArrayDeque<>();
+        private long evictedUpTo;
+
+        private ReplayLog(int capacity, long evictedUpTo) {
+            this.capacity = capacity;
+            this.evictedUpTo = evictedUpTo;
+        }
+
+        synchronized void append(long seq, Event event) {
+            seqs.addLast(seq);
+            events.addLast(event);
+            while (events.size() > capacity) {
+                evictedUpTo = seqs.removeFirst();
+                events.removeFirst();
+            }
+        }
+
+        synchronized long lastSeq() {
+            return seqs.isEmpty() ? evictedUpTo : seqs.getLast();
+        }
+
+        /**
+         * События после lastEventId или null, если досылка невозможна
+         */
+        synchronized List<Event> after(String lastEventId, String epoch) {
+            if (lastEventId == null || !lastEventId.startsWith(epoch + "-")) {
+                return null;
+            }
+            long seen;
+            try {
+                seen = Long.parseLong(lastEventId.substring(epoch.length() + 1));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+            if (seen < evictedUpTo) {
+                return null;
+            }
+            List<Event> missed = new ArrayList<>();
+            var seqIterator = seqs.iterator();
+            for (Event event : events) {
+                if (seqIterator.next() > seen) {
+                    missed.add(event);
+                }
+            }
+            return missed;
+        }
+    }
+
+    /**
+     * Очередь отправки одного соединения; drain выполняется не больше чем одним виртуальным потоком
+     */
+    private final class Subscription {
+
+        private final Integer orderId;
+        private final SseEmitter emitter;
+        private final Queue<SseEmitter.SseEventBuilder> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Subscription(Integer orderId, SseEmitter emitter) {
+            this.orderId = orderId;
+            this.emitter = emitter;
+        }
+
+        void enqueue(Event event) {
+            send(SseEmitter.event()
+                    .id(event.id())
+                    .name(event.name())
+                    .reconnectTime(properties.getReconnectDelay().toMillis())
+                    .data(event.data(), MediaType.APPLICATION_JSON));
+        }
+
+        void heartbeat() {
+            send(SseEmitter.event().comment("heartbeat"));
+        }
+
+        private void send(SseEmitter.SseEventBuilder event) {
+            if (closed.get()) {
+                return;
+            }
+            pending.add(event);
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            do {
+                SseEmitter.SseEventBuilder event;
+                while ((event = pending.poll()) != null) {
+                    try {
+                        emitter.send(event);
+                    } catch (IOException | IllegalStateException e) {
+                        // Клиент отключился: соединение закрывается, подписка удаляется в onCompletion/onError
+                        log.debug("Поток событий заказа #{} закрыт: {}", orderId, e.getMessage());
+                        pending.clear();
+                        unsubscribe(this);
+                        emitter.completeWithError(e);
+                        return;
+                    }
+                }
+                draining.set(false);
+            } while (!pending.isEmpty() && draining.compareAndSet(false, true));
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/**
+ * @file: OrderStatusHistoryService.java
+ * @description: Запись журнала смен статуса заказа и передача длительности этапов в StageLatencyTracker
+ * @dependencies: OrderStatusHistoryWriter, StageLatencyTracker, NewOrderEvent, OrderStatusChangedEvent
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service.order;
+
+import com.baganov.pizzanat.entity.Order;
+import com.baganov.pizzanat.entity.OrderStatus;
+import com.baganov.pizzanat.entity.OrderStatusHistory;
+import com.baganov.pizzanat.event.NewOrderEvent;
+import com.baganov.pizzanat.event.OrderStatusChangedEvent;
+import com.baganov.pizzanat.service.order.OrderStatusHistoryWriter.StatusChange;
+import com.baganov.pizzanat.service.reference.ReferenceDataService;
+import com.baganov.pizzanat.util.TimeZoneUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Слушатели только запоминают переходы: журнал пишется одним пакетом в той же транзакции,
+ * которая меняет статус, непосредственно перед ее фиксацией. Так журнал покрывает все места смены
+ * статуса (админка, боты, массовая смена, оплата), которые публикуют OrderStatusChangedEvent,
+ * и фиксируется вместе со сменой статуса: ошибка записи журнала откатывает и ее.
+ * Длительности этапов передаются в StageLatencyTracker только после фиксации.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderStatusHistoryService {
+
+    private final ReferenceDataService referenceDataService;
+    private final StageLatencyTracker stageLatencyTracker;
+    private final OrderStatusHistoryWriter historyWriter;
+
+    /**
+     * Первая запись заказа - начальный статус на момент создания
+     */
+    @EventListener
+    public void onNewOrder(NewOrderEvent event) {
+        Order order = event.getOrder();
+        if (order == null || order.getId() == null || order.getStatus() == null) {
+            return;
+        }
+        String status = referenceDataService.findStatus(order.getStatus().getId())
+                .map(OrderStatus::getName)
+                .orElse(null);
+        if (status == null) {
+            return;
+        }
+        enqueue(StatusChange.created(order.getId(), status,
+                order.getCreatedAt() != null ? order.getCreatedAt() : TimeZoneUtils.nowInMoscow()));
+    }
+
+    @EventListener
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        if (event.getOrderId() == null || event.getNewStatus() == null) {
+            return;
+        }
+        enqueue(StatusChange.transition(event.getOrderId(), event.getOldStatus(), event.getNewStatus(),
+                TimeZoneUtils.nowInMoscow()));
+    }
+
+    /**
+     * Переходы одной транзакции копятся в привязанном к ней списке
+     */
+    @SuppressWarnings("unchecked")
+    private void enqueue(StatusChange change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            recordLatency(historyWriter.write(List.of(change)));
+            return;
+        }
+        List<StatusChange> pending = (List<StatusChange>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            List<StatusChange> batch = new ArrayList<>();
+            List<OrderStatusHistory> written = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, batch);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    written.addAll(historyWriter.write(batch));
+                }
+
+                @Override
+                public void afterCommit() {
+                    recordLatency(written);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(OrderStatusHistoryService.this);
+                }
+            });
+            pending = batch;
+        }
+        pending.add(change);
+    }
+
+    private void recordLatency(List<OrderStatusHistory> records) {
+        for (OrderStatusHistory record : records) {
+            log.debug("Журнал статусов: заказ #{} {} -> {} (в статусе {} мс)", record.getOrderId(),
+                    record.getFromStatus(), record.getToStatus(), record.getDurationMs());
+            if (record.getDurationMs() != null) {
+                stageLatencyTracker.record(record.getFromStatus(), Duration.ofMillis(record.getDurationMs()));
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/**
+ * @file: OrderStatusHistoryWriter.java
+ * @description: Пакетная запись журнала смен статуса в транзакции смены статуса
+ * @dependencies: OrderStatusHistoryRepository
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service.order;
+
+import com.baganov.pizzanat.entity.OrderStatusHistory;
+import com.baganov.pizzanat.repository.OrderStatusHistoryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Начало этапа берется из предыдущего перехода того же пакета, а для остальных заказов -
+ * из последних записей журнала, загруженных одним запросом IN.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderStatusHistoryWriter {
+
+    private final OrderStatusHistoryRepository historyRepository;
+
+    /**
+     * Смена статуса заказа в момент changedAt; initial - начальный статус при создании заказа
+     */
+    public record StatusChange(Integer orderId, String fromStatus, String toStatus, LocalDateTime changedAt,
+            boolean initial) {
+
+        public static StatusChange created(Integer orderId, String status, LocalDateTime createdAt) {
+            return new StatusChange(orderId, null, status, createdAt, true);
+        }
+
+        public static StatusChange transition(Integer orderId, String fromStatus, String toStatus,
+                LocalDateTime changedAt) {
+            return new StatusChange(orderId, fromStatus, toStatus, changedAt, false);
+        }
+    }
+
+    /**
+     * Записывает пакет переходов в порядке их публикации; присоединяется к текущей транзакции
+     *
+     * @return сохраненные записи журнала
+     */
+    @Transactional
+    public List<OrderStatusHistory> write(List<StatusChange> changes) {
+        Map<Integer, OrderStatusHistory> latest = loadLatest(changes);
+        List<OrderStatusHistory> records = new ArrayList<>(changes.size());
+        for (StatusChange change : changes) {
+            Long durationMs = change.initial() ? null : stageDuration(latest.get(change.orderId()), change);
+            OrderStatusHistory record = OrderStatusHistory.builder()
+                    .orderId(change.orderId())
+                    .fromStatus(change.fromStatus())
+                    .toStatus(change.toStatus())
+                    .changedAt(change.changedAt())
+                    .durationMs(durationMs)
+                    .build();
+            records.add(record);
+            latest.put(change.orderId(), record);
+        }
+        return historyRepository.saveAll(records);
+    }
+
+    /**
+     * Последние записи журнала для заказов, чей первый переход в пакете не является созданием
+     */
+    private Map<Integer, OrderStatusHistory> loadLatest(List<StatusChange> changes) {
+        Set<Integer> firstSeen = new LinkedHashSet<>();
+        Set<Integer> orderIds = new LinkedHashSet<>();
+        for (StatusChange change : changes) {
+            if (firstSeen.add(change.orderId()) && !change.initial()) {
+                orderIds.add(change.orderId());
+            }
+        }
+        Map<Integer, OrderStatusHistory> latest = new HashMap<>();
+        if (orderIds.isEmpty()) {
+            return latest;
+        }
+        for (OrderStatusHistory record : historyRepository.findLatestByOrderIdIn(orderIds)) {
+            latest.merge(record.getOrderId(), record, (a, b) -> Comparator
+                    .comparing(OrderStatusHistory::getId, Comparator.nullsFirst(Comparator.naturalOrder()))
+                    .compare(a, b) >= 0 ? a : b);
+        }
+        return latest;
+    }
+
+    /**
+     * Начало этапа известно, только если последняя запись привела заказ в прежний статус
+     */
+    private static Long stageDuration(OrderStatusHistory previous, StatusChange change) {
+        if (previous == null || !Objects.equals(previous.getToStatus(), change.fromStatus())) {
+            return null;
+        }
+        long ms = Duration.between(previous.getChangedAt(), change.changedAt()).toMillis();
+        return ms >= 0 ? ms : null;
+    }
+}
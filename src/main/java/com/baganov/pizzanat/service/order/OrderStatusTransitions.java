@@ -0,0 +1,66 @@
+/**
+ * @file: OrderStatusTransitions.java
+ * @description: Таблица допустимых переходов статусов заказа
+ * @dependencies: InvalidOrderStatusTransitionException
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service.order;
+
+import com.baganov.pizzanat.exception.InvalidOrderStatusTransitionException;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Заказ движется только вперед: новый -> оплачен -> подтвержден -> в обработке -> готовится (PREPARING,
+ * затем COOKING) -> готов -> доставляется -> доставлен. Оплата после подтверждения отражается
+ * статусом оплаты заказа, а не возвратом в PAID.
+ * Шаги можно пропускать, отменить можно любой незавершенный заказ, из завершенных статусов переходов нет.
+ * Статусы, которых нет в таблице (устаревшие записи справочника), не ограничиваются, чтобы такие заказы
+ * можно было довести до конца.
+ */
+public final class OrderStatusTransitions {
+
+    private static final Map<String, Set<String>> ALLOWED = Map.ofEntries(
+            Map.entry("CREATED", Set.of("PENDING", "PAID", "CONFIRMED", "PROCESSING", "PREPARING", "COOKING",
+                    "CANCELLED")),
+            Map.entry("PENDING", Set.of("PAID", "CONFIRMED", "PROCESSING", "PREPARING", "COOKING", "CANCELLED")),
+            Map.entry("PAID", Set.of("CONFIRMED", "PROCESSING", "PREPARING", "COOKING", "READY", "CANCELLED")),
+            Map.entry("CONFIRMED", Set.of("PROCESSING", "PREPARING", "COOKING", "READY", "DELIVERING", "DELIVERED",
+                    "CANCELLED")),
+            Map.entry("PROCESSING", Set.of("PREPARING", "COOKING", "READY", "DELIVERING", "DELIVERED", "COMPLETED",
+                    "CANCELLED")),
+            Map.entry("PREPARING", Set.of("COOKING", "READY", "DELIVERING", "DELIVERED", "COMPLETED", "CANCELLED")),
+            Map.entry("COOKING", Set.of("READY", "DELIVERING", "DELIVERED", "COMPLETED", "CANCELLED")),
+            Map.entry("READY", Set.of("DELIVERING", "DELIVERED", "COMPLETED", "CANCELLED")),
+            Map.entry("DELIVERING", Set.of("DELIVERED", "COMPLETED", "CANCELLED")),
+            Map.entry("DELIVERED", Set.of()),
+            Map.entry("COMPLETED", Set.of()),
+            Map.entry("CANCELLED", Set.of()),
+            Map.entry("CANCELED", Set.of()));
+
+    private OrderStatusTransitions() {
+    }
+
+    public static boolean isAllowed(String from, String to) {
+        if (from == null) {
+            return true;
+        }
+        Set<String> targets = ALLOWED.get(from);
+        return targets == null || targets.contains(to);
+    }
+
+    public static boolean isTerminal(String status) {
+        Set<String> targets = status != null ? ALLOWED.get(status) : null;
+        return targets != null && targets.isEmpty();
+    }
+
+    /**
+     * @throws InvalidOrderStatusTransitionException если переход не разрешен таблицей
+     */
+    public static void requireAllowed(Integer orderId, String from, String to) {
+        if (!isAllowed(from, to)) {
+            throw new InvalidOrderStatusTransitionException(orderId, from, to);
+        }
+    }
+}
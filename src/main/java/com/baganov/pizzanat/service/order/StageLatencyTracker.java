@@ -0,0 +1,214 @@
+/**
+ * @file: StageLatencyTracker.java
+ * @description: Скользящие перцентили времени нахождения заказов в статусах (15 минут и час)
+ * @dependencies: Micrometer, OrderStatusHistoryRepository
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service.order;
+
+import com.baganov.pizzanat.entity.OrderStatusHistory;
+import com.baganov.pizzanat.model.dto.AdminStatsResponse;
+import com.baganov.pizzanat.repository.OrderStatusHistoryRepository;
+import com.baganov.pizzanat.util.TimeZoneUtils;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Каждый завершенный этап (заказ вышел из статуса) добавляется в окно своего статуса за последний час;
+ * устаревшие этапы отбрасываются при записи и чтении. Перцентили считаются по точным значениям окна -
+ * за час набирается не больше нескольких сотен этапов на статус.
+ * <p>
+ * Каждый этап пишется один раз в таймер orders.stage.duration (тег stage) - по нему считаются
+ * количество и сумма. Перцентили окон 15 минут и час публикуются из тех же окон в памяти как
+ * orders.stage.duration.window (теги stage, window, quantile) - по ним строятся оповещения
+ * об отставании кухни. Окна в памяти видят переходы своего узла и при старте
+ * заполняются этапами за последний час из order_status_history.
+ */
+@Slf4j
+@Service
+public class StageLatencyTracker {
+
+    static final Duration SHORT_WINDOW = Duration.ofMinutes(15);
+    static final Duration LONG_WINDOW = Duration.ofHours(1);
+
+    /**
+     * Ограничение памяти на случай всплеска: самые старые этапы вытесняются
+     */
+    private static final int MAX_SAMPLES_PER_STAGE = 10_000;
+
+    private final OrderStatusHistoryRepository historyRepository;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+    private final Map<String, Stage> stages = new ConcurrentHashMap<>();
+
+    @Autowired
+    public StageLatencyTracker(OrderStatusHistoryRepository historyRepository, MeterRegistry meterRegistry) {
+        this(historyRepository, meterRegistry, Clock.system(TimeZoneUtils.MOSCOW_ZONE));
+    }
+
+    StageLatencyTracker(OrderStatusHistoryRepository historyRepository, MeterRegistry meterRegistry, Clock clock) {
+        this.historyRepository = historyRepository;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+    }
+
+    /**
+     * Заказ провел timeInStage в статусе stage и только что из него вышел
+     */
+    public void record(String stage, Duration timeInStage) {
+        if (stage == null || timeInStage == null || timeInStage.isNegative()) {
+            return;
+        }
+        Stage window = stage(stage);
+        window.add(clock.millis(), timeInStage.toMillis());
+        window.timer.record(timeInStage);
+    }
+
+    /**
+     * Перцентили по статусам за 15 минут и за час; статусы без этапов за час не попадают в ответ
+     */
+    public Map<String, AdminStatsResponse.StageLatency> snapshot() {
+        long now = clock.millis();
+        Map<String, AdminStatsResponse.StageLatency> result = new TreeMap<>();
+        stages.forEach((name, stage) -> {
+            long[][] samples = stage.samples(now);
+            if (samples.length > 0) {
+                result.put(name, AdminStatsResponse.StageLatency.builder()
+                        .last15Minutes(percentiles(samples, now - SHORT_WINDOW.toMillis()))
+                        .lastHour(percentiles(samples, now - LONG_WINDOW.toMillis()))
+                        .build());
+            }
+        });
+        return result;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            Instant since = clock.instant().minus(LONG_WINDOW);
+            List<OrderStatusHistory> recent = historyRepository
+                    .findByChangedAtAfterAndDurationMsIsNotNullOrderByChangedAtAsc(
+                            since.atZone(TimeZoneUtils.MOSCOW_ZONE).toLocalDateTime());
+            for (OrderStatusHistory entry : recent) {
+                if (entry.getFromStatus() == null) {
+                    continue;
+                }
+                long at = entry.getChangedAt().atZone(TimeZoneUtils.MOSCOW_ZONE).toInstant().toEpochMilli();
+                stage(entry.getFromStatus()).add(at, entry.getDurationMs());
+            }
+            log.info("Окна времени этапов заказов восстановлены из журнала: {} этапов", recent.size());
+        } catch (Exception e) {
+            log.error("Не удалось восстановить окна времени этапов заказов: {}", e.getMessage(), e);
+        }
+    }
+
+    private Stage stage(String name) {
+        return stages.computeIfAbsent(name, Stage::new);
+    }
+
+    private static AdminStatsResponse.LatencyWindow percentiles(long[][] samples, long since) {
+        long[] durations = windowDurations(samples, since);
+        return AdminStatsResponse.LatencyWindow.builder()
+                .count((long) durations.length)
+                .p50Ms(percentile(durations, 0.5))
+                .p95Ms(percentile(durations, 0.95))
+                .build();
+    }
+
+    private static Long windowPercentile(long[][] samples, long since, double p) {
+        return percentile(windowDurations(samples, since), p);
+    }
+
+    private static long[] windowDurations(long[][] samples, long since) {
+        return Arrays.stream(samples)
+                .filter(sample -> sample[0] >= since)
+                .mapToLong(sample -> sample[1])
+                .sorted()
+                .toArray();
+    }
+
+    /**
+     * Перцентиль по рангу: наименьшее значение, которое не меньше доли p всех значений
+     */
+    static Long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return null;
+        }
+        int rank = (int) Math.ceil(p * sorted.length);
+        return sorted[Math.max(rank, 1) - 1];
+    }
+
+    /**
+     * Окно одного статуса: пары [время выхода из статуса, длительность] в порядке записи
+     */
+    private final class Stage {
+
+        private final Deque<long[]> samples = new ArrayDeque<>();
+        private final Timer timer;
+
+        private Stage(String name) {
+            this.timer = Timer.builder("orders.stage.duration")
+                    .description("Время нахождения заказа в статусе до перехода в следующий")
+                    .tag("stage", name)
+                    .register(meterRegistry);
+            registerPercentile(name, "15m", SHORT_WINDOW, 0.5);
+            registerPercentile(name, "15m", SHORT_WINDOW, 0.95);
+            registerPercentile(name, "1h", LONG_WINDOW, 0.5);
+            registerPercentile(name, "1h", LONG_WINDOW, 0.95);
+        }
+
+        /**
+         * Перцентиль окна в секундах; NaN, если за окно этапов не было
+         */
+        private void registerPercentile(String name, String window, Duration length, double quantile) {
+            Gauge.builder("orders.stage.duration.window", this, stage -> {
+                        long now = clock.millis();
+                        Long ms = windowPercentile(stage.samples(now), now - length.toMillis(), quantile);
+                        return ms != null ? ms / 1000.0 : Double.NaN;
+                    })
+                    .description("Перцентиль времени нахождения заказа в статусе за скользящее окно")
+                    .tag("stage", name)
+                    .tag("window", window)
+                    .tag("quantile", String.valueOf(quantile))
+                    .baseUnit("seconds")
+                    .strongReference(true)
+                    .register(meterRegistry);
+        }
+
+        synchronized void add(long at, long durationMs) {
+            samples.addLast(new long[] { at, durationMs });
+            if (samples.size() > MAX_SAMPLES_PER_STAGE) {
+                samples.removeFirst();
+            }
+            evictBefore(at - LONG_WINDOW.toMillis());
+        }
+
+        synchronized long[][] samples(long now) {
+            evictBefore(now - LONG_WINDOW.toMillis());
+            return samples.toArray(long[][]::new);
+        }
+
+        private void evictBefore(long since) {
+            while (!samples.isEmpty() && samples.peekFirst()[0] < since) {
+                samples.removeFirst();
+            }
+        }
+    }
+}
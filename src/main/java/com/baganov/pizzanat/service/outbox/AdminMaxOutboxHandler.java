@@ -0,0 +1,44 @@
+/**
+ * @file: AdminMaxOutboxHandler.java
+ * @description: Доставка событий заказов администраторам в MAX из outbox
+ * @dependencies: MaxAdminBotService, MaxAdminNotificationService
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service.outbox;
+
+import com.baganov.pizzanat.entity.Order;
+import com.baganov.pizzanat.entity.OutboxMessage;
+import com.baganov.pizzanat.service.MaxAdminBotService;
+import com.baganov.pizzanat.service.MaxAdminNotificationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+@Component
+@RequiredArgsConstructor
+public class AdminMaxOutboxHandler implements OutboxHandler {
+
+    private final MaxAdminBotService maxAdminBotService;
+    private final MaxAdminNotificationService maxAdminNotificationService;
+
+    @Override
+    public OutboxMessage.Destination destination() {
+        return OutboxMessage.Destination.ADMIN_MAX;
+    }
+
+    @Override
+    public boolean supports(OutboxMessage.EventType eventType) {
+        return eventType == OutboxMessage.EventType.ORDER_CREATED
+                || eventType == OutboxMessage.EventType.ORDER_PAID;
+    }
+
+    @Override
+    public void handle(OutboxMessage message, Order order, Map<String, String> payload, OutboxDelivery delivery) {
+        if (message.getEventType() == OutboxMessage.EventType.ORDER_PAID) {
+            maxAdminBotService.notifyAboutPaymentSuccess(order, delivery);
+        }
+        maxAdminBotService.notifyAboutNewOrder(order, delivery);
+        delivery.send("admin-chat", () -> maxAdminNotificationService.notifyAboutNewOrder(order));
+    }
+}
@@ -0,0 +1,42 @@
+/**
+ * @file: AdminTelegramOutboxHandler.java
+ * @description: Доставка событий заказов в админский Telegram бот из outbox
+ * @dependencies: AdminBotService
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service.outbox;
+
+import com.baganov.pizzanat.entity.Order;
+import com.baganov.pizzanat.entity.OutboxMessage;
+import com.baganov.pizzanat.service.AdminBotService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+@Component
+@RequiredArgsConstructor
+public class AdminTelegramOutboxHandler implements OutboxHandler {
+
+    private final AdminBotService adminBotService;
+
+    @Override
+    public OutboxMessage.Destination destination() {
+        return OutboxMessage.Destination.ADMIN_TELEGRAM;
+    }
+
+    @Override
+    public boolean supports(OutboxMessage.EventType eventType) {
+        return eventType == OutboxMessage.EventType.ORDER_CREATED
+                || eventType == OutboxMessage.EventType.ORDER_PAID;
+    }
+
+    @Override
+    public void handle(OutboxMessage message, Order order, Map<String, String> payload, OutboxDelivery delivery) {
+        if (message.getEventType() == OutboxMessage.EventType.ORDER_PAID) {
+            adminBotService.sendSimplePaymentNotification(order, delivery);
+        }
+        // Для оплаченного заказа AdminBotService отправляет карточку "ЗАКАЗ ОПЛАЧЕН"
+        adminBotService.notifyAboutNewOrder(order, delivery);
+    }
+}
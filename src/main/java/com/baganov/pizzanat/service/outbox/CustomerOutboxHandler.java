@@ -0,0 +1,44 @@
+/**
+ * @file: CustomerOutboxHandler.java
+ * @description: Доставка персональных уведомлений о заказе пользователю из outbox
+ * @dependencies: TelegramUserNotificationService, OrderService
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service.outbox;
+
+import com.baganov.pizzanat.entity.Order;
+import com.baganov.pizzanat.entity.OutboxMessage;
+import com.baganov.pizzanat.service.OrderService;
+import com.baganov.pizzanat.service.TelegramUserNotificationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+@Component
+@RequiredArgsConstructor
+public class CustomerOutboxHandler implements OutboxHandler {
+
+    private final TelegramUserNotificationService telegramUserNotificationService;
+    private final OrderService orderService;
+
+    @Override
+    public OutboxMessage.Destination destination() {
+        return OutboxMessage.Destination.CUSTOMER;
+    }
+
+    @Override
+    public boolean supports(OutboxMessage.EventType eventType) {
+        return true;
+    }
+
+    @Override
+    public void handle(OutboxMessage message, Order order, Map<String, String> payload, OutboxDelivery delivery) {
+        switch (message.getEventType()) {
+            case ORDER_CREATED -> telegramUserNotificationService.sendPersonalNewOrderNotification(order);
+            case ORDER_PAID -> telegramUserNotificationService.sendSimplePaymentSuccessNotification(order);
+            case ORDER_STATUS_CHANGED -> orderService.notifyCustomerAboutStatusChange(order,
+                    payload.get(OrderService.STATUS_FROM), payload.get(OrderService.STATUS_TO), delivery);
+        }
+    }
+}
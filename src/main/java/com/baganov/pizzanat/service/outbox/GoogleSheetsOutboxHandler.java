@@ -0,0 +1,44 @@
+/**
+ * @file: GoogleSheetsOutboxHandler.java
+ * @description: Выгрузка заказов и оплат в Google Sheets из outbox
+ * @dependencies: GoogleSheetsService
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service.outbox;
+
+import com.baganov.pizzanat.entity.Order;
+import com.baganov.pizzanat.entity.OutboxMessage;
+import com.baganov.pizzanat.entity.PaymentStatus;
+import com.baganov.pizzanat.service.GoogleSheetsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "google.sheets.enabled", havingValue = "true")
+public class GoogleSheetsOutboxHandler implements OutboxHandler {
+
+    private final GoogleSheetsService googleSheetsService;
+
+    @Override
+    public OutboxMessage.Destination destination() {
+        return OutboxMessage.Destination.GOOGLE_SHEETS;
+    }
+
+    @Override
+    public boolean supports(OutboxMessage.EventType eventType) {
+        return eventType == OutboxMessage.EventType.ORDER_CREATED
+                || eventType == OutboxMessage.EventType.ORDER_PAID;
+    }
+
+    @Override
+    public void handle(OutboxMessage message, Order order, Map<String, String> payload, OutboxDelivery delivery) {
+        if (message.getEventType() == OutboxMessage.EventType.ORDER_PAID) {
+            googleSheetsService.updatePaymentStatus(order.getId(), PaymentStatus.SUCCEEDED.getDescription());
+        }
+        googleSheetsService.addOrderToSheet(order);
+    }
+}
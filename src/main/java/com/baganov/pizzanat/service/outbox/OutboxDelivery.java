@@ -0,0 +1,91 @@
+/**
+ * @file: OutboxDelivery.java
+ * @description: Учет получателей одного сообщения outbox при рассылке нескольким адресатам
+ * @dependencies: OutboxService
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service.outbox;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Ошибка отправки одному получателю не прерывает рассылку остальным, а запоминается
+ * и выбрасывается из {@link #complete()}: сообщение уходит на повтор. Успешная отправка
+ * сразу сохраняется в сообщении, поэтому при повторе уведомление получают только те,
+ * кому его доставить не удалось.
+ * Используется одним потоком доставки.
+ */
+@Slf4j
+public class OutboxDelivery {
+
+    private final Set<String> delivered;
+    private final Consumer<String> onDelivered;
+    private Exception failure;
+
+    /**
+     * @param delivered   получатели, которым сообщение доставлено в предыдущих попытках
+     * @param onDelivered сохранение успешной отправки получателю
+     */
+    public OutboxDelivery(Collection<String> delivered, Consumer<String> onDelivered) {
+        this.delivered = new HashSet<>(delivered);
+        this.onDelivered = onDelivered;
+    }
+
+    /**
+     * Отправляет сообщение получателю, если оно не было доставлено ему раньше
+     *
+     * @param recipient ключ получателя, уникальный в пределах сообщения (например, "order:12345")
+     */
+    public void send(String recipient, Send send) {
+        if (delivered.contains(recipient)) {
+            log.debug("Outbox: получатель {} уже получил сообщение, повторная отправка пропущена", recipient);
+            return;
+        }
+        try {
+            send.run();
+        } catch (Exception e) {
+            log.warn("Outbox: ошибка отправки получателю {}: {}", recipient, e.getMessage());
+            recordFailure(e);
+            return;
+        }
+        delivered.add(recipient);
+        try {
+            onDelivered.accept(recipient);
+        } catch (Exception e) {
+            // Без сохраненной отметки получатель может получить сообщение повторно
+            log.error("Outbox: не удалось сохранить доставку получателю {}: {}", recipient, e.getMessage());
+            recordFailure(e);
+        }
+    }
+
+    public boolean isDelivered(String recipient) {
+        return delivered.contains(recipient);
+    }
+
+    /**
+     * Завершает рассылку: первая ошибка (остальные - в suppressed) означает неудачную попытку
+     */
+    public void complete() throws Exception {
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void recordFailure(Exception e) {
+        if (failure == null) {
+            failure = e;
+        } else if (failure != e) {
+            failure.addSuppressed(e);
+        }
+    }
+
+    @FunctionalInterface
+    public interface Send {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,251 @@
+/**
+ * @file: OutboxDispatcher.java
+ * @description: Асинхронная доставка сообщений outbox с ограничением параллельности по направлениям
+ * @dependencies: OutboxService, OutboxHandler, OutboxProperties, Micrometer
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service.outbox;
+
+import com.baganov.pizzanat.config.OutboxProperties;
+import com.baganov.pizzanat.entity.Order;
+import com.baganov.pizzanat.entity.OutboxMessage;
+import com.baganov.pizzanat.event.OutboxMessagesEnqueuedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Для каждого направления - своя полоса: пул потоков и семафор на app.outbox.concurrency,
+ * поэтому медленный Google Sheets не задерживает уведомления в Telegram.
+ * Полоса будится после фиксации транзакции, записавшей сообщения, и периодическим опросом
+ * (повторы после ошибок, сообщения других узлов, просроченная аренда).
+ * Выборка с SKIP LOCKED позволяет запускать несколько узлов приложения.
+ */
+@Slf4j
+@Component
+public class OutboxDispatcher {
+
+    private final OutboxService outboxService;
+    private final Map<OutboxMessage.Destination, Lane> lanes = new EnumMap<>(OutboxMessage.Destination.class);
+    private final ExecutorService triggerExecutor = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("outbox-trigger").daemon(true).factory());
+    private final AtomicLong unfinishedMessages = new AtomicLong();
+    private final AtomicLong failedMessages = new AtomicLong();
+    private final AtomicLong lagSeconds = new AtomicLong();
+
+    public OutboxDispatcher(List<OutboxHandler> handlers,
+            OutboxService outboxService,
+            OutboxProperties properties,
+            MeterRegistry meterRegistry) {
+        this.outboxService = outboxService;
+        for (OutboxHandler handler : handlers) {
+            lanes.put(handler.destination(), new Lane(handler,
+                    Math.max(1, properties.concurrencyFor(handler.destination())), meterRegistry));
+        }
+
+        Gauge.builder("outbox.pending", unfinishedMessages, AtomicLong::get)
+                .description("Недоставленные сообщения outbox")
+                .register(meterRegistry);
+        Gauge.builder("outbox.failed", failedMessages, AtomicLong::get)
+                .description("Сообщения outbox, исчерпавшие попытки доставки")
+                .register(meterRegistry);
+        Gauge.builder("outbox.lag.seconds", lagSeconds, AtomicLong::get)
+                .description("Возраст самого старого недоставленного сообщения outbox")
+                .register(meterRegistry);
+
+        log.info("Outbox: направления доставки {}", lanes.keySet());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onMessagesEnqueued(OutboxMessagesEnqueuedEvent event) {
+        event.getDestinations().forEach(this::trigger);
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval-ms:5000}")
+    public void poll() {
+        lanes.keySet().forEach(this::trigger);
+        try {
+            unfinishedMessages.set(outboxService.countUnfinished());
+            failedMessages.set(outboxService.countFailed());
+            LocalDateTime oldest = outboxService.findOldestUnfinishedCreatedAt();
+            lagSeconds.set(oldest != null ? Math.max(0, Duration.between(oldest, LocalDateTime.now()).getSeconds()) : 0);
+        } catch (Exception e) {
+            log.warn("Outbox: не удалось обновить метрики очереди: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Ежедневно в 4:15 удаляются доставленные сообщения старше app.outbox.sent-retention
+     */
+    @Scheduled(cron = "${app.outbox.purge-cron:0 15 4 * * *}")
+    public void purgeSentMessages() {
+        try {
+            int deleted = outboxService.purgeSent();
+            if (deleted > 0) {
+                log.info("Outbox: удалено доставленных сообщений: {}", deleted);
+            }
+        } catch (Exception e) {
+            log.error("Outbox: ошибка удаления доставленных сообщений: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Запросы на выборку сообщений одной полосы объединяются: пока выборка ожидает запуска, новые игнорируются
+     */
+    void trigger(OutboxMessage.Destination destination) {
+        Lane lane = lanes.get(destination);
+        if (lane == null || !lane.drainRequested.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            triggerExecutor.execute(() -> {
+                lane.drainRequested.set(false);
+                drain(lane);
+            });
+        } catch (Exception e) {
+            lane.drainRequested.set(false);
+            log.debug("Outbox: выборка {} не запущена: {}", destination, e.getMessage());
+        }
+    }
+
+    private void drain(Lane lane) {
+        int permits = lane.permits.drainPermits();
+        if (permits == 0) {
+            return;
+        }
+
+        List<OutboxMessage> messages;
+        try {
+            messages = outboxService.claim(lane.handler.destination(), permits);
+        } catch (Exception e) {
+            lane.permits.release(permits);
+            log.error("Outbox: ошибка выборки сообщений {}: {}", lane.handler.destination(), e.getMessage());
+            return;
+        }
+        lane.permits.release(permits - messages.size());
+
+        for (OutboxMessage message : messages) {
+            lane.executor.execute(() -> deliver(lane, message));
+        }
+    }
+
+    private void deliver(Lane lane, OutboxMessage message) {
+        Timer.Sample sample = Timer.start();
+        try {
+            Optional<Order> order = outboxService.loadOrder(message.getAggregateId());
+            if (order.isEmpty()) {
+                log.warn("Outbox: заказ #{} для сообщения #{} не найден, сообщение пропущено",
+                        message.getAggregateId(), message.getId());
+            } else {
+                OutboxDelivery delivery = new OutboxDelivery(outboxService.readDeliveredRecipients(message),
+                        recipient -> outboxService.markRecipientDelivered(message.getId(), recipient));
+                lane.handler.handle(message, order.get(), outboxService.readPayload(message), delivery);
+                delivery.complete();
+            }
+            outboxService.markSent(message.getId());
+            lane.sent.increment();
+            log.debug("Outbox: сообщение #{} ({} заказа #{}) доставлено в {}", message.getId(),
+                    message.getEventType(), message.getAggregateId(), message.getDestination());
+        } catch (Exception e) {
+            fail(lane, message, e);
+        } finally {
+            sample.stop(lane.deliveryTimer);
+            lane.permits.release();
+            trigger(lane.handler.destination());
+        }
+    }
+
+    private void fail(Lane lane, OutboxMessage message, Exception error) {
+        lane.failed.increment();
+        try {
+            if (outboxService.markFailed(message.getId(), error.getMessage())) {
+                lane.dead.increment();
+                log.error("Outbox: сообщение #{} ({} заказа #{}) в {} не доставлено после всех попыток: {}",
+                        message.getId(), message.getEventType(), message.getAggregateId(),
+                        message.getDestination(), error.getMessage(), error);
+            } else {
+                log.warn("Outbox: ошибка доставки сообщения #{} ({} заказа #{}) в {}, будет повтор: {}",
+                        message.getId(), message.getEventType(), message.getAggregateId(),
+                        message.getDestination(), error.getMessage());
+            }
+        } catch (Exception e) {
+            // Сообщение останется PROCESSING и будет выбрано повторно после истечения аренды
+            log.error("Outbox: не удалось сохранить ошибку доставки сообщения #{}: {}", message.getId(),
+                    e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        triggerExecutor.shutdownNow();
+        lanes.values().forEach(lane -> lane.executor.shutdown());
+        for (Lane lane : lanes.values()) {
+            try {
+                if (!lane.executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                    lane.executor.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                lane.executor.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static final class Lane {
+
+        private final OutboxHandler handler;
+        private final Semaphore permits;
+        private final ExecutorService executor;
+        private final AtomicBoolean drainRequested = new AtomicBoolean();
+        private final Counter sent;
+        private final Counter failed;
+        private final Counter dead;
+        private final Timer deliveryTimer;
+
+        private Lane(OutboxHandler handler, int concurrency, MeterRegistry meterRegistry) {
+            String destination = handler.destination().name();
+            this.handler = handler;
+            this.permits = new Semaphore(concurrency);
+            this.executor = Executors.newFixedThreadPool(concurrency, Thread.ofPlatform()
+                    .name("outbox-" + destination.toLowerCase() + "-", 1)
+                    .daemon(true)
+                    .factory());
+            this.sent = Counter.builder("outbox.messages.sent")
+                    .description("Доставленные сообщения outbox")
+                    .tag("destination", destination)
+                    .register(meterRegistry);
+            this.failed = Counter.builder("outbox.messages.failed")
+                    .description("Неудачные попытки доставки сообщений outbox")
+                    .tag("destination", destination)
+                    .register(meterRegistry);
+            this.dead = Counter.builder("outbox.messages.dead")
+                    .description("Сообщения outbox, исчерпавшие попытки доставки")
+                    .tag("destination", destination)
+                    .register(meterRegistry);
+            this.deliveryTimer = Timer.builder("outbox.delivery.time")
+                    .description("Время доставки сообщения outbox")
+                    .tag("destination", destination)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+/**
+ * @file: OutboxHandler.java
+ * @description: Обработчик сообщений outbox для одного направления доставки
+ * @dependencies: OutboxMessage, Order
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service.outbox;
+
+import com.baganov.pizzanat.entity.Order;
+import com.baganov.pizzanat.entity.OutboxMessage;
+
+import java.util.Map;
+
+/**
+ * Вызывается вне транзакции. Исключение означает неудачную попытку: сообщение будет доставлено
+ * повторно. Каждая отправка выполняется через {@link OutboxDelivery#send}, поэтому повтор
+ * после частичной рассылки (часть администраторов уже получила уведомление) не дублирует ее,
+ * а ошибки отправки отдельным получателям выбрасываются диспетчером после обработчика.
+ */
+public interface OutboxHandler {
+
+    OutboxMessage.Destination destination();
+
+    boolean supports(OutboxMessage.EventType eventType);
+
+    /**
+     * @param order    заказ, загруженный вместе с пользователем, статусом, пунктом доставки и позициями
+     * @param payload  дополнительные данные события (пустые, если их нет)
+     * @param delivery получатели сообщения с учетом предыдущих попыток
+     */
+    void handle(OutboxMessage message, Order order, Map<String, String> payload, OutboxDelivery delivery)
+            throws Exception;
+}
@@ -0,0 +1,240 @@
+/**
+ * @file: OutboxService.java
+ * @description: Запись сообщений outbox в транзакции заказа и управление их состоянием
+ * @dependencies: OutboxMessageRepository, OrderRepository, OutboxHandler, Jackson
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service.outbox;
+
+import com.baganov.pizzanat.config.OutboxProperties;
+import com.baganov.pizzanat.entity.Order;
+import com.baganov.pizzanat.entity.OutboxMessage;
+import com.baganov.pizzanat.event.OutboxMessagesEnqueuedEvent;
+import com.baganov.pizzanat.repository.OrderRepository;
+import com.baganov.pizzanat.repository.OutboxMessageRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Сообщение записывается отдельно для каждого направления, обработчик которого поддерживает событие:
+ * повторы и порядок доставки у направлений независимы.
+ */
+@Slf4j
+@Service
+public class OutboxService {
+
+    private static final Set<OutboxMessage.Status> UNFINISHED =
+            EnumSet.of(OutboxMessage.Status.PENDING, OutboxMessage.Status.PROCESSING);
+    private static final int MAX_ERROR_LENGTH = 2000;
+    private static final String RECIPIENT_SEPARATOR = "\n";
+
+    private final OutboxMessageRepository outboxMessageRepository;
+    private final OrderRepository orderRepository;
+    private final ObjectProvider<OutboxHandler> handlers;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final OutboxProperties properties;
+    private final Map<OutboxMessage.EventType, Set<OutboxMessage.Destination>> routes = new ConcurrentHashMap<>();
+
+    public OutboxService(OutboxMessageRepository outboxMessageRepository,
+            OrderRepository orderRepository,
+            ObjectProvider<OutboxHandler> handlers,
+            ApplicationEventPublisher eventPublisher,
+            ObjectMapper objectMapper,
+            OutboxProperties properties) {
+        this.outboxMessageRepository = outboxMessageRepository;
+        this.orderRepository = orderRepository;
+        this.handlers = handlers;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+    }
+
+    /**
+     * Записывает событие заказа в outbox в текущей транзакции.
+     * Доставка начинается после фиксации транзакции; при откате сообщения исчезают вместе с заказом.
+     */
+    @Transactional
+    public void enqueue(OutboxMessage.EventType eventType, Integer orderId, Map<String, String> payload) {
+        Set<OutboxMessage.Destination> destinations = routes.computeIfAbsent(eventType, this::resolveDestinations);
+        if (destinations.isEmpty()) {
+            return;
+        }
+
+        String payloadJson = writePayload(payload);
+        List<OutboxMessage> messages = new ArrayList<>(destinations.size());
+        for (OutboxMessage.Destination destination : destinations) {
+            messages.add(OutboxMessage.builder()
+                    .aggregateId(orderId)
+                    .eventType(eventType)
+                    .destination(destination)
+                    .payload(payloadJson)
+                    .build());
+        }
+        outboxMessageRepository.saveAll(messages);
+        eventPublisher.publishEvent(new OutboxMessagesEnqueuedEvent(this, destinations));
+        log.debug("Событие {} заказа #{} записано в outbox для направлений {}", eventType, orderId, destinations);
+    }
+
+    /**
+     * Забирает до limit сообщений направления, закрепляя их за узлом на время аренды
+     */
+    @Transactional
+    public List<OutboxMessage> claim(OutboxMessage.Destination destination, int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxMessage> messages = outboxMessageRepository.findDispatchable(destination, now,
+                OutboxMessage.Status.PENDING, OutboxMessage.Status.PROCESSING, PageRequest.of(0, limit));
+        for (OutboxMessage message : messages) {
+            message.setStatus(OutboxMessage.Status.PROCESSING);
+            message.setLockedUntil(now.plus(properties.getLease()));
+        }
+        return messages;
+    }
+
+    @Transactional
+    public void markSent(Long messageId) {
+        outboxMessageRepository.findById(messageId).ifPresent(message -> {
+            message.setStatus(OutboxMessage.Status.SENT);
+            message.setAttempts(message.getAttempts() + 1);
+            message.setProcessedAt(LocalDateTime.now());
+            message.setLockedUntil(null);
+            message.setLastError(null);
+        });
+    }
+
+    /**
+     * Сохраняет доставку сообщения одному получателю сразу после отправки, в отдельной транзакции
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void markRecipientDelivered(Long messageId, String recipient) {
+        outboxMessageRepository.findById(messageId).ifPresent(message -> message.setDeliveredRecipients(
+                message.getDeliveredRecipients() == null
+                        ? recipient
+                        : message.getDeliveredRecipients() + RECIPIENT_SEPARATOR + recipient));
+    }
+
+    /**
+     * Фиксирует неудачную попытку: следующая попытка откладывается экспоненциально,
+     * после maxAttempts сообщение помечается FAILED и перестает задерживать следующие сообщения заказа.
+     *
+     * @return true, если попытки исчерпаны
+     */
+    @Transactional
+    public boolean markFailed(Long messageId, String error) {
+        Optional<OutboxMessage> found = outboxMessageRepository.findById(messageId);
+        if (found.isEmpty()) {
+            return false;
+        }
+        OutboxMessage message = found.get();
+        int attempts = message.getAttempts() + 1;
+        LocalDateTime now = LocalDateTime.now();
+
+        message.setAttempts(attempts);
+        message.setLockedUntil(null);
+        message.setLastError(error != null && error.length() > MAX_ERROR_LENGTH
+                ? error.substring(0, MAX_ERROR_LENGTH)
+                : error);
+
+        if (attempts >= properties.getMaxAttempts()) {
+            message.setStatus(OutboxMessage.Status.FAILED);
+            message.setProcessedAt(now);
+            return true;
+        }
+        message.setStatus(OutboxMessage.Status.PENDING);
+        message.setNextAttemptAt(now.plus(backoff(attempts)));
+        return false;
+    }
+
+    /**
+     * Заказ со связями, которые используют обработчики, одним запросом
+     */
+    @Transactional(readOnly = true)
+    public Optional<Order> loadOrder(Integer orderId) {
+        return orderRepository.findByIdForNotification(orderId);
+    }
+
+    public Map<String, String> readPayload(OutboxMessage message) {
+        if (message.getPayload() == null || message.getPayload().isBlank()) {
+            return Map.of();
+        }
+        try {
+            return objectMapper.readValue(message.getPayload(), new TypeReference<Map<String, String>>() {
+            });
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Некорректные данные сообщения outbox #" + message.getId(), e);
+        }
+    }
+
+    public Set<String> readDeliveredRecipients(OutboxMessage message) {
+        if (message.getDeliveredRecipients() == null || message.getDeliveredRecipients().isBlank()) {
+            return Set.of();
+        }
+        return Set.of(message.getDeliveredRecipients().split(RECIPIENT_SEPARATOR));
+    }
+
+    @Transactional(readOnly = true)
+    public long countUnfinished() {
+        return outboxMessageRepository.countByStatusIn(UNFINISHED);
+    }
+
+    @Transactional(readOnly = true)
+    public long countFailed() {
+        return outboxMessageRepository.countByStatus(OutboxMessage.Status.FAILED);
+    }
+
+    /**
+     * Время создания самого старого недоставленного сообщения (null, если очередь пуста)
+     */
+    @Transactional(readOnly = true)
+    public LocalDateTime findOldestUnfinishedCreatedAt() {
+        return outboxMessageRepository.findOldestCreatedAt(UNFINISHED);
+    }
+
+    @Transactional
+    public int purgeSent() {
+        return outboxMessageRepository.deleteProcessedBefore(OutboxMessage.Status.SENT,
+                LocalDateTime.now().minus(properties.getSentRetention()));
+    }
+
+    Duration backoff(int attempts) {
+        Duration delay = properties.getInitialBackoff().multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(properties.getMaxBackoff()) > 0 ? properties.getMaxBackoff() : delay;
+    }
+
+    private Set<OutboxMessage.Destination> resolveDestinations(OutboxMessage.EventType eventType) {
+        Set<OutboxMessage.Destination> destinations = EnumSet.noneOf(OutboxMessage.Destination.class);
+        handlers.orderedStream()
+                .filter(handler -> handler.supports(eventType))
+                .forEach(handler -> destinations.add(handler.destination()));
+        return destinations;
+    }
+
+    private String writePayload(Map<String, String> payload) {
+        if (payload == null || payload.isEmpty()) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Не удалось сериализовать данные события outbox", e);
+        }
+    }
+}
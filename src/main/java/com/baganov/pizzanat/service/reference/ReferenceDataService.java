@@ -0,0 +1,196 @@
+/**
+ * @file: ReferenceDataService.java
+ * @description: Справочники в памяти: статусы заказов, роли и активные пункты выдачи
+ * @dependencies: OrderStatusRepository, RoleRepository, DeliveryLocationRepository, EntityManager
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service.reference;
+
+import com.baganov.pizzanat.entity.DeliveryLocation;
+import com.baganov.pizzanat.entity.OrderStatus;
+import com.baganov.pizzanat.entity.Role;
+import com.baganov.pizzanat.event.ReferenceDataChangedEvent;
+import com.baganov.pizzanat.repository.DeliveryLocationRepository;
+import com.baganov.pizzanat.repository.OrderStatusRepository;
+import com.baganov.pizzanat.repository.RoleRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Маленькие, почти неизменяемые таблицы загружаются в память при старте и перечитываются
+ * после ReferenceDataChangedEvent и по расписанию. Промах не кэшируется: значение читается из БД
+ * в текущей транзакции, как до появления справочника.
+ * Для связей новых сущностей выдаются ссылки EntityManager.getReference - без SELECT.
+ * Пункты "Доставка по адресу", которые создаются на каждый новый адрес, в справочник не входят.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReferenceDataService {
+
+    /**
+     * Префикс имени пунктов, созданных из адреса доставки при оформлении заказа
+     */
+    public static final String ADDRESS_LOCATION_PREFIX = "Доставка по адресу: ";
+
+    private final OrderStatusRepository orderStatusRepository;
+    private final RoleRepository roleRepository;
+    private final DeliveryLocationRepository deliveryLocationRepository;
+    private final EntityManager entityManager;
+
+    private final AtomicReference<ReferenceData> current = new AtomicReference<>();
+
+    /**
+     * Статус заказа по имени (без учета регистра); возвращается отсоединенная сущность только для чтения
+     */
+    public Optional<OrderStatus> findStatus(String name) {
+        if (name == null) {
+            return Optional.empty();
+        }
+        String key = name.trim().toUpperCase();
+        return lookup(data -> data.statusesByName().get(key), () -> orderStatusRepository.findByName(key));
+    }
+
+    public Optional<OrderStatus> findStatus(Integer id) {
+        return id == null
+                ? Optional.empty()
+                : lookup(data -> data.statusesById().get(id), () -> orderStatusRepository.findById(id));
+    }
+
+    /**
+     * Активные статусы заказа из снимка справочника
+     */
+    public List<OrderStatus> getActiveStatuses() {
+        return data().statusesById().values().stream()
+                .filter(OrderStatus::isActive)
+                .toList();
+    }
+
+    /**
+     * Ссылка на статус для Order.status без загрузки из БД
+     */
+    public Optional<OrderStatus> statusReference(String name) {
+        return findStatus(name).map(status -> entityManager.getReference(OrderStatus.class, status.getId()));
+    }
+
+    /**
+     * Роль по имени. Возвращается отсоединенная сущность, а не прокси: Role использует
+     * equals/hashCode из Lombok, и добавление прокси в Set пользователя все равно загрузило бы роль.
+     */
+    public Optional<Role> findRole(String name) {
+        return name == null
+                ? Optional.empty()
+                : lookup(data -> data.rolesByName().get(name), () -> roleRepository.findByName(name));
+    }
+
+    /**
+     * Активный пункт выдачи по ID; отсоединенная сущность только для чтения.
+     * Пункты из адресов и неактивные пункты здесь не находятся - вызывающий код читает их из БД.
+     */
+    public Optional<DeliveryLocation> findActiveLocation(Integer id) {
+        return id == null ? Optional.empty() : Optional.ofNullable(data().locationsById().get(id));
+    }
+
+    public Optional<DeliveryLocation> locationReference(Integer id) {
+        return findActiveLocation(id).map(this::locationReference);
+    }
+
+    /**
+     * Ссылка на пункт из findActiveLocation для Order.deliveryLocation без загрузки из БД.
+     * Данные пункта читаются из самого снимка: обращение к полям ссылки выполнит SELECT.
+     */
+    public DeliveryLocation locationReference(DeliveryLocation location) {
+        return entityManager.getReference(DeliveryLocation.class, location.getId());
+    }
+
+    public List<DeliveryLocation> getActiveLocations() {
+        return List.copyOf(data().locationsById().values());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            log.error("Не удалось загрузить справочники при старте: {}", e.getMessage(), e);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onReferenceDataChanged(ReferenceDataChangedEvent event) {
+        log.info("Справочники изменены ({}), перечитываем", event.getReason());
+        refresh();
+    }
+
+    /**
+     * Страховка для изменений, сделанных напрямую в БД или на другом узле
+     */
+    @Scheduled(fixedDelayString = "${app.reference-data.refresh-interval-ms:600000}",
+            initialDelayString = "${app.reference-data.refresh-interval-ms:600000}")
+    public void scheduledRefresh() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            log.warn("Не удалось обновить справочники: {}", e.getMessage());
+        }
+    }
+
+    public synchronized ReferenceData refresh() {
+        List<OrderStatus> statuses = orderStatusRepository.findAll();
+        List<Role> roles = roleRepository.findAll();
+        List<DeliveryLocation> locations = deliveryLocationRepository.findActivePickupLocations(
+                ADDRESS_LOCATION_PREFIX + "%");
+
+        ReferenceData data = new ReferenceData(
+                statuses.stream().collect(Collectors.toUnmodifiableMap(
+                        status -> status.getName().toUpperCase(), Function.identity(), (first, second) -> first)),
+                statuses.stream().collect(Collectors.toUnmodifiableMap(OrderStatus::getId, Function.identity())),
+                roles.stream().collect(Collectors.toUnmodifiableMap(Role::getName, Function.identity())),
+                locations.stream().collect(Collectors.toUnmodifiableMap(DeliveryLocation::getId, Function.identity())));
+        current.set(data);
+        log.info("Справочники загружены: статусов {}, ролей {}, пунктов выдачи {}",
+                statuses.size(), roles.size(), locations.size());
+        return data;
+    }
+
+    private ReferenceData data() {
+        ReferenceData data = current.get();
+        if (data != null) {
+            return data;
+        }
+        synchronized (this) {
+            data = current.get();
+            return data != null ? data : refresh();
+        }
+    }
+
+    /**
+     * Промах не кладется в снимок: запись могла появиться в еще не зафиксированной транзакции,
+     * а снимок общий для всех потоков. Снимок обновится после ReferenceDataChangedEvent или по расписанию.
+     */
+    private <T> Optional<T> lookup(Function<ReferenceData, T> getter, Supplier<Optional<T>> fallback) {
+        T value = getter.apply(data());
+        return value != null ? Optional.of(value) : fallback.get();
+    }
+
+    public record ReferenceData(Map<String, OrderStatus> statusesByName,
+            Map<Integer, OrderStatus> statusesById,
+            Map<String, Role> rolesByName,
+            Map<Integer, DeliveryLocation> locationsById) {
+    }
+}
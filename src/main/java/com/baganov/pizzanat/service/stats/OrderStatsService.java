@@ -0,0 +1,92 @@
+/**
+ * @file: OrderStatsService.java
+ * @description: Сводка заказов за день по статусам одним GROUP BY с коротким кешем
+ * @dependencies: OrderRepository, OrderStatsProperties, Caffeine
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service.stats;
+
+import com.baganov.pizzanat.config.OrderStatsProperties;
+import com.baganov.pizzanat.model.dto.DailyOrderStats;
+import com.baganov.pizzanat.repository.OrderRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Сводку запрашивают админские боты (/stats) и админ-панель. Вместо загрузки заказов дня
+ * сущностями база возвращает по строке на статус, а повторные запросы в течение
+ * app.order-stats.cache-ttl отдаются из кеша: несколько администраторов, нажавших /stats
+ * одновременно, дают один запрос к БД.
+ */
+@Slf4j
+@Service
+public class OrderStatsService {
+
+    /**
+     * Кешируются только недавние дни: обычно запрашивается сегодняшний
+     */
+    private static final int MAX_CACHED_DAYS = 31;
+
+    private final OrderRepository orderRepository;
+    private final Cache<LocalDate, DailyOrderStats> dailyStats;
+
+    public OrderStatsService(OrderRepository orderRepository,
+            OrderStatsProperties properties,
+            MeterRegistry meterRegistry) {
+        this.orderRepository = orderRepository;
+        this.dailyStats = Caffeine.newBuilder()
+                .maximumSize(MAX_CACHED_DAYS)
+                .expireAfterWrite(properties.getCacheTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, dailyStats, "dailyOrderStats");
+    }
+
+    /**
+     * Сводка заказов, созданных за день date: всего и по текущему статусу
+     */
+    public DailyOrderStats getDailyStats(LocalDate date) {
+        return dailyStats.get(date, this::loadDailyStats);
+    }
+
+    private DailyOrderStats loadDailyStats(LocalDate date) {
+        List<Object[]> rows = new ArrayList<>(orderRepository.sumByStatusCreatedBetween(
+                date.atStartOfDay(), date.plusDays(1).atStartOfDay()));
+        rows.sort(Comparator.comparingLong((Object[] row) -> ((Number) row[1]).longValue()).reversed()
+                .thenComparing(row -> (String) row[0]));
+
+        long totalOrders = 0;
+        BigDecimal totalRevenue = BigDecimal.ZERO;
+        Map<String, DailyOrderStats.StatusTotals> statuses = new LinkedHashMap<>();
+        for (Object[] row : rows) {
+            long count = ((Number) row[1]).longValue();
+            BigDecimal revenue = row[2] != null ? (BigDecimal) row[2] : BigDecimal.ZERO;
+            statuses.put((String) row[0], DailyOrderStats.StatusTotals.builder()
+                    .ordersCount(count)
+                    .revenue(revenue)
+                    .build());
+            totalOrders += count;
+            totalRevenue = totalRevenue.add(revenue);
+        }
+        log.debug("Сводка заказов за {}: {} заказов в {} статусах", date, totalOrders, statuses.size());
+
+        return DailyOrderStats.builder()
+                .date(date.toString())
+                .totalOrders(totalOrders)
+                .totalRevenue(totalRevenue)
+                .statuses(statuses)
+                .build();
+    }
+}
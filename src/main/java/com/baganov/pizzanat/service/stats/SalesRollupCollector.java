@@ -0,0 +1,170 @@
+/**
+ * @file: SalesRollupCollector.java
+ * @description: Сбор приращений агрегатов продаж по событиям заказов, периодическая запись и ночная сверка
+ * @dependencies: SalesRollupService, ReferenceDataService, SalesRollupProperties, NewOrderEvent, OrderStatusChangedEvent
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service.stats;
+
+import com.baganov.pizzanat.config.SalesRollupProperties;
+import com.baganov.pizzanat.entity.Order;
+import com.baganov.pizzanat.entity.OrderItem;
+import com.baganov.pizzanat.entity.OrderStatus;
+import com.baganov.pizzanat.event.NewOrderEvent;
+import com.baganov.pizzanat.event.OrderStatusChangedEvent;
+import com.baganov.pizzanat.service.reference.ReferenceDataService;
+import com.baganov.pizzanat.util.TimeZoneUtils;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Приращения копятся в памяти после фиксации транзакции заказа и записываются одной транзакцией
+ * раз в app.sales-rollup.flush-interval-ms: оформление заказа не ждет обновления агрегатов и не
+ * конкурирует за их строки. Если запись не удалась, приращения возвращаются в очередь.
+ * Приращения, потерянные при остановке узла, и изменения заказов в обход событий исправляет
+ * ночная сверка: последние app.sales-rollup.reconcile-days завершенных дней и счетчики статусов
+ * пересчитываются по заказам. Приращения копятся по секундам сбора: при записи SalesRollupService
+ * отбрасывает то, что собрано до сверки на любом узле и уже учтено ею.
+ */
+@Slf4j
+@Component
+public class SalesRollupCollector {
+
+    private final SalesRollupService salesRollupService;
+    private final ReferenceDataService referenceDataService;
+    private final SalesRollupProperties properties;
+    private final Clock clock;
+
+    /**
+     * Запись и сверка на одном узле не выполняются одновременно
+     */
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private SortedMap<LocalDateTime, SalesRollupDelta> pending = new TreeMap<>();
+
+    @Autowired
+    public SalesRollupCollector(SalesRollupService salesRollupService, ReferenceDataService referenceDataService,
+            SalesRollupProperties properties) {
+        this(salesRollupService, referenceDataService, properties, Clock.system(TimeZoneUtils.MOSCOW_ZONE));
+    }
+
+    SalesRollupCollector(SalesRollupService salesRollupService, ReferenceDataService referenceDataService,
+            SalesRollupProperties properties, Clock clock) {
+        this.salesRollupService = salesRollupService;
+        this.referenceDataService = referenceDataService;
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onNewOrder(NewOrderEvent event) {
+        Order order = event.getOrder();
+        if (order == null || order.getId() == null) {
+            return;
+        }
+        LocalDateTime createdAt = order.getCreatedAt() != null ? order.getCreatedAt() : LocalDateTime.now(clock);
+        SalesRollupDelta delta = new SalesRollupDelta();
+        delta.addOrder(createdAt, order.getTotalAmount());
+        for (OrderItem item : order.getItems()) {
+            delta.addItem(createdAt, item.getProduct() != null ? item.getProduct().getId() : null,
+                    item.getQuantity() != null ? item.getQuantity() : 0, item.getPrice());
+        }
+        if (order.getStatus() != null) {
+            referenceDataService.findStatus(order.getStatus().getId())
+                    .map(OrderStatus::getName)
+                    .ifPresent(status -> delta.addStatus(status, 1));
+        }
+        add(delta);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        SalesRollupDelta delta = new SalesRollupDelta();
+        delta.addStatus(event.getOldStatus(), -1);
+        delta.addStatus(event.getNewStatus(), 1);
+        add(delta);
+    }
+
+    @Scheduled(fixedDelayString = "${app.sales-rollup.flush-interval-ms:5000}")
+    public void flush() {
+        writeLock.lock();
+        try {
+            flushPending();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Ежедневно в 4:45 - после удаления брошенных корзин и доставленных сообщений outbox.
+     * Запускается на каждом узле, пересчет выполняет первый; остальные видят, что период уже сверен
+     */
+    @Scheduled(cron = "${app.sales-rollup.reconcile-cron:0 45 4 * * *}")
+    public void reconcile() {
+        writeLock.lock();
+        try {
+            long startTime = System.currentTimeMillis();
+            LocalDate today = LocalDate.now(clock);
+            LocalDate from = today.minusDays(Math.max(1, properties.getReconcileDays()));
+            if (!salesRollupService.reconcile(from, today)) {
+                log.debug("Агрегаты продаж за {} - {} уже сверены другим узлом", from, today.minusDays(1));
+                return;
+            }
+            log.info("Агрегаты продаж сверены с заказами за {} - {} за {} мс", from, today.minusDays(1),
+                    System.currentTimeMillis() - startTime);
+        } catch (Exception e) {
+            log.error("Ошибка сверки агрегатов продаж: {}", e.getMessage(), e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private synchronized void add(SalesRollupDelta delta) {
+        LocalDateTime second = LocalDateTime.now(clock).truncatedTo(ChronoUnit.SECONDS);
+        pending.computeIfAbsent(second, key -> new SalesRollupDelta()).merge(delta);
+    }
+
+    private synchronized SortedMap<LocalDateTime, SalesRollupDelta> takePending() {
+        SortedMap<LocalDateTime, SalesRollupDelta> taken = pending;
+        pending = new TreeMap<>();
+        return taken;
+    }
+
+    private synchronized void restorePending(SortedMap<LocalDateTime, SalesRollupDelta> collected) {
+        pending.forEach((second, delta) -> collected.computeIfAbsent(second, key -> new SalesRollupDelta())
+                .merge(delta));
+        pending = collected;
+    }
+
+    private void flushPending() {
+        SortedMap<LocalDateTime, SalesRollupDelta> collected = takePending();
+        collected.values().removeIf(SalesRollupDelta::isEmpty);
+        if (collected.isEmpty()) {
+            return;
+        }
+        try {
+            salesRollupService.applyCollected(collected);
+        } catch (Exception e) {
+            log.warn("Не удалось записать приращения агрегатов продаж, повтор при следующей записи: {}",
+                    e.getMessage());
+            restorePending(collected);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/**
+ * @file: SalesRollupDelta.java
+ * @description: Накопленные приращения агрегатов продаж по часам, дням, товарам и статусам
+ * @dependencies: -
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service.stats;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Одна и та же структура собирает приращения по событиям заказов и полный пересчет по заказам
+ * за период, поэтому оба пути считают агрегаты одинаково. Не потокобезопасна.
+ */
+public class SalesRollupDelta {
+
+    private final Map<LocalDateTime, Totals> hourly = new HashMap<>();
+    private final Map<LocalDate, Totals> daily = new HashMap<>();
+    private final Map<ProductDay, Totals> products = new HashMap<>();
+    private final Map<String, Long> statuses = new HashMap<>();
+
+    /**
+     * Заказ создан: +1 заказ и его сумма в час и день created_at
+     */
+    public void addOrder(LocalDateTime createdAt, BigDecimal totalAmount) {
+        BigDecimal amount = totalAmount != null ? totalAmount : BigDecimal.ZERO;
+        hourly.computeIfAbsent(createdAt.truncatedTo(ChronoUnit.HOURS), key -> new Totals()).add(1, amount);
+        daily.computeIfAbsent(createdAt.toLocalDate(), key -> new Totals()).add(1, amount);
+    }
+
+    /**
+     * Позиция заказа: quantity штук товара по цене price
+     */
+    public void addItem(LocalDateTime createdAt, Integer productId, int quantity, BigDecimal price) {
+        if (productId == null) {
+            return;
+        }
+        BigDecimal revenue = price != null ? price.multiply(BigDecimal.valueOf(quantity)) : BigDecimal.ZERO;
+        products.computeIfAbsent(new ProductDay(createdAt.toLocalDate(), productId), key -> new Totals())
+                .add(quantity, revenue);
+    }
+
+    public void addStatus(String statusName, long delta) {
+        if (statusName != null && delta != 0) {
+            // Взаимно погашенные приращения удаляются, чтобы не писать нулевые изменения
+            statuses.merge(statusName, delta, (current, added) -> current + added == 0 ? null : current + added);
+        }
+    }
+
+    public void merge(SalesRollupDelta other) {
+        other.hourly.forEach((key, totals) -> hourly.computeIfAbsent(key, k -> new Totals()).add(totals));
+        other.daily.forEach((key, totals) -> daily.computeIfAbsent(key, k -> new Totals()).add(totals));
+        other.products.forEach((key, totals) -> products.computeIfAbsent(key, k -> new Totals()).add(totals));
+        other.statuses.forEach((key, delta) -> addStatus(key, delta));
+    }
+
+    /**
+     * Копия без того, что пересчитывает сверка: часов, дней и товаров за [from, to) и счетчиков статусов
+     */
+    public SalesRollupDelta withoutReconciled(LocalDate from, LocalDate to) {
+        SalesRollupDelta rest = new SalesRollupDelta();
+        hourly.forEach((key, totals) -> {
+            if (!isWithin(key.toLocalDate(), from, to)) {
+                rest.hourly.computeIfAbsent(key, k -> new Totals()).add(totals);
+            }
+        });
+        daily.forEach((key, totals) -> {
+            if (!isWithin(key, from, to)) {
+                rest.daily.computeIfAbsent(key, k -> new Totals()).add(totals);
+            }
+        });
+        products.forEach((key, totals) -> {
+            if (!isWithin(key.date(), from, to)) {
+                rest.products.computeIfAbsent(key, k -> new Totals()).add(totals);
+            }
+        });
+        return rest;
+    }
+
+    public boolean isEmpty() {
+        return hourly.isEmpty() && daily.isEmpty() && products.isEmpty() && statuses.isEmpty();
+    }
+
+    public Map<LocalDateTime, Totals> getHourly() {
+        return hourly;
+    }
+
+    public Map<LocalDate, Totals> getDaily() {
+        return daily;
+    }
+
+    public Map<ProductDay, Totals> getProducts() {
+        return products;
+    }
+
+    public Map<String, Long> getStatuses() {
+        return statuses;
+    }
+
+    private static boolean isWithin(LocalDate date, LocalDate from, LocalDate to) {
+        return from != null && to != null && !date.isBefore(from) && date.isBefore(to);
+    }
+
+    public record ProductDay(LocalDate date, Integer productId) {
+    }
+
+    /**
+     * Количество (заказов или штук товара) и сумма
+     */
+    public static class Totals {
+
+        private long count;
+        private BigDecimal amount = BigDecimal.ZERO;
+
+        void add(long count, BigDecimal amount) {
+            this.count += count;
+            this.amount = this.amount.add(amount);
+        }
+
+        void add(Totals other) {
+            add(other.count, other.amount);
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public BigDecimal getAmount() {
+            return amount;
+        }
+    }
+}
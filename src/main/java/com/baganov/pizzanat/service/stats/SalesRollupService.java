@@ -0,0 +1,211 @@
+/**
+ * @file: SalesRollupService.java
+ * @description: Запись приращений, пересчет и чтение агрегатов продаж по часам, дням, товарам и статусам
+ * @dependencies: Sales*RollupRepository, SalesRollupStateRepository, OrderRepository, ReferenceDataService
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service.stats;
+
+import com.baganov.pizzanat.entity.OrderStatus;
+import com.baganov.pizzanat.entity.SalesDailyProductRollup;
+import com.baganov.pizzanat.entity.SalesDailyRollup;
+import com.baganov.pizzanat.entity.SalesHourlyRollup;
+import com.baganov.pizzanat.entity.SalesRollupState;
+import com.baganov.pizzanat.entity.SalesStatusRollup;
+import com.baganov.pizzanat.model.dto.AdminStatsResponse;
+import com.baganov.pizzanat.repository.OrderRepository;
+import com.baganov.pizzanat.repository.SalesDailyProductRollupRepository;
+import com.baganov.pizzanat.repository.SalesDailyRollupRepository;
+import com.baganov.pizzanat.repository.SalesHourlyRollupRepository;
+import com.baganov.pizzanat.repository.SalesRollupStateRepository;
+import com.baganov.pizzanat.repository.SalesStatusRollupRepository;
+import com.baganov.pizzanat.service.reference.ReferenceDataService;
+import com.baganov.pizzanat.util.TimeZoneUtils;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.stream.Collectors;
+
+/**
+ * Приращение применяется UPDATE ... SET x = x + delta; если строки еще нет, она вставляется.
+ * Запись приращений и сверка блокируют строку sales_rollup_state, поэтому на всех узлах
+ * выполняются по очереди, а сверку, запущенную одновременно на нескольких узлах, выполняет один.
+ * Сверка запоминает момент начала: приращения, собранные раньше и записанные позже (другой узел
+ * копил их до своей записи), уже учтены пересчетом, и их пересчитанная часть отбрасывается.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SalesRollupService {
+
+    private final SalesHourlyRollupRepository hourlyRepository;
+    private final SalesDailyRollupRepository dailyRepository;
+    private final SalesDailyProductRollupRepository productRepository;
+    private final SalesStatusRollupRepository statusRepository;
+    private final SalesRollupStateRepository stateRepository;
+    private final OrderRepository orderRepository;
+    private final ReferenceDataService referenceDataService;
+    private final EntityManager entityManager;
+
+    /**
+     * Записывает приращения, собранные узлом, по секундам сбора. Из собранных до последней сверки
+     * записывается только то, что она не пересчитывала
+     */
+    @Transactional
+    public void applyCollected(SortedMap<LocalDateTime, SalesRollupDelta> collected) {
+        SalesRollupState state = lockState();
+        SalesRollupDelta delta = new SalesRollupDelta();
+        collected.forEach((collectedAt, part) -> delta.merge(isReconciled(state, collectedAt)
+                ? part.withoutReconciled(state.getReconciledFrom(), state.getReconciledTo())
+                : part));
+        if (!delta.isEmpty()) {
+            apply(delta);
+        }
+    }
+
+    private void apply(SalesRollupDelta delta) {
+        delta.getHourly().forEach((bucketStart, totals) -> {
+            if (hourlyRepository.increment(bucketStart, totals.getCount(), totals.getAmount()) == 0) {
+                entityManager.persist(new SalesHourlyRollup(bucketStart, totals.getCount(), totals.getAmount()));
+            }
+        });
+        delta.getDaily().forEach((date, totals) -> {
+            if (dailyRepository.increment(date, totals.getCount(), totals.getAmount()) == 0) {
+                entityManager.persist(new SalesDailyRollup(date, totals.getCount(), totals.getAmount()));
+            }
+        });
+        delta.getProducts().forEach((key, totals) -> {
+            if (productRepository.increment(key.date(), key.productId(), totals.getCount(), totals.getAmount()) == 0) {
+                entityManager.persist(new SalesDailyProductRollup(key.date(), key.productId(),
+                        totals.getCount(), totals.getAmount()));
+            }
+        });
+        delta.getStatuses().forEach((statusName, count) -> {
+            if (statusRepository.increment(statusName, count) == 0) {
+                entityManager.persist(new SalesStatusRollup(statusName, count));
+            }
+        });
+    }
+
+    /**
+     * Заменяет агрегаты дней [from, to) значениями, посчитанными по заказам, и пересчитывает
+     * число заказов в каждом статусе
+     *
+     * @return false, если этот период уже сверил другой узел
+     */
+    @Transactional
+    public boolean reconcile(LocalDate from, LocalDate to) {
+        SalesRollupState state = lockState();
+        if (to.equals(state.getReconciledTo()) && state.getReconciledFrom() != null
+                && !from.isBefore(state.getReconciledFrom())) {
+            return false;
+        }
+        // Момент берется под блокировкой: все, что собрано раньше, зафиксировано до пересчета и войдет в него
+        state.setReconciledAt(TimeZoneUtils.nowInMoscow());
+        state.setReconciledFrom(from);
+        state.setReconciledTo(to);
+
+        LocalDateTime start = from.atStartOfDay();
+        LocalDateTime end = to.atStartOfDay();
+
+        SalesRollupDelta actual = new SalesRollupDelta();
+        for (Object[] row : orderRepository.findSalesCreatedBetween(start, end)) {
+            actual.addOrder((LocalDateTime) row[0], (BigDecimal) row[1]);
+        }
+        for (Object[] row : orderRepository.findSoldItemsCreatedBetween(start, end)) {
+            actual.addItem((LocalDateTime) row[0], (Integer) row[1], ((Number) row[2]).intValue(),
+                    (BigDecimal) row[3]);
+        }
+        for (Object[] row : orderRepository.countGroupByStatusId()) {
+            referenceDataService.findStatus((Integer) row[0])
+                    .ifPresent(status -> actual.addStatus(status.getName(), ((Number) row[1]).longValue()));
+        }
+
+        hourlyRepository.deleteRange(start, end);
+        dailyRepository.deleteRange(from, to);
+        productRepository.deleteRange(from, to);
+        statusRepository.deleteAllInBatch();
+        apply(actual);
+        return true;
+    }
+
+    /**
+     * Строку создает миграция; если схема создана по сущностям, строка вставляется при первой записи
+     * и блокируется до конца транзакции так же, как найденная
+     */
+    private SalesRollupState lockState() {
+        return stateRepository.findForUpdate(SalesRollupState.ID).orElseGet(() -> {
+            SalesRollupState state = SalesRollupState.initial();
+            entityManager.persist(state);
+            entityManager.flush();
+            return state;
+        });
+    }
+
+    /**
+     * Секунда сбора целиком раньше начала последней сверки
+     */
+    private static boolean isReconciled(SalesRollupState state, LocalDateTime collectedAt) {
+        return state.getReconciledAt() != null && !collectedAt.plusSeconds(1).isAfter(state.getReconciledAt());
+    }
+
+    @Transactional(readOnly = true)
+    public long getTotalOrders() {
+        return dailyRepository.sumOrdersCount();
+    }
+
+    @Transactional(readOnly = true)
+    public BigDecimal getTotalRevenue() {
+        return dailyRepository.sumRevenue();
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<SalesDailyRollup> getDay(LocalDate date) {
+        return dailyRepository.findById(date);
+    }
+
+    @Transactional(readOnly = true)
+    public List<SalesHourlyRollup> getHourlySince(LocalDateTime from) {
+        return hourlyRepository.findByBucketStartGreaterThanEqualOrderByBucketStartAsc(from);
+    }
+
+    @Transactional(readOnly = true)
+    public List<AdminStatsResponse.PopularProduct> getTopProducts(int limit) {
+        return productRepository.findTopProducts(PageRequest.of(0, limit)).stream()
+                .map(row -> AdminStatsResponse.PopularProduct.builder()
+                        .productId((Integer) row[0])
+                        .productName((String) row[1])
+                        .totalSold(((Number) row[2]).longValue())
+                        .totalRevenue((BigDecimal) row[3])
+                        .build())
+                .toList();
+    }
+
+    /**
+     * Число заказов по активным статусам, включая статусы без заказов; по убыванию
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Long> getStatusCounts() {
+        Map<String, Long> counts = statusRepository.findAll().stream()
+                .collect(Collectors.toMap(SalesStatusRollup::getStatusName, SalesStatusRollup::getOrdersCount));
+        return referenceDataService.getActiveStatuses().stream()
+                .map(OrderStatus::getName)
+                .sorted(Comparator.comparing((String name) -> counts.getOrDefault(name, 0L)).reversed()
+                        .thenComparing(Comparator.naturalOrder()))
+                .collect(Collectors.toMap(name -> name, name -> counts.getOrDefault(name, 0L),
+                        (first, second) -> first, LinkedHashMap::new));
+    }
+}
@@ -251,16 +251,7 @@ public class PizzaNatAdminBot extends TelegramLongPollingBot {
      */
     public void sendMessage(Long chatId, String text, boolean parseMarkdown) {
         try {
-            SendMessage message = new SendMessage();
-            message.setChatId(chatId.toString());
-            message.setText(text);
-
-            if (parseMarkdown) {
-                message.setParseMode("Markdown");
-            }
-
-            execute(message);
-            log.debug("Сообщение отправлено в админский бот: chatId={}", chatId);
+            deliverMessage(chatId, text, parseMarkdown, null);
         } catch (TelegramApiException e) {
             log.error("Ошибка отправки сообщения в админский бот: chatId={}, error={}", chatId, e.getMessage());
         }
@@ -271,20 +262,35 @@ public class PizzaNatAdminBot extends TelegramLongPollingBot {
      */
     public void sendMessageWithButtons(Long chatId, String text, InlineKeyboardMarkup keyboard) {
         try {
-            SendMessage message = new SendMessage();
-            message.setChatId(chatId.toString());
-            message.setText(text);
-            message.setParseMode("Markdown");
-            message.setReplyMarkup(keyboard);
-
-            execute(message);
-            log.debug("Сообщение с кнопками отправлено в админский бот: chatId={}", chatId);
+            deliverMessage(chatId, text, true, keyboard);
         } catch (TelegramApiException e) {
             log.error("Ошибка отправки сообщения с кнопками в админский бот: chatId={}, error={}", chatId,
                     e.getMessage());
         }
     }
 
+    /**
+     * Отправка сообщения с пробросом ошибки Telegram API (для повторов outbox)
+     *
+     * @param keyboard inline кнопки или null
+     */
+    public void deliverMessage(Long chatId, String text, boolean parseMarkdown, InlineKeyboardMarkup keyboard)
+            throws TelegramApiException {
+        SendMessage message = new SendMessage();
+        message.setChatId(chatId.toString());
+        message.setText(text);
+
+        if (parseMarkdown) {
+            message.setParseMode("Markdown");
+        }
+        if (keyboard != null) {
+            message.setReplyMarkup(keyboard);
+        }
+
+        execute(message);
+        log.debug("Сообщение{} отправлено в админский бот: chatId={}", keyboard != null ? " с кнопками" : "", chatId);
+    }
+
     /**
      * Создание inline клавиатуры для управления заказом
      */
@@ -2,6 +2,7 @@ package com.baganov.pizzanat.util;
 
 import com.baganov.pizzanat.entity.Category;
 import com.baganov.pizzanat.entity.Product;
+import com.baganov.pizzanat.event.CatalogChangedEvent;
 import com.baganov.pizzanat.repository.CategoryRepository;
 import com.baganov.pizzanat.repository.ProductRepository;
 import com.baganov.pizzanat.service.StorageService;
@@ -9,6 +10,7 @@ import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Profile;
 import org.springframework.context.event.EventListener;
 import org.springframework.core.io.ClassPathResource;
@@ -33,6 +35,7 @@ public class ImageUploader {
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
     private final StorageService storageService;
+    private final ApplicationEventPublisher eventPublisher;
 
     private static final String RESOURCE_BASE_PATH = "static/images/";
     private static final String PRODUCTS_FOLDER = "products";
@@ -128,6 +131,7 @@ public class ImageUploader {
         try {
             log.info("Начало инициализации данных продуктов");
             syncProductData();
+            eventPublisher.publishEvent(new CatalogChangedEvent(this, null, "sync"));
             log.info("Инициализация данных продуктов завершена успешно");
         } catch (Exception e) {
             log.error("Ошибка при инициализации данных о продуктах: {}", e.getMessage(), e);
@@ -0,0 +1,65 @@
+/**
+ * @file: ParsedAddress.java
+ * @description: Разобранный адрес доставки: населенный пункт, улица, дом, корпус, литера и нормализованный ключ
+ * @dependencies: RussianAddressParser
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.util;
+
+/**
+ * Все части в нижнем регистре, "ё" заменена на "е", пробелы одиночные; отсутствующая часть - null.
+ * Квартира, подъезд, этаж и регион в разбор не входят: для зоны доставки, кэша тарифов и пункта
+ * доставки они не важны.
+ *
+ * @param locality   населенный пункт и прочие части адреса до улицы без "г."/"город", например "волжск"
+ * @param streetType полный тип улицы ("улица", "проспект", ...), если он указан в адресе
+ * @param street     название улицы без типа, например "107-й бригады"
+ * @param house      номер дома без литеры
+ * @param building   корпус, строение или номер после дроби ("19/2")
+ * @param letter     литера дома ("5а")
+ */
+public record ParsedAddress(String locality, String streetType, String street, Integer house, String building,
+        String letter) {
+
+    public static final ParsedAddress EMPTY = new ParsedAddress(null, null, null, null, null, null);
+
+    /**
+     * Тип улицы, когда он не указан: "Ленина 5" и "ул. Ленина, д. 5" - один адрес
+     */
+    public static final String DEFAULT_STREET_TYPE = "улица";
+
+    public boolean isEmpty() {
+        return locality == null && street == null && house == null;
+    }
+
+    /**
+     * Текст, по которому ищутся улицы и ключевые слова зон доставки: населенный пункт и улица без типа
+     */
+    public String searchText() {
+        if (locality == null) {
+            return street != null ? street : "";
+        }
+        return street != null ? locality + ", " + street : locality;
+    }
+
+    /**
+     * Нормализованный ключ адреса: совпадает у записей одного дома ("ул. Ленина, д. 5, кв. 3"
+     * и "Ленина 5") и различается у разных домов, улиц разного типа и населенных пунктов
+     */
+    public String key() {
+        StringBuilder key = new StringBuilder(64);
+        append(key, locality).append('|');
+        append(key, street != null && streetType == null ? DEFAULT_STREET_TYPE : streetType).append('|');
+        append(key, street).append('|');
+        if (house != null) {
+            key.append(house.intValue());
+        }
+        key.append('|');
+        append(key, building).append('|');
+        return append(key, letter).toString();
+    }
+
+    private static StringBuilder append(StringBuilder key, String part) {
+        return part != null ? key.append(part) : key;
+    }
+}
@@ -0,0 +1,457 @@
+/**
+ * @file: RussianAddressParser.java
+ * @description: Разбор адресов в свободной форме на населенный пункт, улицу, дом, корпус и литеру
+ * @dependencies: ParsedAddress
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.util;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Единые правила разбора адреса для поиска зоны доставки, кэша тарифов, подсказок и пунктов доставки.
+ * <p>
+ * Адрес за один проход разбивается на токены (слова, числа, "5а"/"5к2", запятые, дроби); токены хранятся
+ * смещениями в строке в нижнем регистре, регулярные выражения и промежуточные строки не используются.
+ * Дальше по частям между запятыми:
+ * <ul>
+ * <li>части с регионом ("Республика Марий Эл", индекс) и все после квартиры/подъезда/этажа отбрасываются;</li>
+ * <li>улица - первая часть с типом улицы ("ул.", "пр-т", "пер." ...), иначе последняя часть с названием;</li>
+ * <li>части до улицы - населенный пункт ("г." и "город" опускаются);</li>
+ * <li>после названия улицы - дом: "5", "д. 5", "дом 5а", "5 а", "5к2", "5 корп. 2", "19/2", в той же
+ * или следующих частях.</li>
+ * </ul>
+ */
+@UtilityClass
+public class RussianAddressParser {
+
+    private static final byte WORD = 0;
+    private static final byte NUMBER = 1;
+    /**
+     * Начинается с цифры и содержит буквы: "5а", "5к2", "107-й"
+     */
+    private static final byte MIXED = 2;
+    private static final byte COMMA = 3;
+    private static final byte SLASH = 4;
+
+    private static final byte ROLE_NONE = 0;
+    private static final byte ROLE_STREET_TYPE = 1;
+    private static final byte ROLE_HOUSE = 2;
+    private static final byte ROLE_BUILDING = 3;
+    private static final byte ROLE_TAIL = 4;
+    private static final byte ROLE_REGION = 5;
+    private static final byte ROLE_LOCALITY = 6;
+
+    /**
+     * Полный тип улицы и его сокращения; "пр" - проспект, как в прежних правилах зон доставки
+     */
+    private static final String[][] STREET_TYPES = {
+            { "улица", "ул" },
+            { "проспект", "пр-т", "пр", "просп" },
+            { "переулок", "пер" },
+            { "микрорайон", "мкр", "мкрн", "мкр-н" },
+            { "бульвар", "б-р", "бульв" },
+            { "шоссе" },
+            { "площадь", "пл" },
+            { "проезд", "пр-д" },
+            { "набережная", "наб" },
+            { "тупик" } };
+    private static final String[] HOUSE_MARKERS = { "д", "дом", "house" };
+    private static final String[] BUILDING_MARKERS = { "к", "корп", "корпус", "стр", "строение" };
+    private static final String[] TAIL_MARKERS = { "кв", "квартира", "оф", "офис", "под", "подъезд", "эт", "этаж",
+            "домофон", "комн", "комната" };
+    private static final String[] REGION_MARKERS = { "республика", "респ", "область", "обл", "край", "округ",
+            "россия", "рф" };
+    private static final String[] LOCALITY_MARKERS = { "г", "город" };
+
+    /**
+     * Дальше int не поместится; такой номер дома считается неопределенным
+     */
+    private static final int MAX_HOUSE_DIGITS = 9;
+    private static final int POSTAL_CODE_DIGITS = 6;
+
+    public static ParsedAddress parse(String address) {
+        if (address == null) {
+            return ParsedAddress.EMPTY;
+        }
+        Tokens tokens = Tokens.of(address);
+        return tokens.count == 0 ? ParsedAddress.EMPTY : new Parse(tokens).run();
+    }
+
+    /**
+     * Название улицы или ключевое слово зоны в том виде, в каком оно ищется в ParsedAddress.searchText():
+     * нижний регистр, без типа улицы и "г.", слова через пробел, части через ", ". Null для пустого текста.
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return null;
+        }
+        Tokens tokens = Tokens.of(text);
+        StringBuilder result = new StringBuilder(text.length());
+        boolean comma = false;
+        for (int i = 0; i < tokens.count; i++) {
+            if (tokens.kind[i] == COMMA) {
+                comma = !result.isEmpty();
+            } else if (tokens.kind[i] != SLASH && tokens.role[i] != ROLE_STREET_TYPE
+                    && tokens.role[i] != ROLE_LOCALITY) {
+                if (!result.isEmpty()) {
+                    result.append(comma ? ", " : " ");
+                }
+                result.append(tokens.text, tokens.start[i], tokens.end[i]);
+                comma = false;
+            }
+        }
+        return result.isEmpty() ? null : result.toString();
+    }
+
+    /**
+     * Название улицы без типа в начале с сохранением регистра: "улица 107-й Бригады" -> "107-й Бригады"
+     */
+    public static String stripStreetType(String street) {
+        Tokens tokens = Tokens.of(street);
+        if (tokens.count > 1 && tokens.role[0] == ROLE_STREET_TYPE && tokens.kind[1] != COMMA) {
+            return street.substring(tokens.start[1]).trim();
+        }
+        return street.trim();
+    }
+
+    /**
+     * Токены адреса: границы в нормализованном тексте, вид и роль служебного слова
+     */
+    private static final class Tokens {
+
+        private final String text;
+        private final int[] start;
+        private final int[] end;
+        private final byte[] kind;
+        private final byte[] role;
+        /**
+         * Индекс в STREET_TYPES для токенов с ролью ROLE_STREET_TYPE
+         */
+        private final byte[] streetType;
+        private int count;
+
+        private Tokens(String text) {
+            int capacity = text.length();
+            this.text = text;
+            this.start = new int[capacity];
+            this.end = new int[capacity];
+            this.kind = new byte[capacity];
+            this.role = new byte[capacity];
+            this.streetType = new byte[capacity];
+        }
+
+        static Tokens of(String address) {
+            int length = address.length();
+            char[] chars = new char[length];
+            for (int i = 0; i < length; i++) {
+                char c = Character.toLowerCase(address.charAt(i));
+                chars[i] = c == 'ё' ? 'е' : c;
+            }
+            Tokens tokens = new Tokens(new String(chars));
+
+            int i = 0;
+            while (i < length) {
+                char c = chars[i];
+                if (Character.isLetterOrDigit(c)) {
+                    int tokenStart = i;
+                    boolean hasLetter = false;
+                    // Дефис внутри токена сохраняется: "пр-т", "107-й", "5-а"
+                    while (i < length && (Character.isLetterOrDigit(chars[i])
+                            || chars[i] == '-' && i + 1 < length && Character.isLetterOrDigit(chars[i + 1]))) {
+                        hasLetter |= Character.isLetter(chars[i]);
+                        i++;
+                    }
+                    byte kind = !Character.isDigit(c) ? WORD : hasLetter ? MIXED : NUMBER;
+                    tokens.add(tokenStart, i, kind);
+                } else {
+                    if (c == ',' || c == ';') {
+                        tokens.add(i, i + 1, COMMA);
+                    } else if (c == '/' || c == '\\') {
+                        tokens.add(i, i + 1, SLASH);
+                    }
+                    i++;
+                }
+            }
+            return tokens;
+        }
+
+        private void add(int tokenStart, int tokenEnd, byte tokenKind) {
+            start[count] = tokenStart;
+            end[count] = tokenEnd;
+            kind[count] = tokenKind;
+            if (tokenKind == WORD) {
+                role[count] = roleOf(count);
+            }
+            count++;
+        }
+
+        private byte roleOf(int index) {
+            for (int type = 0; type < STREET_TYPES.length; type++) {
+                if (matchesAny(index, STREET_TYPES[type])) {
+                    streetType[index] = (byte) type;
+                    return ROLE_STREET_TYPE;
+                }
+            }
+            if (matchesAny(index, HOUSE_MARKERS)) {
+                return ROLE_HOUSE;
+            }
+            if (matchesAny(index, BUILDING_MARKERS)) {
+                return ROLE_BUILDING;
+            }
+            if (matchesAny(index, TAIL_MARKERS)) {
+                return ROLE_TAIL;
+            }
+            if (matchesAny(index, REGION_MARKERS)) {
+                return ROLE_REGION;
+            }
+            return matchesAny(index, LOCALITY_MARKERS) ? ROLE_LOCALITY : ROLE_NONE;
+        }
+
+        private boolean matchesAny(int index, String[] words) {
+            for (String word : words) {
+                if (is(index, word)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean is(int index, String word) {
+            return length(index) == word.length() && text.startsWith(word, start[index]);
+        }
+
+        private int length(int index) {
+            return end[index] - start[index];
+        }
+
+        private boolean isNumeric(int index) {
+            return kind[index] == NUMBER || kind[index] == MIXED;
+        }
+
+        /**
+         * Одиночная буква сразу после номера: "5 а"
+         */
+        private boolean isLetterSuffix(int index) {
+            return kind[index] == WORD && length(index) == 1 && index > 0 && isNumeric(index - 1);
+        }
+
+        /**
+         * Слово названия: все, кроме маркеров дома, корпуса и литеры после номера
+         */
+        private boolean isNameWord(int index) {
+            return kind[index] == WORD && role[index] != ROLE_HOUSE && role[index] != ROLE_BUILDING
+                    && !isLetterSuffix(index);
+        }
+    }
+
+    /**
+     * Состояние разбора одного адреса
+     */
+    private static final class Parse {
+
+        private final Tokens tokens;
+        private final int[] segmentFrom;
+        private final int[] segmentTo;
+        private int segments;
+
+        private Integer house;
+        private String building;
+        private String letter;
+
+        private Parse(Tokens tokens) {
+            this.tokens = tokens;
+            this.segmentFrom = new int[tokens.count + 1];
+            this.segmentTo = new int[tokens.count + 1];
+        }
+
+        ParsedAddress run() {
+            splitSegments();
+            if (segments == 0) {
+                return ParsedAddress.EMPTY;
+            }
+
+            int streetSegment = findStreetSegment();
+            StringBuilder locality = new StringBuilder();
+            for (int s = 0; s < Math.max(streetSegment, 0); s++) {
+                appendWords(locality, segmentFrom[s], segmentTo[s], true);
+            }
+            if (streetSegment < 0) {
+                parseHouse(0, segmentFrom[0]);
+                return result(locality, null, null);
+            }
+
+            int from = segmentFrom[streetSegment];
+            int firstType = firstStreetType(streetSegment);
+            int nameStart = firstType >= 0 ? firstType : from;
+            // Слова перед типом улицы в той же части - населенный пункт: "Волжск ул. Ленина 5"
+            appendWords(locality, from, nameStart, true);
+
+            int nameEnd = nameEnd(streetSegment);
+            StringBuilder street = new StringBuilder();
+            appendWords(street, nameStart, nameEnd, false);
+            parseHouse(streetSegment, Math.max(nameEnd, nameStart));
+
+            String streetType = firstType >= 0 ? STREET_TYPES[tokens.streetType[firstType]][0] : null;
+            return result(locality, street.isEmpty() ? null : streetType, street);
+        }
+
+        private ParsedAddress result(StringBuilder locality, String streetType, StringBuilder street) {
+            return new ParsedAddress(
+                    locality.isEmpty() ? null : locality.toString(),
+                    streetType,
+                    street == null || street.isEmpty() ? null : street.toString(),
+                    house, building, letter);
+        }
+
+        /**
+         * Части между запятыми до первой квартиры/подъезда/этажа без частей с регионом
+         */
+        private void splitSegments() {
+            int limit = tokens.count;
+            for (int i = 0; i < tokens.count; i++) {
+                if (tokens.role[i] == ROLE_TAIL) {
+                    limit = i;
+                    break;
+                }
+            }
+            int from = 0;
+            for (int i = 0; i <= limit; i++) {
+                if (i == limit || tokens.kind[i] == COMMA) {
+                    if (i > from && !isRegion(from, i)) {
+                        segmentFrom[segments] = from;
+                        segmentTo[segments] = i;
+                        segments++;
+                    }
+                    from = i + 1;
+                }
+            }
+        }
+
+        private boolean isRegion(int from, int to) {
+            if (to - from == 1 && tokens.kind[from] == NUMBER && tokens.length(from) == POSTAL_CODE_DIGITS) {
+                return true;
+            }
+            for (int i = from; i < to; i++) {
+                if (tokens.role[i] == ROLE_REGION) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private int findStreetSegment() {
+            for (int s = 0; s < segments; s++) {
+                if (firstStreetType(s) >= 0) {
+                    return s;
+                }
+            }
+            for (int s = segments - 1; s >= 0; s--) {
+                if (nameEnd(s) > segmentFrom[s]) {
+                    return s;
+                }
+            }
+            return -1;
+        }
+
+        private int firstStreetType(int segment) {
+            for (int i = segmentFrom[segment]; i < segmentTo[segment]; i++) {
+                if (tokens.role[i] == ROLE_STREET_TYPE) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Граница названия в части: после последнего слова названия; числа перед ним - часть
+         * названия ("8 Марта", "107-й Бригады")
+         */
+        private int nameEnd(int segment) {
+            for (int i = segmentTo[segment] - 1; i >= segmentFrom[segment]; i--) {
+                if (tokens.isNameWord(i)) {
+                    return i + 1;
+                }
+            }
+            return segmentFrom[segment];
+        }
+
+        private void appendWords(StringBuilder target, int from, int to, boolean locality) {
+            boolean first = true;
+            for (int i = from; i < to; i++) {
+                byte role = tokens.role[i];
+                if (tokens.kind[i] == SLASH || role == ROLE_STREET_TYPE || locality && role == ROLE_LOCALITY) {
+                    continue;
+                }
+                if (first && !target.isEmpty()) {
+                    target.append(locality ? ", " : " ");
+                } else if (!first) {
+                    target.append(' ');
+                }
+                target.append(tokens.text, tokens.start[i], tokens.end[i]);
+                first = false;
+            }
+        }
+
+        /**
+         * Дом, корпус и литера, начиная с токена from части segment; разбор останавливается на первом
+         * токене, который не может быть частью номера дома
+         */
+        private void parseHouse(int segment, int from) {
+            byte pending = ROLE_NONE;
+            for (int s = segment; s < segments; s++) {
+                for (int i = s == segment ? from : segmentFrom[s]; i < segmentTo[s]; i++) {
+                    byte kind = tokens.kind[i];
+                    byte role = tokens.role[i];
+                    if (kind == WORD && role == ROLE_HOUSE && house == null) {
+                        pending = ROLE_HOUSE;
+                    } else if (kind == WORD && role == ROLE_BUILDING && building == null) {
+                        pending = ROLE_BUILDING;
+                    } else if (kind == SLASH && house != null && building == null) {
+                        pending = ROLE_BUILDING;
+                    } else if (kind == WORD && tokens.isLetterSuffix(i) && house != null && letter == null
+                            && building == null) {
+                        letter = tokens.text.substring(tokens.start[i], tokens.end[i]);
+                    } else if (tokens.isNumeric(i) && pending == ROLE_BUILDING && house != null) {
+                        building = tokens.text.substring(tokens.start[i], tokens.end[i]);
+                        pending = ROLE_NONE;
+                    } else if (tokens.isNumeric(i) && house == null && readHouse(i)) {
+                        pending = ROLE_NONE;
+                    } else {
+                        return;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Номер дома с литерой или корпусом в том же токене: "5", "5а", "5-а", "5к2", "5стр1"
+         */
+        private boolean readHouse(int index) {
+            String text = tokens.text;
+            int end = tokens.end[index];
+            int digitsEnd = tokens.start[index];
+            while (digitsEnd < end && Character.isDigit(text.charAt(digitsEnd))) {
+                digitsEnd++;
+            }
+            if (digitsEnd - tokens.start[index] > MAX_HOUSE_DIGITS) {
+                return false;
+            }
+            house = Integer.parseInt(text, tokens.start[index], digitsEnd, 10);
+
+            int rest = digitsEnd < end && text.charAt(digitsEnd) == '-' ? digitsEnd + 1 : digitsEnd;
+            if (end - rest == 1 && Character.isLetter(text.charAt(rest))) {
+                letter = text.substring(rest, end);
+                return true;
+            }
+            for (String marker : BUILDING_MARKERS) {
+                int number = rest + marker.length();
+                if (number < end && text.startsWith(marker, rest) && Character.isDigit(text.charAt(number))) {
+                    building = text.substring(number, end);
+                    return true;
+                }
+            }
+            return true;
+        }
+    }
+}
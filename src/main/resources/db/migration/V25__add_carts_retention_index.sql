@@ -0,0 +1,10 @@
+-- V25__add_carts_retention_index.sql
+-- Индекс для удаления брошенных корзин сессий (AbandonedCartCleanupService).
+-- Поиск корзины по session_id уже обслуживает уникальное ограничение unique_session_cart;
+-- задаче очистки нужен диапазон по updated_at только среди корзин сессий.
+-- Позиции корзины проверяются по cart_id через unique_product_in_cart.
+
+CREATE INDEX IF NOT EXISTS idx_carts_session_updated_at
+    ON carts (updated_at, session_id)
+    WHERE user_id IS NULL AND session_id IS NOT NULL;
+
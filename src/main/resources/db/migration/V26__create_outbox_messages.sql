@@ -0,0 +1,28 @@
+-- V26__create_outbox_messages.sql
+-- Транзакционный outbox: уведомления о заказах записываются в одной транзакции с заказом
+-- и доставляются после фиксации (OutboxDispatcher), без HTTP-вызовов под открытой транзакцией.
+
+CREATE TABLE IF NOT EXISTS outbox_messages (
+    id BIGSERIAL PRIMARY KEY,
+    aggregate_id INTEGER NOT NULL,
+    event_type VARCHAR(50) NOT NULL,
+    destination VARCHAR(30) NOT NULL,
+    payload TEXT,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    locked_until TIMESTAMP,
+    last_error TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    processed_at TIMESTAMP
+);
+
+-- Выборка очередных сообщений направления и проверка порядка в пределах заказа
+CREATE INDEX IF NOT EXISTS idx_outbox_messages_unfinished ON outbox_messages (destination, aggregate_id, id)
+WHERE
+    status IN ('PENDING', 'PROCESSING');
+
+-- Удаление доставленных сообщений
+CREATE INDEX IF NOT EXISTS idx_outbox_messages_processed_at ON outbox_messages (processed_at)
+WHERE
+    status = 'SENT';
@@ -0,0 +1,14 @@
+-- V27__add_orders_keyset_indexes.sql
+-- Индексы для постраничной выборки заказов по курсору (created_at, id):
+-- история заказов пользователя, список заказов админки по статусу и без фильтра.
+-- Направление id совпадает с сортировкой ORDER BY created_at DESC, id DESC,
+-- поэтому страница читается одним проходом индекса без сортировки.
+
+CREATE INDEX IF NOT EXISTS idx_orders_user_created_at_id
+    ON orders (user_id, created_at DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_orders_status_created_at_id
+    ON orders (status_id, created_at DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_orders_created_at_id
+    ON orders (created_at DESC, id DESC);
@@ -0,0 +1,32 @@
+-- V28__add_pooled_id_sequences.sql
+-- Последовательности с шагом 50 для заказов, корзин, платежей и отложенных уведомлений.
+-- Hibernate не может группировать INSERT в JDBC batch для IDENTITY-ключей (ID нужен сразу после вставки),
+-- с pooled-последовательностью он выделяет 50 ID за один nextval и отправляет вставки пакетами.
+-- Шаг должен совпадать с allocationSize в @SequenceGenerator сущностей.
+-- Pooled-оптимизатор считает значение nextval верхней границей блока, поэтому первое значение
+-- выставляется в MAX(id) + 50: следующий блок начнется сразу после существующих записей.
+-- DEFAULT колонок переключается на новые последовательности, чтобы вставки из SQL не пересекались с Hibernate.
+
+CREATE SEQUENCE IF NOT EXISTS orders_seq INCREMENT BY 50 OWNED BY orders.id;
+SELECT setval('orders_seq', COALESCE((SELECT MAX(id) FROM orders), 0) + 50, false);
+ALTER TABLE orders ALTER COLUMN id SET DEFAULT nextval('orders_seq');
+
+CREATE SEQUENCE IF NOT EXISTS order_items_seq INCREMENT BY 50 OWNED BY order_items.id;
+SELECT setval('order_items_seq', COALESCE((SELECT MAX(id) FROM order_items), 0) + 50, false);
+ALTER TABLE order_items ALTER COLUMN id SET DEFAULT nextval('order_items_seq');
+
+CREATE SEQUENCE IF NOT EXISTS carts_seq INCREMENT BY 50 OWNED BY carts.id;
+SELECT setval('carts_seq', COALESCE((SELECT MAX(id) FROM carts), 0) + 50, false);
+ALTER TABLE carts ALTER COLUMN id SET DEFAULT nextval('carts_seq');
+
+CREATE SEQUENCE IF NOT EXISTS cart_items_seq INCREMENT BY 50 OWNED BY cart_items.id;
+SELECT setval('cart_items_seq', COALESCE((SELECT MAX(id) FROM cart_items), 0) + 50, false);
+ALTER TABLE cart_items ALTER COLUMN id SET DEFAULT nextval('cart_items_seq');
+
+CREATE SEQUENCE IF NOT EXISTS payments_seq INCREMENT BY 50 OWNED BY payments.id;
+SELECT setval('payments_seq', COALESCE((SELECT MAX(id) FROM payments), 0) + 50, false);
+ALTER TABLE payments ALTER COLUMN id SET DEFAULT nextval('payments_seq');
+
+CREATE SEQUENCE IF NOT EXISTS scheduled_notifications_seq INCREMENT BY 50 OWNED BY scheduled_notifications.id;
+SELECT setval('scheduled_notifications_seq', COALESCE((SELECT MAX(id) FROM scheduled_notifications), 0) + 50, false);
+ALTER TABLE scheduled_notifications ALTER COLUMN id SET DEFAULT nextval('scheduled_notifications_seq');
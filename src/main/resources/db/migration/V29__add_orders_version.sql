@@ -0,0 +1,6 @@
+-- V29__add_orders_version.sql
+-- Версия строки заказа для оптимистической блокировки (@Version в Order):
+-- два администратора, одновременно меняющие статус, больше не перезаписывают друг друга.
+-- Массовая смена статуса увеличивает версию в том же UPDATE.
+
+ALTER TABLE orders ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,25 @@
+-- V30__create_order_status_history.sql
+-- Журнал смен статуса заказа: строка добавляется при создании заказа и при каждом переходе,
+-- существующие строки не изменяются. duration_ms - сколько заказ провел в статусе from_status
+-- (NULL для первой строки заказа и для заказов, созданных до появления журнала).
+-- ID выдает pooled-последовательность с шагом 50, как в V28: массовая смена статуса
+-- записывает журнал пакетом.
+
+CREATE SEQUENCE IF NOT EXISTS order_status_history_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS order_status_history (
+    id BIGINT PRIMARY KEY DEFAULT nextval('order_status_history_seq'),
+    order_id INTEGER NOT NULL REFERENCES orders (id) ON DELETE CASCADE,
+    from_status VARCHAR(50),
+    to_status VARCHAR(50) NOT NULL,
+    changed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    duration_ms BIGINT
+);
+
+ALTER SEQUENCE order_status_history_seq OWNED BY order_status_history.id;
+
+-- Последний переход заказа и его история по порядку
+CREATE INDEX IF NOT EXISTS idx_order_status_history_order ON order_status_history (order_id, changed_at, id);
+
+-- Загрузка переходов за последний час при старте узла
+CREATE INDEX IF NOT EXISTS idx_order_status_history_changed_at ON order_status_history (changed_at);
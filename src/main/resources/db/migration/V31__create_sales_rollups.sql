@@ -0,0 +1,58 @@
+-- V31__create_sales_rollups.sql
+-- Агрегаты продаж для статистики админ-панели. Обновляются приращениями по событиям заказов
+-- (SalesRollupCollector) и ежедневно пересчитываются по заказам за последние дни.
+-- Заказ относится к часу и дню created_at; выручка - total_amount, как в прежних запросах по orders.
+
+CREATE TABLE IF NOT EXISTS sales_rollup_hourly (
+    bucket_start TIMESTAMP PRIMARY KEY,
+    orders_count BIGINT NOT NULL DEFAULT 0,
+    revenue NUMERIC(14, 2) NOT NULL DEFAULT 0
+);
+
+CREATE TABLE IF NOT EXISTS sales_rollup_daily (
+    bucket_date DATE PRIMARY KEY,
+    orders_count BIGINT NOT NULL DEFAULT 0,
+    revenue NUMERIC(14, 2) NOT NULL DEFAULT 0
+);
+
+-- Продано штук и выручка по товару за день (quantity * price позиций заказа)
+CREATE TABLE IF NOT EXISTS sales_rollup_daily_product (
+    bucket_date DATE NOT NULL,
+    product_id INTEGER NOT NULL,
+    units BIGINT NOT NULL DEFAULT 0,
+    revenue NUMERIC(14, 2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (bucket_date, product_id)
+);
+
+-- Число заказов в каждом статусе сейчас
+CREATE TABLE IF NOT EXISTS sales_rollup_status (
+    status_name VARCHAR(50) PRIMARY KEY,
+    orders_count BIGINT NOT NULL DEFAULT 0
+);
+
+-- Начальное заполнение по существующим заказам
+INSERT INTO sales_rollup_hourly (bucket_start, orders_count, revenue)
+SELECT date_trunc('hour', created_at), COUNT(*), COALESCE(SUM(total_amount), 0)
+FROM orders
+GROUP BY date_trunc('hour', created_at)
+ON CONFLICT (bucket_start) DO NOTHING;
+
+INSERT INTO sales_rollup_daily (bucket_date, orders_count, revenue)
+SELECT CAST(created_at AS DATE), COUNT(*), COALESCE(SUM(total_amount), 0)
+FROM orders
+GROUP BY CAST(created_at AS DATE)
+ON CONFLICT (bucket_date) DO NOTHING;
+
+INSERT INTO sales_rollup_daily_product (bucket_date, product_id, units, revenue)
+SELECT CAST(o.created_at AS DATE), oi.product_id, SUM(oi.quantity), COALESCE(SUM(oi.quantity * oi.price), 0)
+FROM order_items oi
+JOIN orders o ON o.id = oi.order_id
+GROUP BY CAST(o.created_at AS DATE), oi.product_id
+ON CONFLICT (bucket_date, product_id) DO NOTHING;
+
+INSERT INTO sales_rollup_status (status_name, orders_count)
+SELECT os.name, COUNT(*)
+FROM orders o
+JOIN order_statuses os ON os.id = o.status_id
+GROUP BY os.name
+ON CONFLICT (status_name) DO NOTHING;
@@ -0,0 +1,8 @@
+-- V32__add_delivery_location_address_key.sql
+-- Нормализованный ключ адреса (RussianAddressParser, ParsedAddress.key()) для пунктов доставки,
+-- созданных из адресов: "ул. Ленина, д. 5" и "Ленина 5, кв. 3" находят один пункт вместо создания нового.
+-- Существующие строки получают ключ при первом совпадении по точному адресу.
+
+ALTER TABLE delivery_locations ADD COLUMN IF NOT EXISTS address_key VARCHAR(512);
+
+CREATE INDEX IF NOT EXISTS idx_delivery_locations_address_key ON delivery_locations (address_key);
@@ -0,0 +1,5 @@
+-- V33__add_outbox_delivered_recipients.sql
+-- Получатели, которым сообщение outbox уже доставлено: повтор после частичной рассылки
+-- (часть администраторов получила уведомление) отправляет его только остальным.
+
+ALTER TABLE outbox_messages ADD COLUMN IF NOT EXISTS delivered_recipients TEXT;
@@ -0,0 +1,15 @@
+-- V34__create_sales_rollup_state.sql
+-- Единственная строка состояния агрегатов продаж. Сверка и запись приращений блокируют ее
+-- (SELECT ... FOR UPDATE), поэтому на всех узлах они выполняются по очереди. reconciled_at - момент
+-- последней сверки: приращения, собранные до него, уже учтены пересчетом за [reconciled_from, reconciled_to)
+-- и в счетчиках статусов.
+
+CREATE TABLE IF NOT EXISTS sales_rollup_state (
+    id SMALLINT PRIMARY KEY,
+    reconciled_at TIMESTAMP,
+    reconciled_from DATE,
+    reconciled_to DATE
+);
+
+INSERT INTO sales_rollup_state (id) VALUES (1)
+ON CONFLICT (id) DO NOTHING;
@@ -0,0 +1,66 @@
+/**
+ * @file: LocalCacheGenerationStoreTest.java
+ * @description: Модульные тесты для поколений кэша в памяти узла
+ * @dependencies: JUnit, Caffeine, Micrometer
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.config.cache;
+
+import com.baganov.pizzanat.config.TwoTierCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("LocalCacheGenerationStore - поколения кэша в памяти узла")
+class LocalCacheGenerationStoreTest {
+
+    @Test
+    @DisplayName("Смена поколения затрагивает только свою группу")
+    void advancesOnlyOwnScope() {
+        LocalCacheGenerationStore store = new LocalCacheGenerationStore(new TwoTierCacheProperties(),
+                new SimpleMeterRegistry());
+        long first = store.current("userOrders:1");
+        long second = store.current("userOrders:2");
+
+        store.advance("userOrders:1");
+
+        assertThat(store.current("userOrders:1")).isNotEqualTo(first);
+        assertThat(store.current("userOrders:2")).isEqualTo(second);
+    }
+
+    @Test
+    @DisplayName("Вытесненная по размеру группа не возвращается к уже выданному поколению")
+    void evictedScopeNeverReusesGeneration() {
+        TwoTierCacheProperties properties = new TwoTierCacheProperties();
+        properties.setGenerationMaxScopes(10);
+        LocalCacheGenerationStore store = new LocalCacheGenerationStore(properties, new SimpleMeterRegistry());
+
+        Map<String, Set<Long>> issued = new HashMap<>();
+        Map<String, Long> latest = new HashMap<>();
+        for (int i = 0; i < 100; i++) {
+            String scope = "userOrders:" + i;
+            issued.computeIfAbsent(scope, s -> new HashSet<>()).add(store.current(scope));
+            store.advance(scope);
+            latest.put(scope, store.current(scope));
+            issued.get(scope).add(latest.get(scope));
+        }
+        store.cleanUp();
+
+        int evicted = 0;
+        for (Map.Entry<String, Long> entry : latest.entrySet()) {
+            long current = store.current(entry.getKey());
+            if (current != entry.getValue()) {
+                evicted++;
+                assertThat(issued.get(entry.getKey())).doesNotContain(current);
+            }
+        }
+        assertThat(evicted).isPositive();
+    }
+}
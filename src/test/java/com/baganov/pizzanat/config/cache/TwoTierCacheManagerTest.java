@@ -0,0 +1,87 @@
+/**
+ * @file: TwoTierCacheManagerTest.java
+ * @description: Модульные тесты для двухуровневого кэша
+ * @dependencies: JUnit, Caffeine, Micrometer
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.config.cache;
+
+import com.baganov.pizzanat.config.TwoTierCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("TwoTierCacheManager - двухуровневый кэш")
+class TwoTierCacheManagerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ConcurrentMapCacheManager remoteManager;
+    private TwoTierCacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        TwoTierCacheProperties properties = new TwoTierCacheProperties();
+        TwoTierCacheProperties.CacheSpec spec = new TwoTierCacheProperties.CacheSpec();
+        spec.setMaximumSize(2L);
+        spec.setTtl(Duration.ofMinutes(1));
+        properties.getCaches().put("orderDetails", spec);
+
+        meterRegistry = new SimpleMeterRegistry();
+        remoteManager = new ConcurrentMapCacheManager("orderDetails");
+        cacheManager = new TwoTierCacheManager(properties, remoteManager, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Промах L1 читается из L2 и прогревает L1")
+    void l1MissFallsBackToL2() {
+        remoteManager.getCache("orderDetails").put("1-1", "order");
+
+        Cache cache = cacheManager.getCache("orderDetails");
+
+        assertThat(cache.get("1-1", String.class)).isEqualTo("order");
+        remoteManager.getCache("orderDetails").clear();
+        assertThat(cache.get("1-1", String.class)).isEqualTo("order");
+        assertThat(meterRegistry.get("cache.l2.gets").tag("result", "hit").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Инвалидация выполняется на обоих уровнях")
+    void evictRemovesFromBothTiers() {
+        Cache cache = cacheManager.getCache("orderDetails");
+        cache.put("1-1", "order");
+
+        cache.evict("1-1");
+
+        assertThat(cache.get("1-1")).isNull();
+        assertThat(remoteManager.getCache("orderDetails").get("1-1")).isNull();
+    }
+
+    @Test
+    @DisplayName("Метрики L1 публикуются по имени кэша")
+    void l1MetricsAreRegistered() {
+        cacheManager.getCache("orderDetails").get("missing");
+
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "orderDetails").tag("result", "miss")
+                .functionCounter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Без L2 кэш работает только на L1")
+    void worksWithoutRemote() {
+        TwoTierCacheManager localOnly = new TwoTierCacheManager(new TwoTierCacheProperties(), null,
+                new SimpleMeterRegistry());
+
+        Cache cache = localOnly.getCache("userOrders");
+        cache.put("1-0-10", "page");
+
+        assertThat(cache.get("1-0-10", String.class)).isEqualTo("page");
+        assertThat(localOnly.getCacheNames()).contains("userOrders");
+    }
+}
@@ -11,6 +11,8 @@ import com.baganov.pizzanat.entity.Category;
 import com.baganov.pizzanat.entity.Product;
 import com.baganov.pizzanat.repository.CategoryRepository;
 import com.baganov.pizzanat.repository.ProductRepository;
+import com.baganov.pizzanat.service.cart.SessionCartStore;
+import com.baganov.pizzanat.service.catalog.CatalogSnapshotService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -36,6 +38,12 @@ public class CartControllerTest extends BaseIntegrationTest {
         @Autowired
         private ProductRepository productRepository;
 
+        @Autowired
+        private CatalogSnapshotService catalogSnapshotService;
+
+        @Autowired
+        private SessionCartStore sessionCartStore;
+
         private Integer productId;
         private final String TEST_SESSION_ID = "test-session-id";
 
@@ -58,6 +66,10 @@ public class CartControllerTest extends BaseIntegrationTest {
                                 .build());
 
                 productId = product.getId();
+
+                // Корзина гостя проверяет продукт по снимку каталога и живет вне транзакции теста
+                catalogSnapshotService.rebuild();
+                sessionCartStore.delete(TEST_SESSION_ID);
         }
 
         @Test
@@ -178,6 +190,24 @@ public class CartControllerTest extends BaseIntegrationTest {
                                 .andExpect(jsonPath("$.items").isEmpty());
         }
 
+        @Test
+        @DisplayName("Пакетное изменение корзины")
+        public void testPatchCart() throws Exception {
+                String patch = "{\"operations\":["
+                                + "{\"op\":\"ADD\",\"productId\":" + productId + ",\"quantity\":2},"
+                                + "{\"op\":\"SET\",\"productId\":" + productId + ",\"quantity\":5}]}";
+
+                mockMvc.perform(patch("/api/v1/cart")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(patch)
+                                .cookie(new Cookie(CART_SESSION_ID_COOKIE, TEST_SESSION_ID)))
+                                .andDo(print())
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.items[0].productId").value(productId))
+                                .andExpect(jsonPath("$.items[0].quantity").value(5))
+                                .andExpect(jsonPath("$.totalAmount").value(2250));
+        }
+
         // Константа для имени куки с идентификатором сессии
         private static final String CART_SESSION_ID_COOKIE = "CART_SESSION_ID";
 }
\ No newline at end of file
@@ -8,6 +8,7 @@ package com.baganov.pizzanat.integration;
 
 import com.baganov.pizzanat.entity.Category;
 import com.baganov.pizzanat.repository.CategoryRepository;
+import com.baganov.pizzanat.service.catalog.CatalogSnapshotService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -26,6 +27,9 @@ public class CategoryControllerTest extends BaseIntegrationTest {
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
     private Integer categoryId;
 
     @BeforeEach
@@ -38,6 +42,9 @@ public class CategoryControllerTest extends BaseIntegrationTest {
 
         category = categoryRepository.save(category);
         categoryId = category.getId();
+
+        // Каталог читается из снимка, перестраиваем его с тестовыми данными
+        catalogSnapshotService.rebuild();
     }
 
     @Test
@@ -16,6 +16,8 @@ import com.baganov.pizzanat.repository.CategoryRepository;
 import com.baganov.pizzanat.repository.DeliveryLocationRepository;
 import com.baganov.pizzanat.repository.OrderStatusRepository;
 import com.baganov.pizzanat.repository.ProductRepository;
+import com.baganov.pizzanat.service.cart.SessionCartStore;
+import com.baganov.pizzanat.service.catalog.CatalogSnapshotService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -41,6 +43,12 @@ public class OrderControllerTest extends BaseIntegrationTest {
         @Autowired
         private ProductRepository productRepository;
 
+        @Autowired
+        private CatalogSnapshotService catalogSnapshotService;
+
+        @Autowired
+        private SessionCartStore sessionCartStore;
+
         @Autowired
         private DeliveryLocationRepository deliveryLocationRepository;
 
@@ -70,6 +78,10 @@ public class OrderControllerTest extends BaseIntegrationTest {
 
                 productId = product.getId();
 
+                // Корзина гостя проверяет продукт по снимку каталога и живет вне транзакции теста
+                catalogSnapshotService.rebuild();
+                sessionCartStore.delete("test-session-id");
+
                 // Создаем точку доставки
                 DeliveryLocation location = deliveryLocationRepository.save(DeliveryLocation.builder()
                                 .name("Тестовая точка")
@@ -0,0 +1,162 @@
+/**
+ * @file: OrderInsertBatchingIntegrationTest.java
+ * @description: Проверка пакетной вставки позиций заказа при оформлении заказа
+ * @dependencies: Spring Boot Test, Hibernate StatementInspector, H2
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.integration;
+
+import com.baganov.pizzanat.config.TestConfig;
+import com.baganov.pizzanat.config.TestMailConfig;
+import com.baganov.pizzanat.config.TestRedisConfig;
+import com.baganov.pizzanat.config.TestS3Config;
+import com.baganov.pizzanat.entity.*;
+import com.baganov.pizzanat.model.dto.order.CreateOrderRequest;
+import com.baganov.pizzanat.model.dto.order.OrderDTO;
+import com.baganov.pizzanat.repository.*;
+import com.baganov.pizzanat.service.OrderService;
+import jakarta.persistence.EntityManager;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import({ TestConfig.class, TestRedisConfig.class, TestMailConfig.class, TestS3Config.class })
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.baganov.pizzanat.integration.OrderInsertBatchingIntegrationTest$PreparedInsertCounter")
+@Transactional
+@DisplayName("Пакетная вставка заказа и его позиций")
+class OrderInsertBatchingIntegrationTest {
+
+        private static final int CART_LINES = 10;
+
+        @Autowired
+        private OrderService orderService;
+
+        @Autowired
+        private UserRepository userRepository;
+
+        @Autowired
+        private CategoryRepository categoryRepository;
+
+        @Autowired
+        private ProductRepository productRepository;
+
+        @Autowired
+        private CartRepository cartRepository;
+
+        @Autowired
+        private DeliveryLocationRepository deliveryLocationRepository;
+
+        @Autowired
+        private EntityManager entityManager;
+
+        private User user;
+        private DeliveryLocation location;
+
+        @BeforeEach
+        void setUp() {
+                user = userRepository.save(User.builder()
+                                .username("batch_insert_user")
+                                .email("batch-insert@example.com")
+                                .password("password")
+                                .firstName("Тест")
+                                .isActive(true)
+                                .build());
+
+                Category category = categoryRepository.save(Category.builder()
+                                .name("Категория пакетной вставки")
+                                .displayOrder(1)
+                                .isActive(true)
+                                .build());
+
+                Cart cart = Cart.builder().user(user).build();
+                for (int i = 0; i < CART_LINES; i++) {
+                        Product product = productRepository.save(Product.builder()
+                                        .name("Пицца пакетная " + i)
+                                        .price(BigDecimal.valueOf(400 + i))
+                                        .category(category)
+                                        .isAvailable(true)
+                                        .build());
+                        cart.addItem(CartItem.builder()
+                                        .product(product)
+                                        .quantity(1)
+                                        .build());
+                }
+                cartRepository.save(cart);
+
+                location = deliveryLocationRepository.save(DeliveryLocation.builder()
+                                .name("Точка пакетной вставки")
+                                .address("Тестовая улица, 2")
+                                .isActive(true)
+                                .build());
+
+                entityManager.flush();
+                entityManager.clear();
+                PreparedInsertCounter.reset();
+        }
+
+        @Test
+        @DisplayName("Позиции заказа из 10 строк корзины вставляются одним подготовленным пакетом")
+        void createOrderBatchesItemInserts() {
+                CreateOrderRequest request = CreateOrderRequest.builder()
+                                .deliveryLocationId(location.getId())
+                                .contactName("Тест Тестов")
+                                .contactPhone("+79001234567")
+                                .build();
+
+                OrderDTO order = orderService.createOrder(user.getId(), null, request);
+                entityManager.flush();
+
+                assertThat(order.getItems()).hasSize(CART_LINES);
+                assertThat(order.getItems()).allSatisfy(item -> assertThat(item.getId()).isNotNull());
+                // С IDENTITY каждая позиция была бы отдельным INSERT: 10 подготовленных выражений
+                assertThat(PreparedInsertCounter.count("order_items")).isEqualTo(1);
+                assertThat(PreparedInsertCounter.count("orders")).isEqualTo(1);
+        }
+
+        /**
+         * Считает подготовленные INSERT по таблицам. Пакет готовит выражение один раз на все строки.
+         */
+        public static class PreparedInsertCounter implements StatementInspector {
+
+                private static final String INSERT_PREFIX = "insert into ";
+                private static final Map<String, AtomicInteger> COUNTS = new ConcurrentHashMap<>();
+
+                @Override
+                public String inspect(String sql) {
+                        String normalized = sql.trim().toLowerCase(Locale.ROOT);
+                        if (normalized.startsWith(INSERT_PREFIX)) {
+                                String rest = normalized.substring(INSERT_PREFIX.length());
+                                String table = rest.split("[\\s(]", 2)[0];
+                                COUNTS.computeIfAbsent(table, key -> new AtomicInteger()).incrementAndGet();
+                        }
+                        return sql;
+                }
+
+                static int count(String table) {
+                        AtomicInteger count = COUNTS.get(table);
+                        return count == null ? 0 : count.get();
+                }
+
+                static void reset() {
+                        COUNTS.clear();
+                }
+        }
+}
@@ -0,0 +1,237 @@
+/**
+ * @file: OrderReadModelIntegrationTest.java
+ * @description: Проверка числа SQL-запросов при загрузке страниц заказов и выборки по курсору
+ * @dependencies: Spring Boot Test, Hibernate Statistics, H2
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.integration;
+
+import com.baganov.pizzanat.config.TestConfig;
+import com.baganov.pizzanat.config.TestMailConfig;
+import com.baganov.pizzanat.config.TestRedisConfig;
+import com.baganov.pizzanat.config.TestS3Config;
+import com.baganov.pizzanat.entity.*;
+import com.baganov.pizzanat.model.dto.order.OrderCursorPage;
+import com.baganov.pizzanat.model.dto.order.OrderDTO;
+import com.baganov.pizzanat.repository.*;
+import com.baganov.pizzanat.service.OrderService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import({ TestConfig.class, TestRedisConfig.class, TestMailConfig.class, TestS3Config.class })
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+@DisplayName("Загрузка страниц заказов постоянным числом запросов")
+class OrderReadModelIntegrationTest {
+
+        private static final int ORDERS = 12;
+        private static final int ITEMS_PER_ORDER = 3;
+
+        /**
+         * ID страницы, count, заказы со связями, последние платежи
+         */
+        private static final long MAX_STATEMENTS_PER_PAGE = 4;
+
+        @Autowired
+        private OrderService orderService;
+
+        @Autowired
+        private UserRepository userRepository;
+
+        @Autowired
+        private CategoryRepository categoryRepository;
+
+        @Autowired
+        private ProductRepository productRepository;
+
+        @Autowired
+        private OrderStatusRepository orderStatusRepository;
+
+        @Autowired
+        private DeliveryLocationRepository deliveryLocationRepository;
+
+        @Autowired
+        private OrderRepository orderRepository;
+
+        @Autowired
+        private PaymentRepository paymentRepository;
+
+        @Autowired
+        private EntityManager entityManager;
+
+        @Autowired
+        private EntityManagerFactory entityManagerFactory;
+
+        private User user;
+
+        @BeforeEach
+        void setUp() {
+                user = userRepository.save(User.builder()
+                                .username("read_model_user")
+                                .email("read-model@example.com")
+                                .password("password")
+                                .firstName("Тест")
+                                .isActive(true)
+                                .build());
+
+                Category category = categoryRepository.save(Category.builder()
+                                .name("Категория чтения заказов")
+                                .displayOrder(1)
+                                .isActive(true)
+                                .build());
+
+                List<Product> products = new ArrayList<>();
+                for (int i = 0; i < ITEMS_PER_ORDER; i++) {
+                        products.add(productRepository.save(Product.builder()
+                                        .name("Пицца " + i)
+                                        .price(BigDecimal.valueOf(500 + i))
+                                        .category(category)
+                                        .isAvailable(true)
+                                        .build()));
+                }
+
+                OrderStatus status = orderStatusRepository.findByName("CREATED")
+                                .orElseGet(() -> orderStatusRepository.save(OrderStatus.builder()
+                                                .name("CREATED")
+                                                .description("Заказ создан")
+                                                .isActive(true)
+                                                .build()));
+
+                DeliveryLocation location = deliveryLocationRepository.save(DeliveryLocation.builder()
+                                .name("Точка чтения заказов")
+                                .address("Тестовая улица, 1")
+                                .isActive(true)
+                                .build());
+
+                for (int i = 0; i < ORDERS; i++) {
+                        Order order = Order.builder()
+                                        .user(user)
+                                        .status(status)
+                                        .deliveryLocation(location)
+                                        .totalAmount(BigDecimal.valueOf(1500))
+                                        .contactName("Тест")
+                                        .contactPhone("+79001234567")
+                                        .items(new ArrayList<>())
+                                        .build();
+                        for (Product product : products) {
+                                order.getItems().add(OrderItem.builder()
+                                                .order(order)
+                                                .product(product)
+                                                .quantity(1)
+                                                .price(product.getPrice())
+                                                .build());
+                        }
+                        orderRepository.save(order);
+
+                        paymentRepository.save(new Payment(order, PaymentMethod.SBP, order.getTotalAmount()));
+                        Payment latest = new Payment(order, PaymentMethod.SBP, order.getTotalAmount());
+                        latest.setStatus(PaymentStatus.SUCCEEDED);
+                        paymentRepository.save(latest);
+                }
+
+                entityManager.flush();
+                entityManager.clear();
+        }
+
+        @Test
+        @DisplayName("Число запросов на страницу заказов пользователя не зависит от размера страницы")
+        void userOrdersPageUsesConstantStatements() {
+                long smallPage = countStatements(() -> {
+                        orderService.getUserOrders(user.getId(), PageRequest.of(0, 3));
+                });
+                long largePage = countStatements(() -> {
+                        orderService.getUserOrders(user.getId(), PageRequest.of(0, 10));
+                });
+
+                assertThat(smallPage).isLessThanOrEqualTo(MAX_STATEMENTS_PER_PAGE);
+                assertThat(largePage).isEqualTo(smallPage);
+        }
+
+        @Test
+        @DisplayName("Страница всех заказов содержит позиции, названия продуктов, статус и последний платеж")
+        void allOrdersPageIsComplete() {
+                AtomicReference<Page<OrderDTO>> result = new AtomicReference<>();
+                long statements = countStatements(() -> {
+                        result.set(orderService.getAllOrders(PageRequest.of(0, 10)));
+                });
+
+                assertThat(statements).isLessThanOrEqualTo(MAX_STATEMENTS_PER_PAGE);
+                assertThat(result.get().getContent()).hasSize(10).allSatisfy(order -> {
+                        assertThat(order.getStatus()).isEqualTo("CREATED");
+                        assertThat(order.getItems()).hasSize(ITEMS_PER_ORDER)
+                                        .allSatisfy(item -> assertThat(item.getProductName()).startsWith("Пицца"));
+                        assertThat(order.getLatestPaymentStatus()).isEqualTo("SUCCEEDED");
+                });
+        }
+
+        @Test
+        @DisplayName("Выборка по курсору проходит все заказы без пропусков и повторов")
+        void cursorPagesCoverAllOrders() {
+                List<Integer> seen = new ArrayList<>();
+                String cursor = null;
+                int pages = 0;
+                do {
+                        OrderCursorPage page = orderService.getUserOrdersByCursor(user.getId(), cursor, 5, pages == 0);
+                        if (pages == 0) {
+                                assertThat(page.getTotalElements()).isEqualTo(ORDERS);
+                        } else {
+                                assertThat(page.getTotalElements()).isNull();
+                        }
+                        page.getItems().forEach(order -> seen.add(order.getId()));
+                        cursor = page.getNextCursor();
+                        pages++;
+                } while (cursor != null);
+
+                assertThat(pages).isEqualTo(3);
+                assertThat(seen).hasSize(ORDERS).doesNotHaveDuplicates();
+                assertThat(seen).isSortedAccordingTo(Comparator.reverseOrder());
+        }
+
+        @Test
+        @DisplayName("Страница по курсору загружается постоянным числом запросов, count - только по запросу")
+        void cursorPageSkipsCount() {
+                long withoutTotal = countStatements(() -> {
+                        orderService.getOrdersByCursor("CREATED", null, 10, false);
+                });
+                long withTotal = countStatements(() -> {
+                        orderService.getOrdersByCursor("CREATED", null, 10, true);
+                });
+
+                assertThat(withTotal).isEqualTo(withoutTotal + 1);
+                assertThat(withTotal).isLessThanOrEqualTo(MAX_STATEMENTS_PER_PAGE + 1);
+                assertThatThrownBy(() -> orderService.getOrdersByCursor(null, "не-курсор", 10, false))
+                                .isInstanceOf(IllegalArgumentException.class);
+        }
+
+        private long countStatements(Runnable action) {
+                Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+                entityManager.clear();
+                statistics.clear();
+                action.run();
+                return statistics.getPrepareStatementCount();
+        }
+}
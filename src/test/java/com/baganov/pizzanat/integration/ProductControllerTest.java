@@ -10,17 +10,22 @@ import com.baganov.pizzanat.entity.Category;
 import com.baganov.pizzanat.entity.Product;
 import com.baganov.pizzanat.repository.CategoryRepository;
 import com.baganov.pizzanat.repository.ProductRepository;
+import com.baganov.pizzanat.service.catalog.CatalogSnapshotService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -33,6 +38,9 @@ public class ProductControllerTest extends BaseIntegrationTest {
         @Autowired
         private ProductRepository productRepository;
 
+        @Autowired
+        private CatalogSnapshotService catalogSnapshotService;
+
         private Integer categoryId;
         private Integer productId;
         private Integer specialOfferId;
@@ -70,6 +78,9 @@ public class ProductControllerTest extends BaseIntegrationTest {
                                 .build());
 
                 specialOfferId = specialOffer.getId();
+
+                // Каталог читается из снимка, перестраиваем его с тестовыми данными
+                catalogSnapshotService.rebuild();
         }
 
         @Test
@@ -128,6 +139,19 @@ public class ProductControllerTest extends BaseIntegrationTest {
                                 .andExpect(jsonPath("$.content").isArray());
         }
 
+        @Test
+        @DisplayName("Пустой запрос поиска с категорией возвращает все доступные продукты категории")
+        public void testSearchProductsWithEmptyQuery() throws Exception {
+                mockMvc.perform(get("/api/v1/products/search")
+                                .param("query", " ")
+                                .param("categoryId", categoryId.toString())
+                                .contentType(MediaType.APPLICATION_JSON))
+                                .andDo(print())
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.content.length()").value(2))
+                                .andExpect(jsonPath("$.totalElements").value(2));
+        }
+
         @Test
         @DisplayName("Поиск продуктов по запросу и категории")
         public void testSearchProductsWithCategory() throws Exception {
@@ -139,4 +163,46 @@ public class ProductControllerTest extends BaseIntegrationTest {
                                 .andExpect(status().isOk())
                                 .andExpect(jsonPath("$.content").isArray());
         }
-}
\ No newline at end of file
+
+        @Test
+        @DisplayName("Повторный запрос с If-None-Match получает 304")
+        public void testGetAllProductsNotModified() throws Exception {
+                String etag = mockMvc.perform(get("/api/v1/products"))
+                                .andExpect(status().isOk())
+                                .andExpect(header().exists(HttpHeaders.ETAG))
+                                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+                mockMvc.perform(get("/api/v1/products")
+                                .header(HttpHeaders.IF_NONE_MATCH, etag))
+                                .andExpect(status().isNotModified())
+                                .andExpect(header().string(HttpHeaders.ETAG, etag));
+        }
+
+        @Test
+        @DisplayName("Каталог отдается в gzip при Accept-Encoding: gzip со своим ETag")
+        public void testGetSpecialOffersGzip() throws Exception {
+                String jsonEtag = mockMvc.perform(get("/api/v1/products/special-offers"))
+                                .andExpect(status().isOk())
+                                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+                String gzipEtag = mockMvc.perform(get("/api/v1/products/special-offers")
+                                .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate, br"))
+                                .andExpect(status().isOk())
+                                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                                .andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT_ENCODING)))
+                                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+                assertThat(gzipEtag).isNotNull().isNotEqualTo(jsonEtag);
+
+                // ETag одного представления не подтверждает другое
+                mockMvc.perform(get("/api/v1/products/special-offers")
+                                .header(HttpHeaders.IF_NONE_MATCH, gzipEtag))
+                                .andExpect(status().isOk());
+                mockMvc.perform(get("/api/v1/products/special-offers")
+                                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                                .header(HttpHeaders.IF_NONE_MATCH, gzipEtag))
+                                .andExpect(status().isNotModified())
+                                .andExpect(header().string(HttpHeaders.ETAG, gzipEtag));
+        }
+}
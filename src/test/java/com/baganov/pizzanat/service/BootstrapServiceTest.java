@@ -0,0 +1,120 @@
+/**
+ * @file: BootstrapServiceTest.java
+ * @description: Модульные тесты для BootstrapService
+ * @dependencies: JUnit, Mockito
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service;
+
+import com.baganov.pizzanat.dto.ProductDto;
+import com.baganov.pizzanat.entity.User;
+import com.baganov.pizzanat.model.dto.bootstrap.BootstrapResponse;
+import com.baganov.pizzanat.model.dto.cart.CartDTO;
+import com.baganov.pizzanat.model.dto.product.CategoryDTO;
+import com.baganov.pizzanat.service.catalog.CatalogSnapshot;
+import com.baganov.pizzanat.service.catalog.CatalogSnapshotService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("BootstrapService - стартовые данные мини-приложения")
+class BootstrapServiceTest {
+
+    @Mock
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Mock
+    private CartService cartService;
+
+    private BootstrapService bootstrapService;
+
+    @BeforeEach
+    void setUp() {
+        bootstrapService = new BootstrapService(catalogSnapshotService, cartService);
+
+        ProductDto soldOut = ProductDto.builder()
+                .id(4)
+                .name("Продукт 4")
+                .price(BigDecimal.valueOf(104))
+                .categoryId(1)
+                .isAvailable(false)
+                .build();
+        CatalogSnapshot snapshot = new CatalogSnapshot(3,
+                List.of(product(1, 1, false), product(2, 2, true), product(3, 1, true), soldOut),
+                List.of(category(1, 2), category(2, 1)),
+                Set.of(1, 2));
+        when(catalogSnapshotService.getSnapshot()).thenReturn(snapshot);
+    }
+
+    @Test
+    @DisplayName("Каталог, корзина и профиль собираются в один ответ")
+    void assemblesAllParts() {
+        User user = User.builder().id(10).firstName("Иван").phone("+79001234567").build();
+        CartDTO cart = CartDTO.builder().id(5).totalAmount(BigDecimal.TEN).build();
+        when(cartService.getCart("session", 10)).thenReturn(cart);
+
+        BootstrapResponse response = bootstrapService.getBootstrap("session", user);
+
+        assertThat(response.getCatalogVersion()).isEqualTo(3);
+        assertThat(response.getCategories()).extracting(CategoryDTO::getId).containsExactly(2, 1);
+        assertThat(response.getProductsByCategory()).containsOnlyKeys(2, 1);
+        assertThat(response.getProductsByCategory().get(1)).extracting(ProductDto::getId).containsExactly(1, 3);
+        assertThat(response.getSpecialOffers()).extracting(ProductDto::getId).containsExactly(2, 3);
+        assertThat(response.getCart()).isSameAs(cart);
+        assertThat(response.getProfile().getId()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Недоступные продукты не попадают в меню категорий")
+    void skipsUnavailableProducts() {
+        BootstrapResponse response = bootstrapService.getBootstrap("session", null);
+
+        assertThat(response.getProductsByCategory().values())
+                .allSatisfy(products -> assertThat(products).extracting(ProductDto::getId).doesNotContain(4));
+    }
+
+    @Test
+    @DisplayName("Ошибка чтения корзины не мешает отдать каталог")
+    void returnsEmptyCartOnFailure() {
+        when(cartService.getCart(eq("session"), any())).thenThrow(new IllegalStateException("db down"));
+
+        BootstrapResponse response = bootstrapService.getBootstrap("session", null);
+
+        assertThat(response.getCart().getItems()).isEmpty();
+        assertThat(response.getCart().getSessionId()).isEqualTo("session");
+        assertThat(response.getProfile()).isNull();
+        assertThat(response.getCategories()).hasSize(2);
+    }
+
+    private static ProductDto product(int id, int categoryId, boolean special) {
+        return ProductDto.builder()
+                .id(id)
+                .name("Продукт " + id)
+                .price(BigDecimal.valueOf(100 + id))
+                .categoryId(categoryId)
+                .isAvailable(true)
+                .isSpecialOffer(special)
+                .build();
+    }
+
+    private static CategoryDTO category(int id, int displayOrder) {
+        return CategoryDTO.builder()
+                .id(id)
+                .name("Категория " + id)
+                .displayOrder(displayOrder)
+                .build();
+    }
+}
@@ -0,0 +1,182 @@
+/**
+ * @file: CartServiceTest.java
+ * @description: Модульные тесты корзины анонимной сессии и пакетных операций в CartService
+ * @dependencies: JUnit, Mockito
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service;
+
+import com.baganov.pizzanat.config.CartStoreProperties;
+import com.baganov.pizzanat.dto.ProductDto;
+import com.baganov.pizzanat.model.dto.cart.CartDTO;
+import com.baganov.pizzanat.model.dto.cart.CartOperation;
+import com.baganov.pizzanat.service.cart.CartPricingService;
+import com.baganov.pizzanat.service.cart.InMemorySessionCartStore;
+import com.baganov.pizzanat.service.cart.PersistentCartService;
+import com.baganov.pizzanat.service.cart.SessionCartStore;
+import com.baganov.pizzanat.service.catalog.CatalogSnapshot;
+import com.baganov.pizzanat.service.catalog.CatalogSnapshotService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CartService - корзина анонимной сессии")
+class CartServiceTest {
+
+    private static final String SESSION_ID = "session-1";
+
+    @Mock
+    private PersistentCartService persistentCartService;
+
+    @Mock
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Mock
+    private DeliveryZoneService deliveryZoneService;
+
+    private SessionCartStore sessionCartStore;
+    private CartService cartService;
+
+    @BeforeEach
+    void setUp() {
+        sessionCartStore = new InMemorySessionCartStore(new CartStoreProperties(), new SimpleMeterRegistry());
+        CartPricingService cartPricingService = new CartPricingService(catalogSnapshotService, deliveryZoneService,
+                new CartStoreProperties(), new SimpleMeterRegistry());
+        cartService = new CartService(persistentCartService, sessionCartStore, catalogSnapshotService,
+                cartPricingService);
+
+        CatalogSnapshot snapshot = new CatalogSnapshot(1,
+                List.of(product(1, "500", "450", true), product(2, "300", null, true), product(3, "200", null, false)),
+                List.of(),
+                Set.of());
+        lenient().when(catalogSnapshotService.getSnapshot()).thenReturn(snapshot);
+    }
+
+    @Test
+    @DisplayName("Изменения корзины гостя не обращаются к БД")
+    void sessionCartMutationsStayOutOfDatabase() {
+        cartService.addToCart(SESSION_ID, null, 1, 2);
+        cartService.addToCart(SESSION_ID, null, 2, 1);
+        cartService.addToCart(SESSION_ID, null, 1, 1);
+        CartDTO cart = cartService.updateCartItem(SESSION_ID, null, 2, 4);
+
+        assertThat(cart.getItems()).extracting("productId", "quantity")
+                .containsExactly(tuple(1, 3), tuple(2, 4));
+        assertThat(cart.getTotalAmount()).isEqualByComparingTo("2550");
+        assertThat(cart.getDiscountAmount()).isEqualByComparingTo("150");
+        assertThat(cart.getItemsCount()).isEqualTo(7);
+        assertThat(cartService.getCart(SESSION_ID, null).getItems()).hasSize(2);
+        verifyNoInteractions(persistentCartService);
+    }
+
+    @Test
+    @DisplayName("Недоступный продукт и отсутствующая позиция отклоняются без изменения корзины")
+    void rejectsInvalidChanges() {
+        cartService.addToCart(SESSION_ID, null, 1, 1);
+
+        assertThatThrownBy(() -> cartService.addToCart(SESSION_ID, null, 3, 1))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> cartService.removeFromCart(SESSION_ID, null, 2))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(cartService.getCart(SESSION_ID, null).getItems()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Пакет операций применяется целиком за один вызов")
+    void appliesOperationsBatch() {
+        cartService.addToCart(SESSION_ID, null, 1, 1);
+
+        CartDTO cart = cartService.applyOperations(SESSION_ID, null, List.of(
+                operation(CartOperation.Type.ADD, 1, 2),
+                operation(CartOperation.Type.SET, 2, 5),
+                operation(CartOperation.Type.SET, 2, 2),
+                operation(CartOperation.Type.REMOVE, 3, null)));
+
+        assertThat(cart.getItems()).extracting("productId", "quantity")
+                .containsExactly(tuple(1, 3), tuple(2, 2));
+        verifyNoInteractions(persistentCartService);
+    }
+
+    @Test
+    @DisplayName("Пакет с некорректной операцией не меняет корзину")
+    void rejectsWholeBatchOnInvalidOperation() {
+        cartService.addToCart(SESSION_ID, null, 1, 1);
+
+        assertThatThrownBy(() -> cartService.applyOperations(SESSION_ID, null, List.of(
+                operation(CartOperation.Type.SET, 1, 4),
+                operation(CartOperation.Type.ADD, 3, 1))))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> cartService.applyOperations(SESSION_ID, null, List.of(
+                operation(CartOperation.Type.ADD, 1, 0))))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(cartService.getCart(SESSION_ID, null).getItems()).extracting("quantity").containsExactly(1);
+    }
+
+    @Test
+    @DisplayName("При входе корзина сессии переносится в БД и удаляется из хранилища")
+    void mergeMovesSessionCartToDatabase() {
+        cartService.addToCart(SESSION_ID, null, 1, 2);
+
+        cartService.mergeAnonymousCartWithUserCart(SESSION_ID, 10);
+
+        verify(persistentCartService).mergeIntoUserCart(10, Map.of(1, 2), SESSION_ID);
+        assertThat(sessionCartStore.find(SESSION_ID)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Стоимость доставки для запомненного адреса пересчитывается по сумме корзины")
+    void includesDeliveryForRememberedAddress() {
+        when(deliveryZoneService.quoteDelivery("Волжск, Ленина 1"))
+                .thenReturn(DeliveryZoneService.DeliveryQuote.STANDARD);
+        cartService.addToCart(SESSION_ID, null, 2, 1);
+
+        CartDTO cart = cartService.setDeliveryAddress(SESSION_ID, null, "Волжск, Ленина 1");
+        assertThat(cart.getDelivery().getDeliveryCost()).isEqualByComparingTo("250");
+        assertThat(cart.getDelivery().getAmountToFreeDelivery()).isEqualByComparingTo("900");
+        assertThat(cart.getTotalWithDelivery()).isEqualByComparingTo("550");
+
+        cart = cartService.addToCart(SESSION_ID, null, 2, 3);
+        assertThat(cart.getDelivery().isDeliveryFree()).isTrue();
+        assertThat(cart.getTotalWithDelivery()).isEqualByComparingTo("1200");
+        verify(deliveryZoneService, times(1)).quoteDelivery("Волжск, Ленина 1");
+    }
+
+    private static CartOperation operation(CartOperation.Type type, int productId, Integer quantity) {
+        return CartOperation.builder()
+                .op(type)
+                .productId(productId)
+                .quantity(quantity)
+                .build();
+    }
+
+    private static ProductDto product(int id, String price, String discountedPrice, boolean available) {
+        return ProductDto.builder()
+                .id(id)
+                .name("Продукт " + id)
+                .price(new BigDecimal(price))
+                .discountedPrice(discountedPrice != null ? new BigDecimal(discountedPrice) : null)
+                .categoryId(1)
+                .isAvailable(available)
+                .build();
+    }
+}
@@ -0,0 +1,86 @@
+/**
+ * @file: OrderCacheServiceTest.java
+ * @description: Модульные тесты для точечной инвалидации кэшей заказов
+ * @dependencies: JUnit, Spring Cache, LocalCacheGenerationStore
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service;
+
+import com.baganov.pizzanat.config.TwoTierCacheProperties;
+import com.baganov.pizzanat.config.cache.CacheGenerationStore;
+import com.baganov.pizzanat.config.cache.LocalCacheGenerationStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.domain.PageRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("OrderCacheService - точечная инвалидация кэшей заказов")
+class OrderCacheServiceTest {
+
+    private ConcurrentMapCacheManager cacheManager;
+    private CacheGenerationStore generationStore;
+    private OrderCacheService orderCacheService;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new ConcurrentMapCacheManager("orderDetails", "userOrders", "allOrders");
+        generationStore = new LocalCacheGenerationStore(new TwoTierCacheProperties(), new SimpleMeterRegistry());
+        orderCacheService = new OrderCacheService(cacheManager, generationStore);
+    }
+
+    @Test
+    @DisplayName("Инвалидируются только записи измененного заказа")
+    void evictsOnlyAffectedOrderDetails() {
+        var orderDetails = cacheManager.getCache("orderDetails");
+        String ownerKey = orderCacheService.orderDetailsKey(1, 10);
+        String adminKey = orderCacheService.orderDetailsKey(1, null);
+        String otherKey = orderCacheService.orderDetailsKey(2, 20);
+        orderDetails.put(ownerKey, "order-1-owner");
+        orderDetails.put(adminKey, "order-1-admin");
+        orderDetails.put(otherKey, "order-2");
+
+        orderCacheService.evictOrder(1, 10);
+
+        assertThat(orderDetails.get(ownerKey)).isNull();
+        assertThat(orderDetails.get(adminKey)).isNull();
+        assertThat(orderDetails.get(otherKey)).isNotNull();
+        assertThat(orderCacheService.orderDetailsKey(2, 20)).isEqualTo(otherKey);
+    }
+
+    @Test
+    @DisplayName("Меняется поколение страниц только затронутого пользователя")
+    void bumpsOnlyAffectedUserGeneration() {
+        PageRequest page = PageRequest.of(0, 10);
+        String user10Before = orderCacheService.userOrdersKey(10, page);
+        String user20Before = orderCacheService.userOrdersKey(20, page);
+        String adminBefore = orderCacheService.allOrdersKey(page);
+
+        orderCacheService.evictOrder(1, 10);
+
+        assertThat(orderCacheService.userOrdersKey(10, page)).isNotEqualTo(user10Before);
+        assertThat(orderCacheService.userOrdersKey(20, page)).isEqualTo(user20Before);
+        assertThat(orderCacheService.allOrdersKey(page)).isNotEqualTo(adminBefore);
+    }
+
+    @Test
+    @DisplayName("Узел с общим хранилищем поколений видит инвалидацию, выполненную другим узлом")
+    void sharedGenerationsInvalidateAcrossNodes() {
+        OrderCacheService otherNode = new OrderCacheService(
+                new ConcurrentMapCacheManager("orderDetails", "userOrders", "allOrders"), generationStore);
+        PageRequest page = PageRequest.of(0, 10);
+        String userKeyBefore = otherNode.userOrdersKey(10, page);
+        String adminKeyBefore = otherNode.allOrdersKey(page);
+        String detailsKeyBefore = otherNode.orderDetailsKey(1, 10);
+
+        orderCacheService.evictOrder(1, 10);
+
+        assertThat(otherNode.userOrdersKey(10, page)).isNotEqualTo(userKeyBefore);
+        assertThat(otherNode.allOrdersKey(page)).isNotEqualTo(adminKeyBefore);
+        // Запись заказа в L1 другого узла больше не читается
+        assertThat(otherNode.orderDetailsKey(1, 10)).isNotEqualTo(detailsKeyBefore);
+    }
+}
@@ -6,23 +6,35 @@
  */
 package com.baganov.pizzanat.service;
 
+import com.baganov.pizzanat.model.dto.order.BulkUpdateOrderStatusResponse;
 import com.baganov.pizzanat.model.dto.order.CreateOrderRequest;
 import com.baganov.pizzanat.model.dto.order.OrderDTO;
 import com.baganov.pizzanat.entity.*;
+import com.baganov.pizzanat.event.OrderStatusChangedEvent;
+import com.baganov.pizzanat.exception.InvalidOrderStatusTransitionException;
 import com.baganov.pizzanat.repository.*;
+import com.baganov.pizzanat.dto.ProductDto;
+import com.baganov.pizzanat.service.cart.CartPricingService;
+import com.baganov.pizzanat.service.cart.PricedCart;
+import com.baganov.pizzanat.service.cart.PricedLine;
+import com.baganov.pizzanat.service.outbox.OutboxService;
+import com.baganov.pizzanat.service.reference.ReferenceDataService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -35,7 +47,7 @@ class OrderServiceTest {
         private OrderRepository orderRepository;
 
         @Mock
-        private OrderStatusRepository orderStatusRepository;
+        private ReferenceDataService referenceDataService;
 
         @Mock
         private CartRepository cartRepository;
@@ -52,6 +64,21 @@ class OrderServiceTest {
         @Mock
         private NotificationService notificationService;
 
+        @Mock
+        private OrderCacheService orderCacheService;
+
+        @Mock
+        private OutboxService outboxService;
+
+        @Mock
+        private PaymentRepository paymentRepository;
+
+        @Mock
+        private CartPricingService cartPricingService;
+
+        @Mock
+        private ApplicationEventPublisher eventPublisher;
+
         @InjectMocks
         private OrderService orderService;
 
@@ -126,8 +153,16 @@ class OrderServiceTest {
 
                 when(userRepository.findById(1)).thenReturn(Optional.of(testUser));
                 when(cartRepository.findByUserId(1)).thenReturn(Optional.of(testCart));
-                when(deliveryLocationRepository.findById(1)).thenReturn(Optional.of(testLocation));
-                when(orderStatusRepository.findByName("CREATED")).thenReturn(Optional.of(createdStatus));
+                when(referenceDataService.findActiveLocation(1)).thenReturn(Optional.of(testLocation));
+                when(referenceDataService.locationReference(testLocation)).thenReturn(testLocation);
+                when(referenceDataService.statusReference("CREATED")).thenReturn(Optional.of(createdStatus));
+                ProductDto pricedProduct = ProductDto.builder().id(1).price(BigDecimal.valueOf(500))
+                                .discountedPrice(BigDecimal.valueOf(450)).build();
+                when(cartPricingService.priceForCheckout("user:1", Map.of(1, 2), null)).thenReturn(new PricedCart(
+                                List.of(new PricedLine(pricedProduct, 2, BigDecimal.valueOf(500),
+                                                BigDecimal.valueOf(450), BigDecimal.valueOf(900),
+                                                BigDecimal.valueOf(1000))),
+                                BigDecimal.valueOf(900), BigDecimal.valueOf(1000), 2, null, null));
 
                 when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
                         Order order = invocation.getArgument(0);
@@ -153,8 +188,11 @@ class OrderServiceTest {
                 assertEquals(1, result.getItems().size());
 
                 verify(orderRepository).save(any(Order.class));
+                verify(deliveryLocationRepository, never()).findById(any());
+                verify(orderCacheService).evictOrder(any(Order.class));
                 verify(cartRepository).save(testCart);
                 assertTrue(testCart.getItems().isEmpty());
+                verify(outboxService).enqueue(OutboxMessage.EventType.ORDER_CREATED, 1, null);
         }
 
         @Test
@@ -177,7 +215,8 @@ class OrderServiceTest {
                                 .build();
 
                 when(orderRepository.findById(1)).thenReturn(Optional.of(order));
-                when(orderStatusRepository.findByName("PROCESSING")).thenReturn(Optional.of(processingStatus));
+                when(referenceDataService.findStatus("PROCESSING")).thenReturn(Optional.of(processingStatus));
+                when(referenceDataService.statusReference("PROCESSING")).thenReturn(Optional.of(processingStatus));
                 when(orderRepository.save(any(Order.class))).thenReturn(order);
 
                 // Вызов
@@ -190,6 +229,61 @@ class OrderServiceTest {
                 verify(notificationService).sendOrderStatusChangeNotification(order, "CREATED", "PROCESSING");
         }
 
+        @Test
+        void updateOrderStatus_RejectsTransitionFromTerminalStatus() {
+                OrderStatus deliveredStatus = OrderStatus.builder()
+                                .id(3)
+                                .name("DELIVERED")
+                                .isActive(true)
+                                .build();
+                Order order = Order.builder()
+                                .id(1)
+                                .user(testUser)
+                                .status(deliveredStatus)
+                                .items(new ArrayList<>())
+                                .build();
+
+                when(orderRepository.findById(1)).thenReturn(Optional.of(order));
+                when(referenceDataService.findStatus("CREATED")).thenReturn(Optional.of(createdStatus));
+
+                InvalidOrderStatusTransitionException exception = assertThrows(
+                                InvalidOrderStatusTransitionException.class,
+                                () -> orderService.updateOrderStatus(1, "CREATED"));
+
+                assertEquals("DELIVERED", exception.getFromStatus());
+                verify(orderRepository, never()).save(any());
+                verifyNoInteractions(outboxService, eventPublisher);
+        }
+
+        @Test
+        void updateOrderStatuses_UpdatesAllowedOrdersWithSingleUpdate() {
+                OrderStatus deliveredStatus = OrderStatus.builder()
+                                .id(3)
+                                .name("DELIVERED")
+                                .isActive(true)
+                                .build();
+                Order created = Order.builder().id(1).user(testUser).status(createdStatus).build();
+                Order delivered = Order.builder().id(2).user(testUser).status(deliveredStatus).build();
+
+                when(referenceDataService.findStatus("PROCESSING")).thenReturn(Optional.of(processingStatus));
+                when(referenceDataService.statusReference("PROCESSING")).thenReturn(Optional.of(processingStatus));
+                when(orderRepository.findAllByIdInForUpdate(List.of(1, 2, 3))).thenReturn(List.of(created, delivered));
+                when(orderRepository.updateStatusByIdIn(eq(Set.of(1)), eq(processingStatus), any())).thenReturn(1);
+
+                BulkUpdateOrderStatusResponse result = orderService.updateOrderStatuses(List.of(1, 2, 3, 1),
+                                "processing");
+
+                assertEquals(List.of(1), result.getUpdatedOrderIds());
+                assertEquals(List.of(2, 3), result.getRejected().stream()
+                                .map(BulkUpdateOrderStatusResponse.Rejected::getOrderId)
+                                .toList());
+                assertEquals("DELIVERED", result.getRejected().get(0).getCurrentStatus());
+                verify(orderRepository, never()).save(any());
+                verify(outboxService).enqueue(eq(OutboxMessage.EventType.ORDER_STATUS_CHANGED), eq(1), anyMap());
+                verify(eventPublisher, times(1)).publishEvent(any(OrderStatusChangedEvent.class));
+                verify(orderCacheService).evictOrder(1, 1);
+        }
+
         @Test
         void getUserOrders_Success() {
                 // Подготовка
@@ -210,8 +304,13 @@ class OrderServiceTest {
                                 .build();
 
                 PageRequest pageRequest = PageRequest.of(0, 10);
-                when(orderRepository.findByUserIdOrderByCreatedAtDesc(eq(1), eq(pageRequest)))
-                                .thenReturn(new PageImpl<>(List.of(order)));
+                when(orderRepository.findIdsByUserId(eq(1), eq(pageRequest)))
+                                .thenReturn(new PageImpl<>(List.of(1), pageRequest, 1));
+                when(orderRepository.findWithDetailsByIdIn(List.of(1))).thenReturn(List.of(order));
+                Payment payment = new Payment(order, PaymentMethod.SBP, BigDecimal.valueOf(900));
+                payment.setId(5L);
+                payment.setStatus(PaymentStatus.SUCCEEDED);
+                when(paymentRepository.findLatestByOrderIdIn(List.of(1))).thenReturn(List.of(payment));
 
                 // Вызов
                 var result = orderService.getUserOrders(1, pageRequest);
@@ -220,5 +319,7 @@ class OrderServiceTest {
                 assertNotNull(result);
                 assertEquals(1, result.getTotalElements());
                 assertEquals(1, result.getContent().get(0).getId());
+                assertEquals("SUCCEEDED", result.getContent().get(0).getLatestPaymentStatus());
+                assertEquals(1, result.getContent().get(0).getItems().size());
         }
 }
\ No newline at end of file
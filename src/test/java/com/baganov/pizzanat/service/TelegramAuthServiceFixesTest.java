@@ -6,10 +6,10 @@ import com.baganov.pizzanat.entity.TelegramAuthToken;
 import com.baganov.pizzanat.entity.User;
 import com.baganov.pizzanat.model.dto.auth.AuthResponse;
 import com.baganov.pizzanat.model.dto.telegram.TelegramUserData;
-import com.baganov.pizzanat.repository.RoleRepository;
 import com.baganov.pizzanat.repository.TelegramAuthTokenRepository;
 import com.baganov.pizzanat.repository.UserRepository;
 import com.baganov.pizzanat.security.JwtService;
+import com.baganov.pizzanat.service.reference.ReferenceDataService;
 import com.baganov.pizzanat.util.TelegramUserDataExtractor;
 import com.baganov.pizzanat.util.TokenGenerator;
 import org.junit.jupiter.api.BeforeEach;
@@ -44,7 +44,7 @@ class TelegramAuthServiceFixesTest {
         private UserRepository userRepository;
 
         @Mock
-        private RoleRepository roleRepository;
+        private ReferenceDataService referenceDataService;
 
         @Mock
         private JwtService jwtService;
@@ -111,7 +111,7 @@ class TelegramAuthServiceFixesTest {
                 when(telegramAuthProperties.getTokenTtlMinutes()).thenReturn(10);
                 when(tokenGenerator.isValidAuthToken(anyString())).thenReturn(true);
                 when(userDataExtractor.isValidUserData(any())).thenReturn(true);
-                when(roleRepository.findByName("ROLE_USER")).thenReturn(Optional.of(userRole));
+                when(referenceDataService.findRole("ROLE_USER")).thenReturn(Optional.of(userRole));
                 when(jwtService.generateToken(any(User.class))).thenReturn("jwt_token_test");
         }
 
@@ -0,0 +1,89 @@
+/**
+ * @file: AbandonedCartCleanupServiceTest.java
+ * @description: Модульные тесты пакетного удаления брошенных корзин сессий
+ * @dependencies: JUnit, Mockito, AssertJ
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service.cart;
+
+import com.baganov.pizzanat.config.CartStoreProperties;
+import com.baganov.pizzanat.service.cart.PersistentCartService.ExpiredCartsBatch;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AbandonedCartCleanupService - удаление брошенных корзин")
+class AbandonedCartCleanupServiceTest {
+
+    @Mock
+    private PersistentCartService persistentCartService;
+
+    private CartStoreProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private AbandonedCartCleanupService cleanupService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new CartStoreProperties();
+        properties.getRetention().setBatchSize(100);
+        properties.getRetention().setPause(Duration.ZERO);
+        meterRegistry = new SimpleMeterRegistry();
+        cleanupService = new AbandonedCartCleanupService(persistentCartService, properties, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Пакеты удаляются, пока пакет заполнен целиком; удаленные строки попадают в метрики")
+    void deletesUntilPartialBatch() {
+        when(persistentCartService.deleteExpiredSessionCarts(any(), eq(100)))
+                .thenReturn(new ExpiredCartsBatch(100, 250))
+                .thenReturn(new ExpiredCartsBatch(100, 180))
+                .thenReturn(new ExpiredCartsBatch(7, 9));
+
+        assertThat(cleanupService.deleteExpiredCarts()).isEqualTo(207);
+
+        verify(persistentCartService, times(3)).deleteExpiredSessionCarts(any(), eq(100));
+        assertThat(meterRegistry.get("cart.retention.carts.deleted").counter().count()).isEqualTo(207);
+        assertThat(meterRegistry.get("cart.retention.items.deleted").counter().count()).isEqualTo(439);
+    }
+
+    @Test
+    @DisplayName("Число пакетов за запуск ограничено")
+    void stopsAtMaxBatchesPerRun() {
+        properties.getRetention().setMaxBatchesPerRun(2);
+        when(persistentCartService.deleteExpiredSessionCarts(any(), eq(100)))
+                .thenReturn(new ExpiredCartsBatch(100, 100));
+
+        assertThat(cleanupService.deleteExpiredCarts()).isEqualTo(200);
+        verify(persistentCartService, times(2)).deleteExpiredSessionCarts(any(), eq(100));
+    }
+
+    @Test
+    @DisplayName("Удаляются только корзины старше TTL")
+    void usesTtlCutoff() {
+        LocalDateTime expectedCutoff = LocalDateTime.now().minusDays(30);
+        when(persistentCartService.deleteExpiredSessionCarts(any(), eq(100)))
+                .thenReturn(new ExpiredCartsBatch(0, 0));
+
+        cleanupService.cleanupAbandonedCarts();
+
+        verify(persistentCartService).deleteExpiredSessionCarts(
+                argThat(cutoff -> Duration.between(expectedCutoff, cutoff).abs().getSeconds() < 5), eq(100));
+        assertThat(meterRegistry.get("cart.retention.run.time").timer().count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,217 @@
+/**
+ * @file: CartPricingServiceTest.java
+ * @description: Модульные тесты инкрементального расчета итогов корзины и кэша тарифов доставки
+ * @dependencies: JUnit, Mockito, AssertJ
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service.cart;
+
+import com.baganov.pizzanat.config.CartStoreProperties;
+import com.baganov.pizzanat.dto.ProductDto;
+import com.baganov.pizzanat.service.DeliveryZoneService;
+import com.baganov.pizzanat.service.DeliveryZoneService.DeliveryQuote;
+import com.baganov.pizzanat.service.catalog.CatalogSnapshot;
+import com.baganov.pizzanat.service.catalog.CatalogSnapshotService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CartPricingService - итоги корзины и доставка")
+class CartPricingServiceTest {
+
+    private static final String CART_KEY = CartPricingService.cartKey("session-1", null);
+    private static final String ADDRESS = "Волжск, улица Ленина, 1";
+
+    @Mock
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Mock
+    private DeliveryZoneService deliveryZoneService;
+
+    private CartPricingService cartPricingService;
+
+    @BeforeEach
+    void setUp() {
+        cartPricingService = new CartPricingService(catalogSnapshotService, deliveryZoneService,
+                new CartStoreProperties(), new SimpleMeterRegistry());
+        when(catalogSnapshotService.getSnapshot()).thenReturn(snapshot(1, "450"));
+    }
+
+    @Test
+    @DisplayName("Итоги учитывают скидки и пропускают продукты, удаленные из каталога")
+    void computesTotals() {
+        PricedCart cart = cartPricingService.price(CART_KEY, quantities(1, 2, 2, 1, 99, 1));
+
+        assertThat(cart.lines()).extracting(line -> line.product().getId()).containsExactly(1, 2);
+        assertThat(cart.itemsAmount()).isEqualByComparingTo("1200");
+        assertThat(cart.baseAmount()).isEqualByComparingTo("1300");
+        assertThat(cart.discountAmount()).isEqualByComparingTo("100");
+        assertThat(cart.itemsCount()).isEqualTo(3);
+        assertThat(cart.deliveryCost()).isNull();
+    }
+
+    @Test
+    @DisplayName("Пересчитываются только изменившиеся позиции, удаленные вычитаются из итогов")
+    void updatesIncrementally() {
+        PricedCart first = cartPricingService.price(CART_KEY, quantities(1, 2, 2, 1));
+        PricedCart second = cartPricingService.price(CART_KEY, quantities(1, 2, 2, 3));
+
+        assertThat(second.lines().get(0)).isSameAs(first.lines().get(0));
+        assertThat(second.lines().get(1)).isNotSameAs(first.lines().get(1));
+        assertThat(second.itemsAmount()).isEqualByComparingTo("1800");
+
+        PricedCart third = cartPricingService.price(CART_KEY, quantities(2, 3));
+        assertThat(third.itemsAmount()).isEqualByComparingTo("900");
+        assertThat(third.itemsCount()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("После смены версии каталога позиции пересчитываются по новым ценам")
+    void repricesOnCatalogChange() {
+        cartPricingService.price(CART_KEY, quantities(1, 2));
+        when(catalogSnapshotService.getSnapshot()).thenReturn(snapshot(2, "400"));
+
+        assertThat(cartPricingService.price(CART_KEY, quantities(1, 2)).itemsAmount()).isEqualByComparingTo("800");
+    }
+
+    @Test
+    @DisplayName("Зона определяется один раз на дом, бесплатная доставка - по порогу суммы")
+    void quotesDeliveryOncePerAddress() {
+        when(deliveryZoneService.quoteDelivery(ADDRESS)).thenReturn(DeliveryQuote.STANDARD);
+        cartPricingService.setDeliveryAddress(CART_KEY, ADDRESS);
+
+        PricedCart paid = cartPricingService.price(CART_KEY, quantities(2, 1));
+        assertThat(paid.deliveryCost()).isEqualByComparingTo("250");
+
+        PricedCart free = cartPricingService.price(CART_KEY, quantities(2, 4));
+        assertThat(free.deliveryCost()).isEqualByComparingTo("0");
+
+        cartPricingService.calculateDelivery("  волжск,  улица Ленина, 1 ", free.itemsAmount());
+        cartPricingService.calculateDelivery("г. Волжск, ул. Ленина, д. 1, кв. 5", free.itemsAmount());
+        verify(deliveryZoneService, times(1)).quoteDelivery(ADDRESS);
+    }
+
+    @Test
+    @DisplayName("После изменения зон доставки тариф определяется заново")
+    void requotesAfterZonesChange() {
+        when(deliveryZoneService.quoteDelivery(ADDRESS)).thenReturn(DeliveryQuote.STANDARD);
+        when(deliveryZoneService.getMatcherVersion()).thenReturn(1L, 1L, 2L);
+
+        cartPricingService.quoteDelivery(ADDRESS);
+        cartPricingService.quoteDelivery(ADDRESS);
+        verify(deliveryZoneService, times(1)).quoteDelivery(ADDRESS);
+
+        cartPricingService.quoteDelivery(ADDRESS);
+        verify(deliveryZoneService, times(2)).quoteDelivery(ADDRESS);
+    }
+
+    @Test
+    @DisplayName("Ошибка определения зоны не ломает корзину и не кэшируется")
+    void toleratesQuoteFailure() {
+        when(deliveryZoneService.quoteDelivery(ADDRESS))
+                .thenThrow(new IllegalStateException("БД недоступна"))
+                .thenReturn(DeliveryQuote.STANDARD);
+        cartPricingService.setDeliveryAddress(CART_KEY, ADDRESS);
+
+        PricedCart failed = cartPricingService.price(CART_KEY, quantities(2, 1));
+        assertThat(failed.deliveryAddress()).isEqualTo(ADDRESS);
+        assertThat(failed.deliveryQuote()).isNull();
+
+        assertThat(cartPricingService.price(CART_KEY, quantities(2, 1)).deliveryCost())
+                .isEqualByComparingTo("250");
+    }
+
+    @Test
+    @DisplayName("Оформление заказа берет итоги корзины и закэшированный тариф адреса заказа")
+    void pricesCheckoutFromCachedQuote() {
+        when(deliveryZoneService.quoteDelivery(ADDRESS)).thenReturn(DeliveryQuote.STANDARD);
+        cartPricingService.quoteDelivery(ADDRESS);
+
+        PricedCart priced = cartPricingService.priceForCheckout(CART_KEY, quantities(2, 1), ADDRESS);
+
+        assertThat(priced.itemsAmount()).isEqualByComparingTo("300");
+        assertThat(priced.deliveryCost()).isEqualByComparingTo("250");
+        assertThat(cartPricingService.priceForCheckout(CART_KEY, quantities(2, 1), null).deliveryQuote()).isNull();
+        verify(deliveryZoneService, times(1)).quoteDelivery(ADDRESS);
+    }
+
+    @Test
+    @DisplayName("Ошибка определения зоны при оформлении заказа пробрасывается")
+    void checkoutPropagatesQuoteFailure() {
+        when(deliveryZoneService.quoteDelivery(ADDRESS)).thenThrow(new IllegalStateException("БД недоступна"));
+
+        assertThatThrownBy(() -> cartPricingService.priceForCheckout(CART_KEY, quantities(2, 1), ADDRESS))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("Продукт, которого нет в снимке, при оформлении заказа ищется в перестроенном снимке")
+    void checkoutRebuildsSnapshotForUnknownProduct() {
+        CatalogSnapshot rebuilt = new CatalogSnapshot(2,
+                List.of(product(1, "500", "450"), product(2, "300", null), product(3, "700", null)),
+                List.of(),
+                Set.of());
+        when(catalogSnapshotService.rebuild()).thenReturn(rebuilt);
+
+        PricedCart priced = cartPricingService.priceForCheckout(CART_KEY, quantities(2, 1, 3, 1), null);
+
+        assertThat(priced.lines()).extracting(line -> line.product().getId()).containsExactly(2, 3);
+        assertThat(priced.itemsAmount()).isEqualByComparingTo("1000");
+    }
+
+    @Test
+    @DisplayName("Адрес корзины сессии переходит в корзину пользователя при входе")
+    void transfersAddressOnLogin() {
+        String userKey = CartPricingService.cartKey(null, 10);
+        when(deliveryZoneService.quoteDelivery(ADDRESS)).thenReturn(DeliveryQuote.STANDARD);
+        cartPricingService.setDeliveryAddress(CART_KEY, ADDRESS);
+
+        cartPricingService.transfer(CART_KEY, userKey);
+
+        assertThat(cartPricingService.price(userKey, quantities(2, 1)).deliveryAddress()).isEqualTo(ADDRESS);
+        assertThat(cartPricingService.price(CART_KEY, Map.of())).isSameAs(PricedCart.EMPTY);
+    }
+
+    private static Map<Integer, Integer> quantities(int... productIdAndQuantity) {
+        Map<Integer, Integer> result = new LinkedHashMap<>();
+        for (int i = 0; i < productIdAndQuantity.length; i += 2) {
+            result.put(productIdAndQuantity[i], productIdAndQuantity[i + 1]);
+        }
+        return result;
+    }
+
+    private static CatalogSnapshot snapshot(long version, String discountedPrice) {
+        return new CatalogSnapshot(version,
+                List.of(product(1, "500", discountedPrice), product(2, "300", null)),
+                List.of(),
+                Set.of());
+    }
+
+    private static ProductDto product(int id, String price, String discountedPrice) {
+        return ProductDto.builder()
+                .id(id)
+                .name("Продукт " + id)
+                .price(new BigDecimal(price))
+                .discountedPrice(discountedPrice != null ? new BigDecimal(discountedPrice) : null)
+                .categoryId(1)
+                .isAvailable(true)
+                .build();
+    }
+}
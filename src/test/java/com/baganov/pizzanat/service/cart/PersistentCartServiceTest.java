@@ -0,0 +1,129 @@
+/**
+ * @file: PersistentCartServiceTest.java
+ * @description: Модульные тесты пакетных операций корзины пользователя и индекса позиций корзины
+ * @dependencies: JUnit, Mockito, AssertJ
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service.cart;
+
+import com.baganov.pizzanat.entity.Cart;
+import com.baganov.pizzanat.entity.CartItem;
+import com.baganov.pizzanat.entity.Product;
+import com.baganov.pizzanat.model.dto.cart.CartOperation;
+import com.baganov.pizzanat.repository.CartRepository;
+import com.baganov.pizzanat.repository.ProductRepository;
+import com.baganov.pizzanat.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PersistentCartService - корзины пользователей")
+class PersistentCartServiceTest {
+
+    private static final Integer USER_ID = 7;
+
+    @Mock
+    private CartRepository cartRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private ProductRepository productRepository;
+
+    @InjectMocks
+    private PersistentCartService persistentCartService;
+
+    private Product available;
+    private Product soldOut;
+    private Cart cart;
+
+    @BeforeEach
+    void setUp() {
+        available = Product.builder().id(1).name("Маргарита").isAvailable(true).build();
+        soldOut = Product.builder().id(2).name("Пепперони").isAvailable(false).build();
+        cart = Cart.builder().id(10).build();
+        cart.addItem(CartItem.builder().product(available).quantity(1).build());
+        cart.addItem(CartItem.builder().product(soldOut).quantity(1).build());
+    }
+
+    @Test
+    @DisplayName("SET существующей позиции недоступного продукта отклоняется, как в корзине сессии")
+    void setRejectsUnavailableProductInCart() {
+        when(cartRepository.findByUserId(USER_ID)).thenReturn(Optional.of(cart));
+        when(productRepository.findAllById(any())).thenReturn(List.of(soldOut));
+
+        assertThatThrownBy(() -> persistentCartService.applyOperations(USER_ID, List.of(set(2, 3))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Продукт недоступен");
+
+        assertThat(cart.findItem(2).getQuantity()).isEqualTo(1);
+        verify(cartRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("SET в ноль удаляет позицию недоступного продукта без проверки доступности")
+    void setZeroRemovesUnavailableProduct() {
+        when(cartRepository.findByUserId(USER_ID)).thenReturn(Optional.of(cart));
+
+        CartLines lines = persistentCartService.applyOperations(USER_ID, List.of(set(2, 0)));
+
+        assertThat(lines.quantities()).containsOnlyKeys(1);
+        verify(productRepository, never()).findAllById(any());
+    }
+
+    @Test
+    @DisplayName("SET существующей позиции доступного продукта меняет количество")
+    void setUpdatesAvailableProduct() {
+        when(cartRepository.findByUserId(USER_ID)).thenReturn(Optional.of(cart));
+        when(productRepository.findAllById(any())).thenReturn(List.of(available));
+
+        CartLines lines = persistentCartService.applyOperations(USER_ID, List.of(set(1, 4)));
+
+        assertThat(lines.quantities()).containsEntry(1, 4);
+    }
+
+    @Test
+    @DisplayName("Поиск позиции корректен после удаления, очистки и замены списка позиций")
+    void itemIndexFollowsMutators() {
+        CartItem first = cart.findItem(1);
+        assertThat(first).isNotNull();
+
+        cart.removeItem(first);
+        assertThat(cart.findItem(1)).isNull();
+        assertThat(cart.findItem(2)).isNotNull();
+
+        cart.clearItems();
+        assertThat(cart.findItem(2)).isNull();
+
+        cart.addItem(CartItem.builder().product(available).quantity(2).build());
+        assertThat(cart.findItem(1).getQuantity()).isEqualTo(2);
+
+        // Замена списка тем же количеством позиций: индекс не должен остаться от старого списка
+        cart.setItems(new ArrayList<>(List.of(CartItem.builder().product(soldOut).quantity(5).build())));
+        assertThat(cart.findItem(1)).isNull();
+        assertThat(cart.findItem(2).getQuantity()).isEqualTo(5);
+    }
+
+    private static CartOperation set(int productId, int quantity) {
+        return CartOperation.builder()
+                .op(CartOperation.Type.SET)
+                .productId(productId)
+                .quantity(quantity)
+                .build();
+    }
+}
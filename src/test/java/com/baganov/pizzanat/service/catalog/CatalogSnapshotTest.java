@@ -0,0 +1,96 @@
+/**
+ * @file: CatalogSnapshotTest.java
+ * @description: Модульные тесты для CatalogSnapshot
+ * @dependencies: JUnit
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service.catalog;
+
+import com.baganov.pizzanat.dto.ProductDto;
+import com.baganov.pizzanat.model.dto.product.CategoryDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("CatalogSnapshot - снимок каталога")
+class CatalogSnapshotTest {
+
+    private static ProductDto product(int id, int categoryId, boolean available, boolean special) {
+        return ProductDto.builder()
+                .id(id)
+                .name("Продукт " + id)
+                .price(BigDecimal.valueOf(100 + id))
+                .categoryId(categoryId)
+                .isAvailable(available)
+                .isSpecialOffer(special)
+                .build();
+    }
+
+    private static CategoryDTO category(int id, int displayOrder) {
+        return CategoryDTO.builder()
+                .id(id)
+                .name("Категория " + id)
+                .displayOrder(displayOrder)
+                .build();
+    }
+
+    private CatalogSnapshot snapshot() {
+        return new CatalogSnapshot(7,
+                List.of(product(5, 1, true, false), product(2, 2, true, true),
+                        product(3, 1, false, true), product(4, 2, true, false)),
+                List.of(category(1, 2), category(2, 1), category(3, 3)),
+                Set.of(1, 2));
+    }
+
+    @Test
+    @DisplayName("Продукты упорядочены по порядку категории, затем по ID")
+    void productsAreInMenuOrder() {
+        CatalogSnapshot snapshot = snapshot();
+
+        assertThat(snapshot.getVersion()).isEqualTo(7);
+        assertThat(snapshot.getAvailableProducts()).extracting(ProductDto::getId).containsExactly(2, 4, 5);
+        assertThat(snapshot.getProductsByCategory(1)).extracting(ProductDto::getId).containsExactly(3, 5);
+        assertThat(snapshot.getProductsByCategory(99)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Спецпредложения включают только доступные продукты")
+    void specialOffersOnlyAvailable() {
+        assertThat(snapshot().getSpecialOffers()).extracting(ProductDto::getId).containsExactly(2);
+    }
+
+    @Test
+    @DisplayName("Активные категории отсортированы по displayOrder")
+    void activeCategoriesSorted() {
+        CatalogSnapshot snapshot = snapshot();
+
+        assertThat(snapshot.getActiveCategories()).extracting(CategoryDTO::getId).containsExactly(2, 1);
+        assertThat(snapshot.findCategory(3)).isPresent();
+    }
+
+    @Test
+    @DisplayName("Страницы нарезаются из предвычисленного списка")
+    void pagesAreSliced() {
+        Page<ProductDto> page = CatalogSnapshot.page(snapshot().getAvailableProducts(), PageRequest.of(1, 2));
+
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(page.getContent()).extracting(ProductDto::getId).containsExactly(5);
+        assertThat(CatalogSnapshot.page(snapshot().getAvailableProducts(), PageRequest.of(5, 2)).getContent())
+                .isEmpty();
+    }
+
+    @Test
+    @DisplayName("Списки снимка неизменяемы")
+    void listsAreImmutable() {
+        assertThatThrownBy(() -> snapshot().getAvailableProducts().clear())
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+}
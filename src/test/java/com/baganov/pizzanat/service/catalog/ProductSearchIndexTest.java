@@ -0,0 +1,109 @@
+/**
+ * @file: ProductSearchIndexTest.java
+ * @description: Модульные тесты для поискового индекса продуктов
+ * @dependencies: JUnit, AssertJ
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service.catalog;
+
+import com.baganov.pizzanat.dto.ProductDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ProductSearchIndex - полнотекстовый поиск продуктов")
+class ProductSearchIndexTest {
+
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductSearchIndex();
+        index.rebuild(List.of(
+                product(1, "Пицца Пепперони", "Острая колбаса пепперони, сыр моцарелла", 1, "Пиццы", true),
+                product(2, "Пицца Маргарита", "Томаты, сыр моцарелла, базилик", 1, "Пиццы", true),
+                product(3, "Чизбургер", "Говяжья котлета, сыр чеддер", 2, "Бургеры", true),
+                product(4, "Coca-Cola 0.5", "Газированный напиток", 3, "Напитки", true),
+                product(5, "Пицца Сезонная", "Нет в наличии", 1, "Пиццы", false)));
+    }
+
+    @Test
+    @DisplayName("Словоформы находят продукт по основе слова")
+    void matchesWordForms() {
+        assertThat(index.search("пиццы", null)).containsExactlyInAnyOrder(1, 2);
+        assertThat(index.search("моцареллой", null)).containsExactlyInAnyOrder(1, 2);
+    }
+
+    @Test
+    @DisplayName("Запрос с опечаткой находит продукт")
+    void toleratesTypos() {
+        assertThat(index.search("пеперони", null)).containsExactly(1);
+        assertThat(index.search("маргартиа", null)).containsExactly(2);
+    }
+
+    @Test
+    @DisplayName("Незаконченное слово совпадает как префикс")
+    void matchesPrefix() {
+        assertThat(index.search("пепп", null)).containsExactly(1);
+    }
+
+    @Test
+    @DisplayName("Совпадение в названии ранжируется выше совпадения в описании")
+    void ranksNameAboveDescription() {
+        index.upsert(product(6, "Сырная тарелка", "Ассорти", 4, "Закуски", true));
+
+        assertThat(index.search("сыр", null)).first().isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("Продукты, совпавшие со всеми словами запроса, вытесняют частичные совпадения")
+    void prefersAllTermsMatch() {
+        assertThat(index.search("пицца маргарита", null)).containsExactly(2);
+    }
+
+    @Test
+    @DisplayName("Фильтр по категории и исключение недоступных продуктов")
+    void filtersByCategoryAndAvailability() {
+        assertThat(index.search("сыр", 2)).containsExactly(3);
+        assertThat(index.search("сезонная", null)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Запрос без слов считается пустым - его обслуживает просмотр каталога")
+    void detectsEmptyQuery() {
+        assertThat(ProductSearchIndex.isEmptyQuery(null)).isTrue();
+        assertThat(ProductSearchIndex.isEmptyQuery("  ")).isTrue();
+        assertThat(ProductSearchIndex.isEmptyQuery(" ,-! ")).isTrue();
+        assertThat(ProductSearchIndex.isEmptyQuery("сыр")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Точечное обновление и удаление продукта")
+    void updatesIncrementally() {
+        index.upsert(product(1, "Пицца Диабло", "Халапеньо", 1, "Пиццы", true));
+        assertThat(index.search("пепперони", null)).isEmpty();
+        assertThat(index.search("диабло", null)).containsExactly(1);
+
+        index.delete(1);
+        assertThat(index.search("диабло", null)).isEmpty();
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    private static ProductDto product(int id, String name, String description, int categoryId,
+            String categoryName, boolean available) {
+        return ProductDto.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .price(BigDecimal.TEN)
+                .categoryId(categoryId)
+                .categoryName(categoryName)
+                .isAvailable(available)
+                .build();
+    }
+}
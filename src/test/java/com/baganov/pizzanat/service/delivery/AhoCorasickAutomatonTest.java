@@ -0,0 +1,67 @@
+/**
+ * @file: AhoCorasickAutomatonTest.java
+ * @description: Модульные тесты автомата Ахо-Корасик
+ * @dependencies: JUnit, AssertJ
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service.delivery;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("AhoCorasickAutomaton - поиск набора строк")
+class AhoCorasickAutomatonTest {
+
+    @Test
+    @DisplayName("Находит перекрывающиеся и вложенные образцы")
+    void findsOverlappingPatterns() {
+        AhoCorasickAutomaton automaton = AhoCorasickAutomaton.build(List.of("he", "she", "his", "hers"));
+
+        assertThat(search(automaton, "ushers")).containsExactlyInAnyOrder(0, 1, 3);
+    }
+
+    @Test
+    @DisplayName("Кириллица, символы вне алфавита образцов сбрасывают автомат")
+    void resetsOnUnknownCharacters() {
+        AhoCorasickAutomaton automaton = AhoCorasickAutomaton.build(List.of("ленина", "мира"));
+
+        assertThat(search(automaton, "ул. ленина, 5")).containsExactly(0);
+        assertThat(search(automaton, "лени-на")).isEmpty();
+        assertThat(search(automaton, "проспект мира")).containsExactly(1);
+    }
+
+    @Test
+    @DisplayName("Пустые образцы и пустой набор ничего не находят")
+    void ignoresEmptyPatterns() {
+        assertThat(search(AhoCorasickAutomaton.build(List.of("", "мира")), "мира")).containsExactly(1);
+        assertThat(search(AhoCorasickAutomaton.build(List.of()), "любой адрес")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Совпадает с String.contains на всех подстроках")
+    void matchesNaiveSearch() {
+        List<String> patterns = List.of("ул", "ул.", "лен", "ленина", "нин", "а", "аа");
+        AhoCorasickAutomaton automaton = AhoCorasickAutomaton.build(patterns);
+        String text = "ул. ленина, улица ленинаа";
+
+        List<Integer> found = search(automaton, text);
+        for (int id = 0; id < patterns.size(); id++) {
+            assertThat(found.contains(id)).as(patterns.get(id)).isEqualTo(text.contains(patterns.get(id)));
+        }
+    }
+
+    private static List<Integer> search(AhoCorasickAutomaton automaton, String text) {
+        List<Integer> found = new ArrayList<>();
+        automaton.search(text, id -> {
+            if (!found.contains(id)) {
+                found.add(id);
+            }
+        });
+        return found;
+    }
+}
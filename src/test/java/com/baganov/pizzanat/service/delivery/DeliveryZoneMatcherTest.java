@@ -0,0 +1,171 @@
+/**
+ * @file: DeliveryZoneMatcherTest.java
+ * @description: Модульные тесты скомпилированного поиска зоны доставки по адресу
+ * @dependencies: JUnit, AssertJ
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service.delivery;
+
+import com.baganov.pizzanat.entity.DeliveryZone;
+import com.baganov.pizzanat.entity.DeliveryZoneKeyword;
+import com.baganov.pizzanat.entity.DeliveryZoneStreet;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("DeliveryZoneMatcher - зона доставки по адресу")
+class DeliveryZoneMatcherTest {
+
+    private DeliveryZone center;
+    private DeliveryZone druzhba;
+    private DeliveryZone suburb;
+    private List<DeliveryZone> zones;
+    private Map<Integer, List<DeliveryZoneKeyword>> keywords;
+
+    @BeforeEach
+    void setUp() {
+        center = zone(1, "Центральный", 10);
+        center.getStreets().add(street("Ленина", null, null, false, false));
+        center.getStreets().add(street("Шестакова", 1, 20, false, true));
+
+        druzhba = zone(2, "Дружба", 5);
+        druzhba.getStreets().add(street("Ленина", 100, 200, false, false));
+        druzhba.getStreets().add(street("Дружбы", null, null, false, false));
+
+        suburb = zone(3, "Пригород", 1);
+        zones = List.of(suburb, druzhba, center);
+        keywords = Map.of(3, List.of(
+                keyword("помары", "contains"),
+                keyword("сндт", "starts_with"),
+                keyword("промзона", "exact")));
+    }
+
+    @Test
+    @DisplayName("При нескольких подходящих зонах выбирается зона с большим приоритетом")
+    void prefersHigherPriority() {
+        DeliveryZoneMatcher matcher = DeliveryZoneMatcher.compile(zones, keywords);
+
+        assertThat(matcher.match("г. Волжск, ул. Ленина, д. 150")).contains(center);
+        assertThat(matcher.match("улица Дружбы 5")).contains(druzhba);
+    }
+
+    @Test
+    @DisplayName("Диапазон и нечетность домов")
+    void checksHouseRangeAndParity() {
+        DeliveryZoneMatcher matcher = DeliveryZoneMatcher.compile(zones, keywords);
+
+        assertThat(matcher.match("Шестакова, д. 7")).contains(center);
+        assertThat(matcher.match("Шестакова, д. 8")).isEmpty();
+        assertThat(matcher.match("Шестакова, д. 21")).isEmpty();
+        assertThat(matcher.match("Шестакова")).contains(center);
+    }
+
+    @Test
+    @DisplayName("Ключевые слова: вхождение, начало адреса и точное совпадение")
+    void matchesKeywords() {
+        DeliveryZoneMatcher matcher = DeliveryZoneMatcher.compile(zones, keywords);
+
+        assertThat(matcher.match("Волжский район, село Помары")).contains(suburb);
+        assertThat(matcher.match("СНДТ Строитель, участок 12")).contains(suburb);
+        assertThat(matcher.match("Участок СНДТ")).isEmpty();
+        assertThat(matcher.match("  Промзона ")).contains(suburb);
+        assertThat(matcher.match("Промзона, склад 3")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Название улицы находится и после удаления префиксов с лишними пробелами")
+    void matchesAfterStrippingPrefixes() {
+        DeliveryZone zone = zone(4, "Мира", 0);
+        zone.getStreets().add(street("Мира Шестакова", null, null, false, false));
+        DeliveryZoneMatcher matcher = DeliveryZoneMatcher.compile(List.of(zone), Map.of());
+
+        assertThat(matcher.match("пр-т мира   ул. шестакова")).contains(zone);
+        assertThat(matcher.match("  улица   Мира   Шестакова,  д. 5 ")).contains(zone);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "г. Волжск, ул. Ленина, д. 150", "Ленина 150", "улица ленина, дом 5",
+            "Шестакова, д. 7", "Шестакова, д. 8", "ул.Шестакова 19", "пер. Дружбы, 5", "проспект   Дружбы",
+            "Москва, Тверская 1", "Помары", "Ленинградская 3", "Дружбы-2, кв 40" })
+    @DisplayName("Результат совпадает с прежним перебором DeliveryZoneStreet/DeliveryZoneKeyword.matchesAddress")
+    void agreesWithEntityRules(String address) {
+        DeliveryZoneMatcher matcher = DeliveryZoneMatcher.compile(zones, keywords);
+
+        assertThat(matcher.match(address)).isEqualTo(legacyMatch(address));
+    }
+
+    @Test
+    @DisplayName("Названия улиц зон сравниваются без типа улицы и с заменой ё на е")
+    void normalizesZoneStreetNames() {
+        DeliveryZone zone = zone(5, "Пугачева", 0);
+        zone.getStreets().add(street("ул. Пугачёва", 1, 9, false, false));
+        DeliveryZoneMatcher matcher = DeliveryZoneMatcher.compile(List.of(zone), Map.of());
+
+        assertThat(matcher.match("Волжск, Пугачева 3-б")).contains(zone);
+        assertThat(matcher.match("пугачёва, д. 12")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Отпечаток меняется при изменении улиц и не зависит от порядка зон")
+    void signatureTracksRuleChanges() {
+        String signature = DeliveryZoneMatcher.signature(zones, keywords);
+
+        assertThat(DeliveryZoneMatcher.signature(List.of(center, druzhba, suburb), keywords)).isEqualTo(signature);
+        center.getStreets().get(1).setHouseNumberTo(30);
+        assertThat(DeliveryZoneMatcher.signature(zones, keywords)).isNotEqualTo(signature);
+    }
+
+    @Test
+    @DisplayName("Пустой адрес и пустой набор зон")
+    void emptyInputs() {
+        assertThat(DeliveryZoneMatcher.compile(zones, keywords).match("  ")).isEmpty();
+        assertThat(DeliveryZoneMatcher.compile(List.of(), Map.of()).match("ул. Ленина")).isEmpty();
+    }
+
+    /**
+     * Прежний алгоритм DeliveryZoneService: зоны по приоритету, первая подошедшая улица или ключевое слово
+     */
+    private Optional<DeliveryZone> legacyMatch(String address) {
+        return zones.stream()
+                .sorted((a, b) -> b.getPriority() - a.getPriority())
+                .filter(zone -> zone.getStreets().stream().anyMatch(street -> street.matchesAddress(address))
+                        || keywords.getOrDefault(zone.getId(), List.of()).stream()
+                                .anyMatch(keyword -> keyword.matchesAddress(address)))
+                .findFirst();
+    }
+
+    private static DeliveryZone zone(int id, String name, int priority) {
+        return DeliveryZone.builder()
+                .id(id)
+                .name(name)
+                .baseCost(BigDecimal.valueOf(200))
+                .priority(priority)
+                .streets(new ArrayList<>())
+                .keywords(new ArrayList<>())
+                .build();
+    }
+
+    private static DeliveryZoneStreet street(String name, Integer from, Integer to, boolean even, boolean odd) {
+        return DeliveryZoneStreet.builder()
+                .streetName(name)
+                .houseNumberFrom(from)
+                .houseNumberTo(to)
+                .isEvenOnly(even)
+                .isOddOnly(odd)
+                .build();
+    }
+
+    private static DeliveryZoneKeyword keyword(String text, String matchType) {
+        return DeliveryZoneKeyword.builder().keyword(text).matchType(matchType).build();
+    }
+}
@@ -0,0 +1,87 @@
+/**
+ * @file: AccountingExportServiceTest.java
+ * @description: Модульные тесты потоковой выгрузки для бухгалтерии
+ * @dependencies: JUnit, Mockito, AssertJ
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service.export;
+
+import com.baganov.pizzanat.repository.OrderRepository;
+import com.baganov.pizzanat.repository.PaymentRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AccountingExportService - потоковая выгрузка")
+class AccountingExportServiceTest {
+
+    private static final LocalDate FROM = LocalDate.of(2026, 10, 1);
+    private static final LocalDate TO = LocalDate.of(2026, 11, 1);
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @InjectMocks
+    private AccountingExportService exportService;
+
+    @Test
+    @DisplayName("Позиции читаются из потока за [from, to) и пишутся построчно, поток закрывается")
+    void exportsItemsAndClosesStream() throws IOException {
+        AtomicBoolean closed = new AtomicBoolean();
+        when(orderRepository.streamItemsForExport(FROM.atStartOfDay(), TO.atStartOfDay()))
+                .thenReturn(Stream.of(
+                        new Object[] { 1, FROM.atTime(10, 0), 3, "Маргарита", 2, new BigDecimal("450.00") },
+                        new Object[] { 1, FROM.atTime(10, 0), 5, "Кола", 1, new BigDecimal("120.00") })
+                        .onClose(() -> closed.set(true)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = exportService.export(ExportDataset.ORDER_ITEMS, ExportFormat.CSV, FROM, TO, out);
+
+        assertThat(rows).isEqualTo(2);
+        assertThat(closed).isTrue();
+        assertThat(out.toString(StandardCharsets.UTF_8).split("\r\n"))
+                .containsExactly("\uFEFForder_id,order_created_at,product_id,product_name,quantity,price",
+                        "1,2026-10-01T10:00,3,Маргарита,2,450.00",
+                        "1,2026-10-01T10:00,5,Кола,1,120.00");
+        verifyNoInteractions(paymentRepository);
+    }
+
+    @Test
+    @DisplayName("Обрыв соединения прерывает чтение и закрывает поток")
+    void clientDisconnectClosesStream() {
+        AtomicBoolean closed = new AtomicBoolean();
+        when(paymentRepository.streamForExport(any(), any()))
+                .thenReturn(Stream.generate(() -> new Object[] { 1L, FROM.atStartOfDay(), 1 })
+                        .onClose(() -> closed.set(true)));
+        OutputStream broken = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        assertThatThrownBy(() -> exportService.export(ExportDataset.PAYMENTS, ExportFormat.NDJSON, FROM, TO, broken))
+                .isInstanceOf(IOException.class);
+        assertThat(closed).isTrue();
+    }
+}
@@ -0,0 +1,99 @@
+/**
+ * @file: ExportFormatTest.java
+ * @description: Модульные тесты записи выгрузки в CSV и NDJSON
+ * @dependencies: JUnit, AssertJ
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service.export;
+
+import com.baganov.pizzanat.entity.PaymentStatus;
+import jakarta.validation.ValidationException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("ExportFormat - запись выгрузки")
+class ExportFormatTest {
+
+    private static final List<String> COLUMNS = List.of("id", "created_at", "name", "status", "amount");
+    private static final Object[] ROW = { 7, LocalDateTime.of(2026, 10, 17, 12, 30), "Иванов, \"VIP\"",
+            PaymentStatus.SUCCEEDED, new BigDecimal("1E+3") };
+
+    @Test
+    @DisplayName("CSV: BOM, заголовок, кавычки только там, где нужны, пустое поле для null")
+    void writesCsv() throws IOException {
+        String csv = write(ExportFormat.CSV, ROW, new Object[] { 8, null, "Петров", null, BigDecimal.ONE });
+
+        assertThat(csv).isEqualTo("\uFEFFid,created_at,name,status,amount\r\n"
+                + "7,2026-10-17T12:30,\"Иванов, \"\"VIP\"\"\",SUCCEEDED,1000\r\n"
+                + "8,,Петров,,1\r\n");
+    }
+
+    @Test
+    @DisplayName("CSV: текст, похожий на формулу, экранируется апострофом, числа - нет")
+    void escapesFormulaLikeText() throws IOException {
+        String csv = write(ExportFormat.CSV,
+                new Object[] { 1, null, "=HYPERLINK(\"http://evil\")", null, new BigDecimal("-5.00") },
+                new Object[] { 2, null, "+7 900 000-00-00", null, null },
+                new Object[] { 3, null, "-1", null, null },
+                new Object[] { 4, null, "@SUM(A1)", null, null },
+                new Object[] { 5, null, "\tcmd", null, null },
+                new Object[] { 6, null, "\r=1", null, null },
+                new Object[] { 7, null, "ул. Ленина, 5 - кв. 3", null, null });
+
+        assertThat(csv).isEqualTo("\uFEFFid,created_at,name,status,amount\r\n"
+                + "1,,\"'=HYPERLINK(\"\"http://evil\"\")\",,-5.00\r\n"
+                + "2,,'+7 900 000-00-00,,\r\n"
+                + "3,,'-1,,\r\n"
+                + "4,,'@SUM(A1),,\r\n"
+                + "5,,'\tcmd,,\r\n"
+                + "6,,\"'\r=1\",,\r\n"
+                + "7,,\"ул. Ленина, 5 - кв. 3\",,\r\n");
+    }
+
+    @Test
+    @DisplayName("NDJSON: объект на строку, числа числами, null для пустых значений")
+    void writesNdjson() throws IOException {
+        String ndjson = write(ExportFormat.NDJSON, ROW, new Object[] { 8, null, "Петров", null, BigDecimal.ONE });
+
+        assertThat(ndjson).isEqualTo(
+                "{\"id\":7,\"created_at\":\"2026-10-17T12:30\",\"name\":\"Иванов, \\\"VIP\\\"\","
+                        + "\"status\":\"SUCCEEDED\",\"amount\":1000}\n"
+                        + "{\"id\":8,\"created_at\":null,\"name\":\"Петров\",\"status\":null,\"amount\":1}\n");
+    }
+
+    @Test
+    @DisplayName("NDJSON без строк - пустой ответ, CSV без строк - только заголовок")
+    void emptyExport() throws IOException {
+        assertThat(write(ExportFormat.NDJSON)).isEmpty();
+        assertThat(write(ExportFormat.CSV)).isEqualTo("\uFEFFid,created_at,name,status,amount\r\n");
+    }
+
+    @Test
+    @DisplayName("Неизвестный формат и набор данных - ошибка валидации")
+    void rejectsUnknownParams() {
+        assertThat(ExportFormat.fromParam(" NDJSON ")).isEqualTo(ExportFormat.NDJSON);
+        assertThat(ExportDataset.fromPath("order-items")).isEqualTo(ExportDataset.ORDER_ITEMS);
+        assertThatThrownBy(() -> ExportFormat.fromParam("xlsx")).isInstanceOf(ValidationException.class);
+        assertThatThrownBy(() -> ExportDataset.fromPath("users")).isInstanceOf(ValidationException.class);
+    }
+
+    private static String write(ExportFormat format, Object[]... rows) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ExportWriter writer = format.open(out, COLUMNS)) {
+            for (Object[] row : rows) {
+                writer.write(row);
+            }
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,185 @@
+/**
+ * @file: IdempotencyServiceTest.java
+ * @description: Модульные тесты для IdempotencyService с хранилищем в памяти
+ * @dependencies: JUnit, AssertJ, Caffeine
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service.idempotency;
+
+import com.baganov.pizzanat.config.IdempotencyProperties;
+import com.baganov.pizzanat.exception.IdempotencyConflictException;
+import com.baganov.pizzanat.model.dto.order.OrderDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.ValidationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("IdempotencyService - повторы запросов с Idempotency-Key")
+class IdempotencyServiceTest {
+
+    private static final String SCOPE = "order:user:1";
+
+    private IdempotencyService idempotencyService;
+    private AtomicInteger executions;
+
+    @BeforeEach
+    void setUp() {
+        IdempotencyProperties properties = new IdempotencyProperties();
+        properties.setWaitTimeout(Duration.ofSeconds(5));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        idempotencyService = new IdempotencyService(
+                new InMemoryIdempotencyStore(properties, meterRegistry),
+                properties,
+                new ObjectMapper().findAndRegisterModules(),
+                meterRegistry);
+        executions = new AtomicInteger();
+    }
+
+    private OrderDTO createOrder() {
+        int id = executions.incrementAndGet();
+        return OrderDTO.builder()
+                .id(id)
+                .status("CREATED")
+                .totalAmount(BigDecimal.valueOf(900))
+                .build();
+    }
+
+    @Test
+    @DisplayName("Повтор с тем же ключом возвращает сохраненный результат без выполнения")
+    void completedKeyReturnsStoredResult() {
+        Map<String, Object> request = Map.of("deliveryLocationId", 1);
+
+        OrderDTO first = idempotencyService.execute(SCOPE, "key-1", request, OrderDTO.class, this::createOrder);
+        OrderDTO retry = idempotencyService.execute(SCOPE, "key-1", request, OrderDTO.class, this::createOrder);
+
+        assertThat(executions.get()).isEqualTo(1);
+        assertThat(retry.getId()).isEqualTo(first.getId());
+        assertThat(retry.getTotalAmount()).isEqualByComparingTo("900");
+    }
+
+    @Test
+    @DisplayName("Без ключа и с разными ключами запрос выполняется каждый раз")
+    void missingOrDifferentKeysExecute() {
+        Map<String, Object> request = Map.of("deliveryLocationId", 1);
+
+        idempotencyService.execute(SCOPE, null, request, OrderDTO.class, this::createOrder);
+        idempotencyService.execute(SCOPE, null, request, OrderDTO.class, this::createOrder);
+        idempotencyService.execute(SCOPE, "key-1", request, OrderDTO.class, this::createOrder);
+        idempotencyService.execute(SCOPE, "key-2", request, OrderDTO.class, this::createOrder);
+        idempotencyService.execute("order:user:2", "key-1", request, OrderDTO.class, this::createOrder);
+
+        assertThat(executions.get()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Одновременные повторы ждут результата оригинала")
+    void concurrentDuplicatesWaitForInFlightResult() throws Exception {
+        Map<String, Object> request = Map.of("deliveryLocationId", 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        int duplicates = 8;
+
+        ExecutorService executor = Executors.newFixedThreadPool(duplicates + 1);
+        try {
+            Future<OrderDTO> original = executor.submit(() -> idempotencyService.execute(
+                    SCOPE, "key-1", request, OrderDTO.class, () -> {
+                        started.countDown();
+                        awaitQuietly(release);
+                        return createOrder();
+                    }));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+            List<Future<OrderDTO>> retries = new ArrayList<>();
+            for (int i = 0; i < duplicates; i++) {
+                retries.add(executor.submit(() -> idempotencyService.execute(
+                        SCOPE, "key-1", request, OrderDTO.class, this::createOrder)));
+            }
+            release.countDown();
+
+            Integer orderId = original.get(5, TimeUnit.SECONDS).getId();
+            for (Future<OrderDTO> retry : retries) {
+                assertThat(retry.get(5, TimeUnit.SECONDS).getId()).isEqualTo(orderId);
+            }
+            assertThat(executions.get()).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Тот же ключ с другим телом запроса - конфликт")
+    void sameKeyDifferentRequestConflicts() {
+        idempotencyService.execute(SCOPE, "key-1", Map.of("deliveryLocationId", 1), OrderDTO.class,
+                this::createOrder);
+
+        assertThatThrownBy(() -> idempotencyService.execute(SCOPE, "key-1", Map.of("deliveryLocationId", 2),
+                OrderDTO.class, this::createOrder))
+                .isInstanceOf(IdempotencyConflictException.class);
+        assertThat(executions.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Ошибка освобождает ключ, повтор выполняется заново")
+    void failureReleasesKey() {
+        Map<String, Object> request = Map.of("deliveryLocationId", 1);
+
+        assertThatThrownBy(() -> idempotencyService.execute(SCOPE, "key-1", request, OrderDTO.class, () -> {
+            throw new IllegalArgumentException("Корзина пуста");
+        })).isInstanceOf(IllegalArgumentException.class);
+
+        OrderDTO retry = idempotencyService.execute(SCOPE, "key-1", request, OrderDTO.class, this::createOrder);
+
+        assertThat(retry.getId()).isEqualTo(1);
+        assertThat(executions.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Нечитаемый сохраненный результат - конфликт с именем ключа, запрос не выполняется повторно")
+    void unreadableResultConflictsWithKeyName() {
+        Map<String, Object> request = Map.of("deliveryLocationId", 1);
+        idempotencyService.execute(SCOPE, "key-1", request, OrderDTO.class, this::createOrder);
+
+        assertThatThrownBy(() -> idempotencyService.execute(SCOPE, "key-1", request, Integer.class,
+                () -> executions.incrementAndGet()))
+                .isInstanceOf(IdempotencyConflictException.class)
+                .hasMessageContaining("'key-1'");
+        assertThat(executions.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Ключ с управляющими символами или слишком длинный отклоняется")
+    void invalidKeyIsRejected() {
+        Map<String, Object> request = Map.of("deliveryLocationId", 1);
+
+        assertThatThrownBy(() -> idempotencyService.execute(SCOPE, "bad key", request, OrderDTO.class,
+                this::createOrder)).isInstanceOf(ValidationException.class);
+        assertThatThrownBy(() -> idempotencyService.execute(SCOPE, "k".repeat(129), request, OrderDTO.class,
+                this::createOrder)).isInstanceOf(ValidationException.class);
+        assertThat(executions.get()).isZero();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
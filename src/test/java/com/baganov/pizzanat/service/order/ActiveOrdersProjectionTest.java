@@ -0,0 +1,179 @@
+/**
+ * @file: ActiveOrdersProjectionTest.java
+ * @description: Модульные тесты для ActiveOrdersProjection
+ * @dependencies: JUnit, Mockito
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service.order;
+
+import com.baganov.pizzanat.entity.Order;
+import com.baganov.pizzanat.entity.PaymentStatus;
+import com.baganov.pizzanat.event.NewOrderEvent;
+import com.baganov.pizzanat.event.OrderStatusChangedEvent;
+import com.baganov.pizzanat.event.PaymentStatusChangedEvent;
+import com.baganov.pizzanat.model.dto.order.OrderDTO;
+import com.baganov.pizzanat.service.OrderService;
+import com.baganov.pizzanat.service.reference.ReferenceDataService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ActiveOrdersProjection - активные заказы в памяти")
+class ActiveOrdersProjectionTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 10, 17, 12, 0);
+
+    @Mock
+    private OrderService orderService;
+
+    @Mock
+    private ReferenceDataService referenceDataService;
+
+    @InjectMocks
+    private ActiveOrdersProjection projection;
+
+    private static ActiveOrderView view(int id, String status, LocalDateTime createdAt) {
+        Order order = Order.builder()
+                .id(id)
+                .totalAmount(BigDecimal.valueOf(1000))
+                .contactName("Клиент " + id)
+                .contactPhone("+7900000000" + id)
+                .createdAt(createdAt)
+                .build();
+        return ActiveOrderView.of(order, null, OrderDTO.builder().id(id).status(status).build());
+    }
+
+    /**
+     * Заказ после фиксации смены статуса с версией version
+     */
+    private static Order saved(int id, long version) {
+        return Order.builder().id(id).version(version).build();
+    }
+
+    @Test
+    @DisplayName("Список загружается один раз, повторные чтения не обращаются к БД")
+    void readsAreServedFromMemory() {
+        when(orderService.loadActiveOrderViews()).thenReturn(List.of(
+                view(1, "CREATED", NOW.minusMinutes(30)),
+                view(2, "CONFIRMED", NOW.minusMinutes(5))));
+
+        List<ActiveOrderView> first = projection.getActiveOrders();
+        List<ActiveOrderView> second = projection.getActiveOrders();
+
+        assertThat(first).extracting(ActiveOrderView::id).containsExactly(2, 1);
+        assertThat(second).isSameAs(first);
+        assertThat(projection.getInProgressOrders()).extracting(ActiveOrderView::id).containsExactly(2);
+        verify(orderService, times(1)).loadActiveOrderViews();
+    }
+
+    @Test
+    @DisplayName("Новый заказ перечитывается из БД, смена статуса применяется без запроса")
+    void eventsUpdateSingleOrder() {
+        when(orderService.loadActiveOrderViews()).thenReturn(List.of(view(1, "CREATED", NOW.minusMinutes(30))));
+        projection.resync();
+
+        Order created = Order.builder().id(3).build();
+        when(orderService.loadOrderViews(Set.of(3))).thenReturn(List.of(view(3, "CREATED", NOW)));
+        projection.onNewOrder(new NewOrderEvent(this, created));
+
+        projection.onOrderStatusChanged(new OrderStatusChangedEvent(this, saved(1, 1), "CREATED", "COOKING"));
+
+        assertThat(projection.getActiveOrders())
+                .extracting(ActiveOrderView::id, ActiveOrderView::status)
+                .containsExactly(tuple(3, "CREATED"), tuple(1, "COOKING"));
+        assertThat(projection.getActiveOrderDetails())
+                .extracting(OrderDTO::getStatus)
+                .containsExactly("CREATED", "COOKING");
+        verify(orderService, times(1)).loadActiveOrderViews();
+        verify(orderService, times(1)).loadOrderViews(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Завершенный или удаленный заказ убирается из списка")
+    void terminalOrdersAreRemoved() {
+        when(orderService.loadActiveOrderViews()).thenReturn(List.of(
+                view(1, "DELIVERING", NOW.minusMinutes(40)),
+                view(2, "PENDING", NOW.minusMinutes(10))));
+        projection.resync();
+
+        when(orderService.loadOrderViews(Set.of(2))).thenReturn(List.of());
+        projection.onOrderStatusChanged(new OrderStatusChangedEvent(this, saved(1, 1), "DELIVERING", "DELIVERED"));
+        projection.onPaymentStatusChanged(new PaymentStatusChangedEvent(this, 2,
+                PaymentStatus.PENDING, PaymentStatus.CANCELLED));
+
+        assertThat(projection.getActiveOrders()).isEmpty();
+        assertThat(projection.getActiveOrderDetails()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Заказ, измененный во время полной сверки, перечитывается после замены списка")
+    void ordersChangedDuringResyncAreReloaded() {
+        when(orderService.loadActiveOrderViews()).thenReturn(List.of(view(1, "CREATED", NOW.minusMinutes(30))));
+        projection.resync();
+
+        when(orderService.loadActiveOrderViews()).thenAnswer(invocation -> {
+            // Оплата фиксируется, пока сверка читает список: сверка вернет заказ в прежнем состоянии
+            projection.onPaymentStatusChanged(new PaymentStatusChangedEvent(this, 1,
+                    PaymentStatus.PENDING, PaymentStatus.SUCCEEDED));
+            return List.of(view(1, "CREATED", NOW.minusMinutes(30)));
+        });
+        when(orderService.loadOrderViews(Set.of(1))).thenReturn(List.of(view(1, "CONFIRMED", NOW.minusMinutes(30))));
+
+        projection.resync();
+
+        assertThat(projection.getActiveOrders())
+                .extracting(ActiveOrderView::id, ActiveOrderView::status)
+                .containsExactly(tuple(1, "CONFIRMED"));
+        verify(orderService, times(2)).loadOrderViews(Set.of(1));
+    }
+
+    @Test
+    @DisplayName("Событие, поставленное в очередь позже более новой транзакции, не перезаписывает статус")
+    void staleStatusEventIsDropped() {
+        when(orderService.loadActiveOrderViews()).thenReturn(List.of(view(1, "CONFIRMED", NOW.minusMinutes(30))));
+        projection.resync();
+
+        projection.onOrderStatusChanged(new OrderStatusChangedEvent(this, saved(1, 2), "COOKING", "READY"));
+        projection.onOrderStatusChanged(new OrderStatusChangedEvent(this, saved(1, 1), "CONFIRMED", "COOKING"));
+
+        assertThat(projection.getActiveOrders())
+                .extracting(ActiveOrderView::status, ActiveOrderView::version)
+                .containsExactly(tuple("READY", 2L));
+        verify(orderService, never()).loadOrderViews(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Смена статуса без версии заказа (массовая смена) перечитывается из БД")
+    void statusChangeWithoutVersionIsReloaded() {
+        when(orderService.loadActiveOrderViews()).thenReturn(List.of(view(1, "CONFIRMED", NOW.minusMinutes(30))));
+        projection.resync();
+        when(orderService.loadOrderViews(Set.of(1))).thenReturn(List.of(view(1, "COOKING", NOW.minusMinutes(30))));
+
+        projection.onOrderStatusChanged(new OrderStatusChangedEvent(this, 1, "CONFIRMED", "COOKING"));
+
+        assertThat(projection.getActiveOrders()).extracting(ActiveOrderView::status).containsExactly("COOKING");
+        verify(orderService).loadOrderViews(Set.of(1));
+    }
+
+    @Test
+    @DisplayName("До первой загрузки события не обращаются к БД")
+    void eventsBeforeLoadAreSkipped() {
+        projection.onOrderStatusChanged(new OrderStatusChangedEvent(this, 1, "CREATED", "CONFIRMED"));
+
+        verify(orderService, never()).loadOrderViews(anyCollection());
+    }
+}
@@ -0,0 +1,226 @@
+/**
+ * @file: OrderEventHubTest.java
+ * @description: Модульные тесты для OrderEventHub: рассылка, досылка по Last-Event-ID, снимок, heartbeat
+ * @dependencies: JUnit, AssertJ, SseEmitter
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service.order;
+
+import com.baganov.pizzanat.config.OrderEventsProperties;
+import com.baganov.pizzanat.event.OrderStatusChangedEvent;
+import com.baganov.pizzanat.event.PaymentStatusChangedEvent;
+import com.baganov.pizzanat.entity.PaymentStatus;
+import com.baganov.pizzanat.model.dto.order.OrderStreamEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("OrderEventHub - поток событий заказа")
+class OrderEventHubTest {
+
+    private static final Integer ORDER_ID = 42;
+
+    private OrderEventsProperties properties;
+    private OrderEventHub hub;
+    private List<RecordingEmitter> emitters;
+    private AtomicInteger snapshotReads;
+
+    @BeforeEach
+    void setUp() {
+        properties = new OrderEventsProperties();
+        properties.setReplayEvents(2);
+        emitters = new ArrayList<>();
+        snapshotReads = new AtomicInteger();
+        hub = new OrderEventHub(properties, new SimpleMeterRegistry()) {
+            @Override
+            SseEmitter createEmitter() {
+                RecordingEmitter emitter = new RecordingEmitter();
+                emitters.add(emitter);
+                return emitter;
+            }
+        };
+    }
+
+    @AfterEach
+    void tearDown() {
+        hub.shutdown();
+    }
+
+    private RecordingEmitter subscribe(String lastEventId) {
+        hub.subscribe(ORDER_ID, lastEventId, () -> {
+            snapshotReads.incrementAndGet();
+            return Map.of("id", ORDER_ID, "status", "CREATED");
+        });
+        return emitters.get(emitters.size() - 1);
+    }
+
+    private void changeOrderStatus(String oldStatus, String newStatus) {
+        hub.onOrderStatusChanged(new OrderStatusChangedEvent(this, ORDER_ID, oldStatus, newStatus));
+    }
+
+    @Test
+    @DisplayName("Новая подписка получает снимок, затем изменения статуса заказа и платежа")
+    void newSubscriberGetsSnapshotThenChanges() throws Exception {
+        RecordingEmitter client = subscribe(null);
+
+        changeOrderStatus("CREATED", "CONFIRMED");
+        hub.onPaymentStatusChanged(new PaymentStatusChangedEvent(this, ORDER_ID,
+                PaymentStatus.PENDING, PaymentStatus.SUCCEEDED));
+
+        SentEvent snapshot = client.next();
+        SentEvent orderStatus = client.next();
+        SentEvent paymentStatus = client.next();
+
+        assertThat(snapshot.name()).isEqualTo(OrderEventHub.SNAPSHOT);
+        assertThat(snapshot.id()).endsWith("-0");
+        assertThat(orderStatus.name()).isEqualTo(OrderEventHub.ORDER_STATUS);
+        assertThat(((OrderStreamEvent) orderStatus.data()).getNewStatus()).isEqualTo("CONFIRMED");
+        assertThat(paymentStatus.name()).isEqualTo(OrderEventHub.PAYMENT_STATUS);
+        assertThat(((OrderStreamEvent) paymentStatus.data()).getNewStatus()).isEqualTo("SUCCEEDED");
+        assertThat(hub.getActiveSubscriptions()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Переподключение с Last-Event-ID досылает только пропущенные события без снимка")
+    void reconnectReplaysMissedEvents() throws Exception {
+        RecordingEmitter first = subscribe(null);
+        first.next();
+        changeOrderStatus("CREATED", "CONFIRMED");
+        String seenId = first.next().id();
+
+        changeOrderStatus("CONFIRMED", "COOKING");
+
+        RecordingEmitter reconnected = subscribe(seenId);
+        SentEvent missed = reconnected.next();
+
+        assertThat(missed.name()).isEqualTo(OrderEventHub.ORDER_STATUS);
+        assertThat(((OrderStreamEvent) missed.data()).getNewStatus()).isEqualTo("COOKING");
+        assertThat(reconnected.nextOrNull()).isNull();
+        assertThat(snapshotReads.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("ID с другой эпохи узла или вытесненное событие - вместо досылки снимок")
+    void unknownOrEvictedEventIdFallsBackToSnapshot() throws Exception {
+        String snapshotId = subscribe(null).next().id();
+        changeOrderStatus("CREATED", "CONFIRMED");
+        changeOrderStatus("CONFIRMED", "COOKING");
+        changeOrderStatus("COOKING", "DELIVERING");
+
+        assertThat(subscribe("restarted-5").next().name()).isEqualTo(OrderEventHub.SNAPSHOT);
+        // Хранятся два последних события: CONFIRMED уже вытеснено
+        SentEvent snapshot = subscribe(snapshotId).next();
+
+        assertThat(snapshot.name()).isEqualTo(OrderEventHub.SNAPSHOT);
+        // ID снимка - последнее событие заказа, следующее переподключение получит досылку
+        assertThat(snapshot.id()).isNotEqualTo(snapshotId).endsWith("-3");
+        assertThat(snapshotReads.get()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Вытесненный журнал заказа - вместо пустой досылки снимок")
+    void evictedReplayLogFallsBackToSnapshot() throws Exception {
+        RecordingEmitter first = subscribe(null);
+        first.next();
+        changeOrderStatus("CREATED", "CONFIRMED");
+        String seenId = first.next().id();
+        changeOrderStatus("CONFIRMED", "COOKING");
+        hub.evictReplayLog(ORDER_ID);
+
+        SentEvent afterEviction = subscribe(seenId).next();
+
+        assertThat(afterEviction.name()).isEqualTo(OrderEventHub.SNAPSHOT);
+        assertThat(afterEviction.id()).endsWith("-2");
+
+        // Журнал, созданный заново, не досылает события, случившиеся до него
+        changeOrderStatus("COOKING", "DELIVERING");
+        assertThat(subscribe(seenId).next().name()).isEqualTo(OrderEventHub.SNAPSHOT);
+        assertThat(snapshotReads.get()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Без журнала заказа ID, равный последнему событию узла, означает, что пропусков нет")
+    void currentHeadWithoutReplayLogReplaysNothing() throws Exception {
+        RecordingEmitter first = subscribe(null);
+        first.next();
+        changeOrderStatus("CREATED", "CONFIRMED");
+        String seenId = first.next().id();
+        hub.evictReplayLog(ORDER_ID);
+
+        RecordingEmitter reconnected = subscribe(seenId);
+
+        assertThat(reconnected.nextOrNull()).isNull();
+        assertThat(snapshotReads.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Heartbeat отправляется комментарием во все открытые соединения")
+    void heartbeatIsSentAsComment() throws Exception {
+        RecordingEmitter client = subscribe(null);
+        client.next();
+
+        hub.sendHeartbeats();
+
+        SentEvent heartbeat = client.next();
+        assertThat(heartbeat.text()).startsWith(":heartbeat");
+        assertThat(heartbeat.name()).isNull();
+    }
+
+    private record SentEvent(String id, String name, Object data, String text) {
+    }
+
+    /**
+     * Запоминает отправленные события вместо записи в ответ сервлета
+     */
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final BlockingQueue<SentEvent> sent = new LinkedBlockingQueue<>();
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            StringBuilder text = new StringBuilder();
+            Object data = null;
+            for (ResponseBodyEmitter.DataWithMediaType part : builder.build()) {
+                if (part.getData() instanceof String string) {
+                    text.append(string);
+                } else {
+                    data = part.getData();
+                }
+            }
+            sent.add(new SentEvent(field(text, "id:"), field(text, "event:"), data, text.toString()));
+        }
+
+        SentEvent next() throws InterruptedException {
+            SentEvent event = sent.poll(5, TimeUnit.SECONDS);
+            assertThat(event).as("событие не отправлено").isNotNull();
+            return event;
+        }
+
+        SentEvent nextOrNull() throws InterruptedException {
+            return sent.poll(200, TimeUnit.MILLISECONDS);
+        }
+
+        private static String field(CharSequence text, String prefix) {
+            for (String line : text.toString().split("\n")) {
+                if (line.startsWith(prefix)) {
+                    return line.substring(prefix.length());
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,198 @@
+/**
+ * @file: OrderStatusHistoryServiceTest.java
+ * @description: Модульные тесты журнала смен статуса заказа
+ * @dependencies: JUnit, Mockito, AssertJ
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service.order;
+
+import com.baganov.pizzanat.entity.Order;
+import com.baganov.pizzanat.entity.OrderStatus;
+import com.baganov.pizzanat.entity.OrderStatusHistory;
+import com.baganov.pizzanat.event.NewOrderEvent;
+import com.baganov.pizzanat.event.OrderStatusChangedEvent;
+import com.baganov.pizzanat.repository.OrderStatusHistoryRepository;
+import com.baganov.pizzanat.service.reference.ReferenceDataService;
+import com.baganov.pizzanat.util.TimeZoneUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OrderStatusHistoryService - журнал смен статуса")
+class OrderStatusHistoryServiceTest {
+
+    @Mock
+    private OrderStatusHistoryRepository historyRepository;
+
+    @Mock
+    private ReferenceDataService referenceDataService;
+
+    @Mock
+    private StageLatencyTracker stageLatencyTracker;
+
+    private OrderStatusHistoryService historyService;
+
+    @BeforeEach
+    void setUp() {
+        historyService = new OrderStatusHistoryService(referenceDataService, stageLatencyTracker,
+                new OrderStatusHistoryWriter(historyRepository));
+        lenient().when(historyRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.unbindResourceIfPossible(historyService);
+    }
+
+    @Test
+    @DisplayName("Создание заказа записывает начальный статус без длительности")
+    void newOrderWritesInitialStatus() {
+        LocalDateTime createdAt = LocalDateTime.of(2026, 10, 17, 12, 0);
+        OrderStatus created = OrderStatus.builder().id(1).name("CREATED").build();
+        when(referenceDataService.findStatus(1)).thenReturn(Optional.of(created));
+
+        historyService.onNewOrder(new NewOrderEvent(this,
+                Order.builder().id(5).status(created).createdAt(createdAt).build()));
+
+        OrderStatusHistory saved = captureSaved();
+        assertThat(saved.getOrderId()).isEqualTo(5);
+        assertThat(saved.getFromStatus()).isNull();
+        assertThat(saved.getToStatus()).isEqualTo("CREATED");
+        assertThat(saved.getChangedAt()).isEqualTo(createdAt);
+        assertThat(saved.getDurationMs()).isNull();
+    }
+
+    @Test
+    @DisplayName("Переход записывает время в прежнем статусе и передает его в окна задержек")
+    void transitionRecordsTimeInStage() {
+        LocalDateTime enteredAt = TimeZoneUtils.nowInMoscow().minusMinutes(12);
+        when(historyRepository.findLatestByOrderIdIn(Set.of(5))).thenReturn(List.of(
+                OrderStatusHistory.builder().id(1L).orderId(5).toStatus("COOKING").changedAt(enteredAt).build()));
+
+        historyService.onOrderStatusChanged(new OrderStatusChangedEvent(this, 5, "COOKING", "READY"));
+
+        OrderStatusHistory saved = captureSaved();
+        assertThat(saved.getFromStatus()).isEqualTo("COOKING");
+        assertThat(saved.getToStatus()).isEqualTo("READY");
+        assertThat(saved.getDurationMs()).isBetween(Duration.ofMinutes(12).toMillis(),
+                Duration.ofMinutes(13).toMillis());
+        verify(stageLatencyTracker).record(eq("COOKING"), any(Duration.class));
+    }
+
+    @Test
+    @DisplayName("Если прежний статус не совпадает с журналом, длительность неизвестна")
+    void unknownStageStartIsNotMeasured() {
+        when(historyRepository.findLatestByOrderIdIn(Set.of(5))).thenReturn(List.of());
+
+        historyService.onOrderStatusChanged(new OrderStatusChangedEvent(this, 5, "CONFIRMED", "COOKING"));
+
+        assertThat(captureSaved().getDurationMs()).isNull();
+        verifyNoInteractions(stageLatencyTracker);
+    }
+
+    @Test
+    @DisplayName("Переходы транзакции пишутся одним пакетом перед фиксацией с одним запросом журнала")
+    void writesTransactionBatchBeforeCommit() {
+        LocalDateTime enteredAt = TimeZoneUtils.nowInMoscow().minusMinutes(5);
+        when(historyRepository.findLatestByOrderIdIn(Set.of(5, 6))).thenReturn(List.of(
+                OrderStatusHistory.builder().id(1L).orderId(5).toStatus("CONFIRMED").changedAt(enteredAt).build(),
+                OrderStatusHistory.builder().id(2L).orderId(6).toStatus("CONFIRMED").changedAt(enteredAt).build()));
+        TransactionSynchronizationManager.initSynchronization();
+
+        historyService.onOrderStatusChanged(new OrderStatusChangedEvent(this, 5, "CONFIRMED", "COOKING"));
+        historyService.onOrderStatusChanged(new OrderStatusChangedEvent(this, 6, "CONFIRMED", "COOKING"));
+        historyService.onOrderStatusChanged(new OrderStatusChangedEvent(this, 5, "COOKING", "READY"));
+        verifyNoInteractions(historyRepository);
+
+        commit();
+
+        verify(historyRepository).findLatestByOrderIdIn(anyCollection());
+        List<OrderStatusHistory> saved = captureSavedBatch();
+        assertThat(saved).extracting(OrderStatusHistory::getToStatus).containsExactly("COOKING", "COOKING", "READY");
+        assertThat(saved).allSatisfy(record -> assertThat(record.getDurationMs()).isNotNull());
+        verify(stageLatencyTracker, times(2)).record(eq("CONFIRMED"), any(Duration.class));
+        verify(stageLatencyTracker).record(eq("COOKING"), any(Duration.class));
+    }
+
+    @Test
+    @DisplayName("Откат транзакции не пишет журнал")
+    void rollbackWritesNothing() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        historyService.onOrderStatusChanged(new OrderStatusChangedEvent(this, 5, "CONFIRMED", "COOKING"));
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+
+        verifyNoInteractions(historyRepository, stageLatencyTracker);
+        assertThat(TransactionSynchronizationManager.hasResource(historyService)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Ошибка записи журнала прерывает фиксацию транзакции, сменившей статус")
+    void writeFailureAbortsCommit() {
+        when(historyRepository.findLatestByOrderIdIn(Set.of(5))).thenReturn(List.of());
+        when(historyRepository.saveAll(anyList())).thenThrow(new DataIntegrityViolationException("duplicate"));
+        TransactionSynchronizationManager.initSynchronization();
+
+        historyService.onOrderStatusChanged(new OrderStatusChangedEvent(this, 5, "CONFIRMED", "COOKING"));
+
+        assertThatThrownBy(this::commit).isInstanceOf(DataIntegrityViolationException.class);
+        verifyNoInteractions(stageLatencyTracker);
+    }
+
+    /**
+     * Порядок вызовов менеджера транзакций: beforeCommit (в транзакции), фиксация, afterCommit
+     */
+    private void commit() {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        for (TransactionSynchronization synchronization : synchronizations) {
+            synchronization.beforeCommit(false);
+        }
+        for (TransactionSynchronization synchronization : synchronizations) {
+            synchronization.afterCommit();
+        }
+        for (TransactionSynchronization synchronization : synchronizations) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+    }
+
+    private List<OrderStatusHistory> captureSavedBatch() {
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<OrderStatusHistory>> captor = ArgumentCaptor.forClass(List.class);
+        verify(historyRepository).saveAll(captor.capture());
+        return captor.getValue();
+    }
+
+    private OrderStatusHistory captureSaved() {
+        List<OrderStatusHistory> saved = captureSavedBatch();
+        assertThat(saved).hasSize(1);
+        return saved.get(0);
+    }
+}
@@ -0,0 +1,74 @@
+/**
+ * @file: OrderStatusTransitionsTest.java
+ * @description: Модульные тесты таблицы переходов статусов заказа
+ * @dependencies: JUnit, AssertJ
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service.order;
+
+import com.baganov.pizzanat.exception.InvalidOrderStatusTransitionException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("OrderStatusTransitions - допустимые переходы статусов")
+class OrderStatusTransitionsTest {
+
+    @ParameterizedTest(name = "{0} -> {1}")
+    @CsvSource({
+            "CREATED, CONFIRMED",
+            "CREATED, PROCESSING",
+            "PENDING, PAID",
+            "CONFIRMED, COOKING",
+            "PROCESSING, PREPARING",
+            "PREPARING, COOKING",
+            "COOKING, READY",
+            "READY, DELIVERING",
+            "DELIVERING, DELIVERED",
+            "CONFIRMED, CANCELLED"
+    })
+    @DisplayName("Движение вперед и отмена разрешены")
+    void forwardTransitionsAreAllowed(String from, String to) {
+        assertThat(OrderStatusTransitions.isAllowed(from, to)).isTrue();
+    }
+
+    @ParameterizedTest(name = "{0} -> {1}")
+    @CsvSource({
+            "DELIVERED, CREATED",
+            "CANCELLED, CONFIRMED",
+            "READY, CONFIRMED",
+            "DELIVERING, COOKING",
+            "PAID, PENDING",
+            "PREPARING, PROCESSING",
+            "COOKING, PROCESSING",
+            "COOKING, PREPARING",
+            "CONFIRMED, PAID"
+    })
+    @DisplayName("Возврат назад и выход из завершенного статуса запрещены")
+    void backwardTransitionsAreRejected(String from, String to) {
+        assertThat(OrderStatusTransitions.isAllowed(from, to)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Статус не из таблицы не ограничивается")
+    void unknownStatusIsNotRestricted() {
+        assertThat(OrderStatusTransitions.isAllowed("LEGACY", "DELIVERED")).isTrue();
+        assertThat(OrderStatusTransitions.isAllowed(null, "CONFIRMED")).isTrue();
+        assertThat(OrderStatusTransitions.isTerminal("LEGACY")).isFalse();
+        assertThat(OrderStatusTransitions.isTerminal("DELIVERED")).isTrue();
+    }
+
+    @Test
+    @DisplayName("requireAllowed сообщает заказ и оба статуса")
+    void requireAllowedThrowsWithDetails() {
+        assertThatThrownBy(() -> OrderStatusTransitions.requireAllowed(7, "DELIVERED", "COOKING"))
+                .isInstanceOf(InvalidOrderStatusTransitionException.class)
+                .hasMessageContaining("#7")
+                .hasMessageContaining("DELIVERED")
+                .hasMessageContaining("COOKING");
+    }
+}
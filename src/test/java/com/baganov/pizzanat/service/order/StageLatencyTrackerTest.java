@@ -0,0 +1,174 @@
+/**
+ * @file: StageLatencyTrackerTest.java
+ * @description: Модульные тесты скользящих перцентилей времени этапов заказа
+ * @dependencies: JUnit, AssertJ, Mockito, Micrometer
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service.order;
+
+import com.baganov.pizzanat.entity.OrderStatusHistory;
+import com.baganov.pizzanat.model.dto.AdminStatsResponse;
+import com.baganov.pizzanat.repository.OrderStatusHistoryRepository;
+import com.baganov.pizzanat.util.TimeZoneUtils;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("StageLatencyTracker - перцентили времени этапов")
+class StageLatencyTrackerTest {
+
+    private static final Instant START = Instant.parse("2026-10-17T09:00:00Z");
+
+    private final OrderStatusHistoryRepository historyRepository = mock(OrderStatusHistoryRepository.class);
+    private SimpleMeterRegistry meterRegistry;
+    private MutableClock clock;
+    private StageLatencyTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        clock = new MutableClock(START);
+        tracker = new StageLatencyTracker(historyRepository, meterRegistry, clock);
+    }
+
+    @Test
+    @DisplayName("p50 и p95 считаются по рангу отдельно для окна 15 минут и часа")
+    void percentilesPerWindow() {
+        // 20 этапов COOKING по 10..200 секунд - 40 минут назад
+        for (int i = 1; i <= 20; i++) {
+            tracker.record("COOKING", Duration.ofSeconds(i * 10L));
+        }
+        clock.advance(Duration.ofMinutes(40));
+        tracker.record("COOKING", Duration.ofMinutes(30));
+        tracker.record("COOKING", Duration.ofMinutes(20));
+
+        AdminStatsResponse.StageLatency cooking = tracker.snapshot().get("COOKING");
+
+        assertThat(cooking.getLast15Minutes().getCount()).isEqualTo(2);
+        assertThat(cooking.getLast15Minutes().getP50Ms()).isEqualTo(Duration.ofMinutes(20).toMillis());
+        assertThat(cooking.getLast15Minutes().getP95Ms()).isEqualTo(Duration.ofMinutes(30).toMillis());
+        assertThat(cooking.getLastHour().getCount()).isEqualTo(22);
+        assertThat(cooking.getLastHour().getP50Ms()).isEqualTo(110_000L);
+        assertThat(cooking.getLastHour().getP95Ms()).isEqualTo(Duration.ofMinutes(20).toMillis());
+    }
+
+    @Test
+    @DisplayName("Этапы старше часа вытесняются, пустой статус пропадает из ответа")
+    void oldSamplesExpire() {
+        tracker.record("DELIVERING", Duration.ofMinutes(25));
+        tracker.record("CONFIRMED", Duration.ofMinutes(2));
+        clock.advance(Duration.ofMinutes(50));
+        tracker.record("CONFIRMED", Duration.ofMinutes(4));
+        clock.advance(Duration.ofMinutes(16));
+
+        Map<String, AdminStatsResponse.StageLatency> snapshot = tracker.snapshot();
+
+        assertThat(snapshot).containsOnlyKeys("CONFIRMED");
+        assertThat(snapshot.get("CONFIRMED").getLastHour().getCount()).isEqualTo(1);
+        assertThat(snapshot.get("CONFIRMED").getLast15Minutes().getCount()).isZero();
+        assertThat(snapshot.get("CONFIRMED").getLast15Minutes().getP50Ms()).isNull();
+    }
+
+    @Test
+    @DisplayName("Этап пишется в один таймер orders.stage.duration, перцентили окон - из окон в памяти")
+    void recordsMicrometerMeters() {
+        tracker.record("PREPARING", Duration.ofMinutes(7));
+        clock.advance(Duration.ofMinutes(20));
+        tracker.record("PREPARING", Duration.ofMinutes(3));
+
+        assertThat(meterRegistry.get("orders.stage.duration").timers()).hasSize(1);
+        Timer timer = meterRegistry.get("orders.stage.duration").tags("stage", "PREPARING").timer();
+        assertThat(timer.count()).isEqualTo(2);
+
+        assertThat(windowGauge("15m", "0.95")).isEqualTo(180.0);
+        assertThat(windowGauge("1h", "0.95")).isEqualTo(420.0);
+        assertThat(windowGauge("1h", "0.5")).isEqualTo(180.0);
+
+        clock.advance(Duration.ofMinutes(16));
+        assertThat(windowGauge("15m", "0.5")).isNaN();
+    }
+
+    @Test
+    @DisplayName("При старте окна заполняются этапами за последний час из журнала")
+    void warmsUpFromHistory() {
+        when(historyRepository.findByChangedAtAfterAndDurationMsIsNotNullOrderByChangedAtAsc(any()))
+                .thenReturn(List.of(
+                        historyEntry("CONFIRMED", START.minus(Duration.ofMinutes(30)), 60_000L),
+                        historyEntry("CONFIRMED", START.minus(Duration.ofMinutes(5)), 180_000L)));
+
+        tracker.onApplicationReady();
+
+        AdminStatsResponse.StageLatency confirmed = tracker.snapshot().get("CONFIRMED");
+        assertThat(confirmed.getLastHour().getCount()).isEqualTo(2);
+        assertThat(confirmed.getLast15Minutes().getCount()).isEqualTo(1);
+        assertThat(confirmed.getLast15Minutes().getP95Ms()).isEqualTo(180_000L);
+    }
+
+    @Test
+    @DisplayName("Перцентиль по рангу для малых выборок")
+    void nearestRankPercentile() {
+        assertThat(StageLatencyTracker.percentile(new long[0], 0.5)).isNull();
+        assertThat(StageLatencyTracker.percentile(new long[] { 7 }, 0.95)).isEqualTo(7);
+        assertThat(StageLatencyTracker.percentile(new long[] { 1, 2, 3, 4 }, 0.5)).isEqualTo(2);
+        assertThat(StageLatencyTracker.percentile(new long[] { 1, 2, 3, 4 }, 0.95)).isEqualTo(4);
+    }
+
+    private double windowGauge(String window, String quantile) {
+        return meterRegistry.get("orders.stage.duration.window")
+                .tags("stage", "PREPARING", "window", window, "quantile", quantile)
+                .gauge()
+                .value();
+    }
+
+    private static OrderStatusHistory historyEntry(String fromStatus, Instant changedAt, long durationMs) {
+        return OrderStatusHistory.builder()
+                .orderId(1)
+                .fromStatus(fromStatus)
+                .toStatus("COOKING")
+                .changedAt(changedAt.atZone(TimeZoneUtils.MOSCOW_ZONE).toLocalDateTime())
+                .durationMs(durationMs)
+                .build();
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return TimeZoneUtils.MOSCOW_ZONE;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+/**
+ * @file: OutboxDispatcherTest.java
+ * @description: Модульные тесты доставки сообщений outbox и расчета повторов
+ * @dependencies: JUnit, Mockito, AssertJ
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service.outbox;
+
+import com.baganov.pizzanat.config.OutboxProperties;
+import com.baganov.pizzanat.entity.Order;
+import com.baganov.pizzanat.entity.OutboxMessage;
+import com.baganov.pizzanat.event.OutboxMessagesEnqueuedEvent;
+import com.baganov.pizzanat.repository.OrderRepository;
+import com.baganov.pizzanat.repository.OutboxMessageRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("OutboxDispatcher - доставка сообщений outbox")
+class OutboxDispatcherTest {
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private OutboxHandler handler;
+
+    private SimpleMeterRegistry meterRegistry;
+    private OutboxDispatcher dispatcher;
+    private final Order order = Order.builder().id(7).build();
+
+    @BeforeEach
+    void setUp() {
+        when(handler.destination()).thenReturn(OutboxMessage.Destination.CUSTOMER);
+        when(outboxService.loadOrder(7)).thenReturn(Optional.of(order));
+        when(outboxService.readPayload(any())).thenReturn(Map.of());
+        meterRegistry = new SimpleMeterRegistry();
+        dispatcher = new OutboxDispatcher(List.of(handler), outboxService, new OutboxProperties(), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    @DisplayName("После фиксации транзакции сообщение доставляется и помечается отправленным")
+    void deliversEnqueuedMessage() throws Exception {
+        OutboxMessage message = message(1L);
+        when(outboxService.claim(eq(OutboxMessage.Destination.CUSTOMER), anyInt()))
+                .thenReturn(List.of(message))
+                .thenReturn(List.of());
+
+        dispatcher.onMessagesEnqueued(new OutboxMessagesEnqueuedEvent(this, Set.of(OutboxMessage.Destination.CUSTOMER)));
+
+        verify(outboxService, timeout(2000)).markSent(1L);
+        verify(handler).handle(eq(message), eq(order), eq(Map.of()), any(OutboxDelivery.class));
+        verify(outboxService, never()).markFailed(eq(1L), any());
+        assertThat(meterRegistry.get("outbox.messages.sent").tag("destination", "CUSTOMER").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Ошибка обработчика фиксируется для повтора, сообщение не помечается отправленным")
+    void recordsFailure() throws Exception {
+        OutboxMessage message = message(2L);
+        when(outboxService.claim(eq(OutboxMessage.Destination.CUSTOMER), anyInt()))
+                .thenReturn(List.of(message))
+                .thenReturn(List.of());
+        doThrow(new IllegalStateException("Telegram недоступен"))
+                .when(handler).handle(eq(message), eq(order), eq(Map.of()), any(OutboxDelivery.class));
+
+        dispatcher.poll();
+
+        verify(outboxService, timeout(2000)).markFailed(2L, "Telegram недоступен");
+        verify(outboxService, never()).markSent(2L);
+    }
+
+    @Test
+    @DisplayName("Ошибка отправки одному получателю не прерывает рассылку и отправляет сообщение на повтор")
+    void partialDeliveryIsRetried() throws Exception {
+        OutboxMessage message = message(3L);
+        when(outboxService.claim(eq(OutboxMessage.Destination.CUSTOMER), anyInt()))
+                .thenReturn(List.of(message))
+                .thenReturn(List.of());
+        List<String> sent = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            OutboxDelivery delivery = invocation.getArgument(3);
+            delivery.send("admin:1", () -> {
+                throw new IllegalStateException("Telegram недоступен");
+            });
+            delivery.send("admin:2", () -> sent.add("admin:2"));
+            return null;
+        }).when(handler).handle(eq(message), eq(order), eq(Map.of()), any(OutboxDelivery.class));
+
+        dispatcher.poll();
+
+        verify(outboxService, timeout(2000)).markFailed(3L, "Telegram недоступен");
+        verify(outboxService).markRecipientDelivered(3L, "admin:2");
+        verify(outboxService, never()).markSent(3L);
+        assertThat(sent).containsExactly("admin:2");
+        assertThat(meterRegistry.get("outbox.messages.failed").tag("destination", "CUSTOMER").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Повтор доставляет сообщение только получателям, не получившим его раньше")
+    void retrySkipsDeliveredRecipients() throws Exception {
+        OutboxMessage message = message(4L);
+        when(outboxService.claim(eq(OutboxMessage.Destination.CUSTOMER), anyInt()))
+                .thenReturn(List.of(message))
+                .thenReturn(List.of());
+        when(outboxService.readDeliveredRecipients(message)).thenReturn(Set.of("admin:2"));
+        List<String> sent = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            OutboxDelivery delivery = invocation.getArgument(3);
+            delivery.send("admin:1", () -> sent.add("admin:1"));
+            delivery.send("admin:2", () -> sent.add("admin:2"));
+            return null;
+        }).when(handler).handle(eq(message), eq(order), eq(Map.of()), any(OutboxDelivery.class));
+
+        dispatcher.poll();
+
+        verify(outboxService, timeout(2000)).markSent(4L);
+        verify(outboxService).markRecipientDelivered(4L, "admin:1");
+        verify(outboxService, never()).markRecipientDelivered(4L, "admin:2");
+        verify(outboxService, never()).markFailed(eq(4L), any());
+        assertThat(sent).containsExactly("admin:1");
+    }
+
+    @Test
+    @DisplayName("За одну выборку забирается не больше сообщений, чем свободных потоков направления")
+    void claimsUpToConcurrency() {
+        when(outboxService.claim(eq(OutboxMessage.Destination.CUSTOMER), anyInt())).thenReturn(List.of());
+
+        dispatcher.poll();
+
+        verify(outboxService, timeout(2000)).claim(OutboxMessage.Destination.CUSTOMER, 4);
+    }
+
+    @Test
+    @DisplayName("Интервал повтора растет экспоненциально и ограничен сверху")
+    void backoffIsCapped() {
+        OutboxService service = new OutboxService(mock(OutboxMessageRepository.class), mock(OrderRepository.class),
+                emptyProvider(), mock(ApplicationEventPublisher.class), new ObjectMapper(), new OutboxProperties());
+
+        assertThat(service.backoff(1)).isEqualTo(Duration.ofSeconds(5));
+        assertThat(service.backoff(3)).isEqualTo(Duration.ofSeconds(20));
+        assertThat(service.backoff(30)).isEqualTo(Duration.ofMinutes(10));
+    }
+
+    private static OutboxMessage message(Long id) {
+        return OutboxMessage.builder()
+                .id(id)
+                .aggregateId(7)
+                .eventType(OutboxMessage.EventType.ORDER_CREATED)
+                .destination(OutboxMessage.Destination.CUSTOMER)
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ObjectProvider<OutboxHandler> emptyProvider() {
+        return mock(ObjectProvider.class);
+    }
+}
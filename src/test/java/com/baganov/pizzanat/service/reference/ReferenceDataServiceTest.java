@@ -0,0 +1,106 @@
+/**
+ * @file: ReferenceDataServiceTest.java
+ * @description: Модульные тесты для ReferenceDataService
+ * @dependencies: JUnit, Mockito
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service.reference;
+
+import com.baganov.pizzanat.entity.DeliveryLocation;
+import com.baganov.pizzanat.entity.OrderStatus;
+import com.baganov.pizzanat.entity.Role;
+import com.baganov.pizzanat.repository.DeliveryLocationRepository;
+import com.baganov.pizzanat.repository.OrderStatusRepository;
+import com.baganov.pizzanat.repository.RoleRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ReferenceDataService - справочники в памяти")
+class ReferenceDataServiceTest {
+
+    @Mock
+    private OrderStatusRepository orderStatusRepository;
+
+    @Mock
+    private RoleRepository roleRepository;
+
+    @Mock
+    private DeliveryLocationRepository deliveryLocationRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @InjectMocks
+    private ReferenceDataService referenceDataService;
+
+    private OrderStatus created;
+    private DeliveryLocation pickup;
+
+    @BeforeEach
+    void setUp() {
+        created = OrderStatus.builder().id(1).name("CREATED").description("Заказ создан").build();
+        pickup = DeliveryLocation.builder().id(10).name("Пиццерия").address("ул. Ленина, 1").isActive(true).build();
+
+        when(orderStatusRepository.findAll()).thenReturn(List.of(created));
+        when(roleRepository.findAll()).thenReturn(List.of(Role.builder().id(1).name("ROLE_USER").build()));
+        when(deliveryLocationRepository.findActivePickupLocations(ReferenceDataService.ADDRESS_LOCATION_PREFIX + "%"))
+                .thenReturn(List.of(pickup));
+        referenceDataService.refresh();
+    }
+
+    @Test
+    @DisplayName("Повторные запросы статусов и ролей обслуживаются из памяти")
+    void lookupsDoNotHitDatabase() {
+        for (int i = 0; i < 5; i++) {
+            assertThat(referenceDataService.findStatus(" created ")).contains(created);
+            assertThat(referenceDataService.findStatus(1)).contains(created);
+            assertThat(referenceDataService.findRole("ROLE_USER")).map(Role::getId).contains(1);
+        }
+
+        verify(orderStatusRepository, times(1)).findAll();
+        verify(roleRepository, times(1)).findAll();
+        verify(orderStatusRepository, never()).findByName(anyString());
+        verify(roleRepository, never()).findByName(anyString());
+    }
+
+    @Test
+    @DisplayName("Промах читается из БД и не перезагружает весь справочник")
+    void missFallsBackToRepository() {
+        OrderStatus paid = OrderStatus.builder().id(9).name("PAID").build();
+        when(orderStatusRepository.findByName("PAID")).thenReturn(Optional.of(paid));
+        when(orderStatusRepository.findByName("UNKNOWN")).thenReturn(Optional.empty());
+
+        assertThat(referenceDataService.findStatus("paid")).contains(paid);
+        assertThat(referenceDataService.findStatus("unknown")).isEmpty();
+
+        verify(orderStatusRepository, times(1)).findAll();
+    }
+
+    @Test
+    @DisplayName("Ссылки на статус и пункт выдачи выдаются через getReference")
+    void referencesUseEntityManager() {
+        OrderStatus statusRef = new OrderStatus();
+        DeliveryLocation locationRef = new DeliveryLocation();
+        when(entityManager.getReference(OrderStatus.class, 1)).thenReturn(statusRef);
+        when(entityManager.getReference(DeliveryLocation.class, 10)).thenReturn(locationRef);
+
+        assertThat(referenceDataService.statusReference("CREATED")).containsSame(statusRef);
+        assertThat(referenceDataService.locationReference(10)).containsSame(locationRef);
+        assertThat(referenceDataService.locationReference(11)).isEmpty();
+        verify(deliveryLocationRepository, never()).findById(anyInt());
+    }
+}
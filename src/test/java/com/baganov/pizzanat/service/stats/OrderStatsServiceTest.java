@@ -0,0 +1,76 @@
+/**
+ * @file: OrderStatsServiceTest.java
+ * @description: Модульные тесты сводки заказов за день
+ * @dependencies: JUnit, Mockito, AssertJ
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service.stats;
+
+import com.baganov.pizzanat.config.OrderStatsProperties;
+import com.baganov.pizzanat.model.dto.DailyOrderStats;
+import com.baganov.pizzanat.repository.OrderRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OrderStatsService - сводка заказов за день")
+class OrderStatsServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 10, 17);
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    private OrderStatsService orderStatsService;
+
+    @BeforeEach
+    void setUp() {
+        orderStatsService = new OrderStatsService(orderRepository, new OrderStatsProperties(),
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("Итоги и статусы собираются из одного GROUP BY по убыванию числа заказов")
+    void buildsStatsFromGroupedRows() {
+        when(orderRepository.sumByStatusCreatedBetween(DAY.atStartOfDay(), DAY.plusDays(1).atStartOfDay()))
+                .thenReturn(List.of(
+                        new Object[] { "CREATED", 2L, new BigDecimal("900.00") },
+                        new Object[] { "DELIVERED", 5L, new BigDecimal("2500.00") },
+                        new Object[] { "PENDING", 1L, new BigDecimal("300.00") }));
+
+        DailyOrderStats stats = orderStatsService.getDailyStats(DAY);
+
+        assertThat(stats.getDate()).isEqualTo("2026-10-17");
+        assertThat(stats.getTotalOrders()).isEqualTo(8);
+        assertThat(stats.getTotalRevenue()).isEqualByComparingTo("3700.00");
+        assertThat(stats.getStatuses()).containsOnlyKeys("DELIVERED", "CREATED", "PENDING");
+        assertThat(stats.getStatuses().keySet()).containsExactly("DELIVERED", "CREATED", "PENDING");
+        assertThat(stats.countOf("CREATED", "PENDING")).isEqualTo(3);
+        assertThat(stats.countOf("CANCELLED")).isZero();
+    }
+
+    @Test
+    @DisplayName("Повторный запрос в пределах TTL не обращается к БД")
+    void repeatedRequestsServedFromCache() {
+        when(orderRepository.sumByStatusCreatedBetween(any(), any())).thenReturn(List.of());
+
+        DailyOrderStats first = orderStatsService.getDailyStats(DAY);
+        DailyOrderStats second = orderStatsService.getDailyStats(DAY);
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.getTotalOrders()).isZero();
+        verify(orderRepository, times(1)).sumByStatusCreatedBetween(any(), any());
+    }
+}
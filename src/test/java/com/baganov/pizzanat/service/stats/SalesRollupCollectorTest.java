@@ -0,0 +1,144 @@
+/**
+ * @file: SalesRollupCollectorTest.java
+ * @description: Модульные тесты сбора приращений агрегатов продаж
+ * @dependencies: JUnit, Mockito, AssertJ
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service.stats;
+
+import com.baganov.pizzanat.config.SalesRollupProperties;
+import com.baganov.pizzanat.entity.Order;
+import com.baganov.pizzanat.entity.OrderItem;
+import com.baganov.pizzanat.entity.OrderStatus;
+import com.baganov.pizzanat.entity.Product;
+import com.baganov.pizzanat.event.NewOrderEvent;
+import com.baganov.pizzanat.event.OrderStatusChangedEvent;
+import com.baganov.pizzanat.service.reference.ReferenceDataService;
+import com.baganov.pizzanat.util.TimeZoneUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SalesRollupCollector - приращения агрегатов продаж")
+class SalesRollupCollectorTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2026, 10, 17, 12, 30);
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 10, 17, 12, 30, 5);
+
+    @Mock
+    private SalesRollupService salesRollupService;
+
+    @Mock
+    private ReferenceDataService referenceDataService;
+
+    private SalesRollupCollector collector;
+
+    @BeforeEach
+    void setUp() {
+        Clock clock = Clock.fixed(NOW.atZone(TimeZoneUtils.MOSCOW_ZONE).toInstant(), TimeZoneUtils.MOSCOW_ZONE);
+        collector = new SalesRollupCollector(salesRollupService, referenceDataService, new SalesRollupProperties(),
+                clock);
+    }
+
+    @Test
+    @DisplayName("Заказы и смены статуса объединяются в одно приращение до записи")
+    void mergesEventsIntoSingleDelta() {
+        OrderStatus created = OrderStatus.builder().id(1).name("CREATED").build();
+        when(referenceDataService.findStatus(1)).thenReturn(Optional.of(created));
+
+        collector.onNewOrder(new NewOrderEvent(this, order(1, created, new BigDecimal("500.00"), 7, 2,
+                new BigDecimal("250.00"))));
+        collector.onNewOrder(new NewOrderEvent(this, order(2, created, new BigDecimal("250.00"), 7, 1,
+                new BigDecimal("250.00"))));
+        collector.onOrderStatusChanged(new OrderStatusChangedEvent(this, 1, "CREATED", "CONFIRMED"));
+        collector.flush();
+
+        SalesRollupDelta delta = captureApplied();
+        SalesRollupDelta.Totals hour = delta.getHourly().get(LocalDateTime.of(2026, 10, 17, 12, 0));
+        assertThat(hour.getCount()).isEqualTo(2);
+        assertThat(hour.getAmount()).isEqualByComparingTo("750.00");
+        assertThat(delta.getDaily().get(LocalDate.of(2026, 10, 17)).getCount()).isEqualTo(2);
+        SalesRollupDelta.Totals product = delta.getProducts()
+                .get(new SalesRollupDelta.ProductDay(LocalDate.of(2026, 10, 17), 7));
+        assertThat(product.getCount()).isEqualTo(3);
+        assertThat(product.getAmount()).isEqualByComparingTo("750.00");
+        assertThat(delta.getStatuses()).isEqualTo(Map.of("CREATED", 1L, "CONFIRMED", 1L));
+    }
+
+    @Test
+    @DisplayName("Взаимно погашенные смены статуса не записываются")
+    void cancelledStatusChangesAreNotWritten() {
+        collector.onOrderStatusChanged(new OrderStatusChangedEvent(this, 1, "CREATED", "CONFIRMED"));
+        collector.onOrderStatusChanged(new OrderStatusChangedEvent(this, 1, "CONFIRMED", "CREATED"));
+        collector.flush();
+
+        verifyNoInteractions(salesRollupService);
+    }
+
+    @Test
+    @DisplayName("Неудачная запись возвращает приращения в очередь")
+    void failedFlushRestoresPending() {
+        doThrow(new IllegalStateException("duplicate key")).doNothing().when(salesRollupService)
+                .applyCollected(any());
+
+        collector.onOrderStatusChanged(new OrderStatusChangedEvent(this, 1, "CREATED", "CONFIRMED"));
+        collector.flush();
+        collector.onOrderStatusChanged(new OrderStatusChangedEvent(this, 2, "CREATED", "CONFIRMED"));
+        collector.flush();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<SortedMap<LocalDateTime, SalesRollupDelta>> captor = ArgumentCaptor.forClass(SortedMap.class);
+        verify(salesRollupService, times(2)).applyCollected(captor.capture());
+        assertThat(captor.getAllValues().get(1).get(NOW).getStatuses())
+                .isEqualTo(Map.of("CREATED", -2L, "CONFIRMED", 2L));
+    }
+
+    @Test
+    @DisplayName("Сверка не записывает приращения: их пересчитанную часть отбросит следующая запись")
+    void reconcileLeavesPendingToFlush() {
+        when(salesRollupService.reconcile(LocalDate.of(2026, 10, 14), LocalDate.of(2026, 10, 17))).thenReturn(true);
+        collector.onOrderStatusChanged(new OrderStatusChangedEvent(this, 1, "CREATED", "CONFIRMED"));
+
+        collector.reconcile();
+
+        verify(salesRollupService, never()).applyCollected(any());
+        collector.flush();
+        assertThat(captureApplied().getStatuses()).isEqualTo(Map.of("CREATED", -1L, "CONFIRMED", 1L));
+    }
+
+    private SalesRollupDelta captureApplied() {
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<SortedMap<LocalDateTime, SalesRollupDelta>> captor = ArgumentCaptor.forClass(SortedMap.class);
+        verify(salesRollupService).applyCollected(captor.capture());
+        assertThat(captor.getValue()).containsOnlyKeys(NOW);
+        return captor.getValue().get(NOW);
+    }
+
+    private static Order order(int id, OrderStatus status, BigDecimal total, int productId, int quantity,
+            BigDecimal price) {
+        Order order = Order.builder().id(id).status(status).totalAmount(total).createdAt(CREATED_AT).build();
+        order.getItems().add(OrderItem.builder()
+                .product(Product.builder().id(productId).build())
+                .quantity(quantity)
+                .price(price)
+                .build());
+        return order;
+    }
+}
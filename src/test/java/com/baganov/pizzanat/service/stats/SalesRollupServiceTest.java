@@ -0,0 +1,124 @@
+/**
+ * @file: SalesRollupServiceTest.java
+ * @description: Модульные тесты записи приращений и сверки агрегатов продаж
+ * @dependencies: JUnit, Mockito, AssertJ
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.service.stats;
+
+import com.baganov.pizzanat.entity.SalesRollupState;
+import com.baganov.pizzanat.repository.OrderRepository;
+import com.baganov.pizzanat.repository.SalesDailyProductRollupRepository;
+import com.baganov.pizzanat.repository.SalesDailyRollupRepository;
+import com.baganov.pizzanat.repository.SalesHourlyRollupRepository;
+import com.baganov.pizzanat.repository.SalesRollupStateRepository;
+import com.baganov.pizzanat.repository.SalesStatusRollupRepository;
+import com.baganov.pizzanat.service.reference.ReferenceDataService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SalesRollupService - запись приращений и сверка")
+class SalesRollupServiceTest {
+
+    private static final LocalDate FROM = LocalDate.of(2026, 10, 14);
+    private static final LocalDate TO = LocalDate.of(2026, 10, 17);
+    private static final LocalDateTime RECONCILED_AT = LocalDateTime.of(2026, 10, 17, 4, 45, 0);
+
+    @Mock
+    private SalesHourlyRollupRepository hourlyRepository;
+    @Mock
+    private SalesDailyRollupRepository dailyRepository;
+    @Mock
+    private SalesDailyProductRollupRepository productRepository;
+    @Mock
+    private SalesStatusRollupRepository statusRepository;
+    @Mock
+    private SalesRollupStateRepository stateRepository;
+    @Mock
+    private OrderRepository orderRepository;
+    @Mock
+    private ReferenceDataService referenceDataService;
+    @Mock
+    private EntityManager entityManager;
+
+    @InjectMocks
+    private SalesRollupService salesRollupService;
+
+    @Test
+    @DisplayName("Приращения, собранные до сверки на другом узле, не добавляются к пересчитанным статусам и дням")
+    void dropsReconciledPartOfDeltasCollectedBeforeReconcile() {
+        when(stateRepository.findForUpdate(SalesRollupState.ID))
+                .thenReturn(Optional.of(new SalesRollupState(SalesRollupState.ID, RECONCILED_AT, FROM, TO)));
+
+        SalesRollupDelta before = new SalesRollupDelta();
+        before.addStatus("CREATED", -1);
+        before.addStatus("CONFIRMED", 1);
+        before.addOrder(LocalDateTime.of(2026, 10, 16, 23, 59), new BigDecimal("500.00"));
+        before.addOrder(LocalDateTime.of(2026, 10, 17, 4, 44), new BigDecimal("300.00"));
+        SalesRollupDelta after = new SalesRollupDelta();
+        after.addStatus("CONFIRMED", -1);
+        after.addStatus("DELIVERED", 1);
+        when(hourlyRepository.increment(any(), anyLong(), any())).thenReturn(1);
+        when(dailyRepository.increment(any(), anyLong(), any())).thenReturn(1);
+        when(statusRepository.increment(any(), anyLong())).thenReturn(1);
+
+        TreeMap<LocalDateTime, SalesRollupDelta> collected = new TreeMap<>();
+        collected.put(RECONCILED_AT.minusSeconds(1), before);
+        collected.put(RECONCILED_AT, after);
+        salesRollupService.applyCollected(collected);
+
+        verify(statusRepository).increment("CONFIRMED", -1);
+        verify(statusRepository).increment("DELIVERED", 1);
+        verify(statusRepository, never()).increment(eq("CREATED"), anyLong());
+        verify(dailyRepository).increment(eq(TO), eq(1L), any());
+        verify(dailyRepository, never()).increment(eq(LocalDate.of(2026, 10, 16)), anyLong(), any());
+        verify(hourlyRepository).increment(eq(LocalDateTime.of(2026, 10, 17, 4, 0)), eq(1L), any());
+    }
+
+    @Test
+    @DisplayName("Период, уже сверенный другим узлом, повторно не пересчитывается")
+    void skipsPeriodReconciledByAnotherNode() {
+        SalesRollupState state = new SalesRollupState(SalesRollupState.ID, RECONCILED_AT, FROM, TO);
+        when(stateRepository.findForUpdate(SalesRollupState.ID)).thenReturn(Optional.of(state));
+
+        assertThat(salesRollupService.reconcile(FROM, TO)).isFalse();
+
+        assertThat(state.getReconciledAt()).isEqualTo(RECONCILED_AT);
+        verify(statusRepository, never()).deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Сверка запоминает момент начала и период под блокировкой строки состояния")
+    void reconcileRecordsStartUnderLock() {
+        SalesRollupState state = new SalesRollupState(SalesRollupState.ID, RECONCILED_AT.minusDays(1),
+                FROM.minusDays(1), TO.minusDays(1));
+        when(stateRepository.findForUpdate(SalesRollupState.ID)).thenReturn(Optional.of(state));
+
+        assertThat(salesRollupService.reconcile(FROM, TO)).isTrue();
+
+        assertThat(state.getReconciledAt()).isAfter(RECONCILED_AT.minusDays(1));
+        assertThat(state.getReconciledFrom()).isEqualTo(FROM);
+        assertThat(state.getReconciledTo()).isEqualTo(TO);
+        verify(statusRepository).deleteAllInBatch();
+    }
+}
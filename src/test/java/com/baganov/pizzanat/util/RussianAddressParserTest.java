@@ -0,0 +1,85 @@
+/**
+ * @file: RussianAddressParserTest.java
+ * @description: Тесты разбора адресов по корпусу address-corpus.csv и ключей адресов
+ * @dependencies: JUnit, AssertJ
+ * @created: 2026-10-17
+ */
+package com.baganov.pizzanat.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvFileSource;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("RussianAddressParser - разбор адресов")
+class RussianAddressParserTest {
+
+    @ParameterizedTest(name = "{0}")
+    @CsvFileSource(resources = "/address/address-corpus.csv", delimiter = '|')
+    @DisplayName("Адреса корпуса разбираются на населенный пункт, улицу, дом, корпус и литеру")
+    void parsesCorpus(String input, String locality, String streetType, String street, Integer house,
+            String building, String letter) {
+        assertThat(RussianAddressParser.parse(input))
+                .isEqualTo(new ParsedAddress(locality, streetType, street, house, building, letter));
+    }
+
+    @ParameterizedTest(name = "{0} = {1}")
+    @CsvSource(delimiter = '|', value = {
+            "ул. Ленина, д. 5|Ленина 5",
+            "улица Ленина, дом 5, кв. 3|ленина 5 подъезд 1",
+            "Республика Марий Эл, Волжск, улица Ленина, 5|г. Волжск, ул. Ленина, д.5",
+            "Ленина 5А|ул. Ленина, д. 5 а",
+            "Ленина 5к2|Ленина, 5, корпус 2",
+            "Пугачёва 3|ПУГАЧЕВА 3" })
+    @DisplayName("Разные записи одного дома дают один ключ")
+    void sameHouseHasSameKey(String first, String second) {
+        assertThat(RussianAddressParser.parse(first).key()).isEqualTo(RussianAddressParser.parse(second).key());
+    }
+
+    @ParameterizedTest(name = "{0} != {1}")
+    @CsvSource(delimiter = '|', value = {
+            "Ленина 5|Ленина 7",
+            "Ленина 5|Ленина 5а",
+            "Ленина 5|Ленина 5к2",
+            "улица Ленина 5|проспект Ленина 5",
+            "Волжск, Ленина 5|Москва, Ленина 5" })
+    @DisplayName("Разные дома, типы улиц и населенные пункты дают разные ключи")
+    void differentHousesHaveDifferentKeys(String first, String second) {
+        assertThat(RussianAddressParser.parse(first).key()).isNotEqualTo(RussianAddressParser.parse(second).key());
+    }
+
+    @Test
+    @DisplayName("Текст для поиска зоны - населенный пункт и улица без типа")
+    void buildsSearchText() {
+        assertThat(RussianAddressParser.parse("г. Волжск, ул. Ленина, д. 5, кв. 3").searchText())
+                .isEqualTo("волжск, ленина");
+        assertThat(RussianAddressParser.parse("  улица   ленина,  д. 5 ").searchText()).isEqualTo("ленина");
+    }
+
+    @Test
+    @DisplayName("Названия улиц и ключевые слова зон нормализуются по тем же правилам")
+    void normalizesRuleText() {
+        assertThat(RussianAddressParser.normalize("Ул. Мира  Шестакова")).isEqualTo("мира шестакова");
+        assertThat(RussianAddressParser.normalize("Волжский район,г. Волжск")).isEqualTo("волжский район, волжск");
+        assertThat(RussianAddressParser.normalize(" улица ")).isNull();
+    }
+
+    @Test
+    @DisplayName("Тип улицы в начале названия убирается с сохранением регистра")
+    void stripsLeadingStreetType() {
+        assertThat(RussianAddressParser.stripStreetType("улица 107-й Бригады")).isEqualTo("107-й Бригады");
+        assertThat(RussianAddressParser.stripStreetType("микрорайон Дубрава")).isEqualTo("Дубрава");
+        assertThat(RussianAddressParser.stripStreetType("Ленина")).isEqualTo("Ленина");
+    }
+
+    @Test
+    @DisplayName("Пустой адрес")
+    void emptyAddress() {
+        assertThat(RussianAddressParser.parse(null)).isSameAs(ParsedAddress.EMPTY);
+        assertThat(RussianAddressParser.parse("  ,  ").isEmpty()).isTrue();
+        assertThat(RussianAddressParser.parse(" ").searchText()).isEmpty();
+    }
+}